@@ -0,0 +1,23 @@
+-- =================================================================
+-- Patch: Prior Actor Index
+-- Reason: Sticky assignment looks up the last actor per (business key or
+--         case, role) from a compact side table written on task
+--         completion, instead of scanning the finished task history with
+--         its local variables on every task creation.
+-- Date: 2026-10-17
+-- =================================================================
+
+CREATE TABLE prior_actor (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    process_instance_id VARCHAR(64) NOT NULL,
+    business_key VARCHAR(255),
+    role_code VARCHAR(255),
+    user_id VARCHAR(255) NOT NULL,
+    workflow_code VARCHAR(255),
+    stage_code VARCHAR(255),
+    task_id VARCHAR(255),
+    completed_at TIMESTAMP
+);
+
+CREATE INDEX idx_pa_case_role ON prior_actor (process_instance_id, role_code);
+CREATE INDEX idx_pa_bkey_role ON prior_actor (business_key, role_code);
@@ -0,0 +1,15 @@
+-- =================================================================
+-- Patch: Configuration Snapshot Version Counter
+-- Reason: workflow-service keeps an in-memory snapshot of workflow/stage/
+--         action/screen configuration. Every config write bumps this counter
+--         in the same transaction; other nodes poll it to refresh.
+-- Date: 2026-10-17
+-- =================================================================
+
+CREATE TABLE config_version (
+    id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP
+);
+
+INSERT INTO config_version (id, version, updated_at) VALUES (1, 0, CURRENT_TIMESTAMP);
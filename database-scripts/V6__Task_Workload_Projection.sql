@@ -0,0 +1,25 @@
+-- =================================================================
+-- Patch: Task Workload Projection
+-- Reason: Open user tasks projected from Flowable task events so the
+--         workload endpoints read per-user/per-group counts without
+--         scanning ACT_RU_TASK and process variables.
+-- Date: 2026-10-17
+-- =================================================================
+
+CREATE TABLE task_workload_projection (
+    task_id VARCHAR(64) PRIMARY KEY,
+    case_id VARCHAR(64) NOT NULL,
+    process_definition_id VARCHAR(255),
+    stage_name VARCHAR(255),
+    stage_code VARCHAR(255),
+    workflow_name VARCHAR(255),
+    assignee VARCHAR(255),
+    candidate_groups TEXT,
+    created_time TIMESTAMP,
+    due_date TIMESTAMP
+);
+
+CREATE INDEX idx_twp_assignee ON task_workload_projection (assignee);
+
+-- The projection is rebuilt from the engine on first start when empty,
+-- or on demand via POST /api/runtime/stats/workload/rebuild
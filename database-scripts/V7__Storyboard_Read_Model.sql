@@ -0,0 +1,23 @@
+-- =================================================================
+-- Patch: Storyboard Read Model
+-- Reason: Storyboard lanes are served from projections maintained by task
+--         events instead of scanning active and historic tasks per call.
+--         WIP lane needs the task-local status; the CLOSED lane keeps a
+--         bounded window of recently completed tasks.
+-- Date: 2026-10-17
+-- =================================================================
+
+ALTER TABLE task_workload_projection ADD COLUMN status VARCHAR(255);
+
+CREATE TABLE storyboard_closed_task (
+    task_id VARCHAR(64) PRIMARY KEY,
+    assignee VARCHAR(255) NOT NULL,
+    case_id VARCHAR(64),
+    stage_name VARCHAR(255),
+    stage_code VARCHAR(255),
+    workflow_name VARCHAR(255),
+    created_time TIMESTAMP,
+    end_time TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_sct_end_time ON storyboard_closed_task (end_time);
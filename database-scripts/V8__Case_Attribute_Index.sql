@@ -0,0 +1,22 @@
+-- =================================================================
+-- Patch: Case Attribute Index
+-- Reason: Case and task history searches by initiator, cp_id and other
+--         business variables resolve case ids from a narrow indexed side
+--         table instead of joining the engine variable tables.
+--         Extra searchable variables are configured per workflow.
+-- Date: 2026-10-17
+-- =================================================================
+
+ALTER TABLE workflow_master ADD COLUMN indexed_attributes VARCHAR(1000);
+
+CREATE TABLE case_attribute (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    case_id VARCHAR(64) NOT NULL,
+    workflow_code VARCHAR(255),
+    attr_name VARCHAR(255) NOT NULL,
+    attr_value VARCHAR(255),
+    updated_at TIMESTAMP,
+    CONSTRAINT uk_ca_case_attr UNIQUE (case_id, attr_name)
+);
+
+CREATE INDEX idx_ca_lookup ON case_attribute (attr_name, attr_value, case_id);
@@ -0,0 +1,17 @@
+-- =================================================================
+-- Patch: Round Robin Cursor
+-- Reason: Round-robin assignment advances a per (workflow, stage, pool)
+--         cursor instead of querying the last finished task from
+--         ACT_HI_TASKINST on every task creation. In clustered mode the
+--         row is advanced by an atomic increment of position.
+-- Date: 2026-10-17
+-- =================================================================
+
+CREATE TABLE assignment_cursor (
+    cursor_key VARCHAR(512) PRIMARY KEY,
+    workflow_code VARCHAR(255),
+    stage_code VARCHAR(255),
+    pool_code VARCHAR(255),
+    position BIGINT NOT NULL,
+    updated_at TIMESTAMP
+);
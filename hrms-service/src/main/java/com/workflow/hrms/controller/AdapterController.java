@@ -15,12 +15,15 @@ import org.springframework.web.bind.annotation.*;
 import java.math.BigDecimal;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/adapter")
 @RequiredArgsConstructor
 public class AdapterController {
 
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final MatrixResolutionService resolutionService;
     private final EmployeeMasterRepository employeeRepo;
     private final EmployeeMatrixAssignmentRepository matrixRepo;
@@ -30,6 +33,27 @@ public class AdapterController {
         return ResponseEntity.ok(resolutionService.resolveUsers(request));
     }
 
+    /**
+     * Resolves many requests in one call; results are in request order. An invalid request
+     * (unknown region, product...) yields an empty result with the reason instead of failing the batch.
+     */
+    @PostMapping("/resolve-users/batch")
+    public ResponseEntity<?> resolveUsersBatch(@RequestBody List<ResolutionRequest> requests) {
+        if (requests.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body("Batch exceeds " + MAX_BATCH_SIZE + " requests");
+        }
+        List<ResolutionResponse> responses = new java.util.ArrayList<>(requests.size());
+        for (ResolutionRequest request : requests) {
+            try {
+                responses.add(resolutionService.resolveUsers(request));
+            } catch (IllegalArgumentException e) {
+                responses.add(new ResolutionResponse(java.util.Collections.emptyList(),
+                        Objects.requireNonNullElse(e.getMessage(), "invalid request")));
+            }
+        }
+        return ResponseEntity.ok(responses);
+    }
+
     @GetMapping("/role-members")
     public ResponseEntity<List<String>> getRoleMembers(@RequestParam String role) {
         List<String> userIds = matrixRepo.findByRoleRoleCode(role).stream()
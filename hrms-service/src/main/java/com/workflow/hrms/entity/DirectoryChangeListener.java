@@ -0,0 +1,39 @@
+package com.workflow.hrms.entity;
+
+import com.workflow.hrms.service.DirectoryChangeNotifier;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JPA listener on {@link EmployeeMaster} and {@link EmployeeMatrixAssignment}; forwards every
+ * write to {@link DirectoryChangeNotifier}. Instantiated by Spring through Hibernate's bean container.
+ */
+@RequiredArgsConstructor
+public class DirectoryChangeListener {
+
+    private final DirectoryChangeNotifier notifier;
+
+    @PostPersist
+    @PostRemove
+    public void onInsertOrDelete(Object entity) {
+        if (entity instanceof EmployeeMatrixAssignment assignment) {
+            if (assignment.getRole() != null) {
+                notifier.roleChanged(assignment.getRole().getRoleCode());
+            }
+        } else if (entity instanceof EmployeeMaster employee) {
+            notifier.userChanged(employee.getEmployeeId());
+        }
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        if (entity instanceof EmployeeMatrixAssignment) {
+            // The previous role is no longer known here; let workflow-service reload everything
+            notifier.allChanged();
+        } else if (entity instanceof EmployeeMaster employee) {
+            notifier.userChanged(employee.getEmployeeId());
+        }
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 
 @Entity
 @Data
+@EntityListeners({DirectoryChangeListener.class, MatrixChangeListener.class})
 @Table(name = "employee_master")
 public class EmployeeMaster {
     @Id
@@ -6,6 +6,7 @@ import java.math.BigDecimal;
 
 @Entity
 @Data
+@EntityListeners({DirectoryChangeListener.class, MatrixChangeListener.class})
 @Table(name = "employee_matrix_assignment")
 public class EmployeeMatrixAssignment {
     @Id
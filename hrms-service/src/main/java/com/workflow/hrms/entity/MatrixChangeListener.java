@@ -0,0 +1,24 @@
+package com.workflow.hrms.entity;
+
+import com.workflow.hrms.service.MatrixChangeTracker;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JPA listener on every entity the authority matrix index is compiled from.
+ * Instantiated by Spring through Hibernate's bean container.
+ */
+@RequiredArgsConstructor
+public class MatrixChangeListener {
+
+    private final MatrixChangeTracker tracker;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        tracker.markChanged();
+    }
+}
@@ -6,6 +6,7 @@ import java.util.List;
 
 @Entity
 @Data
+@EntityListeners(MatrixChangeListener.class)
 @Table(name = "ref_business_segment")
 public class RefBusinessSegment {
     @Id
@@ -5,6 +5,7 @@ import lombok.Data;
 
 @Entity
 @Data
+@EntityListeners(MatrixChangeListener.class)
 @Table(name = "ref_business_sub_segment")
 public class RefBusinessSubSegment {
     @Id
@@ -5,6 +5,7 @@ import lombok.Data;
 
 @Entity
 @Data
+@EntityListeners(MatrixChangeListener.class)
 @Table(name = "ref_product")
 public class RefProduct {
     @Id
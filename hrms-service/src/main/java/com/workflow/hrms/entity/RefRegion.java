@@ -5,6 +5,7 @@ import lombok.Data;
 
 @Entity
 @Data
+@EntityListeners(MatrixChangeListener.class)
 @Table(name = "ref_region")
 public class RefRegion {
     @Id
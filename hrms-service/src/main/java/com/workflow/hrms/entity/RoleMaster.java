@@ -6,6 +6,7 @@ import java.math.BigDecimal;
 
 @Entity
 @Data
+@EntityListeners(MatrixChangeListener.class)
 @Table(name = "role_master")
 public class RoleMaster {
     @Id
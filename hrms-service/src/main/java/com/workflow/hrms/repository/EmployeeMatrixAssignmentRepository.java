@@ -2,6 +2,7 @@ package com.workflow.hrms.repository;
 
 import com.workflow.hrms.entity.EmployeeMatrixAssignment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,4 +12,10 @@ public interface EmployeeMatrixAssignmentRepository extends JpaRepository<Employ
     List<EmployeeMatrixAssignment> findByRoleRoleCodeAndScopeRegionRegionIdIn(String roleCode, List<Long> regionIds);
     List<EmployeeMatrixAssignment> findByEmployeeEmployeeId(String employeeId);
     List<EmployeeMatrixAssignment> findByRoleRoleCode(String roleCode);
+
+    // Whole matrix in one statement for the resolution index (the eager graph would otherwise load row by row)
+    @Query("SELECT a FROM EmployeeMatrixAssignment a JOIN FETCH a.employee JOIN FETCH a.role JOIN FETCH a.scopeRegion"
+            + " LEFT JOIN FETCH a.scopeProduct LEFT JOIN FETCH a.scopeSegment LEFT JOIN FETCH a.scopeSubSegment"
+            + " LEFT JOIN FETCH a.reportingManager")
+    List<EmployeeMatrixAssignment> findAllForIndex();
 }
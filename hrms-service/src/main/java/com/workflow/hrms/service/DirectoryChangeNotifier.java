@@ -0,0 +1,113 @@
+package com.workflow.hrms.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tells workflow-service to drop its cached role members / user names when assignments or
+ * employees change. Changes are collected after commit and sent in one call per flush
+ * interval, so a bulk load costs one request. Delivery is best effort: workflow-service
+ * also expires its cache by TTL.
+ */
+@Service
+@Slf4j
+public class DirectoryChangeNotifier {
+
+    private final RestTemplate restTemplate;
+    private final Set<String> pendingRoles = new HashSet<>();
+    private final Set<String> pendingUsers = new HashSet<>();
+    private boolean pendingAll;
+
+    @Value("${hrms.directory-notify.enabled:true}")
+    private boolean enabled;
+
+    @Value("${hrms.directory-notify.url:http://localhost:8081/api/runtime/directory/invalidate}")
+    private String notifyUrl;
+
+    public DirectoryChangeNotifier(RestTemplateBuilder restTemplateBuilder) {
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofSeconds(2))
+                .setReadTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public void roleChanged(String roleCode) {
+        afterCommit(() -> {
+            synchronized (this) {
+                pendingRoles.add(roleCode);
+            }
+        });
+    }
+
+    public void userChanged(String employeeId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                pendingUsers.add(employeeId);
+            }
+        });
+    }
+
+    public void allChanged() {
+        afterCommit(() -> {
+            synchronized (this) {
+                pendingAll = true;
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${hrms.directory-notify.flush-interval-ms:1000}")
+    public void flush() {
+        Map<String, Object> body = new HashMap<>();
+        synchronized (this) {
+            if (!pendingAll && pendingRoles.isEmpty() && pendingUsers.isEmpty()) {
+                return;
+            }
+            if (pendingAll) {
+                body.put("all", true);
+            } else {
+                body.put("roles", new ArrayList<>(pendingRoles));
+                body.put("userIds", new ArrayList<>(pendingUsers));
+            }
+            pendingAll = false;
+            pendingRoles.clear();
+            pendingUsers.clear();
+        }
+        if (!enabled) {
+            return;
+        }
+        try {
+            restTemplate.postForLocation(notifyUrl, body);
+            log.debug("Directory change sent to workflow-service: {}", body);
+        } catch (Exception e) {
+            // Not retried: the workflow-service cache TTL bounds the staleness
+            log.warn("Failed to notify workflow-service of directory change: {}", e.getMessage());
+        }
+    }
+
+    // Notifying before commit would let workflow-service reload and cache the old data
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
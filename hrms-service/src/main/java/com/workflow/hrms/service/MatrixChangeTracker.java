@@ -0,0 +1,35 @@
+package com.workflow.hrms.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counter for the data behind {@link MatrixIndex}. Bumped after commit of any write to
+ * assignments, employees, roles or reference data; a stale index is rebuilt on the next resolution.
+ * Kept free of dependencies so JPA entity listeners can use it while the persistence unit starts.
+ */
+@Component
+public class MatrixChangeTracker {
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long currentVersion() {
+        return version.get();
+    }
+
+    public void markChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+}
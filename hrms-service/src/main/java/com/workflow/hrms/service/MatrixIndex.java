@@ -0,0 +1,224 @@
+package com.workflow.hrms.service;
+
+import com.workflow.hrms.entity.*;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Immutable, compiled view of the authority matrix used by {@link MatrixResolutionService}.
+ * <p>
+ * Layout: role code -> region id -> scope bucket (product / sub-segment / segment / global).
+ * All entries in one bucket share the same specificity (scope weight + region depth), so a
+ * bucket only needs its entries sorted by approval limit: the covering approver is found with
+ * a binary search on the amount. Built once from the repositories and swapped atomically.
+ */
+final class MatrixIndex {
+
+    static final int PRODUCT_WEIGHT = 100;
+    static final int SUB_SEGMENT_WEIGHT = 75;
+    static final int SEGMENT_WEIGHT = 50;
+
+    record Region(long id, String name, List<Long> chain, int depth) {
+    }
+
+    record Product(long id, Long segmentId) {
+    }
+
+    record SubSegment(long id, Long segmentId) {
+    }
+
+    record Entry(String employeeId, String fullName, String roleName, String regionName,
+            BigDecimal approvalLimit, int specificity) {
+    }
+
+    /**
+     * Entries of one bucket, approval limit ascending (unlimited/null first).
+     */
+    static final class Bucket {
+        private final Entry[] entries;
+        private final int firstLimited; // index of the first entry with a non-null limit
+
+        Bucket(List<Entry> unsorted) {
+            this.entries = unsorted.stream()
+                    .sorted(Comparator.comparing(Entry::approvalLimit, Comparator.nullsFirst(Comparator.naturalOrder()))
+                            .thenComparing(Entry::employeeId))
+                    .toArray(Entry[]::new);
+            int i = 0;
+            while (i < entries.length && entries[i].approvalLimit() == null) {
+                i++;
+            }
+            this.firstLimited = i;
+        }
+
+        /**
+         * Lowest entry whose limit covers the amount; any entry when no amount is given.
+         */
+        Entry lowestCovering(BigDecimal amount) {
+            if (entries.length == 0) {
+                return null;
+            }
+            if (amount == null || amount.signum() == 0) {
+                return entries[0];
+            }
+            int lo = firstLimited;
+            int hi = entries.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (entries[mid].approvalLimit().compareTo(amount) >= 0) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo < entries.length ? entries[lo] : null;
+        }
+    }
+
+    static final class RegionBuckets {
+        final Map<Long, Bucket> byProduct;
+        final Map<Long, Bucket> bySubSegment;
+        final Map<Long, Bucket> bySegment;
+        final Bucket global;
+
+        RegionBuckets(Map<Long, Bucket> byProduct, Map<Long, Bucket> bySubSegment,
+                Map<Long, Bucket> bySegment, Bucket global) {
+            this.byProduct = byProduct;
+            this.bySubSegment = bySubSegment;
+            this.bySegment = bySegment;
+            this.global = global;
+        }
+    }
+
+    final long version;
+    final Map<String, Region> regionsByName;
+    final Map<String, Product> productsByName;
+    final Map<String, Long> segmentsByName;
+    final Map<String, SubSegment> subSegmentsByName;
+    final Map<String, Map<Long, RegionBuckets>> byRole;
+
+    private MatrixIndex(long version, Map<String, Region> regionsByName, Map<String, Product> productsByName,
+            Map<String, Long> segmentsByName, Map<String, SubSegment> subSegmentsByName,
+            Map<String, Map<Long, RegionBuckets>> byRole) {
+        this.version = version;
+        this.regionsByName = regionsByName;
+        this.productsByName = productsByName;
+        this.segmentsByName = segmentsByName;
+        this.subSegmentsByName = subSegmentsByName;
+        this.byRole = byRole;
+    }
+
+    static MatrixIndex build(long version, List<RefRegion> regions, List<RefProduct> products,
+            List<RefBusinessSegment> segments, List<RefBusinessSubSegment> subSegments,
+            List<EmployeeMatrixAssignment> assignments) {
+        Map<String, Region> regionsByName = new HashMap<>();
+        Map<Long, Region> regionsById = new HashMap<>();
+        for (RefRegion r : regions) {
+            if (r.getRegionId() == null) {
+                continue;
+            }
+            String path = r.getPath() != null ? r.getPath() : "";
+            Region region = new Region(r.getRegionId(), r.getRegionName(), parseRegionPath(path), path.length());
+            regionsById.put(region.id(), region);
+            if (r.getRegionName() != null) {
+                regionsByName.putIfAbsent(r.getRegionName(), region);
+            }
+        }
+
+        Map<String, Product> productsByName = new HashMap<>();
+        for (RefProduct p : products) {
+            if (p.getProductId() == null || p.getProductName() == null) {
+                continue;
+            }
+            productsByName.putIfAbsent(p.getProductName(),
+                    new Product(p.getProductId(), p.getSegment() != null ? p.getSegment().getSegmentId() : null));
+        }
+        Map<String, Long> segmentsByName = new HashMap<>();
+        for (RefBusinessSegment s : segments) {
+            if (s.getSegmentId() == null || s.getSegmentName() == null) {
+                continue;
+            }
+            segmentsByName.putIfAbsent(s.getSegmentName(), s.getSegmentId());
+        }
+        Map<String, SubSegment> subSegmentsByName = new HashMap<>();
+        for (RefBusinessSubSegment s : subSegments) {
+            if (s.getSubSegmentId() == null || s.getSubSegmentName() == null) {
+                continue;
+            }
+            subSegmentsByName.putIfAbsent(s.getSubSegmentName(), new SubSegment(s.getSubSegmentId(),
+                    s.getBusinessSegment() != null ? s.getBusinessSegment().getSegmentId() : null));
+        }
+
+        // role -> region -> scope -> entries, grouped before sorting
+        Map<String, Map<Long, Map<String, List<Entry>>>> grouped = new HashMap<>();
+        for (EmployeeMatrixAssignment a : assignments) {
+            if (a.getRole() == null || a.getRole().getRoleCode() == null || a.getEmployee() == null
+                    || a.getScopeRegion() == null || a.getScopeRegion().getRegionId() == null) {
+                continue;
+            }
+            Region region = regionsById.get(a.getScopeRegion().getRegionId());
+            int depth = region != null ? region.depth()
+                    : a.getScopeRegion().getPath() != null ? a.getScopeRegion().getPath().length() : 0;
+
+            // Same precedence as the scope match: product, then sub-segment, then segment, else global
+            String scopeKey;
+            int weight;
+            if (a.getScopeProduct() != null) {
+                scopeKey = "P" + a.getScopeProduct().getProductId();
+                weight = PRODUCT_WEIGHT;
+            } else if (a.getScopeSubSegment() != null) {
+                scopeKey = "B" + a.getScopeSubSegment().getSubSegmentId();
+                weight = SUB_SEGMENT_WEIGHT;
+            } else if (a.getScopeSegment() != null) {
+                scopeKey = "S" + a.getScopeSegment().getSegmentId();
+                weight = SEGMENT_WEIGHT;
+            } else {
+                scopeKey = "G";
+                weight = 0;
+            }
+
+            Entry entry = new Entry(a.getEmployee().getEmployeeId(), a.getEmployee().getFullName(),
+                    a.getRole().getRoleName(), a.getScopeRegion().getRegionName(), a.getApprovalLimit(),
+                    weight + depth);
+            grouped.computeIfAbsent(a.getRole().getRoleCode(), k -> new HashMap<>())
+                    .computeIfAbsent(a.getScopeRegion().getRegionId(), k -> new HashMap<>())
+                    .computeIfAbsent(scopeKey, k -> new ArrayList<>())
+                    .add(entry);
+        }
+
+        Map<String, Map<Long, RegionBuckets>> byRole = new HashMap<>();
+        grouped.forEach((role, byRegion) -> {
+            Map<Long, RegionBuckets> compiled = new HashMap<>();
+            byRegion.forEach((regionId, byScope) -> {
+                Map<Long, Bucket> byProduct = new HashMap<>();
+                Map<Long, Bucket> bySubSegment = new HashMap<>();
+                Map<Long, Bucket> bySegment = new HashMap<>();
+                Bucket global = null;
+                for (Map.Entry<String, List<Entry>> scope : byScope.entrySet()) {
+                    Bucket bucket = new Bucket(scope.getValue());
+                    String key = scope.getKey();
+                    switch (key.charAt(0)) {
+                        case 'P' -> byProduct.put(Long.parseLong(key.substring(1)), bucket);
+                        case 'B' -> bySubSegment.put(Long.parseLong(key.substring(1)), bucket);
+                        case 'S' -> bySegment.put(Long.parseLong(key.substring(1)), bucket);
+                        default -> global = bucket;
+                    }
+                }
+                compiled.put(regionId, new RegionBuckets(Map.copyOf(byProduct), Map.copyOf(bySubSegment),
+                        Map.copyOf(bySegment), global));
+            });
+            byRole.put(role, Map.copyOf(compiled));
+        });
+
+        return new MatrixIndex(version, Map.copyOf(regionsByName), Map.copyOf(productsByName),
+                Map.copyOf(segmentsByName), Map.copyOf(subSegmentsByName), Map.copyOf(byRole));
+    }
+
+    private static List<Long> parseRegionPath(String path) {
+        // Path format: /1/5/20/ -> [1, 5, 20]
+        return Arrays.stream(path.split("/"))
+                .filter(s -> !s.isEmpty())
+                .map(Long::parseLong)
+                .toList();
+    }
+}
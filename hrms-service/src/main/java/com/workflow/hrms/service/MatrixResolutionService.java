@@ -2,18 +2,26 @@ package com.workflow.hrms.service;
 
 import com.workflow.hrms.dto.ResolutionRequest;
 import com.workflow.hrms.dto.ResolutionResponse;
-import com.workflow.hrms.entity.*;
 import com.workflow.hrms.repository.*;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Resolves approvers from the authority matrix.
+ * <p>
+ * Resolution runs against a compiled {@link MatrixIndex}: name lookups, then for each region in
+ * the target's chain a handful of bucket lookups and one binary search on the amount. The index
+ * is rebuilt lazily when {@link MatrixChangeTracker} reports a committed write, so a resolution
+ * after a write always sees it. Highest specificity wins; among equally specific approvers the
+ * lowest covering limit is chosen, then the employee id.
+ */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class MatrixResolutionService {
 
     private final RefRegionRepository regionRepo;
@@ -21,134 +29,131 @@ public class MatrixResolutionService {
     private final RefBusinessSegmentRepository segmentRepo; // Injected
     private final RefBusinessSubSegmentRepository subSegmentRepo; // Injected
     private final EmployeeMatrixAssignmentRepository matrixRepo;
+    private final MatrixChangeTracker changeTracker;
+
+    private volatile MatrixIndex index;
 
-    @Transactional(readOnly = true)
     public ResolutionResponse resolveUsers(ResolutionRequest request) {
+        MatrixIndex matrix = currentIndex();
+
         // 1. Resolve Region Hierarchy
-        RefRegion targetRegion = regionRepo.findByRegionName(request.getRegion())
-                .orElseThrow(() -> new IllegalArgumentException("Region not found: " + request.getRegion()));
-        
-        List<Long> regionScopeIds = parseRegionPath(targetRegion.getPath());
-        
+        MatrixIndex.Region targetRegion = matrix.regionsByName.get(request.getRegion());
+        if (targetRegion == null) {
+            throw new IllegalArgumentException("Region not found: " + request.getRegion());
+        }
+
         // 2. Resolve Product & Segment & SubSegment
-        RefProduct targetProduct = null;
+        MatrixIndex.Product targetProduct = null;
         if (request.getProduct() != null) {
-            targetProduct = productRepo.findByProductName(request.getProduct())
-                    .orElseThrow(() -> new IllegalArgumentException("Product not found: " + request.getProduct()));
+            targetProduct = matrix.productsByName.get(request.getProduct());
+            if (targetProduct == null) {
+                throw new IllegalArgumentException("Product not found: " + request.getProduct());
+            }
         }
 
-        RefBusinessSegment targetSegment = null;
+        Long targetSegment = null;
         if (request.getBusinessSegment() != null) {
-            targetSegment = segmentRepo.findBySegmentName(request.getBusinessSegment())
-                    .orElseThrow(() -> new IllegalArgumentException("Segment not found: " + request.getBusinessSegment()));
+            targetSegment = matrix.segmentsByName.get(request.getBusinessSegment());
+            if (targetSegment == null) {
+                throw new IllegalArgumentException("Segment not found: " + request.getBusinessSegment());
+            }
         }
 
-        RefBusinessSubSegment targetSubSegment = null;
+        MatrixIndex.SubSegment targetSubSegment = null;
         if (request.getBusinessSubSegment() != null) {
-            targetSubSegment = subSegmentRepo.findBySubSegmentName(request.getBusinessSubSegment())
-                    .orElseThrow(() -> new IllegalArgumentException("SubSegment not found: " + request.getBusinessSubSegment()));
-        }
-
-        // 3. Query Matrix (Find all candidates in the region chain)
-        List<EmployeeMatrixAssignment> candidates = matrixRepo.findByRoleRoleCodeAndScopeRegionRegionIdIn(
-                request.getRole(), regionScopeIds);
-
-        // 4. Filter & Score
-        RefProduct finalProduct = targetProduct;
-        RefBusinessSegment finalSegment = targetSegment;
-        RefBusinessSubSegment finalSubSegment = targetSubSegment;
-
-        Optional<EmployeeMatrixAssignment> bestMatch = candidates.stream()
-                .filter(a -> isScopeMatch(a, finalProduct, finalSegment, finalSubSegment))
-                .filter(a -> isAmountCovered(a, request.getAmount(), request.getContext()))
-                .max(Comparator.comparing(this::calculateSpecificity)); // Max score wins
-
-        if (bestMatch.isPresent()) {
-            EmployeeMatrixAssignment assignment = bestMatch.get();
-            String reason = String.format("Matched User %s (Role: %s, Region: %s, Limit: %s)", 
-                    assignment.getEmployee().getFullName(), 
-                    assignment.getRole().getRoleName(),
-                    assignment.getScopeRegion().getRegionName(),
-                    assignment.getApprovalLimit());
-            
-            return new ResolutionResponse(List.of(assignment.getEmployee().getEmployeeId()), reason);
-        } else {
-            return new ResolutionResponse(Collections.emptyList(), "No matching approver found for criteria.");
+            targetSubSegment = matrix.subSegmentsByName.get(request.getBusinessSubSegment());
+            if (targetSubSegment == null) {
+                throw new IllegalArgumentException("SubSegment not found: " + request.getBusinessSubSegment());
+            }
         }
-    }
-
-    private List<Long> parseRegionPath(String path) {
-        // Path format: /1/5/20/ -> [1, 5, 20]
-        return Arrays.stream(path.split("/"))
-                .filter(s -> !s.isEmpty())
-                .map(Long::parseLong)
-                .collect(Collectors.toList());
-    }
 
-    private boolean isScopeMatch(EmployeeMatrixAssignment assignment, 
-                                 RefProduct targetProduct, 
-                                 RefBusinessSegment targetSegment,
-                                 RefBusinessSubSegment targetSubSegment) {
-        
-        // Case A: Assignment is Global (No Scope) -> Matches Everything
-        if (assignment.getScopeProduct() == null && 
-            assignment.getScopeSegment() == null && 
-            assignment.getScopeSubSegment() == null) {
-            return true;
+        // A segment-scoped assignment matches the segment itself or the segment of the sub-segment / product
+        Set<Long> segmentIds = new HashSet<>(3);
+        if (targetSegment != null) {
+            segmentIds.add(targetSegment);
         }
-
-        // Case B: Product Match (Highest Specificity)
-        if (assignment.getScopeProduct() != null) {
-            return targetProduct != null && assignment.getScopeProduct().getProductId().equals(targetProduct.getProductId());
+        if (targetSubSegment != null && targetSubSegment.segmentId() != null) {
+            segmentIds.add(targetSubSegment.segmentId());
         }
-
-        // Case C: SubSegment Match
-        if (assignment.getScopeSubSegment() != null) {
-             return targetSubSegment != null && assignment.getScopeSubSegment().getSubSegmentId().equals(targetSubSegment.getSubSegmentId());
+        if (targetProduct != null && targetProduct.segmentId() != null) {
+            segmentIds.add(targetProduct.segmentId());
         }
 
-        // Case D: Segment Match
-        if (assignment.getScopeSegment() != null) {
-            // Match if Target Segment matches Assignment Segment
-            if (targetSegment != null && assignment.getScopeSegment().getSegmentId().equals(targetSegment.getSegmentId())) {
-                return true;
+        // 3. Probe the buckets of every region in the chain
+        Map<Long, MatrixIndex.RegionBuckets> byRegion = matrix.byRole.getOrDefault(request.getRole(), Map.of());
+        BigDecimal amount = request.getAmount();
+        MatrixIndex.Entry best = null;
+        for (Long regionId : targetRegion.chain()) {
+            MatrixIndex.RegionBuckets buckets = byRegion.get(regionId);
+            if (buckets == null) {
+                continue;
             }
-            // Match if Target SubSegment belongs to Assignment Segment
-            if (targetSubSegment != null && targetSubSegment.getBusinessSegment().getSegmentId().equals(assignment.getScopeSegment().getSegmentId())) {
-                return true;
+            if (targetProduct != null) {
+                best = better(best, probe(buckets.byProduct.get(targetProduct.id()), amount));
             }
-            // Match if Target Product belongs to Assignment Segment
-             if (targetProduct != null && targetProduct.getSegment().getSegmentId().equals(assignment.getScopeSegment().getSegmentId())) {
-                return true;
+            if (targetSubSegment != null) {
+                best = better(best, probe(buckets.bySubSegment.get(targetSubSegment.id()), amount));
             }
+            for (Long segmentId : segmentIds) {
+                best = better(best, probe(buckets.bySegment.get(segmentId), amount));
+            }
+            best = better(best, probe(buckets.global, amount));
         }
 
-        return false;
+        if (best != null) {
+            String reason = String.format("Matched User %s (Role: %s, Region: %s, Limit: %s)",
+                    best.fullName(),
+                    best.roleName(),
+                    best.regionName(),
+                    best.approvalLimit());
+
+            return new ResolutionResponse(List.of(best.employeeId()), reason);
+        } else {
+            return new ResolutionResponse(Collections.emptyList(), "No matching approver found for criteria.");
+        }
     }
 
-    private boolean isAmountCovered(EmployeeMatrixAssignment assignment, BigDecimal requestAmount, Map<String, Object> context) {
-        if (requestAmount == null || BigDecimal.ZERO.equals(requestAmount)) {
-            return true; // No amount check needed
+    private MatrixIndex currentIndex() {
+        MatrixIndex current = index;
+        long version = changeTracker.currentVersion();
+        if (current != null && current.version == version) {
+            return current;
         }
-        
-        // TODO: Currency Conversion (Assuming request is in Base/Assignment Currency for MVP)
-        BigDecimal limit = assignment.getApprovalLimit();
-        if (limit == null) return false;
+        synchronized (this) {
+            current = index;
+            version = changeTracker.currentVersion();
+            if (current == null || current.version != version) {
+                // Read the version before the data: a write committing mid-build leaves the index stale, never wrong
+                long start = System.currentTimeMillis();
+                current = MatrixIndex.build(version, regionRepo.findAll(), productRepo.findAll(),
+                        segmentRepo.findAll(), subSegmentRepo.findAll(), matrixRepo.findAllForIndex());
+                index = current;
+                log.info("Authority matrix index built (version {}) in {} ms", version,
+                        System.currentTimeMillis() - start);
+            }
+            return current;
+        }
+    }
 
-        return limit.compareTo(requestAmount) >= 0;
+    private static MatrixIndex.Entry probe(MatrixIndex.Bucket bucket, BigDecimal amount) {
+        return bucket != null ? bucket.lowestCovering(amount) : null;
     }
 
-    private int calculateSpecificity(EmployeeMatrixAssignment a) {
-        int score = 0;
-        
-        // Product Specificity
-        if (a.getScopeProduct() != null) score += 100;       // Exact Product match
-        else if (a.getScopeSubSegment() != null) score += 75; // SubSegment match
-        else if (a.getScopeSegment() != null) score += 50;   // Segment match
-        
-        // Region Specificity (Deeper is better)
-        score += a.getScopeRegion().getPath().length(); 
-        
-        return score;
+    private static MatrixIndex.Entry better(MatrixIndex.Entry current, MatrixIndex.Entry candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        if (current == null) {
+            return candidate;
+        }
+        if (candidate.specificity() != current.specificity()) {
+            return candidate.specificity() > current.specificity() ? candidate : current;
+        }
+        int byLimit = Comparator.nullsFirst(Comparator.<BigDecimal>naturalOrder())
+                .compare(candidate.approvalLimit(), current.approvalLimit());
+        if (byLimit != 0) {
+            return byLimit < 0 ? candidate : current;
+        }
+        return candidate.employeeId().compareTo(current.employeeId()) < 0 ? candidate : current;
     }
 }
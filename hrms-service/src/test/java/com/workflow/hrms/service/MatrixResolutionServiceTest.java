@@ -4,6 +4,8 @@ import com.workflow.hrms.dto.ResolutionRequest;
 import com.workflow.hrms.dto.ResolutionResponse;
 import com.workflow.hrms.entity.*;
 import com.workflow.hrms.repository.EmployeeMatrixAssignmentRepository;
+import com.workflow.hrms.repository.RefBusinessSegmentRepository;
+import com.workflow.hrms.repository.RefBusinessSubSegmentRepository;
 import com.workflow.hrms.repository.RefProductRepository;
 import com.workflow.hrms.repository.RefRegionRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,10 +17,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,7 +29,13 @@ class MatrixResolutionServiceTest {
     @Mock
     private RefProductRepository productRepo;
     @Mock
+    private RefBusinessSegmentRepository segmentRepo;
+    @Mock
+    private RefBusinessSubSegmentRepository subSegmentRepo;
+    @Mock
     private EmployeeMatrixAssignmentRepository matrixRepo;
+    @Mock
+    private MatrixChangeTracker changeTracker;
 
     @InjectMocks
     private MatrixResolutionService service;
@@ -42,6 +48,7 @@ class MatrixResolutionServiceTest {
     void setUp() {
         // Mock Region
         mumbai = new RefRegion();
+        mumbai.setRegionId(50L);
         mumbai.setRegionName("Mumbai");
         mumbai.setPath("/1/5/20/50/"); // Global/Asia/India/Mumbai
         
@@ -59,6 +66,7 @@ class MatrixResolutionServiceTest {
         userA.setFullName("User A");
         
         RoleMaster role = new RoleMaster();
+        role.setRoleCode("APPROVER");
         role.setRoleName("Manager");
 
         assignmentA = new EmployeeMatrixAssignment();
@@ -77,11 +85,10 @@ class MatrixResolutionServiceTest {
         req.setProduct("Home Loan");
         req.setAmount(new BigDecimal("50000")); // < 100k
 
-        when(regionRepo.findByRegionName("Mumbai")).thenReturn(Optional.of(mumbai));
-        when(productRepo.findByProductName("Home Loan")).thenReturn(Optional.of(homeLoan));
-        // Mock finding candidates
-        when(matrixRepo.findByRoleRoleCodeAndScopeRegionRegionIdIn(eq("APPROVER"), anyList()))
-                .thenReturn(List.of(assignmentA));
+        when(regionRepo.findAll()).thenReturn(List.of(mumbai));
+        when(productRepo.findAll()).thenReturn(List.of(homeLoan));
+        // Mock matrix the index is built from
+        when(matrixRepo.findAllForIndex()).thenReturn(List.of(assignmentA));
 
         // When
         ResolutionResponse response = service.resolveUsers(req);
@@ -100,10 +107,9 @@ class MatrixResolutionServiceTest {
         req.setProduct("Home Loan");
         req.setAmount(new BigDecimal("200000")); // > 100k
 
-        when(regionRepo.findByRegionName("Mumbai")).thenReturn(Optional.of(mumbai));
-        when(productRepo.findByProductName("Home Loan")).thenReturn(Optional.of(homeLoan));
-        when(matrixRepo.findByRoleRoleCodeAndScopeRegionRegionIdIn(eq("APPROVER"), anyList()))
-                .thenReturn(List.of(assignmentA));
+        when(regionRepo.findAll()).thenReturn(List.of(mumbai));
+        when(productRepo.findAll()).thenReturn(List.of(homeLoan));
+        when(matrixRepo.findAllForIndex()).thenReturn(List.of(assignmentA));
 
         // When
         ResolutionResponse response = service.resolveUsers(req);
@@ -111,4 +117,44 @@ class MatrixResolutionServiceTest {
         // Then
         assertTrue(response.getUserIds().isEmpty(), "Should fail due to limit");
     }
+
+    @Test
+    void testResolveUsers_SpecificityThenLowestCoveringLimit() {
+        EmployeeMaster userB = new EmployeeMaster();
+        userB.setEmployeeId("USER_B");
+        userB.setFullName("User B");
+        EmployeeMatrixAssignment productScoped = new EmployeeMatrixAssignment();
+        productScoped.setEmployee(userB);
+        productScoped.setRole(assignmentA.getRole());
+        productScoped.setScopeRegion(mumbai);
+        productScoped.setScopeProduct(homeLoan);
+        productScoped.setApprovalLimit(new BigDecimal("60000"));
+
+        EmployeeMaster userC = new EmployeeMaster();
+        userC.setEmployeeId("USER_C");
+        EmployeeMatrixAssignment largerGlobal = new EmployeeMatrixAssignment();
+        largerGlobal.setEmployee(userC);
+        largerGlobal.setRole(assignmentA.getRole());
+        largerGlobal.setScopeRegion(mumbai);
+        largerGlobal.setApprovalLimit(new BigDecimal("500000"));
+
+        when(regionRepo.findAll()).thenReturn(List.of(mumbai));
+        when(productRepo.findAll()).thenReturn(List.of(homeLoan));
+        when(matrixRepo.findAllForIndex()).thenReturn(List.of(largerGlobal, assignmentA, productScoped));
+
+        ResolutionRequest req = new ResolutionRequest();
+        req.setRole("APPROVER");
+        req.setRegion("Mumbai");
+        req.setProduct("Home Loan");
+
+        // Product scope beats global scope when its limit covers the amount
+        req.setAmount(new BigDecimal("50000"));
+        assertEquals(List.of("USER_B"), service.resolveUsers(req).getUserIds());
+
+        // Otherwise the lowest covering global limit wins
+        req.setAmount(new BigDecimal("80000"));
+        assertEquals(List.of("USER_A"), service.resolveUsers(req).getUserIds());
+        req.setAmount(new BigDecimal("300000"));
+        assertEquals(List.of("USER_C"), service.resolveUsers(req).getUserIds());
+    }
 }
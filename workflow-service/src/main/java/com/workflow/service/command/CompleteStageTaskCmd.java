@@ -0,0 +1,75 @@
+package com.workflow.service.command;
+
+import com.workflow.service.service.ConfigSnapshot;
+import org.flowable.common.engine.impl.interceptor.CommandContext;
+import org.flowable.engine.impl.cmd.CompleteTaskCmd;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntity;
+import org.flowable.engine.impl.util.CommandContextUtil;
+import org.flowable.engine.impl.util.TaskHelper;
+import org.flowable.task.service.impl.persistence.entity.TaskEntity;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Completes a stage task in one engine command: outcome validation, assignee and
+ * outcome bookkeeping and the completion itself share one command context, so the
+ * task and its execution are fetched once and everything is flushed together.
+ * <p>
+ * Bookkeeping is the same as the former step-by-step path in {@code CaseService}:
+ * an unassigned task is claimed for the completing user, the effective assignee is
+ * kept in the task-local {@code savedAssignee} (for history), a validated
+ * {@code outcome} is stored task-local and {@code manualAssignee} is set on the
+ * process instance.
+ */
+public class CompleteStageTaskCmd extends CompleteTaskCmd {
+
+    private final String userId;
+    private final transient ConfigSnapshot config;
+
+    public CompleteStageTaskCmd(String taskId, Map<String, Object> variables, String userId, ConfigSnapshot config) {
+        super(taskId, variables, new HashMap<>(), null, null);
+        this.userId = userId;
+        this.config = config;
+    }
+
+    @Override
+    protected Void execute(CommandContext commandContext, TaskEntity task) {
+        Object outcome = variables != null ? variables.get("outcome") : null;
+        if (outcome != null) {
+            validateOutcome(task, outcome.toString());
+            variablesLocal.put("outcome", outcome);
+        }
+
+        String currentAssignee = task.getAssignee();
+        if (currentAssignee == null || currentAssignee.trim().isEmpty()) {
+            TaskHelper.changeTaskAssignee(task, userId);
+            variablesLocal.put("savedAssignee", userId);
+        } else {
+            variablesLocal.put("savedAssignee", currentAssignee);
+        }
+
+        Object manualAssignee = variables != null ? variables.get("manualAssignee") : null;
+        if (manualAssignee != null && task.getProcessInstanceId() != null) {
+            // On the process instance so every later task in the case sees it
+            ExecutionEntity processInstance = CommandContextUtil.getExecutionEntityManager(commandContext)
+                    .findById(task.getProcessInstanceId());
+            processInstance.setVariable("manualAssignee", manualAssignee);
+        }
+
+        return super.execute(commandContext, task);
+    }
+
+    private void validateOutcome(TaskEntity task, String outcome) {
+        String workflowCode = task.getProcessDefinitionId().split(":")[0];
+        config.stage(workflowCode, task.getTaskDefinitionKey()).ifPresent(stage -> {
+            List<ConfigSnapshot.ActionDef> actions = stage.actions();
+            if (!actions.isEmpty() && actions.stream().noneMatch(a -> a.actionLabel().equals(outcome))) {
+                throw new IllegalArgumentException("Invalid outcome: " + outcome + ". Allowed actions: "
+                        + actions.stream().map(ConfigSnapshot.ActionDef::actionLabel).collect(Collectors.toList()));
+            }
+        });
+    }
+}
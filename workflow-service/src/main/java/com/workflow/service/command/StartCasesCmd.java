@@ -0,0 +1,39 @@
+package com.workflow.service.command;
+
+import org.flowable.common.engine.impl.interceptor.Command;
+import org.flowable.common.engine.impl.interceptor.CommandContext;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.impl.util.CommandContextUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts several cases in one engine command. The starts share one command context, so
+ * the engine flushes once for all of them, writing each table with bulk inserts, instead
+ * of once per case. If any start fails, the command fails as a whole.
+ */
+public class StartCasesCmd implements Command<List<String>> {
+
+    public record CaseStart(String workflowCode, Map<String, Object> variables) {
+    }
+
+    private final List<CaseStart> starts;
+
+    public StartCasesCmd(List<CaseStart> starts) {
+        this.starts = starts;
+    }
+
+    @Override
+    public List<String> execute(CommandContext commandContext) {
+        // Calls made inside a command reuse its context
+        RuntimeService runtimeService = CommandContextUtil.getProcessEngineConfiguration(commandContext)
+                .getRuntimeService();
+        List<String> caseIds = new ArrayList<>(starts.size());
+        for (CaseStart start : starts) {
+            caseIds.add(runtimeService.startProcessInstanceByKey(start.workflowCode(), start.variables()).getId());
+        }
+        return caseIds;
+    }
+}
@@ -0,0 +1,34 @@
+package com.workflow.service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flowable.dmn.spring.SpringDmnEngineConfiguration;
+import org.flowable.spring.SpringProcessEngineConfiguration;
+import org.flowable.spring.boot.EngineConfigurationConfigurer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bounded, metered caches for parsed process definitions and DMN decisions. Flowable's default
+ * caches grow with every deployed version; these evict the least recently used entry instead and
+ * report hit/miss rates as {@code workflow.definition-cache.requests}.
+ */
+@Configuration
+public class DefinitionCacheConfig {
+
+    @Bean
+    public EngineConfigurationConfigurer<SpringProcessEngineConfiguration> processDefinitionCacheConfigurer(
+            MeterRegistry meterRegistry,
+            @Value("${workflow.definition-cache.process-limit:1000}") int limit) {
+        return engineConfiguration -> engineConfiguration
+                .setProcessDefinitionCache(new MeteredDeploymentCache<>("process", limit, meterRegistry));
+    }
+
+    @Bean
+    public EngineConfigurationConfigurer<SpringDmnEngineConfiguration> decisionCacheConfigurer(
+            MeterRegistry meterRegistry,
+            @Value("${workflow.definition-cache.decision-limit:500}") int limit) {
+        return engineConfiguration -> engineConfiguration
+                .setDefinitionCache(new MeteredDeploymentCache<>("decision", limit, meterRegistry));
+    }
+}
@@ -0,0 +1,26 @@
+package com.workflow.service.config;
+
+import com.workflow.service.service.DefinitionWarmupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * OUT_OF_SERVICE until the definition caches are warm. With Eureka health checks enabled the
+ * registry sees the same status, so traffic only arrives once the first requests are fast.
+ */
+@Component
+@RequiredArgsConstructor
+public class DefinitionWarmupHealthIndicator implements HealthIndicator {
+
+    private final DefinitionWarmupService definitionWarmupService;
+
+    @Override
+    public Health health() {
+        if (definitionWarmupService.isComplete()) {
+            return Health.up().build();
+        }
+        return Health.outOfService().withDetail("reason", "Warming definition caches").build();
+    }
+}
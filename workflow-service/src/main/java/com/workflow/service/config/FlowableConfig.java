@@ -1,15 +1,47 @@
 package com.workflow.service.config;
 
+import com.workflow.service.listener.CaseAttributeIndexListener;
+import com.workflow.service.listener.PriorActorIndexListener;
+import com.workflow.service.listener.WorkloadCounterListener;
+import com.workflow.service.listener.WorkloadProjectionListener;
+import lombok.RequiredArgsConstructor;
+import org.flowable.common.engine.api.delegate.event.FlowableEventListener;
 import org.flowable.spring.SpringProcessEngineConfiguration;
 import org.flowable.spring.boot.EngineConfigurationConfigurer;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Configuration
+@RequiredArgsConstructor
 public class FlowableConfig implements EngineConfigurationConfigurer<SpringProcessEngineConfiguration> {
 
+    private final WorkloadProjectionListener workloadProjectionListener;
+    private final CaseAttributeIndexListener caseAttributeIndexListener;
+    private final PriorActorIndexListener priorActorIndexListener;
+    private final WorkloadCounterListener workloadCounterListener;
+
     @Override
     public void configure(SpringProcessEngineConfiguration engineConfiguration) {
         // Additional configuration if needed
         engineConfiguration.setDatabaseSchemaUpdate("true");
+
+        // Task lifecycle events -> workload projection; variable events -> case attribute index;
+        // completions -> prior actor index; assignments and removals -> least-loaded counters
+        Map<String, List<FlowableEventListener>> typedListeners = engineConfiguration.getTypedEventListeners() != null
+                ? new HashMap<>(engineConfiguration.getTypedEventListeners())
+                : new HashMap<>();
+        WorkloadProjectionListener.EVENT_TYPES.forEach(type -> typedListeners
+                .computeIfAbsent(type.name(), k -> new ArrayList<>()).add(workloadProjectionListener));
+        CaseAttributeIndexListener.EVENT_TYPES.forEach(type -> typedListeners
+                .computeIfAbsent(type.name(), k -> new ArrayList<>()).add(caseAttributeIndexListener));
+        PriorActorIndexListener.EVENT_TYPES.forEach(type -> typedListeners
+                .computeIfAbsent(type.name(), k -> new ArrayList<>()).add(priorActorIndexListener));
+        WorkloadCounterListener.EVENT_TYPES.forEach(type -> typedListeners
+                .computeIfAbsent(type.name(), k -> new ArrayList<>()).add(workloadCounterListener));
+        engineConfiguration.setTypedEventListeners(typedListeners);
     }
 }
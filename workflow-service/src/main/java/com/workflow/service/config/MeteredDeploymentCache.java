@@ -0,0 +1,80 @@
+package com.workflow.service.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flowable.common.engine.impl.persistence.deploy.DefaultDeploymentCache;
+import org.flowable.common.engine.impl.persistence.deploy.DeploymentCache;
+
+import java.util.Collection;
+
+/**
+ * A Flowable deployment cache, least recently used first out once {@code limit} entries are held
+ * (unbounded if the limit is not positive), that counts lookups as hits or misses. A miss makes
+ * the engine parse the definition XML again.
+ */
+class MeteredDeploymentCache<T> implements DeploymentCache<T> {
+
+    static final String REQUESTS = "workflow.definition-cache.requests";
+
+    private final DeploymentCache<T> delegate;
+    private final Counter hits;
+    private final Counter misses;
+
+    // The engine looks an entry up again right after loading it on a miss; that is not a hit
+    private final ThreadLocal<String> lastMiss = new ThreadLocal<>();
+
+    MeteredDeploymentCache(String cache, int limit, MeterRegistry meterRegistry) {
+        this.delegate = limit > 0 ? new DefaultDeploymentCache<>(limit) : new DefaultDeploymentCache<>();
+        this.hits = Counter.builder(REQUESTS).tag("cache", cache).tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder(REQUESTS).tag("cache", cache).tag("result", "miss").register(meterRegistry);
+        Gauge.builder("workflow.definition-cache.size", delegate, DeploymentCache::size)
+                .tag("cache", cache)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public T get(String id) {
+        T entry = delegate.get(id);
+        if (entry == null) {
+            misses.increment();
+            lastMiss.set(id);
+        } else {
+            if (!id.equals(lastMiss.get())) {
+                hits.increment();
+            }
+            lastMiss.remove();
+        }
+        return entry;
+    }
+
+    @Override
+    public boolean contains(String id) {
+        return delegate.contains(id);
+    }
+
+    @Override
+    public void add(String id, T object) {
+        delegate.add(id, object);
+    }
+
+    @Override
+    public void remove(String id) {
+        delegate.remove(id);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public Collection<T> getAll() {
+        return delegate.getAll();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+}
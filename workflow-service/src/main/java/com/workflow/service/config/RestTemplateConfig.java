@@ -1,14 +1,80 @@
 package com.workflow.service.config;
 
+import com.workflow.service.integration.AdapterEndpoint;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * HTTP client for the HRMS user adapter: pooled keep-alive connections with bounded connect,
+ * pool-wait and per-operation response timeouts ({@code workflow.user-adapter.http.timeout-ms.<endpoint>}),
+ * so a slow hrms-service cannot hold task-creating transactions indefinitely.
+ */
 @Configuration
 public class RestTemplateConfig {
 
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient userAdapterHttpClient(
+            @Value("${workflow.user-adapter.http.max-connections:50}") int maxConnections,
+            @Value("${workflow.user-adapter.http.connect-timeout-ms:1000}") long connectTimeoutMillis,
+            @Value("${workflow.user-adapter.http.keep-alive-ms:30000}") long keepAliveMillis) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(keepAliveMillis))
+                .evictIdleConnections(TimeValue.ofMilliseconds(keepAliveMillis))
+                .evictExpiredConnections()
+                .disableAutomaticRetries()
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient userAdapterHttpClient, Environment environment,
+            @Value("${workflow.user-adapter.http.pool-timeout-ms:500}") long poolTimeoutMillis,
+            @Value("${workflow.user-adapter.http.default-timeout-ms:5000}") long defaultTimeoutMillis) {
+        Map<AdapterEndpoint, RequestConfig> perEndpoint = new EnumMap<>(AdapterEndpoint.class);
+        for (AdapterEndpoint endpoint : AdapterEndpoint.values()) {
+            long timeout = environment.getProperty("workflow.user-adapter.http.timeout-ms." + endpoint.key(),
+                    Long.class, endpoint.defaultTimeoutMillis());
+            perEndpoint.put(endpoint, requestConfig(poolTimeoutMillis, timeout));
+        }
+        RequestConfig fallback = requestConfig(poolTimeoutMillis, defaultTimeoutMillis);
+
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(userAdapterHttpClient);
+        factory.setHttpContextFactory((method, uri) -> {
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(AdapterEndpoint.forPath(uri.getPath()).map(perEndpoint::get).orElse(fallback));
+            return context;
+        });
+        return new RestTemplate(factory);
+    }
+
+    private static RequestConfig requestConfig(long poolTimeoutMillis, long responseTimeoutMillis) {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMillis))
+                .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMillis))
+                .build();
     }
 }
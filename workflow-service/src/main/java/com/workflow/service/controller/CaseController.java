@@ -1,15 +1,21 @@
 package com.workflow.service.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workflow.service.dto.BulkJobDTO;
 import com.workflow.service.dto.CaseDTO;
 import com.workflow.service.dto.InitiateCaseRequest;
 import com.workflow.service.dto.StageDTO;
+import com.workflow.service.service.BulkCaseInitiationService;
 import com.workflow.service.service.CaseService;
+import com.workflow.service.service.VariableSelection;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,17 +29,55 @@ import java.util.Map;
 @Tag(name = "Case Runtime", description = "APIs for managing workflow case instances and task execution")
 public class CaseController {
 
+    private static final String VARIABLES_DOC = "Comma-separated process variables to include; empty or 'none' for no variables, omit for all";
+    private static final String ATTRIBUTE_DOC = "Case attribute to match exactly, as name:value; repeatable";
+
     private final CaseService caseService;
+    private final BulkCaseInitiationService bulkCaseInitiationService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Get all active cases", description = "Retrieves all currently active workflow case instances")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved active cases")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved active cases"),
+            @ApiResponse(responseCode = "400", description = "Malformed attribute filter")
+    })
     @GetMapping
-    public ResponseEntity<List<CaseDTO>> getAllActiveCases(
+    public ResponseEntity<?> getAllActiveCases(
             @RequestParam(required = false) String workflowCode,
             @RequestParam(required = false) String initiator,
             @RequestParam(required = false) String cpId,
-            @RequestParam(required = false) String candidateGroup) {
-        return ResponseEntity.ok(caseService.getAllActiveCases(workflowCode, initiator, cpId, candidateGroup));
+            @RequestParam(required = false) String candidateGroup,
+            @Parameter(description = ATTRIBUTE_DOC) @RequestParam(required = false) List<String> attribute,
+            @Parameter(description = VARIABLES_DOC) @RequestParam(required = false) String variables) {
+        try {
+            return ResponseEntity.ok(caseService.getAllActiveCases(workflowCode, initiator, cpId, candidateGroup,
+                    parseAttributes(attribute), VariableSelection.parse(variables)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Get a page of active cases", description = "Keyset-paginated listing of active cases, newest first. Pass the returned nextCursor to fetch the following page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page of active cases"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or attribute filter")
+    })
+    @GetMapping("/page")
+    public ResponseEntity<?> getActiveCasesPage(
+            @RequestParam(required = false) String workflowCode,
+            @RequestParam(required = false) String initiator,
+            @RequestParam(required = false) String cpId,
+            @RequestParam(required = false) String candidateGroup,
+            @Parameter(description = ATTRIBUTE_DOC) @RequestParam(required = false) List<String> attribute,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 500)") @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = VARIABLES_DOC) @RequestParam(required = false) String variables) {
+        try {
+            return ResponseEntity.ok(caseService.getActiveCasesPage(workflowCode, initiator, cpId, candidateGroup,
+                    parseAttributes(attribute), cursor, limit, VariableSelection.parse(variables)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @Operation(summary = "Initiate a new case", description = "Starts a new workflow case instance with the specified workflow code and variables")
@@ -68,6 +112,71 @@ public class CaseController {
         }
     }
 
+    @Operation(summary = "Initiate cases in bulk", description = "Accepts a JSON array of case initiation requests and starts them asynchronously in chunked transactions. Poll the returned job for per-item results")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Bulk job accepted"),
+            @ApiResponse(responseCode = "400", description = "Empty batch"),
+            @ApiResponse(responseCode = "503", description = "Bulk initiation queue is full")
+    })
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> initiateCasesBulk(
+            @RequestBody List<InitiateCaseRequest> requests,
+            @Parameter(description = "Cases started per transaction (max 1000)") @RequestParam(required = false) Integer chunkSize) {
+        return submitBulk(requests, chunkSize);
+    }
+
+    @Operation(summary = "Initiate cases in bulk from NDJSON", description = "Same as the JSON array variant, one case initiation request per line")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Bulk job accepted"),
+            @ApiResponse(responseCode = "400", description = "Empty batch or malformed line"),
+            @ApiResponse(responseCode = "503", description = "Bulk initiation queue is full")
+    })
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+    public ResponseEntity<?> initiateCasesBulkNdjson(
+            @RequestBody String body,
+            @Parameter(description = "Cases started per transaction (max 1000)") @RequestParam(required = false) Integer chunkSize) {
+        List<InitiateCaseRequest> requests = new java.util.ArrayList<>();
+        int lineNo = 0;
+        for (String line : body.split("\\r?\\n")) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                requests.add(objectMapper.readValue(line, InitiateCaseRequest.class));
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().body("Malformed request on line " + lineNo + ": " + e.getMessage());
+            }
+        }
+        return submitBulk(requests, chunkSize);
+    }
+
+    private ResponseEntity<?> submitBulk(List<InitiateCaseRequest> requests, Integer chunkSize) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(bulkCaseInitiationService.submit(requests, chunkSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Get bulk initiation job", description = "Progress of a bulk initiation job, optionally with per-item results keyed by correlation id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job status retrieved"),
+            @ApiResponse(responseCode = "404", description = "Job not found or expired")
+    })
+    @GetMapping("/bulk/{jobId}")
+    public ResponseEntity<BulkJobDTO> getBulkJob(
+            @Parameter(description = "Bulk job ID") @PathVariable String jobId,
+            @Parameter(description = "Include per-item results") @RequestParam(defaultValue = "true") boolean includeResults) {
+        try {
+            return ResponseEntity.ok(bulkCaseInitiationService.getJob(jobId, includeResults));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @Operation(summary = "Get case details", description = "Retrieves detailed information about a specific case instance")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Case details retrieved successfully"),
@@ -75,9 +184,10 @@ public class CaseController {
     })
     @GetMapping("/{id}")
     public ResponseEntity<CaseDTO> getCaseDetails(
-            @Parameter(description = "Case ID") @PathVariable String id) {
+            @Parameter(description = "Case ID") @PathVariable String id,
+            @Parameter(description = VARIABLES_DOC) @RequestParam(required = false) String variables) {
         try {
-            return ResponseEntity.ok(caseService.getCaseDetails(id));
+            return ResponseEntity.ok(caseService.getCaseDetails(id, VariableSelection.parse(variables)));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         }
@@ -87,18 +197,29 @@ public class CaseController {
     @ApiResponse(responseCode = "200", description = "Successfully retrieved case stages")
     @GetMapping("/{id}/stages")
     public ResponseEntity<List<StageDTO>> getCaseStages(
-            @Parameter(description = "Case ID") @PathVariable String id) {
-        return ResponseEntity.ok(caseService.getStages(id));
+            @Parameter(description = "Case ID") @PathVariable String id,
+            @Parameter(description = VARIABLES_DOC) @RequestParam(required = false) String variables) {
+        return ResponseEntity.ok(caseService.getStages(id, VariableSelection.parse(variables)));
     }
 
     @Operation(summary = "Get user task history", description = "Retrieves task history for a specific user")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved task history")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved task history"),
+            @ApiResponse(responseCode = "400", description = "Malformed attribute filter")
+    })
     @GetMapping("/tasks/history")
-    public ResponseEntity<List<StageDTO>> getUserTaskHistory(
+    public ResponseEntity<?> getUserTaskHistory(
             @Parameter(description = "User ID") @RequestParam String userId,
             @Parameter(description = "Workflow Code") @RequestParam(required = false) String workflowCode,
-            @Parameter(description = "CP ID") @RequestParam(required = false) String cpId) {
-        return ResponseEntity.ok(caseService.getUserTaskHistory(userId, workflowCode, cpId));
+            @Parameter(description = "CP ID") @RequestParam(required = false) String cpId,
+            @Parameter(description = ATTRIBUTE_DOC) @RequestParam(required = false) List<String> attribute,
+            @Parameter(description = VARIABLES_DOC) @RequestParam(required = false) String variables) {
+        try {
+            return ResponseEntity.ok(caseService.getUserTaskHistory(userId, workflowCode, cpId,
+                    parseAttributes(attribute), VariableSelection.parse(variables)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @Operation(summary = "Complete a task", description = "Completes a specific task within a case with the provided variables")
@@ -156,4 +277,20 @@ public class CaseController {
             return ResponseEntity.internalServerError().body("Error claiming task: " + e.getMessage());
         }
     }
+
+    // name:value pairs; the value may itself contain ':'
+    private static Map<String, String> parseAttributes(List<String> attributes) {
+        Map<String, String> parsed = new java.util.LinkedHashMap<>();
+        if (attributes == null) {
+            return parsed;
+        }
+        for (String attribute : attributes) {
+            int colon = attribute.indexOf(':');
+            if (colon <= 0 || colon == attribute.length() - 1) {
+                throw new IllegalArgumentException("Attribute filter must be name:value, got: " + attribute);
+            }
+            parsed.put(attribute.substring(0, colon).trim(), attribute.substring(colon + 1));
+        }
+        return parsed;
+    }
 }
@@ -1,6 +1,12 @@
 package com.workflow.service.controller;
 
+import com.workflow.service.dto.BulkDeploymentDTO;
+import com.workflow.service.dto.MigrationJobDTO;
+import com.workflow.service.dto.MigrationPlanDTO;
+import com.workflow.service.dto.MigrationRequest;
+import com.workflow.service.service.BulkDeploymentService;
 import com.workflow.service.service.DeploymentService;
+import com.workflow.service.service.InstanceMigrationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -8,6 +14,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.flowable.engine.repository.Deployment;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,6 +27,8 @@ import java.util.List;
 public class DeploymentController {
 
     private final DeploymentService deploymentService;
+    private final BulkDeploymentService bulkDeploymentService;
+    private final InstanceMigrationService instanceMigrationService;
 
     @Operation(summary = "Preview BPMN XML", description = "Generates and previews the BPMN XML for a workflow without deploying it")
     @ApiResponse(responseCode = "200", description = "Successfully generated BPMN XML")
@@ -52,6 +61,68 @@ public class DeploymentController {
         }
     }
 
+    @Operation(summary = "Deploy all workflows", description = "Deploys every active workflow, nested workflows before their callers. BPMN is generated in parallel; unchanged definitions are not redeployed. Reports outcome and timings per workflow")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Bulk deployment finished, see per-workflow results"),
+            @ApiResponse(responseCode = "409", description = "A bulk deployment is already running")
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<?> deployAll() {
+        try {
+            BulkDeploymentDTO report = bulkDeploymentService.deployAll();
+            return ResponseEntity.ok(report);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Plan instance migration", description = "Activity mapping from an older version (default: every older version with running cases) to the latest, validated against the running instances")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Migration plans"),
+            @ApiResponse(responseCode = "400", description = "Workflow or version not found")
+    })
+    @PostMapping("/migrations/plan")
+    public ResponseEntity<?> planMigration(@RequestBody MigrationRequest request) {
+        try {
+            List<MigrationPlanDTO> plans = instanceMigrationService.plan(request.getWorkflowCode(),
+                    request.getSourceVersion(), request.getActivityMappings());
+            return ResponseEntity.ok(plans);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Migrate running instances", description = "Moves running cases of older versions to the latest version in throttled batches in the background, optionally retiring the emptied versions. Poll the returned job for progress")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Migration job accepted"),
+            @ApiResponse(responseCode = "400", description = "Nothing to migrate or the migration is invalid"),
+            @ApiResponse(responseCode = "409", description = "A migration of this workflow is already running")
+    })
+    @PostMapping("/migrations")
+    public ResponseEntity<?> migrate(@RequestBody MigrationRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(instanceMigrationService.submit(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Get migration job", description = "Progress of an instance migration job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job status retrieved"),
+            @ApiResponse(responseCode = "404", description = "Job not found or expired")
+    })
+    @GetMapping("/migrations/{jobId}")
+    public ResponseEntity<MigrationJobDTO> getMigrationJob(@Parameter(description = "Job ID") @PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(instanceMigrationService.getJob(jobId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @Operation(summary = "Get deployment history", description = "Retrieves deployment history, optionally filtered by workflow code")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved deployment history")
     @GetMapping
@@ -0,0 +1,39 @@
+package com.workflow.service.controller;
+
+import com.workflow.service.dto.DirectoryInvalidationRequest;
+import com.workflow.service.integration.UserAdapterClient;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/runtime/directory")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@Tag(name = "User Directory", description = "APIs for the cached HRMS role membership and user directory")
+public class DirectoryController {
+
+    private final UserAdapterClient userAdapterClient;
+
+    @Operation(summary = "Invalidate directory cache", description = "Called by hrms-service when matrix assignments or employees change. Drops the cached role members and user names so the next lookup reloads them")
+    @ApiResponse(responseCode = "204", description = "Cache entries invalidated")
+    @PostMapping("/invalidate")
+    public ResponseEntity<Void> invalidate(
+            @Parameter(description = "Changed role codes and user IDs, or all=true") @RequestBody DirectoryInvalidationRequest request) {
+        if (request.isAll()) {
+            userAdapterClient.invalidateAll();
+        } else {
+            if (request.getRoles() != null) {
+                userAdapterClient.invalidateRoles(request.getRoles());
+            }
+            if (request.getUserIds() != null) {
+                userAdapterClient.invalidateUsers(request.getUserIds());
+            }
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,6 +2,7 @@ package com.workflow.service.controller;
 
 import com.workflow.service.entity.OrgHoliday;
 import com.workflow.service.repository.OrgHolidayRepository;
+import com.workflow.service.service.CalendarService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +16,7 @@ import java.util.List;
 public class HolidayController {
 
     private final OrgHolidayRepository holidayRepository;
+    private final CalendarService calendarService;
 
     @GetMapping
     public List<OrgHoliday> getHolidays(@RequestParam(required = false) String region) {
@@ -26,17 +28,17 @@ public class HolidayController {
 
     @PostMapping
     public OrgHoliday createHoliday(@RequestBody OrgHoliday holiday) {
-        return holidayRepository.save(holiday);
+        return calendarService.saveHoliday(holiday);
     }
 
     @PostMapping("/bulk")
     public List<OrgHoliday> createHolidays(@RequestBody List<OrgHoliday> holidays) {
-        return holidayRepository.saveAll(holidays);
+        return calendarService.saveHolidays(holidays);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteHoliday(@PathVariable Long id) {
-        holidayRepository.deleteById(id);
+        calendarService.deleteHoliday(id);
         return ResponseEntity.ok().build();
     }
 }
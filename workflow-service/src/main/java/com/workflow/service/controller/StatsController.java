@@ -1,13 +1,22 @@
 package com.workflow.service.controller;
 
+import com.workflow.service.service.AssignmentPlannerService;
+import com.workflow.service.service.CaseAttributeIndexService;
 import com.workflow.service.service.CaseService;
+import com.workflow.service.service.PriorActorIndexService;
+import com.workflow.service.service.StoryboardService;
+import com.workflow.service.service.WorkloadCounterService;
+import com.workflow.service.service.WorkloadProjectionService;
 import com.workflow.service.dto.UserWorkloadDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,6 +28,12 @@ import java.util.List;
 public class StatsController {
 
     private final CaseService caseService;
+    private final WorkloadProjectionService workloadProjectionService;
+    private final StoryboardService storyboardService;
+    private final CaseAttributeIndexService caseAttributeIndexService;
+    private final PriorActorIndexService priorActorIndexService;
+    private final WorkloadCounterService workloadCounterService;
+    private final AssignmentPlannerService assignmentPlannerService;
 
     @Operation(summary = "Get user workload", description = "Retrieves aggregated count of pending cases for each user")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved workload stats")
@@ -27,10 +42,62 @@ public class StatsController {
         return ResponseEntity.ok(caseService.getUserWorkload());
     }
 
-    @Operation(summary = "Get user storyboard", description = "Retrieves backlog of tasks (New, WIP, Closed) for storyboard view")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved storyboard")
+    @Operation(summary = "Rebuild workload projection", description = "Discards the task workload projection and rebuilds it from the engine's open tasks. Use for recovery only")
+    @ApiResponse(responseCode = "200", description = "Projection rebuilt, returns number of open tasks projected")
+    @PostMapping("/workload/rebuild")
+    public ResponseEntity<Integer> rebuildWorkloadProjection() {
+        return ResponseEntity.ok(workloadProjectionService.rebuild());
+    }
+
+    @Operation(summary = "Get user storyboard", description = "Retrieves backlog of tasks (New, WIP, Closed) for storyboard view. Supports If-None-Match; returns 304 when unchanged")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved storyboard"),
+            @ApiResponse(responseCode = "304", description = "Storyboard unchanged since the given ETag")
+    })
     @GetMapping("/storyboard")
-    public ResponseEntity<List<com.workflow.service.dto.UserStoryboardDTO>> getUserStoryboard() {
-        return ResponseEntity.ok(caseService.getUserStoryboard());
+    public ResponseEntity<List<com.workflow.service.dto.UserStoryboardDTO>> getUserStoryboard(WebRequest request) {
+        StoryboardService.StoryboardView view = storyboardService.getStoryboard();
+        if (request.checkNotModified(view.etag())) {
+            return null; // 304 already prepared by checkNotModified
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(view.etag())
+                .body(view.items());
+    }
+
+    @Operation(summary = "Rebuild storyboard", description = "Re-seeds the storyboard closed lane from task history within the retention window. Use for recovery only")
+    @ApiResponse(responseCode = "200", description = "Closed lane rebuilt, returns number of closed tasks loaded")
+    @PostMapping("/storyboard/rebuild")
+    public ResponseEntity<Integer> rebuildStoryboard() {
+        return ResponseEntity.ok(storyboardService.rebuild());
+    }
+
+    @Operation(summary = "Rebuild case attribute index", description = "Re-seeds the searchable case attribute index (initiator, cp_id and each workflow's indexed attributes) from variable history. Run after adding indexed attributes to a workflow, or for recovery")
+    @ApiResponse(responseCode = "200", description = "Index rebuilt, returns number of attribute rows written")
+    @PostMapping("/case-index/rebuild")
+    public ResponseEntity<Integer> rebuildCaseIndex() {
+        return ResponseEntity.ok(caseAttributeIndexService.rebuild());
+    }
+
+    @Operation(summary = "Rebuild prior actor index", description = "Re-seeds the sticky assignment index (last actor per case and role) from finished task history with the current stage roles. Run after changing stage roles, or for recovery")
+    @ApiResponse(responseCode = "200", description = "Index rebuilt, returns number of prior actor rows written")
+    @PostMapping("/prior-actors/rebuild")
+    public ResponseEntity<Integer> rebuildPriorActorIndex() {
+        return ResponseEntity.ok(priorActorIndexService.rebuild());
+    }
+
+    @Operation(summary = "Rebuild workload counters", description = "Re-counts the open tasks per assignee used by least-loaded assignment from the engine's open tasks. Use for recovery only")
+    @ApiResponse(responseCode = "200", description = "Counters rebuilt, returns number of assigned open tasks counted")
+    @PostMapping("/workload-counters/rebuild")
+    public ResponseEntity<Integer> rebuildWorkloadCounters() {
+        return ResponseEntity.ok(workloadCounterService.rebuild());
+    }
+
+    @Operation(summary = "Run assignment planner", description = "Runs one round of the group queue planner now: assigns the unassigned tasks of the planned candidate groups to members, balancing open workload. Runs even when the scheduled planner is disabled")
+    @ApiResponse(responseCode = "200", description = "Round finished, returns number of tasks assigned")
+    @PostMapping("/planner/run")
+    public ResponseEntity<Integer> runAssignmentPlanner() {
+        return ResponseEntity.ok(assignmentPlannerService.run());
     }
 }
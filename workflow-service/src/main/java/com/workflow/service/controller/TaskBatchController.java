@@ -0,0 +1,53 @@
+package com.workflow.service.controller;
+
+import com.workflow.service.dto.BatchTaskRequest;
+import com.workflow.service.service.BatchTaskService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/runtime/tasks")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@Tag(name = "Task Batch Operations", description = "APIs for completing and claiming many tasks in one call")
+public class TaskBatchController {
+
+    private final BatchTaskService batchTaskService;
+
+    @Operation(summary = "Complete tasks in batch", description = "Completes every listed task with the same variables. Outcomes are validated per stage; failures are reported per task without aborting the batch")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see failures for tasks that were not completed"),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+    })
+    @PostMapping("/complete-batch")
+    public ResponseEntity<?> completeBatch(
+            @Parameter(description = "Task IDs, shared completion variables and acting user") @RequestBody BatchTaskRequest request) {
+        String userId = request.getUserId() != null ? request.getUserId() : "user";
+        try {
+            return ResponseEntity.ok(batchTaskService.completeTasks(request.getTaskIds(), request.getVariables(), userId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Claim tasks in batch", description = "Claims every listed task for the given user; failures are reported per task without aborting the batch")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see failures for tasks that were not claimed"),
+            @ApiResponse(responseCode = "400", description = "Missing user, empty or oversized batch")
+    })
+    @PostMapping("/claim-batch")
+    public ResponseEntity<?> claimBatch(
+            @Parameter(description = "Task IDs and claiming user") @RequestBody BatchTaskRequest request) {
+        try {
+            return ResponseEntity.ok(batchTaskService.claimTasks(request.getTaskIds(), request.getUserId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -45,12 +45,12 @@ public class UserLeaveController {
         if (leave.getFromDate() == null || leave.getToDate() == null) {
             throw new IllegalArgumentException("Dates cannot be null");
         }
-        return leaveRepository.save(leave);
+        return calendarService.saveLeave(leave);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteLeave(@PathVariable Long id) {
-        leaveRepository.deleteById(id);
+        calendarService.deleteLeave(id);
         return ResponseEntity.ok().build();
     }
 }
@@ -0,0 +1,12 @@
+package com.workflow.service.dto;
+
+import lombok.Data;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class BatchTaskRequest {
+    private List<String> taskIds;
+    private Map<String, Object> variables; // Applied to every task, e.g. a shared outcome
+    private String userId;
+}
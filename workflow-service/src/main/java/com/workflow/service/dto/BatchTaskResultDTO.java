@@ -0,0 +1,28 @@
+package com.workflow.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTaskResultDTO {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<TaskFailureDTO> failures;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TaskFailureDTO {
+        private String taskId;
+        private String error;
+    }
+}
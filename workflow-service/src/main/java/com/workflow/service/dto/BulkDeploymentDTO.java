@@ -0,0 +1,38 @@
+package com.workflow.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeploymentDTO {
+    private String status; // COMPLETED, COMPLETED_WITH_ERRORS
+    private int total;
+    private int deployed;
+    private int unchanged;
+    private int failed;
+    private int skipped;
+    private int levels; // Depth of the nested-workflow DAG
+    private long totalMillis;
+    private List<WorkflowDeploymentResultDTO> results; // Level order
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WorkflowDeploymentResultDTO {
+        private String workflowCode;
+        private int level; // 0 = no nested workflows; -1 = on or behind a nesting cycle
+        private String status; // DEPLOYED, UNCHANGED, FAILED, SKIPPED
+        private String deploymentId;
+        private long generationMillis;
+        private long deployMillis;
+        private String error;
+    }
+}
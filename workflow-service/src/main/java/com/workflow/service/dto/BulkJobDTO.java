@@ -0,0 +1,36 @@
+package com.workflow.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkJobDTO {
+    private String jobId;
+    private String status; // QUEUED, RUNNING, COMPLETED, COMPLETED_WITH_ERRORS
+    private int total;
+    private int processed;
+    private int succeeded;
+    private int failed;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private List<BulkItemResultDTO> results; // Only when requested
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkItemResultDTO {
+        private String correlationId;
+        private String caseId;
+        private String status; // SUCCESS, FAILED
+        private String error;
+    }
+}
@@ -0,0 +1,11 @@
+package com.workflow.service.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class DirectoryInvalidationRequest {
+    private List<String> roles; // Role codes whose membership changed
+    private List<String> userIds; // Employees whose details changed
+    private boolean all; // Drop everything, e.g. after a bulk HRMS load
+}
@@ -8,6 +8,7 @@ public class InitiateCaseRequest {
     private String workflowCode;
     private Map<String, Object> variables;
     private String userId;
+    private String correlationId; // Bulk initiation only: caller reference echoed back per item
 
     public String getWorkflowCode() {
         return workflowCode;
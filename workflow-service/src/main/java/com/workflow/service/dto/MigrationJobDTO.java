@@ -0,0 +1,31 @@
+package com.workflow.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MigrationJobDTO {
+    private String jobId;
+    private String workflowCode;
+    private String status; // QUEUED, RUNNING, COMPLETED, COMPLETED_WITH_ERRORS, FAILED
+    private String targetDefinitionId;
+    private List<String> sourceDefinitionIds;
+    private int total;
+    private int processed;
+    private int migrated;
+    private int failed;
+    private List<String> retiredDefinitionIds;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private Map<String, String> failures; // Process instance id -> error, first 100
+    private String error; // Why the job stopped early, if it did
+}
@@ -0,0 +1,26 @@
+package com.workflow.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MigrationPlanDTO {
+    private String workflowCode;
+    private String sourceDefinitionId;
+    private int sourceVersion;
+    private String targetDefinitionId;
+    private int targetVersion;
+    private long runningInstances;
+    private Map<String, String> activityMappings; // Source activity -> target activity
+    private List<String> unmappedActivities; // Not in the target; only a problem where instances wait
+    private List<String> validationErrors;
+    private boolean valid;
+}
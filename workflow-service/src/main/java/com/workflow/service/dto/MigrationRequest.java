@@ -0,0 +1,14 @@
+package com.workflow.service.dto;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+public class MigrationRequest {
+    private String workflowCode;
+    private Integer sourceVersion; // Null = every older version with running instances
+    private Map<String, String> activityMappings = new HashMap<>(); // Overrides: source activity -> target activity
+    private boolean retireSource; // Suspend and evict a source version once it has no running instances
+}
@@ -0,0 +1,28 @@
+package com.workflow.service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Round-robin position of one (workflow, stage, pool). {@code position} only grows; the next
+ * assignee is {@code position mod poolSize} over the sorted pool.
+ */
+@Entity
+@Data
+@Table(name = "assignment_cursor")
+public class AssignmentCursor {
+
+    @Id
+    @Column(length = 512)
+    private String cursorKey; // workflowCode|stageCode|poolCode
+
+    private String workflowCode;
+    private String stageCode;
+    private String poolCode;
+
+    @Column(nullable = false)
+    private long position;
+
+    private LocalDateTime updatedAt;
+}
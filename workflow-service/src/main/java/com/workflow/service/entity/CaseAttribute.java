@@ -0,0 +1,36 @@
+package com.workflow.service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Searchable copy of one business variable of a case (initiator, cp_id, ...),
+ * maintained from Flowable variable events. Lets case and history searches
+ * resolve case ids from one narrow index instead of joining the variable tables.
+ */
+@Entity
+@Data
+@Table(name = "case_attribute", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ca_case_attr", columnNames = { "caseId", "attrName" })
+}, indexes = {
+        @Index(name = "idx_ca_lookup", columnList = "attrName, attrValue, caseId")
+})
+public class CaseAttribute {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String caseId;
+
+    private String workflowCode;
+
+    @Column(nullable = false)
+    private String attrName;
+
+    private String attrValue;
+
+    private LocalDateTime updatedAt;
+}
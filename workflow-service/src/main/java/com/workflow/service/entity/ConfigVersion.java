@@ -0,0 +1,35 @@
+package com.workflow.service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Single-row counter bumped in the same transaction as any workflow/stage/screen
+ * configuration change. Nodes poll it to know when their in-memory config
+ * snapshot is stale. The epoch is fixed when the row is created, so a counter that
+ * restarts (restored or recreated schema) is told apart from an older version.
+ */
+@Entity
+@Data
+@Table(name = "config_version")
+public class ConfigVersion {
+
+    public static final Long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long version = 0L;
+
+    private String epoch;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onChange() {
+        updatedAt = LocalDateTime.now();
+    }
+}
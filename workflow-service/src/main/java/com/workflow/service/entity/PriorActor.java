@@ -0,0 +1,42 @@
+package com.workflow.service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Last completion of a user in a role within one case, maintained from task completion
+ * events. Sticky assignment reads the most recent rows for (business key or case, role)
+ * instead of scanning the case's task history. One row per (case, role, user).
+ */
+@Entity
+@Data
+@Table(name = "prior_actor", indexes = {
+        @Index(name = "idx_pa_case_role", columnList = "processInstanceId, roleCode"),
+        @Index(name = "idx_pa_bkey_role", columnList = "businessKey, roleCode")
+})
+public class PriorActor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String processInstanceId;
+
+    private String businessKey;
+
+    // Role of the completed stage (ConfigSnapshot.AssignmentRules.role); null when the stage has none
+    private String roleCode;
+
+    @Column(nullable = false)
+    private String userId;
+
+    private String workflowCode;
+
+    private String stageCode;
+
+    private String taskId;
+
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,36 @@
+package com.workflow.service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Recently completed task for the storyboard CLOSED lane. Written when a task
+ * completes; rows older than the retention window are purged.
+ */
+@Entity
+@Data
+@Table(name = "storyboard_closed_task", indexes = {
+        @Index(name = "idx_sct_end_time", columnList = "endTime")
+})
+public class StoryboardClosedTask {
+
+    @Id
+    private String taskId;
+
+    @Column(nullable = false)
+    private String assignee;
+
+    private String caseId;
+
+    private String stageName;
+
+    private String stageCode;
+
+    private String workflowName;
+
+    private LocalDateTime createdTime;
+
+    @Column(nullable = false)
+    private LocalDateTime endTime;
+}
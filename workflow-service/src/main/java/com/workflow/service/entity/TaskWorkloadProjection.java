@@ -0,0 +1,48 @@
+package com.workflow.service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * One row per open user task, maintained from Flowable task events.
+ * Backs the workload endpoints so they don't have to scan the engine tables.
+ */
+@Entity
+@Data
+@Table(name = "task_workload_projection", indexes = {
+        @Index(name = "idx_twp_assignee", columnList = "assignee"),
+        @Index(name = "idx_twp_updated", columnList = "updatedAt")
+})
+public class TaskWorkloadProjection {
+
+    @Id
+    private String taskId;
+
+    @Column(nullable = false)
+    private String caseId;
+
+    private String processDefinitionId;
+
+    private String stageName;
+
+    private String stageCode;
+
+    private String workflowName;
+
+    private String assignee;
+
+    // Task-local "status" variable; a non-empty value puts the task in the WIP lane
+    private String status;
+
+    // Comma separated candidate group ids
+    @Column(columnDefinition = "TEXT")
+    private String candidateGroups;
+
+    private LocalDateTime createdTime;
+
+    private LocalDateTime dueDate;
+
+    // Last write, so other nodes can pick up changes without re-reading the table
+    private LocalDateTime updatedAt;
+}
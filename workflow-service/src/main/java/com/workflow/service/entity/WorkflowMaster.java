@@ -30,6 +30,9 @@ public class WorkflowMaster {
     // SLA in days (e.g. 0.5, 1.0)
     private BigDecimal slaDurationDays;
 
+    // Comma-separated process variables kept searchable in case_attribute (initiator and cp_id always are)
+    private String indexedAttributes;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
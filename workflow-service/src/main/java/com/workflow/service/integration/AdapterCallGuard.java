@@ -0,0 +1,140 @@
+package com.workflow.service.integration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Protects one adapter operation:
+ * <ul>
+ * <li>bulkhead: at most {@code maxConcurrent} calls in flight; a caller waits up to
+ * {@code maxWait} for a slot, then is rejected</li>
+ * <li>circuit breaker: {@code failureThreshold} consecutive failures open the circuit for
+ * {@code openDuration}; afterwards a single trial call decides whether it closes again</li>
+ * <li>latency histogram {@code workflow.user-adapter.requests}, tagged by endpoint and outcome</li>
+ * </ul>
+ * Rejected calls throw {@link AdapterUnavailableException} without touching the network, so a
+ * slow hrms-service costs task-creating transactions at most the wait, not the timeout.
+ * Client errors (4xx) are answers, not failures, and do not count towards opening the circuit.
+ */
+@Slf4j
+class AdapterCallGuard {
+
+    static final String TIMER = "workflow.user-adapter.requests";
+
+    private final AdapterEndpoint endpoint;
+    private final Semaphore bulkhead;
+    private final long maxWaitMillis;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    private volatile long openUntil; // 0 = closed
+
+    AdapterCallGuard(AdapterEndpoint endpoint, int maxConcurrent, Duration maxWait, int failureThreshold,
+            Duration openDuration, MeterRegistry meterRegistry) {
+        this.endpoint = endpoint;
+        this.bulkhead = new Semaphore(maxConcurrent, true);
+        this.maxWaitMillis = maxWait.toMillis();
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openDuration.toMillis();
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("workflow.user-adapter.circuit.open", this, g -> g.isOpen() ? 1 : 0)
+                .tag("endpoint", endpoint.key())
+                .register(meterRegistry);
+        Gauge.builder("workflow.user-adapter.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .tag("endpoint", endpoint.key())
+                .register(meterRegistry);
+    }
+
+    <T> T call(Supplier<T> call) {
+        boolean trial = false;
+        long until = openUntil;
+        if (until != 0) {
+            if (System.currentTimeMillis() < until || !trialInFlight.compareAndSet(false, true)) {
+                timer("short-circuited").record(Duration.ZERO);
+                throw new AdapterUnavailableException(endpoint, "circuit open");
+            }
+            trial = true;
+        }
+        try {
+            if (!acquire()) {
+                timer("rejected").record(Duration.ZERO);
+                throw new AdapterUnavailableException(endpoint, "bulkhead full");
+            }
+            long start = System.nanoTime();
+            try {
+                T result = call.get();
+                timer("success").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                onSuccess();
+                return result;
+            } catch (HttpClientErrorException e) {
+                timer("client-error").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                onSuccess();
+                throw e;
+            } catch (RuntimeException e) {
+                timer("error").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                onFailure(trial);
+                throw e;
+            } finally {
+                bulkhead.release();
+            }
+        } finally {
+            if (trial) {
+                trialInFlight.set(false);
+            }
+        }
+    }
+
+    boolean isOpen() {
+        return openUntil != 0;
+    }
+
+    private boolean acquire() {
+        try {
+            return bulkhead.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (openUntil != 0) {
+            openUntil = 0;
+            log.info("User adapter {}: circuit closed", endpoint.key());
+        }
+    }
+
+    private void onFailure(boolean trial) {
+        if (trial || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            boolean wasClosed = openUntil == 0;
+            openUntil = System.currentTimeMillis() + openMillis;
+            if (wasClosed || trial) {
+                log.warn("User adapter {}: circuit open for {} ms after {} consecutive failures", endpoint.key(),
+                        openMillis, consecutiveFailures.get());
+            }
+        }
+    }
+
+    private Timer timer(String outcome) {
+        return Timer.builder(TIMER)
+                .description("Calls to the HRMS user adapter")
+                .tag("endpoint", endpoint.key())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
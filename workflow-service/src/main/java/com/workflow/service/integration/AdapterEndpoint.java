@@ -0,0 +1,51 @@
+package com.workflow.service.integration;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Optional;
+
+/**
+ * Operations of the HRMS user adapter. Each has its own response timeout, bulkhead,
+ * circuit breaker and latency histogram, keyed by {@link #key()} in configuration and metrics.
+ */
+public enum AdapterEndpoint {
+
+    ROLE_MEMBERS("role-members", "/role-members", 2000),
+    USER_SEARCH("user-search", "/users/search", 2000),
+    RESOLVE_USERS("resolve-users", "/resolve-users", 3000),
+    RESOLVE_USERS_BATCH("resolve-users-batch", "/resolve-users/batch", 5000);
+
+    private final String key;
+    private final String path;
+    private final long defaultTimeoutMillis;
+
+    AdapterEndpoint(String key, String path, long defaultTimeoutMillis) {
+        this.key = key;
+        this.path = path;
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public String path() {
+        return path;
+    }
+
+    public long defaultTimeoutMillis() {
+        return defaultTimeoutMillis;
+    }
+
+    /**
+     * The operation a request path belongs to (longest matching suffix), if any.
+     */
+    public static Optional<AdapterEndpoint> forPath(String requestPath) {
+        if (requestPath == null) {
+            return Optional.empty();
+        }
+        return Arrays.stream(values())
+                .filter(e -> requestPath.endsWith(e.path))
+                .max(Comparator.comparingInt(e -> e.path.length()));
+    }
+}
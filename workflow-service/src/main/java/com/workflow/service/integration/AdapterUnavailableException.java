@@ -0,0 +1,11 @@
+package com.workflow.service.integration;
+
+/**
+ * A user adapter call was not attempted: its circuit is open or its bulkhead is full.
+ */
+public class AdapterUnavailableException extends RuntimeException {
+
+    public AdapterUnavailableException(AdapterEndpoint endpoint, String reason) {
+        super("User adapter " + endpoint.key() + " unavailable: " + reason);
+    }
+}
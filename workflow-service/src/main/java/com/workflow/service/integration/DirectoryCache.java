@@ -0,0 +1,166 @@
+package com.workflow.service.integration;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Small TTL cache for HRMS directory lookups with stale-while-revalidate.
+ * <ul>
+ * <li>fresh (younger than {@code ttl}): served from memory</li>
+ * <li>stale (younger than {@code maxStale}): served from memory, one background reload is scheduled</li>
+ * <li>expired or missing: loaded synchronously</li>
+ * </ul>
+ * A failed reload keeps serving the last known value until it expires; a loader returning
+ * {@code null} means "failed" and is never cached. A load that overlaps an invalidation is
+ * returned to its caller but not cached. Above {@code maxEntries} the oldest loaded
+ * entries are evicted.
+ */
+@Slf4j
+class DirectoryCache<K, V> {
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+
+    private final String name;
+    private final long ttlMillis;
+    private final long maxStaleMillis;
+    private final int maxEntries;
+    private final Executor refresher;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Set<K> refreshing = ConcurrentHashMap.newKeySet();
+    private final AtomicLong generation = new AtomicLong();
+
+    DirectoryCache(String name, Duration ttl, Duration maxStale, int maxEntries, Executor refresher) {
+        this.name = name;
+        this.ttlMillis = ttl.toMillis();
+        this.maxStaleMillis = Math.max(ttl.toMillis(), maxStale.toMillis());
+        this.maxEntries = maxEntries;
+        this.refresher = refresher;
+    }
+
+    /**
+     * Single-key lookup; {@code loader} returns null on failure.
+     */
+    V get(K key, Function<K, V> loader) {
+        Map<K, V> result = getAll(List.of(key), keys -> {
+            V value = loader.apply(key);
+            return value == null ? null : Map.of(key, value);
+        });
+        return result.get(key);
+    }
+
+    /**
+     * Multi-key lookup; {@code bulkLoader} receives every key that must be (re)loaded and
+     * returns a value per key, or null when the whole call failed. Keys absent from a
+     * successful load are not cached.
+     */
+    Map<K, V> getAll(Collection<K> keys, Function<Collection<K>, Map<K, V>> bulkLoader) {
+        long now = System.currentTimeMillis();
+        Map<K, V> result = new HashMap<>();
+        List<K> missing = new ArrayList<>();
+        List<K> stale = new ArrayList<>();
+        for (K key : keys) {
+            Entry<V> entry = entries.get(key);
+            long age = entry != null ? now - entry.loadedAt() : Long.MAX_VALUE;
+            if (age < ttlMillis) {
+                result.put(key, entry.value());
+            } else if (age < maxStaleMillis) {
+                result.put(key, entry.value());
+                stale.add(key);
+            } else {
+                missing.add(key);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long gen = generation.get();
+            Map<K, V> loaded = bulkLoader.apply(missing);
+            if (loaded != null) {
+                store(loaded, gen);
+                result.putAll(loaded);
+            }
+        }
+        if (!stale.isEmpty()) {
+            List<K> toRefresh = stale.stream().filter(refreshing::add).toList();
+            if (!toRefresh.isEmpty()) {
+                refreshAsync(toRefresh, bulkLoader);
+            }
+        }
+        return result;
+    }
+
+    void invalidate(Collection<K> keys) {
+        generation.incrementAndGet();
+        keys.forEach(entries::remove);
+    }
+
+    void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void refreshAsync(List<K> keys, Function<Collection<K>, Map<K, V>> bulkLoader) {
+        try {
+            long gen = generation.get();
+            refresher.execute(() -> {
+                try {
+                    Map<K, V> loaded = bulkLoader.apply(keys);
+                    if (loaded != null) {
+                        store(loaded, gen);
+                    }
+                } catch (Exception e) {
+                    log.warn("Background refresh of {} cache failed: {}", name, e.getMessage());
+                } finally {
+                    keys.forEach(refreshing::remove);
+                }
+            });
+        } catch (Exception e) {
+            // Refresher saturated: keep serving stale, the next read retries
+            keys.forEach(refreshing::remove);
+        }
+    }
+
+    private void store(Map<K, V> loaded, long loadGeneration) {
+        if (generation.get() != loadGeneration) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        loaded.forEach((key, value) -> {
+            if (value != null) {
+                entries.put(key, new Entry<>(value, now));
+            }
+        });
+        if (entries.size() > maxEntries) {
+            evictOldest();
+        }
+    }
+
+    private synchronized void evictOldest() {
+        int excess = entries.size() - maxEntries;
+        if (excess <= 0) {
+            return;
+        }
+        entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().loadedAt()))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(entries::remove);
+    }
+}
@@ -0,0 +1,118 @@
+package com.workflow.service.integration;
+
+import com.workflow.service.dto.ResolutionRequest;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent matrix resolutions into one batch call.
+ * <p>
+ * Callers enqueue and block; a single dispatcher thread takes the first request, collects
+ * whatever else arrives within {@code window} (up to {@code maxBatch}), sends the unique
+ * requests in one call and completes every caller. While a batch is in flight the next one
+ * accumulates, so load batches itself. A failed batch resolves every caller to no candidates,
+ * like a failed single call.
+ */
+@Slf4j
+class ResolutionBatcher {
+
+    private record Pending(ResolutionRequest request, CompletableFuture<List<String>> result) {
+    }
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Function<List<ResolutionRequest>, List<List<String>>> batchCall;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final long callerTimeoutMillis;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    /**
+     * @param batchCall resolves requests in order, or returns null when the call failed
+     */
+    ResolutionBatcher(Function<List<ResolutionRequest>, List<List<String>>> batchCall,
+            long windowMillis, int maxBatch, long callerTimeoutMillis) {
+        this.batchCall = batchCall;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxBatch = maxBatch;
+        this.callerTimeoutMillis = callerTimeoutMillis;
+        this.dispatcher = new Thread(this::dispatchLoop, "user-adapter-resolve-batcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    List<String> resolve(ResolutionRequest request) {
+        CompletableFuture<List<String>> result = new CompletableFuture<>();
+        queue.add(new Pending(request, result));
+        try {
+            return result.get(callerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Collections.emptyList();
+        } catch (Exception e) {
+            log.error("Batched user resolution did not complete: {}", e.toString());
+            return Collections.emptyList();
+        }
+    }
+
+    void shutdown() {
+        running = false;
+        dispatcher.interrupt();
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            List<Pending> batch = new ArrayList<>();
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                batch.forEach(p -> p.result().complete(Collections.emptyList()));
+                return;
+            }
+            dispatch(batch);
+        }
+    }
+
+    private void dispatch(List<Pending> batch) {
+        // Multi-instance stages send identical requests; resolve each once
+        Map<ResolutionRequest, List<Pending>> unique = new LinkedHashMap<>();
+        batch.forEach(p -> unique.computeIfAbsent(p.request(), k -> new ArrayList<>()).add(p));
+        List<ResolutionRequest> requests = new ArrayList<>(unique.keySet());
+
+        List<List<String>> results;
+        try {
+            results = batchCall.apply(requests);
+        } catch (Exception e) {
+            log.error("Batched user resolution failed: {}", e.getMessage(), e);
+            results = null;
+        }
+        if (results == null || results.size() != requests.size()) {
+            batch.forEach(p -> p.result().complete(Collections.emptyList()));
+            return;
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            List<String> userIds = results.get(i) != null ? results.get(i) : Collections.emptyList();
+            unique.get(requests.get(i)).forEach(p -> p.result().complete(userIds));
+        }
+        log.debug("Resolved {} matrix requests ({} unique) in one call", batch.size(), requests.size());
+    }
+}
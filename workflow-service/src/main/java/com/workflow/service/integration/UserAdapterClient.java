@@ -2,31 +2,138 @@ package com.workflow.service.integration;
 
 import com.workflow.service.dto.ResolutionRequest;
 import com.workflow.service.dto.ResolutionResponse;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Client for the HRMS user adapter.
+ * <p>
+ * Role membership and user names are cached (see {@link DirectoryCache}): HRMS data changes
+ * rarely, and these lookups sit on the task-creation and inbox-render paths. hrms-service
+ * pushes invalidations through {@code POST /api/runtime/directory/invalidate} when
+ * assignments or employees change; the TTL bounds staleness if a signal is lost.
+ * <p>
+ * Matrix resolution ({@link #resolveUsers}) is not cached across transactions. Concurrent
+ * resolutions are coalesced into one {@code /resolve-users/batch} call by {@link ResolutionBatcher},
+ * and repeated identical requests inside one transaction (multi-instance stages) are answered
+ * once per transaction.
+ * <p>
+ * Every call goes through a per-operation {@link AdapterCallGuard} (bulkhead, circuit
+ * breaker, latency histogram) on the pooled client from
+ * {@link com.workflow.service.config.RestTemplateConfig}. A rejected or failed call counts as
+ * "no answer": the caches keep serving what they have, and the assignment listeners fall back
+ * per mechanism ({@code workflow.user-adapter.fallback}).
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class UserAdapterClient {
 
+    private static final Object RESOLUTION_MEMO_KEY = UserAdapterClient.class.getName() + ".resolutions";
+
     private final RestTemplate restTemplate;
+    private final ThreadPoolExecutor refresher;
+    private final DirectoryCache<String, List<String>> roleMembers;
+    // Empty = user unknown to HRMS, cached too so unknown ids don't cost a call per render
+    private final DirectoryCache<String, Optional<String>> userNames;
+    private final ResolutionBatcher resolutionBatcher; // null when batching is disabled
+    private final Map<AdapterEndpoint, AdapterCallGuard> guards = new EnumMap<>(AdapterEndpoint.class);
 
     @Value("${workflow.user-adapter.url}")
     private String adapterUrl;
 
+    public UserAdapterClient(RestTemplate restTemplate, MeterRegistry meterRegistry,
+            @Value("${workflow.user-adapter.cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${workflow.user-adapter.cache.max-stale-seconds:3600}") long maxStaleSeconds,
+            @Value("${workflow.user-adapter.cache.max-roles:5000}") int maxRoles,
+            @Value("${workflow.user-adapter.cache.max-users:50000}") int maxUsers,
+            @Value("${workflow.user-adapter.resolve-batch.enabled:true}") boolean batchEnabled,
+            @Value("${workflow.user-adapter.resolve-batch.window-ms:5}") long batchWindowMillis,
+            @Value("${workflow.user-adapter.resolve-batch.max-size:100}") int batchMaxSize,
+            @Value("${workflow.user-adapter.bulkhead.max-concurrent:20}") int maxConcurrent,
+            @Value("${workflow.user-adapter.bulkhead.max-wait-ms:100}") long maxWaitMillis,
+            @Value("${workflow.user-adapter.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${workflow.user-adapter.circuit-breaker.open-ms:30000}") long openMillis) {
+        this.restTemplate = restTemplate;
+        for (AdapterEndpoint endpoint : AdapterEndpoint.values()) {
+            guards.put(endpoint, new AdapterCallGuard(endpoint, maxConcurrent, Duration.ofMillis(maxWaitMillis),
+                    failureThreshold, Duration.ofMillis(openMillis), meterRegistry));
+        }
+        this.refresher = new ThreadPoolExecutor(1, 2, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(100), r -> {
+            Thread t = new Thread(r, "user-adapter-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        Duration maxStale = Duration.ofSeconds(maxStaleSeconds);
+        this.roleMembers = new DirectoryCache<>("role-members", ttl, maxStale, maxRoles, refresher);
+        this.userNames = new DirectoryCache<>("user-names", ttl, maxStale, maxUsers, refresher);
+        this.resolutionBatcher = batchEnabled
+                ? new ResolutionBatcher(this::fetchResolutions, batchWindowMillis, batchMaxSize, 30_000)
+                : null;
+    }
+
     public List<String> resolveUsers(ResolutionRequest request) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return resolveRemote(request);
+        }
+        @SuppressWarnings("unchecked")
+        Map<ResolutionRequest, List<String>> memo =
+                (Map<ResolutionRequest, List<String>>) TransactionSynchronizationManager.getResource(RESOLUTION_MEMO_KEY);
+        if (memo == null) {
+            memo = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(RESOLUTION_MEMO_KEY, memo);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RESOLUTION_MEMO_KEY);
+                }
+            });
+        }
+        List<String> cached = memo.get(request);
+        if (cached != null) {
+            return cached;
+        }
+        List<String> resolved = resolveRemote(request);
+        if (!resolved.isEmpty()) {
+            // Copy: the caller may change the request after this call
+            memo.put(copyOf(request), resolved);
+        }
+        return resolved;
+    }
+
+    private List<String> resolveRemote(ResolutionRequest request) {
+        if (resolutionBatcher != null) {
+            return resolutionBatcher.resolve(copyOf(request));
+        }
+        return resolveSingle(request);
+    }
+
+    private List<String> resolveSingle(ResolutionRequest request) {
         try {
-            String url = adapterUrl + "/resolve-users";
+            String url = adapterUrl + AdapterEndpoint.RESOLVE_USERS.path();
             log.info("Calling User Adapter at: {}", url);
 
             HttpHeaders headers = new HttpHeaders();
@@ -34,11 +141,14 @@ public class UserAdapterClient {
 
             HttpEntity<ResolutionRequest> entity = new HttpEntity<>(request, headers);
 
-            ResolutionResponse response = restTemplate.postForObject(url, entity, ResolutionResponse.class);
+            ResolutionResponse response = guards.get(AdapterEndpoint.RESOLVE_USERS)
+                    .call(() -> restTemplate.postForObject(url, entity, ResolutionResponse.class));
 
             if (response != null && response.getUserIds() != null) {
                 return response.getUserIds();
             }
+        } catch (AdapterUnavailableException e) {
+            log.warn(e.getMessage());
         } catch (Exception e) {
             log.error("Failed to resolve users via adapter: {}", e.getMessage(), e);
         }
@@ -46,46 +156,136 @@ public class UserAdapterClient {
     }
 
     public List<String> getRoleMembers(String role) {
+        List<String> members = roleMembers.get(role, this::fetchRoleMembers);
+        return members != null ? members : Collections.emptyList();
+    }
+
+    public Map<String, String> searchUsers(List<String> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> names = new HashMap<>();
+        userNames.getAll(new LinkedHashSet<>(userIds), this::fetchUserNames)
+                .forEach((id, name) -> name.ifPresent(n -> names.put(id, n)));
+        return names;
+    }
+
+    // --- Invalidation (pushed by hrms-service) ---
+
+    public void invalidateRoles(Collection<String> roles) {
+        roleMembers.invalidate(roles);
+    }
+
+    public void invalidateUsers(Collection<String> userIds) {
+        userNames.invalidate(userIds);
+    }
+
+    public void invalidateAll() {
+        roleMembers.invalidateAll();
+        userNames.invalidateAll();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+        if (resolutionBatcher != null) {
+            resolutionBatcher.shutdown();
+        }
+    }
+
+    // --- Loaders: null means the call failed and nothing is cached ---
+
+    private List<List<String>> fetchResolutions(List<ResolutionRequest> requests) {
+        if (requests.size() == 1) {
+            return List.of(resolveSingle(requests.get(0)));
+        }
         try {
-            String url = adapterUrl + "/role-members?role=" + role;
-            log.info("Calling User Adapter for Role Members at: {}", url);
-            
-            // Assuming response is List<String> directly
-            @SuppressWarnings("unchecked")
-            List<String> response = restTemplate.getForObject(url, List.class);
-            
-            if (response != null) {
-                return response;
+            String url = adapterUrl + AdapterEndpoint.RESOLVE_USERS_BATCH.path();
+            log.info("Calling User Adapter at: {} ({} requests)", url, requests.size());
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            HttpEntity<List<ResolutionRequest>> entity = new HttpEntity<>(requests, headers);
+
+            ResolutionResponse[] response = guards.get(AdapterEndpoint.RESOLVE_USERS_BATCH)
+                    .call(() -> restTemplate.postForObject(url, entity, ResolutionResponse[].class));
+            if (response == null || response.length != requests.size()) {
+                log.error("Batch resolution returned {} results for {} requests",
+                        response == null ? 0 : response.length, requests.size());
+                return null;
+            }
+            List<List<String>> results = new ArrayList<>(response.length);
+            for (ResolutionResponse r : response) {
+                results.add(r != null && r.getUserIds() != null ? r.getUserIds() : Collections.emptyList());
             }
+            return results;
+        } catch (AdapterUnavailableException e) {
+            log.warn(e.getMessage());
+            return null;
+        } catch (Exception e) {
+            log.error("Failed to resolve users in batch via adapter: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private static ResolutionRequest copyOf(ResolutionRequest request) {
+        ResolutionRequest copy = new ResolutionRequest();
+        copy.setRole(request.getRole());
+        copy.setRegion(request.getRegion());
+        copy.setProduct(request.getProduct());
+        copy.setBusinessSegment(request.getBusinessSegment());
+        copy.setBusinessSubSegment(request.getBusinessSubSegment());
+        copy.setAmount(request.getAmount());
+        copy.setContext(request.getContext() != null ? new HashMap<>(request.getContext()) : null);
+        return copy;
+    }
+
+    private List<String> fetchRoleMembers(String role) {
+        try {
+            String url = adapterUrl + AdapterEndpoint.ROLE_MEMBERS.path() + "?role=" + role;
+            log.debug("Calling User Adapter for Role Members at: {}", url);
+
+            @SuppressWarnings("unchecked")
+            List<String> response = guards.get(AdapterEndpoint.ROLE_MEMBERS)
+                    .call(() -> restTemplate.getForObject(url, List.class));
+            return response != null ? List.copyOf(response) : List.of();
+        } catch (AdapterUnavailableException e) {
+            log.warn(e.getMessage());
+            return null;
         } catch (Exception e) {
             log.error("Failed to get role members via adapter: {}", e.getMessage(), e);
+            return null;
         }
-        return Collections.emptyList();
     }
 
-    public java.util.Map<String, String> searchUsers(List<String> userIds) {
+    @SuppressWarnings("unchecked")
+    private Map<String, Optional<String>> fetchUserNames(Collection<String> userIds) {
         try {
-            String url = adapterUrl + "/users/search";
-            log.info("Calling User Adapter for Batch User Search at: {}", url);
-            
+            String url = adapterUrl + AdapterEndpoint.USER_SEARCH.path();
+            log.debug("Calling User Adapter for Batch User Search at: {} ({} users)", url, userIds.size());
+
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<List<String>> entity = new HttpEntity<>(userIds, headers);
+            HttpEntity<List<String>> entity = new HttpEntity<>(new ArrayList<>(userIds), headers);
 
-            // Need custom response type or use List<Map>
             // Returning Map<UserId, FullName>
-            List<java.util.Map<String, String>> response = restTemplate.postForObject(url, entity, List.class);
-            
+            List<Map<String, String>> response = guards.get(AdapterEndpoint.USER_SEARCH)
+                    .call(() -> restTemplate.postForObject(url, entity, List.class));
+
+            Map<String, Optional<String>> names = new HashMap<>();
+            userIds.forEach(id -> names.put(id, Optional.empty()));
             if (response != null) {
-                java.util.Map<String, String> names = new java.util.HashMap<>();
-                for (java.util.Map<String, String> user : response) {
-                    names.put(user.get("userId"), user.get("fullName"));
+                for (Map<String, String> user : response) {
+                    names.put(user.get("userId"), Optional.ofNullable(user.get("fullName")));
                 }
-                return names;
             }
+            return names;
+        } catch (AdapterUnavailableException e) {
+            log.warn(e.getMessage());
+            return null;
         } catch (Exception e) {
             log.error("Failed to search users via adapter: {}", e.getMessage(), e);
+            return null;
         }
-        return Collections.emptyMap();
     }
 }
@@ -0,0 +1,49 @@
+package com.workflow.service.listener;
+
+import com.workflow.service.service.CaseAttributeIndexService;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.variable.api.event.FlowableVariableEvent;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps the case attribute index in step with process-level variables. Runs inside the
+ * engine transaction, so an index row commits or rolls back with its variable, and a
+ * failed index write fails the variable change.
+ */
+@Component
+public class CaseAttributeIndexListener extends LazyServiceEventListener<CaseAttributeIndexService> {
+
+    // No VARIABLE_DELETED: the engine also deletes every variable when a case ends, and ended
+    // cases must stay searchable for task history. The last value is kept, as in history.
+    public static final List<FlowableEngineEventType> EVENT_TYPES = List.of(
+            FlowableEngineEventType.VARIABLE_CREATED,
+            FlowableEngineEventType.VARIABLE_UPDATED);
+
+    public CaseAttributeIndexListener(ObjectProvider<CaseAttributeIndexService> indexService) {
+        super(indexService);
+    }
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        if (!(event instanceof FlowableVariableEvent variableEvent)) {
+            return;
+        }
+        String caseId = variableEvent.getProcessInstanceId();
+        // Process-level variables only: not task-local, not local to a child execution
+        if (caseId == null || variableEvent.getTaskId() != null
+                || !caseId.equals(variableEvent.getExecutionId())) {
+            return;
+        }
+        String workflowCode = variableEvent.getProcessDefinitionId() != null
+                ? variableEvent.getProcessDefinitionId().split(":")[0] : null;
+        CaseAttributeIndexService index = service();
+        if (index.isIndexed(workflowCode, variableEvent.getVariableName())) {
+            index.onVariableSet(caseId, workflowCode, variableEvent.getVariableName(),
+                    variableEvent.getVariableValue());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.workflow.service.listener;
+
+import org.flowable.common.engine.api.delegate.event.FlowableEventListener;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Base for the engine-wide listeners registered in {@link com.workflow.service.config.FlowableConfig}
+ * that hand events to a service.
+ * <p>
+ * The listeners are created with the engine configuration, before the services they feed (which
+ * depend on engine beans), so the service is looked up on first use. Listeners run inside the
+ * engine transaction; by default an exception fails the operation that raised the event.
+ */
+public abstract class LazyServiceEventListener<S> implements FlowableEventListener {
+
+    private final ObjectProvider<S> serviceProvider;
+
+    protected LazyServiceEventListener(ObjectProvider<S> serviceProvider) {
+        this.serviceProvider = serviceProvider;
+    }
+
+    protected S service() {
+        return serviceProvider.getObject();
+    }
+
+    @Override
+    public boolean isFailOnException() {
+        return true;
+    }
+
+    @Override
+    public boolean isFireOnTransactionLifecycleEvent() {
+        return false;
+    }
+
+    @Override
+    public String getOnTransaction() {
+        return null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.workflow.service.listener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.api.delegate.Expression;
+import org.flowable.task.service.delegate.DelegateTask;
+import org.flowable.task.service.delegate.TaskListener;
+import org.springframework.stereotype.Component;
+
+@Component("leastLoadedAssignmentListener")
+@org.springframework.context.annotation.Scope(org.springframework.beans.factory.config.ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+@RequiredArgsConstructor
+@Slf4j
+public class LeastLoadedAssignmentListener implements TaskListener {
+
+    private final com.workflow.service.service.AssignmentStrategyService assignmentStrategyService;
+
+    // Injected via Field Extension
+    @lombok.Setter
+    private Expression pool;
+
+    @Override
+    public void notify(DelegateTask delegateTask) {
+        try {
+            String roleCode = (String) pool.getValue(delegateTask);
+            assignmentStrategyService.executeLeastLoaded(delegateTask, roleCode);
+        } catch (Exception e) {
+            log.error("Failed to execute Least Loaded assignment", e);
+        }
+    }
+}
@@ -20,6 +20,7 @@ public class MatrixAssignmentListener implements TaskListener {
 
     private final UserAdapterClient userAdapterClient;
     private final com.workflow.service.service.CalendarService calendarService;
+    private final com.workflow.service.service.AssignmentStrategyService assignmentStrategyService;
 
     // Injected via Field Extension
     @lombok.Setter
@@ -73,12 +74,12 @@ public class MatrixAssignmentListener implements TaskListener {
 
             if (candidates == null || candidates.isEmpty()) {
                 log.warn("No candidates found for Matrix Rule: {}", roleCode);
+                assignmentStrategyService.applyMatrixFallback(delegateTask, roleCode);
                 return;
             }
 
             // DELEGATION LOGIC: Check substitutes for all candidates
-            List<String> effectiveCandidates = candidates.stream()
-                    .map(calendarService::getEffectiveAssignee)
+            List<String> effectiveCandidates = calendarService.getEffectiveAssignees(candidates).values().stream()
                     .distinct()
                     .toList();
 
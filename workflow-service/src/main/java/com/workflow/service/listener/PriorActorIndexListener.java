@@ -0,0 +1,41 @@
+package com.workflow.service.listener;
+
+import com.workflow.service.service.PriorActorIndexService;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEntityEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.task.api.Task;
+import org.flowable.variable.api.delegate.VariableScope;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Records who completed each task in the prior actor index used by sticky assignment.
+ * Runs inside the engine transaction, so an index row commits or rolls back with the
+ * completion, and a failed index write fails the completion.
+ */
+@Component
+public class PriorActorIndexListener extends LazyServiceEventListener<PriorActorIndexService> {
+
+    public static final List<FlowableEngineEventType> EVENT_TYPES = List.of(
+            FlowableEngineEventType.TASK_COMPLETED);
+
+    public PriorActorIndexListener(ObjectProvider<PriorActorIndexService> indexService) {
+        super(indexService);
+    }
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        if (!(event instanceof FlowableEntityEvent entityEvent) || !(entityEvent.getEntity() instanceof Task task)) {
+            return;
+        }
+        String userId = task.getAssignee();
+        if (userId == null && task instanceof VariableScope scope
+                && scope.getVariableLocal(PriorActorIndexService.SAVED_ASSIGNEE_VARIABLE) instanceof String saved) {
+            userId = saved;
+        }
+        service().onTaskCompleted(task, userId);
+    }
+}
@@ -1,24 +1,17 @@
 package com.workflow.service.listener;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.workflow.service.entity.StageConfig;
 import com.workflow.service.integration.UserAdapterClient;
-import com.workflow.service.repository.StageConfigRepository;
+import com.workflow.service.service.AssignmentStrategyService;
 import com.workflow.service.service.CalendarService;
+import com.workflow.service.service.PriorActorIndexService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.flowable.common.engine.api.delegate.Expression;
-import org.flowable.engine.HistoryService;
-import org.flowable.engine.RuntimeService; 
-import org.flowable.task.api.history.HistoricTaskInstance;
 import org.flowable.task.service.delegate.DelegateTask;
 import org.flowable.task.service.delegate.TaskListener;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
 
 @Component("stickyAssignmentListener")
 @org.springframework.context.annotation.Scope(org.springframework.beans.factory.config.ConfigurableBeanFactory.SCOPE_PROTOTYPE)
@@ -27,11 +20,9 @@ import java.util.Optional;
 public class StickyAssignmentListener implements TaskListener {
 
     private final UserAdapterClient userAdapterClient;
-    private final HistoryService historyService;
     private final CalendarService calendarService;
-    private final StageConfigRepository stageConfigRepository;
-    private final ObjectMapper objectMapper;
-    private final RuntimeService runtimeService; // Inject RuntimeService
+    private final PriorActorIndexService priorActorIndexService;
+    private final AssignmentStrategyService assignmentStrategyService;
 
     // "role" can be passed as Field Extension to know WHICH role group to look for
     @lombok.Setter
@@ -39,7 +30,7 @@ public class StickyAssignmentListener implements TaskListener {
 
     @Override
     public void notify(DelegateTask delegateTask) {
-        log.error(">>> STICKY LISTENER TRIGGERED for Task: {} (ID: {}) <<<", delegateTask.getName(), delegateTask.getId());
+        log.debug("Sticky listener triggered for Task: {} (ID: {})", delegateTask.getName(), delegateTask.getId());
         String roleCode = null;
         try {
             if (role != null) {
@@ -57,6 +48,7 @@ public class StickyAssignmentListener implements TaskListener {
             List<String> currentCandidates = userAdapterClient.getRoleMembers(roleCode);
             if (currentCandidates == null || currentCandidates.isEmpty()) {
                 log.warn("Sticky Assignment: No candidates found for Role {}. Cannot assign.", roleCode);
+                assignmentStrategyService.applyStickyFallback(delegateTask, roleCode);
                 return;
             }
 
@@ -68,123 +60,11 @@ public class StickyAssignmentListener implements TaskListener {
                 return;
             }
 
-            // 3. Find Prior Actor from HISTORY
-            String processInstanceId = delegateTask.getProcessInstanceId();
-            String processDefinitionId = delegateTask.getProcessDefinitionId();
-            
-            // Try to lookup Business Key correctly using RuntimeService
-            String businessKey = null;
-            try {
-                 // Try RuntimeService first (active process)
-                 org.flowable.engine.runtime.ProcessInstance processInstance = runtimeService.createProcessInstanceQuery()
-                        .processInstanceId(processInstanceId)
-                        .singleResult();
-                 if (processInstance != null) {
-                     businessKey = processInstance.getBusinessKey();
-                 }
-                
-                // Fallback to History if runtime failed (or not found)
-                if (businessKey == null) {
-                     org.flowable.engine.history.HistoricProcessInstance currentInst = historyService.createHistoricProcessInstanceQuery()
-                             .processInstanceId(processInstanceId)
-                             .singleResult();
-                     if (currentInst != null) businessKey = currentInst.getBusinessKey();
-                }
-            } catch (Exception e) {
-                log.warn("Failed to retrieve Business Key", e);
-            }
-
-            log.info("Sticky Assignment: PID: {}, BusinessKey: {}", processInstanceId, businessKey);
-
-            List<HistoricTaskInstance> history;
-            if (businessKey != null) {
-                history = historyService.createHistoricTaskInstanceQuery()
-                        .processInstanceBusinessKey(businessKey)
-                        .finished()
-                        .includeTaskLocalVariables() // CRITICAL: Fetch variables to recover savedAssignee
-                        .orderByHistoricTaskInstanceEndTime().desc()
-                        .list();
-            } else {
-                history = historyService.createHistoricTaskInstanceQuery()
-                        .processInstanceId(processInstanceId)
-                        .finished()
-                        .includeTaskLocalVariables() // CRITICAL: Fetch variables to recover savedAssignee
-                        .orderByHistoricTaskInstanceEndTime().desc()
-                        .list();
-            }
-
-            String stickyUser = null;
-            log.info("Sticky Assignment: History Query found {} tasks.", history.size());
-
-            // --- DEBUG: Print Full History Trace ---
-            log.info("==================== HISTORY TRACE ====================");
-            log.info(String.format("%-20s | %-20s | %-15s | %-15s | %-15s", "Task Name", "Stage Code", "User", "Config Role", "Workflow"));
-            for (HistoricTaskInstance h : history) {
-                try {
-                     String wf = h.getProcessDefinitionId() != null ? h.getProcessDefinitionId().split(":")[0] : "N/A";
-                     String stg = h.getTaskDefinitionKey();
-                     
-                     // Helper Logic for Assignee Recovery
-                     String usr = h.getAssignee();
-                     if (usr == null && h.getTaskLocalVariables() != null) {
-                         usr = (String) h.getTaskLocalVariables().get("savedAssignee");
-                     }
-                     
-                     String role = "UNKNOWN";
-                     Optional<StageConfig> cfg = stageConfigRepository.findByWorkflowCodeAndStageCode(wf, stg);
-                     if (cfg.isPresent()) {
-                         role = getTaskRole(cfg.get());
-                     }
-                     
-                     log.info(String.format("%-20s | %-20s | %-15s | %-15s | %-15s", h.getName(), stg, usr, role, wf));
-                } catch (Exception e) {
-                    log.error("Error logging trace for task {}", h.getId(), e);
-                }
-            }
-            log.info("=======================================================");
-            // ----------------------------------------
-
-            for (HistoricTaskInstance histTask : history) {
-                // Recover Assignee
-                String potentialUser = histTask.getAssignee();
-                if (potentialUser == null && histTask.getTaskLocalVariables() != null) {
-                    potentialUser = (String) histTask.getTaskLocalVariables().get("savedAssignee");
-                    if (potentialUser != null) {
-                        log.info(" - Recovered Assignee {} from 'savedAssignee' var for task {}", potentialUser, histTask.getName());
-                    }
-                }
-                
-                // Safe check for null definition ID
-                if (histTask.getProcessDefinitionId() == null) continue;
-                
-                String histWfCode = histTask.getProcessDefinitionId().split(":")[0];
-                String stageCode = histTask.getTaskDefinitionKey();
-                
-                log.info(" - Checking: {} (User: {})", histTask.getName(), potentialUser);
-
-                if (potentialUser == null || !currentCandidates.contains(potentialUser)) {
-                    log.info("   -> Skipped: User null or not in current candidate list for Role {}", roleCode);
-                    continue; 
-                }
-
-                // Lookup StageConfig using the HISTORIC task's workflow code
-                Optional<StageConfig> configOpt = stageConfigRepository.findByWorkflowCodeAndStageCode(histWfCode, stageCode);
-                if (configOpt.isPresent()) {
-                    StageConfig config = configOpt.get();
-                    String configRole = getTaskRole(config); // Use helper for logging
-                    
-                    if (isStageForRole(config, roleCode)) {
-                        stickyUser = potentialUser;
-                        log.info("   -> MATCH! Found prior actor {} from task {} (Stage matched Role: {})", stickyUser, histTask.getName(), configRole);
-                        break;
-                    } else {
-                        log.info("   -> Mismatch: Stage {} is configured for Role '{}', but we need '{}'", stageCode, configRole, roleCode);
-                        log.info("      -> Rules JSON: {}", config.getAssignmentRules());
-                    }
-                } else {
-                    log.info("   -> Warning: No StageConfig found for StageCode: {} in Workflow: {}", stageCode, histWfCode);
-                }
-            }
+            // 3. Find Prior Actor from the index (latest completion in this role, still a candidate)
+            String stickyUser = priorActorIndexService.findPriorActor(delegateTask.getProcessInstanceId(), roleCode,
+                    currentCandidates);
+            log.info("Sticky Assignment: PID: {}, prior actor for Role {}: {}", delegateTask.getProcessInstanceId(),
+                    roleCode, stickyUser);
 
             if (stickyUser != null) {
                 // 3. Availability Check
@@ -218,23 +98,4 @@ public class StickyAssignmentListener implements TaskListener {
             log.error("Failed to execute Sticky assignment", e);
         }
     }
-
-    private String getTaskRole(StageConfig config) {
-        if (config.getAssignmentRules() == null || config.getAssignmentRules().isBlank()) return "N/A";
-        try {
-            Map<String, Object> rules = objectMapper.readValue(config.getAssignmentRules(), new TypeReference<Map<String, Object>>() {});
-            String role = (String) rules.getOrDefault("role", null);
-            if (role == null) role = (String) rules.getOrDefault("groupName", null);
-            if (role == null) role = (String) rules.getOrDefault("roundRobinPool", null);
-            if (role == null) role = (String) rules.getOrDefault("matrixRole", null);
-            return role != null ? role : "N/A";
-        } catch (Exception e) {
-            return "Error";
-        }
-    }
-
-    private boolean isStageForRole(StageConfig config, String targetRole) {
-        String role = getTaskRole(config);
-        return targetRole.equals(role);
-    }
 }
@@ -0,0 +1,48 @@
+package com.workflow.service.listener;
+
+import com.workflow.service.service.WorkloadCounterService;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEntityEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.task.api.Task;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Engine-wide event listener keeping the open-task counters of the least-loaded strategy
+ * current. Registered in {@link com.workflow.service.config.FlowableConfig}.
+ */
+@Component
+public class WorkloadCounterListener extends LazyServiceEventListener<WorkloadCounterService> {
+
+    public static final List<FlowableEngineEventType> EVENT_TYPES = List.of(
+            FlowableEngineEventType.TASK_CREATED,
+            FlowableEngineEventType.TASK_ASSIGNED,
+            FlowableEngineEventType.TASK_COMPLETED,
+            FlowableEngineEventType.ENTITY_DELETED);
+
+    public WorkloadCounterListener(ObjectProvider<WorkloadCounterService> counterService) {
+        super(counterService);
+    }
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        if (!(event instanceof FlowableEntityEvent entityEvent) || !(entityEvent.getEntity() instanceof Task task)) {
+            return;
+        }
+        switch ((FlowableEngineEventType) event.getType()) {
+            case TASK_CREATED, TASK_ASSIGNED -> service().onTaskAssigned(task.getId(), task.getAssignee());
+            case TASK_COMPLETED, ENTITY_DELETED -> service().onTaskRemoved(task.getId());
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public boolean isFailOnException() {
+        // In-memory counters only steer assignment; the periodic re-sync repairs them
+        return false;
+    }
+}
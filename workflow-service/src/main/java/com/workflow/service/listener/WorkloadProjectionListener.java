@@ -0,0 +1,88 @@
+package com.workflow.service.listener;
+
+import com.workflow.service.service.StoryboardService;
+import com.workflow.service.service.WorkloadProjectionService;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEntityEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.identitylink.api.IdentityLink;
+import org.flowable.identitylink.api.IdentityLinkType;
+import org.flowable.task.api.Task;
+import org.flowable.variable.api.event.FlowableVariableEvent;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Engine-wide event listener feeding the task workload projection and the storyboard.
+ * Runs inside the engine transaction, so the projection commits or rolls back with the
+ * task change; a failed projection write fails the task operation rather than letting the
+ * projection drift.
+ */
+@Component
+public class WorkloadProjectionListener extends LazyServiceEventListener<WorkloadProjectionService> {
+
+    public static final List<FlowableEngineEventType> EVENT_TYPES = List.of(
+            FlowableEngineEventType.TASK_CREATED,
+            FlowableEngineEventType.TASK_ASSIGNED,
+            FlowableEngineEventType.TASK_COMPLETED,
+            FlowableEngineEventType.TASK_NAME_CHANGED,
+            FlowableEngineEventType.TASK_DUEDATE_CHANGED,
+            FlowableEngineEventType.ENTITY_CREATED,
+            FlowableEngineEventType.ENTITY_DELETED,
+            FlowableEngineEventType.VARIABLE_CREATED,
+            FlowableEngineEventType.VARIABLE_UPDATED,
+            FlowableEngineEventType.VARIABLE_DELETED);
+
+    private static final String STATUS_VARIABLE = "status";
+
+    private final ObjectProvider<StoryboardService> storyboardService;
+
+    public WorkloadProjectionListener(ObjectProvider<WorkloadProjectionService> projectionService,
+            ObjectProvider<StoryboardService> storyboardService) {
+        super(projectionService);
+        this.storyboardService = storyboardService;
+    }
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        if (event instanceof FlowableVariableEvent variableEvent) {
+            // Task-local "status" decides the NEW / WIP storyboard lane
+            if (variableEvent.getTaskId() != null && STATUS_VARIABLE.equals(variableEvent.getVariableName())) {
+                Object value = event.getType() == FlowableEngineEventType.VARIABLE_DELETED
+                        ? null : variableEvent.getVariableValue();
+                service().onTaskStatusChanged(variableEvent.getTaskId(),
+                        value != null ? value.toString() : null);
+            }
+            return;
+        }
+        if (!(event instanceof FlowableEntityEvent entityEvent)) {
+            return;
+        }
+        Object entity = entityEvent.getEntity();
+        FlowableEngineEventType type = (FlowableEngineEventType) event.getType();
+
+        if (entity instanceof Task task) {
+            switch (type) {
+                case TASK_CREATED, TASK_ASSIGNED, TASK_NAME_CHANGED, TASK_DUEDATE_CHANGED ->
+                        service().onTaskChanged(task);
+                case TASK_COMPLETED -> {
+                    storyboardService.getObject().onTaskCompleted(task);
+                    service().onTaskRemoved(task.getId());
+                }
+                case ENTITY_DELETED -> service().onTaskRemoved(task.getId());
+                default -> {
+                }
+            }
+        } else if (entity instanceof IdentityLink link && link.getTaskId() != null && link.getGroupId() != null
+                && IdentityLinkType.CANDIDATE.equals(link.getType())) {
+            // Candidate groups added or removed after the task was created (e.g. by a task listener)
+            if (type == FlowableEngineEventType.ENTITY_CREATED) {
+                service().onCandidateGroupChanged(link.getTaskId(), link.getGroupId(), true);
+            } else if (type == FlowableEngineEventType.ENTITY_DELETED) {
+                service().onCandidateGroupChanged(link.getTaskId(), link.getGroupId(), false);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.workflow.service.repository;
+
+import com.workflow.service.entity.AssignmentCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AssignmentCursorRepository extends JpaRepository<AssignmentCursor, String> {
+
+    // The row lock taken by this update is held only by the short cursor transaction
+    @Modifying
+    @Query("UPDATE AssignmentCursor c SET c.position = c.position + 1, c.updatedAt = :now WHERE c.cursorKey = :cursorKey")
+    int increment(String cursorKey, LocalDateTime now);
+
+    @Query("SELECT c.position FROM AssignmentCursor c WHERE c.cursorKey = :cursorKey")
+    Optional<Long> findPosition(String cursorKey);
+
+    // Never moves a cursor backwards (in-memory write-back)
+    @Modifying
+    @Query("UPDATE AssignmentCursor c SET c.position = :position, c.updatedAt = :now"
+            + " WHERE c.cursorKey = :cursorKey AND c.position < :position")
+    int advanceTo(String cursorKey, long position, LocalDateTime now);
+}
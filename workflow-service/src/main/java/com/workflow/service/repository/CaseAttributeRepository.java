@@ -0,0 +1,33 @@
+package com.workflow.service.repository;
+
+import com.workflow.service.entity.CaseAttribute;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CaseAttributeRepository extends JpaRepository<CaseAttribute, Long> {
+
+    // Called for every indexed variable event: no auto-flush of the whole persistence context
+    // first. Rows written earlier in the same transaction are tracked by the index service.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    Optional<CaseAttribute> findByCaseIdAndAttrName(String caseId, String attrName);
+
+    @Query("SELECT a.caseId FROM CaseAttribute a WHERE a.attrName = :attrName AND a.attrValue = :attrValue")
+    List<String> findCaseIds(String attrName, String attrValue);
+
+    @Modifying
+    @Query("DELETE FROM CaseAttribute a WHERE a.caseId = :caseId AND a.attrName = :attrName")
+    int deleteByCaseIdAndAttrName(String caseId, String attrName);
+
+    @Modifying
+    @Query("DELETE FROM CaseAttribute a WHERE a.workflowCode = :workflowCode AND a.attrName = :attrName")
+    int deleteByWorkflowCodeAndAttrName(String workflowCode, String attrName);
+}
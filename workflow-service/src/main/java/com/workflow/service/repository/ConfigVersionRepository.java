@@ -0,0 +1,15 @@
+package com.workflow.service.repository;
+
+import com.workflow.service.entity.ConfigVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ConfigVersionRepository extends JpaRepository<ConfigVersion, Long> {
+
+    @Modifying
+    @Query("UPDATE ConfigVersion v SET v.version = v.version + 1, v.updatedAt = CURRENT_TIMESTAMP WHERE v.id = :id")
+    int increment(Long id);
+}
@@ -0,0 +1,20 @@
+package com.workflow.service.repository;
+
+import com.workflow.service.entity.PriorActor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PriorActorRepository extends JpaRepository<PriorActor, Long> {
+
+    List<PriorActor> findByProcessInstanceIdAndUserId(String processInstanceId, String userId);
+
+    List<PriorActor> findByBusinessKeyAndRoleCodeOrderByCompletedAtDescIdDesc(String businessKey, String roleCode);
+
+    List<PriorActor> findByProcessInstanceIdAndRoleCodeOrderByCompletedAtDescIdDesc(String processInstanceId,
+            String roleCode);
+
+    List<PriorActor> findByProcessInstanceIdOrderByCompletedAtDescIdDesc(String processInstanceId);
+}
@@ -1,7 +1,9 @@
 package com.workflow.service.repository;
 
 import com.workflow.service.entity.StageConfig;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -15,4 +17,8 @@ public interface StageConfigRepository extends JpaRepository<StageConfig, Long>
     boolean existsByWorkflowCodeAndStageCode(String workflowCode, String stageCode);
 
     void deleteByWorkflowCode(String workflowCode);
+
+    @EntityGraph(attributePaths = "actions")
+    @Query("SELECT s FROM StageConfig s")
+    List<StageConfig> findAllWithActions();
 }
@@ -0,0 +1,20 @@
+package com.workflow.service.repository;
+
+import com.workflow.service.entity.StoryboardClosedTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StoryboardClosedTaskRepository extends JpaRepository<StoryboardClosedTask, String> {
+
+    List<StoryboardClosedTask> findByEndTimeAfter(LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM StoryboardClosedTask t WHERE t.endTime < :cutoff")
+    int purgeOlderThan(LocalDateTime cutoff);
+}
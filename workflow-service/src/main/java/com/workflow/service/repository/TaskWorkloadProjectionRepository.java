@@ -0,0 +1,18 @@
+package com.workflow.service.repository;
+
+import com.workflow.service.entity.TaskWorkloadProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskWorkloadProjectionRepository extends JpaRepository<TaskWorkloadProjection, String> {
+
+    List<TaskWorkloadProjection> findByUpdatedAtAfter(LocalDateTime since);
+
+    @Query("SELECT p.taskId FROM TaskWorkloadProjection p")
+    List<String> findAllTaskIds();
+}
@@ -16,5 +16,9 @@ public interface UserLeaveRepository extends JpaRepository<UserLeave, Long> {
     @Query("SELECT l FROM UserLeave l WHERE l.userId = :userId AND l.active = true AND :checkTime BETWEEN l.fromDate AND l.toDate")
     List<UserLeave> findActiveLeave(String userId, LocalDateTime checkTime);
 
+    // Source of the in-memory leave index: everything not yet ended
+    @Query("SELECT l FROM UserLeave l WHERE l.active = true AND l.toDate >= :now")
+    List<UserLeave> findCurrentAndUpcoming(LocalDateTime now);
+
     List<UserLeave> findByUserId(String userId);
 }
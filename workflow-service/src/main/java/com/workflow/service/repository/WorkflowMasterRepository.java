@@ -3,6 +3,7 @@ package com.workflow.service.repository;
 import com.workflow.service.entity.WorkflowMaster;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
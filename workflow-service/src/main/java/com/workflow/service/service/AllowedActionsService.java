@@ -0,0 +1,154 @@
+package com.workflow.service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.repository.ProcessDefinition;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serialized {@code allowedActions} payloads, compiled once per deployed process
+ * definition and stage so task listings don't rebuild them for every task.
+ * <p>
+ * Definitions are compiled at deploy time. An entry compiled from an older
+ * configuration snapshot is recompiled (from memory) the next time it is read,
+ * so stage action edits still show up without a redeploy, exactly as before.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AllowedActionsService {
+
+    private final ConfigSnapshotService configSnapshotService;
+    private final RepositoryService repositoryService;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, CompiledDefinition> compiled = new ConcurrentHashMap<>();
+
+    /**
+     * Compiled actions for a process definition, or null if the definition does not exist.
+     */
+    public CompiledDefinition forDefinition(String processDefinitionId) {
+        if (processDefinitionId == null) {
+            return null;
+        }
+        ConfigSnapshot snapshot = configSnapshotService.get();
+        CompiledDefinition entry = compiled.get(processDefinitionId);
+        if (entry != null && entry.configVersion() == snapshot.version()) {
+            return entry;
+        }
+
+        String workflowCode = entry != null ? entry.workflowCode() : lookupWorkflowCode(processDefinitionId);
+        if (workflowCode == null) {
+            return null;
+        }
+        return compile(processDefinitionId, workflowCode, snapshot);
+    }
+
+    /**
+     * Drops a retired definition; it is compiled again should it ever be asked for.
+     */
+    public void evict(String processDefinitionId) {
+        compiled.remove(processDefinitionId);
+    }
+
+    /**
+     * Compiles and caches the actions of a freshly deployed definition.
+     */
+    public void compileDefinition(ProcessDefinition processDefinition) {
+        compile(processDefinition.getId(), processDefinition.getKey(), configSnapshotService.get());
+        log.info("Compiled allowed actions for {}", processDefinition.getId());
+    }
+
+    private CompiledDefinition compile(String processDefinitionId, String workflowCode, ConfigSnapshot snapshot) {
+        Map<String, String> byStage = new HashMap<>();
+        for (ConfigSnapshot.StageDef stage : snapshot.stages(workflowCode)) {
+            try {
+                byStage.put(stage.stageCode(), objectMapper.writeValueAsString(buildActions(snapshot, stage)));
+            } catch (Exception e) {
+                log.warn("Failed to serialize actions for stage: {}", stage.stageCode(), e);
+            }
+        }
+
+        CompiledDefinition entry = new CompiledDefinition(workflowCode, snapshot.version(), Map.copyOf(byStage));
+        // A negative version is a transaction-local view of uncommitted config; never cache it
+        if (snapshot.version() >= 0) {
+            compiled.put(processDefinitionId, entry);
+        }
+        return entry;
+    }
+
+    private List<Map<String, Object>> buildActions(ConfigSnapshot snapshot, ConfigSnapshot.StageDef stage) {
+        List<Map<String, Object>> actionMaps = new ArrayList<>();
+        if (stage.hasActions()) {
+            // US-2: Enrich with Manual Assignment Requirements
+            for (ConfigSnapshot.ActionDef a : stage.actions()) {
+                Map<String, Object> m = new LinkedHashMap<>();
+                m.put("label", a.actionLabel());
+                m.put("value", a.actionLabel());
+                m.put("style", a.buttonStyle());
+                m.put("target", a.targetType());
+                m.put("postStatus", a.postActionStatus());
+                enrichWithManualAssignmentInfo(snapshot, m, a.targetType(), a.targetStage(), stage);
+                actionMaps.add(m);
+            }
+        } else {
+            // Default Implicit Action "Complete" -> NEXT
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("label", "Complete");
+            m.put("value", "Complete");
+            m.put("style", "default");
+            m.put("target", "NEXT");
+            enrichWithManualAssignmentInfo(snapshot, m, "NEXT", null, stage);
+            actionMaps.add(m);
+        }
+        return actionMaps;
+    }
+
+    private void enrichWithManualAssignmentInfo(ConfigSnapshot snapshot, Map<String, Object> m, String targetType,
+            String targetStage, ConfigSnapshot.StageDef current) {
+        Optional<ConfigSnapshot.StageDef> target = Optional.empty();
+
+        if ("SPECIFIC".equals(targetType)) {
+            target = snapshot.stage(current.workflowCode(), targetStage);
+        } else if ("NEXT".equals(targetType)) {
+            target = snapshot.nextStage(current.workflowCode(), current.stageCode());
+        }
+
+        target.map(ConfigSnapshot.StageDef::assignmentRules)
+                .filter(ConfigSnapshot.AssignmentRules::isManual)
+                .ifPresent(rules -> {
+                    m.put("requiresManualAssignment", true);
+                    m.put("assignmentGroup", rules.groupName());
+                });
+    }
+
+    private String lookupWorkflowCode(String processDefinitionId) {
+        try {
+            // Served from the engine's deployment cache
+            return repositoryService.getProcessDefinition(processDefinitionId).getKey();
+        } catch (Exception e) {
+            log.warn("Process definition not found: {}", processDefinitionId);
+            return null;
+        }
+    }
+
+    /**
+     * Pre-serialized allowedActions JSON per stage code of one process definition.
+     */
+    public record CompiledDefinition(String workflowCode, long configVersion, Map<String, String> actionsByStage) {
+
+        public String actionsFor(String stageCode) {
+            return stageCode == null ? null : actionsByStage.get(stageCode);
+        }
+    }
+}
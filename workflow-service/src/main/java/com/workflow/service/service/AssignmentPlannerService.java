@@ -0,0 +1,247 @@
+package com.workflow.service.service;
+
+import com.workflow.service.entity.TaskWorkloadProjection;
+import com.workflow.service.integration.UserAdapterClient;
+import com.workflow.service.solver.AssignmentSolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.engine.TaskService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Background planner for the group queues: periodically assigns the unassigned tasks of
+ * candidate groups to group members with {@link AssignmentSolver}, balancing against the
+ * live open-task counts of {@link WorkloadCounterService}, and claims the result in bulk.
+ * <p>
+ * Incremental: tasks assigned in earlier rounds are fixed load, not re-planned. A task
+ * without an eligible user is parked with the user set it was planned against and only
+ * re-planned once that set changes, so a round with nothing new skips the solver.
+ * Disabled by default ({@code workflow.planner.enabled}); group queues are otherwise
+ * left for members to claim.
+ */
+@Service
+@Slf4j
+public class AssignmentPlannerService {
+
+    private final WorkloadProjectionService workloadProjectionService;
+    private final WorkloadCounterService workloadCounterService;
+    private final UserAdapterClient userAdapterClient;
+    private final CalendarService calendarService;
+    private final TaskService taskService;
+    private final TransactionTemplate chunkTx;
+
+    private final Timer solveTimer;
+    private final Counter assignedCounter;
+    private final Counter failedCounter;
+    private final AtomicLong lastHardScore = new AtomicLong();
+    private final AtomicLong lastSoftScore = new AtomicLong();
+    private final AtomicLong lastPlanned = new AtomicLong();
+
+    @Value("${workflow.planner.enabled:false}")
+    private boolean enabled;
+
+    @Value("${workflow.planner.groups:}")
+    private String groups;
+
+    @Value("${workflow.planner.time-budget-ms:200}")
+    private long timeBudgetMs;
+
+    @Value("${workflow.planner.max-batch:500}")
+    private int maxBatch;
+
+    @Value("${workflow.planner.chunk-size:50}")
+    private int chunkSize;
+
+    // Planner state; only touched under the instance lock (one round at a time)
+    private final Map<String, Set<String>> parked = new HashMap<>();
+    private long lastVersion = -1;
+
+    public AssignmentPlannerService(WorkloadProjectionService workloadProjectionService,
+            WorkloadCounterService workloadCounterService, UserAdapterClient userAdapterClient,
+            CalendarService calendarService, TaskService taskService, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.workloadProjectionService = workloadProjectionService;
+        this.workloadCounterService = workloadCounterService;
+        this.userAdapterClient = userAdapterClient;
+        this.calendarService = calendarService;
+        this.taskService = taskService;
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.solveTimer = Timer.builder("workflow.planner.solve")
+                .description("Time spent solving one planner batch")
+                .register(meterRegistry);
+        this.assignedCounter = Counter.builder("workflow.planner.assigned")
+                .description("Tasks assigned by the planner")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("workflow.planner.apply.failed")
+                .description("Planned assignments that could not be applied (e.g. claimed meanwhile)")
+                .register(meterRegistry);
+        meterRegistry.gauge("workflow.planner.score.hard", lastHardScore);
+        meterRegistry.gauge("workflow.planner.score.soft", lastSoftScore);
+        meterRegistry.gauge("workflow.planner.planned", lastPlanned);
+        meterRegistry.gauge("workflow.planner.parked", parked, Map::size);
+    }
+
+    @Scheduled(fixedDelayString = "${workflow.planner.interval-ms:30000}",
+            initialDelayString = "${workflow.planner.interval-ms:30000}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            run();
+        } catch (Exception e) {
+            log.error("Assignment planner round failed", e);
+        }
+    }
+
+    /**
+     * Plans and applies one round.
+     *
+     * @return number of tasks assigned
+     */
+    public synchronized int run() {
+        long version = workloadProjectionService.version();
+        Map<String, List<TaskWorkloadProjection>> queues = workloadProjectionService.unassignedTasksByGroup();
+        if (version == lastVersion && parked.isEmpty()) {
+            return 0;
+        }
+        lastVersion = version;
+
+        Set<String> plannedGroups = plannedGroups();
+        Map<String, TaskWorkloadProjection> tasks = new LinkedHashMap<>();
+        Map<String, Set<String>> groupsByTask = new HashMap<>();
+        queues.forEach((groupId, rows) -> {
+            if (plannedGroups.isEmpty() || plannedGroups.contains(groupId)) {
+                for (TaskWorkloadProjection row : rows) {
+                    tasks.putIfAbsent(row.getTaskId(), row);
+                    groupsByTask.computeIfAbsent(row.getTaskId(), k -> new TreeSet<>()).add(groupId);
+                }
+            }
+        });
+        parked.keySet().retainAll(tasks.keySet());
+
+        // Eligible users per group: members, or their substitutes while on leave
+        Map<String, Set<String>> eligibleByGroup = new HashMap<>();
+        Map<String, Integer> openTasks = new HashMap<>();
+        List<AssignmentSolver.PlanningTask> batch = new ArrayList<>();
+        for (TaskWorkloadProjection task : tasks.values()) {
+            Set<String> eligible = new TreeSet<>();
+            for (String groupId : groupsByTask.get(task.getTaskId())) {
+                eligible.addAll(eligibleByGroup.computeIfAbsent(groupId, this::eligibleUsers));
+            }
+            if (eligible.equals(parked.get(task.getTaskId()))) {
+                continue; // nothing changed for this task since it was last found unassignable
+            }
+            eligible.forEach(user -> openTasks.computeIfAbsent(user, workloadCounterService::openTasks));
+            batch.add(new AssignmentSolver.PlanningTask(task.getTaskId(), List.copyOf(eligible), rank(task)));
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        if (batch.size() > maxBatch) {
+            batch.sort(Comparator.comparingLong(AssignmentSolver.PlanningTask::rank));
+            batch = new ArrayList<>(batch.subList(0, maxBatch));
+        }
+
+        List<AssignmentSolver.PlanningTask> problem = batch;
+        AssignmentSolver.Solution solution = solveTimer.record(() ->
+                AssignmentSolver.solve(problem, openTasks, Duration.ofMillis(timeBudgetMs)));
+        lastHardScore.set(solution.score().hard());
+        lastSoftScore.set(solution.score().soft());
+        lastPlanned.set(problem.size());
+        Map<String, List<String>> eligibleByTask = problem.stream().collect(Collectors.toMap(
+                AssignmentSolver.PlanningTask::taskId, AssignmentSolver.PlanningTask::eligibleUsers));
+        solution.unassignable().forEach(taskId -> parked.put(taskId, new TreeSet<>(eligibleByTask.get(taskId))));
+
+        int assigned = apply(solution.assignments());
+        log.info("Assignment planner: {} tasks planned, {} assigned, {} without eligible user, score {}{}",
+                problem.size(), assigned, solution.unassignable().size(), solution.score(),
+                solution.budgetExhausted() ? " (time budget exhausted)" : "");
+        return assigned;
+    }
+
+    private int apply(Map<String, String> assignments) {
+        List<Map.Entry<String, String>> entries = new ArrayList<>(assignments.entrySet());
+        int assigned = 0;
+        for (int start = 0; start < entries.size(); start += chunkSize) {
+            List<Map.Entry<String, String>> chunk = entries.subList(start, Math.min(start + chunkSize, entries.size()));
+            try {
+                chunkTx.executeWithoutResult(status -> chunk.forEach(this::claim));
+                assigned += chunk.size();
+            } catch (Exception chunkError) {
+                // Typically a task claimed meanwhile; apply the rest one by one
+                for (Map.Entry<String, String> entry : chunk) {
+                    try {
+                        chunkTx.executeWithoutResult(status -> claim(entry));
+                        assigned++;
+                    } catch (Exception e) {
+                        failedCounter.increment();
+                        log.debug("Planner could not assign task {} to {}: {}", entry.getKey(), entry.getValue(),
+                                e.getMessage());
+                    }
+                }
+            }
+        }
+        assignedCounter.increment(assigned);
+        return assigned;
+    }
+
+    private void claim(Map.Entry<String, String> assignment) {
+        taskService.claim(assignment.getKey(), assignment.getValue());
+        taskService.setVariableLocal(assignment.getKey(), "savedAssignee", assignment.getValue());
+    }
+
+    private Set<String> eligibleUsers(String groupId) {
+        List<String> members = userAdapterClient.getRoleMembers(groupId);
+        if (members == null || members.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> eligible = new LinkedHashSet<>();
+        calendarService.getEffectiveAssignees(members).forEach((member, effective) -> {
+            // On leave without a substitute: not available
+            if (!effective.equals(member) || calendarService.getActiveLeave(member) == null) {
+                eligible.add(effective);
+            }
+        });
+        return eligible;
+    }
+
+    private Set<String> plannedGroups() {
+        if (groups == null || groups.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(groups.split(",")).map(String::trim).filter(g -> !g.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    // Earliest due first; tasks without a due date last
+    private static long rank(TaskWorkloadProjection task) {
+        return task.getDueDate() != null
+                ? task.getDueDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : Long.MAX_VALUE;
+    }
+}
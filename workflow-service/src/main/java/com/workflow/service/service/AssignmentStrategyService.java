@@ -3,24 +3,47 @@ package com.workflow.service.service;
 import com.workflow.service.integration.UserAdapterClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.flowable.engine.HistoryService;
-import org.flowable.task.api.history.HistoricTaskInstance;
 import org.flowable.task.service.delegate.DelegateTask;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AssignmentStrategyService {
 
-    private final com.workflow.service.repository.StageConfigRepository stageConfigRepository;
-    private final com.fasterxml.jackson.databind.ObjectMapper objectMapper;
+    private final ConfigSnapshotService configSnapshotService;
     private final UserAdapterClient userAdapterClient;
-    private final HistoryService historyService;
+    private final PriorActorIndexService priorActorIndexService;
     private final CalendarService calendarService;
+    private final RoundRobinCursorService roundRobinCursorService;
+    private final WorkloadCounterService workloadCounterService;
+
+    /**
+     * What a mechanism does when the directory yields no candidates (hrms-service down or
+     * slow, or an empty role): queue the task for the role's group, or leave it unassigned.
+     */
+    public enum NoCandidateFallback {
+        GROUP_QUEUE, UNASSIGNED
+    }
+
+    @Value("${workflow.user-adapter.fallback.round-robin:GROUP_QUEUE}")
+    private NoCandidateFallback roundRobinFallback;
+
+    @Value("${workflow.user-adapter.fallback.least-loaded:GROUP_QUEUE}")
+    private NoCandidateFallback leastLoadedFallback;
+
+    @Value("${workflow.user-adapter.fallback.matrix:GROUP_QUEUE}")
+    private NoCandidateFallback matrixFallback;
+
+    @Value("${workflow.user-adapter.fallback.sticky:UNASSIGNED}")
+    private NoCandidateFallback stickyFallback;
 
     public void executeRoundRobin(DelegateTask delegateTask, String roleCode) {
         log.info("Executing Strategy: Round Robin for Role: {}", roleCode);
@@ -30,12 +53,12 @@ public class AssignmentStrategyService {
 
         if (candidates == null || candidates.isEmpty()) {
             log.warn("No candidates found for Round Robin pool: {}", roleCode);
-            // Consider leaving unassigned or setting candidate group?
-            // "If no candidates, leave unassigned" is implicitly handled as we return.
+            applyFallback(delegateTask, roundRobinFallback, roleCode);
             return;
         }
 
-        // 2. Sort to ensure deterministic order
+        // 2. Sort to ensure deterministic order (copy: the pool list is shared by the directory cache)
+        candidates = new ArrayList<>(candidates);
         Collections.sort(candidates);
 
         // --- STICKY CHECK ---
@@ -60,49 +83,10 @@ public class AssignmentStrategyService {
         }
         // --------------------
 
-        // 3. Find Last Assignee for this Process Definition Key AND Task Definition Key
-        String processDefinitionId = delegateTask.getProcessDefinitionId();
-        String processDefinitionKey = processDefinitionId.split(":")[0];
-
-        // Optimized Query: Fetch only the latest 1 finished task
-        List<HistoricTaskInstance> lastTasks = historyService.createHistoricTaskInstanceQuery()
-                .processDefinitionKey(processDefinitionKey)
-                .taskDefinitionKey(delegateTask.getTaskDefinitionKey())
-                .finished()
-                .includeTaskLocalVariables() // Fetch local vars to get savedAssignee
-                .orderByHistoricTaskInstanceEndTime().desc()
-                .listPage(0, 1);
-
-        String nextAssignee = candidates.get(0);
-        String lastAssignee = null;
-
-        if (!lastTasks.isEmpty()) {
-            HistoricTaskInstance lastTask = lastTasks.get(0);
-            lastAssignee = lastTask.getAssignee();
-
-            // Fallback to savedAssignee if standard assignee is null (handling known
-            // persistence issue)
-            if (lastAssignee == null && lastTask.getTaskLocalVariables() != null
-                    && lastTask.getTaskLocalVariables().containsKey("savedAssignee")) {
-                lastAssignee = (String) lastTask.getTaskLocalVariables().get("savedAssignee");
-                log.info("Round Robin: Recovered last assignee {} from variable", lastAssignee);
-            }
-
-            log.info("Round Robin: Found last assignee: {}", lastAssignee);
-
-            if (lastAssignee != null) {
-                int lastIdx = candidates.indexOf(lastAssignee);
-                if (lastIdx != -1) {
-                    int nextIdx = (lastIdx + 1) % candidates.size();
-                    nextAssignee = candidates.get(nextIdx);
-                } else {
-                    log.warn("Round Robin: Last assignee {} not found in current pool {}. Resetting to first.",
-                            lastAssignee, candidates);
-                }
-            }
-        } else {
-            log.info("Round Robin: No previous tasks found for this step. Assigning to first candidate.");
-        }
+        // 3. Advance the (workflow, stage, pool) cursor: O(1) and fair under concurrent task creation
+        String processDefinitionKey = delegateTask.getProcessDefinitionId().split(":")[0];
+        long ticket = roundRobinCursorService.next(processDefinitionKey, delegateTask.getTaskDefinitionKey(), roleCode);
+        String nextAssignee = candidates.get((int) Math.floorMod(ticket, (long) candidates.size()));
 
         // DELEGATION LOGIC
         String finalAssignee = calendarService.getEffectiveAssignee(nextAssignee);
@@ -114,17 +98,87 @@ public class AssignmentStrategyService {
         delegateTask.setAssignee(finalAssignee);
     }
     
+    public void executeLeastLoaded(DelegateTask delegateTask, String roleCode) {
+        log.info("Executing Strategy: Least Loaded for Role: {}", roleCode);
+
+        List<String> candidates = userAdapterClient.getRoleMembers(roleCode);
+        if (candidates == null || candidates.isEmpty()) {
+            log.warn("No candidates found for Least Loaded pool: {}", roleCode);
+            applyFallback(delegateTask, leastLoadedFallback, roleCode);
+            return;
+        }
+        candidates = new ArrayList<>(candidates);
+        Collections.sort(candidates);
+
+        // Work goes to whoever will actually do it: substitutes carry the load of users on leave
+        Map<String, Object> capacities = configuredCapacities(delegateTask);
+        Map<String, Double> capacityByUser = new LinkedHashMap<>();
+        calendarService.getEffectiveAssignees(candidates).forEach((candidate, effective) ->
+                capacityByUser.putIfAbsent(effective, capacityOf(capacities.get(candidate))));
+
+        String assignee = workloadCounterService.pickLeastLoaded(delegateTask.getId(), capacityByUser);
+        if (assignee == null) {
+            log.warn("Least Loaded: no candidate with capacity in pool {}, leaving unassigned", roleCode);
+            return;
+        }
+        log.info("Least Loaded: Assigned {} from pool of {}", assignee, candidates.size());
+        delegateTask.setAssignee(assignee);
+    }
+
+    public void applyMatrixFallback(DelegateTask delegateTask, String roleCode) {
+        applyFallback(delegateTask, matrixFallback, roleCode);
+    }
+
+    public void applyStickyFallback(DelegateTask delegateTask, String roleCode) {
+        applyFallback(delegateTask, stickyFallback, roleCode);
+    }
+
+    private void applyFallback(DelegateTask delegateTask, NoCandidateFallback fallback, String roleCode) {
+        if (fallback == NoCandidateFallback.GROUP_QUEUE && roleCode != null) {
+            log.info("No candidates: queueing task {} for group {}", delegateTask.getId(), roleCode);
+            delegateTask.addCandidateGroup(roleCode);
+        }
+    }
+
+    // Optional per-user weights from the stage rules, e.g. "capacities": {"alice": 2, "bob": 0.5}
+    private Map<String, Object> configuredCapacities(DelegateTask task) {
+        try {
+            String wf = task.getProcessDefinitionId().split(":")[0];
+            Object capacities = configSnapshotService.get().stage(wf, task.getTaskDefinitionKey())
+                    .map(cfg -> cfg.assignmentRules().raw().get("capacities"))
+                    .orElse(null);
+            if (capacities instanceof Map<?, ?> map) {
+                Map<String, Object> result = new LinkedHashMap<>();
+                map.forEach((user, capacity) -> result.put(String.valueOf(user), capacity));
+                return result;
+            }
+        } catch (Exception e) {
+            log.warn("Error reading capacity config", e);
+        }
+        return Map.of();
+    }
+
+    private static double capacityOf(Object configured) {
+        if (configured instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (configured != null) {
+            try {
+                return Double.parseDouble(configured.toString());
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring invalid capacity: {}", configured);
+            }
+        }
+        return 1.0;
+    }
+
     private boolean isStickyConfigured(DelegateTask task) {
         try {
             String wf = task.getProcessDefinitionId().split(":")[0];
             String stg = task.getTaskDefinitionKey();
-            var cfgOpt = stageConfigRepository.findByWorkflowCodeAndStageCode(wf, stg);
-            if (cfgOpt.isPresent()) {
-                String rulesJson = cfgOpt.get().getAssignmentRules();
-                if (rulesJson != null && rulesJson.contains("\"variable\":\"sticky\"") && rulesJson.contains("\"value\":\"true\"")) {
-                    return true;
-                }
-            }
+            return configSnapshotService.get().stage(wf, stg)
+                    .map(cfg -> cfg.assignmentRules().sticky())
+                    .orElse(false);
         } catch (Exception e) {
             log.warn("Error checking sticky config", e);
         }
@@ -133,23 +187,7 @@ public class AssignmentStrategyService {
 
     private String findPriorActorInPool(String currentPid, List<String> pool) {
         try {
-            List<HistoricTaskInstance> hist = historyService.createHistoricTaskInstanceQuery()
-                    .processInstanceId(currentPid)
-                    .finished()
-                    .includeTaskLocalVariables()
-                    .orderByHistoricTaskInstanceEndTime().desc()
-                    .list();
-            
-            for (HistoricTaskInstance h : hist) {
-                String u = h.getAssignee();
-                if (u == null && h.getTaskLocalVariables() != null) {
-                    u = (String) h.getTaskLocalVariables().get("savedAssignee");
-                }
-                
-                if (u != null && pool.contains(u)) {
-                    return u;
-                }
-            }
+            return priorActorIndexService.findPriorActorInCase(currentPid, pool);
         } catch (Exception e) {
             log.error("Error finding prior actor", e);
         }
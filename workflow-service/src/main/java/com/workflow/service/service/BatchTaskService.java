@@ -0,0 +1,188 @@
+package com.workflow.service.service;
+
+import com.workflow.service.command.CompleteStageTaskCmd;
+import com.workflow.service.dto.BatchTaskResultDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.impl.identity.Authentication;
+import org.flowable.engine.ManagementService;
+import org.flowable.engine.TaskService;
+import org.flowable.task.api.Task;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Batch variants of {@link CaseService#completeTask} and {@link CaseService#claimTask}.
+ * <p>
+ * Tasks are loaded with one query and outcomes are validated once per (definition, stage)
+ * against the configuration snapshot; each completion is a single {@link CompleteStageTaskCmd}.
+ * Work then runs in chunked transactions; when a chunk
+ * fails it is rolled back and its tasks are retried one by one, so each failure is reported
+ * against its own task and the rest of the batch still goes through.
+ */
+@Service
+@Slf4j
+public class BatchTaskService {
+
+    private final TaskService taskService;
+    private final ManagementService managementService;
+    private final ConfigSnapshotService configSnapshotService;
+    private final TransactionTemplate chunkTx;
+
+    @Value("${workflow.batch-tasks.chunk-size:50}")
+    private int chunkSize;
+
+    @Value("${workflow.batch-tasks.max-tasks:1000}")
+    private int maxTasks;
+
+    public BatchTaskService(TaskService taskService, ManagementService managementService,
+            ConfigSnapshotService configSnapshotService, PlatformTransactionManager transactionManager) {
+        this.taskService = taskService;
+        this.managementService = managementService;
+        this.configSnapshotService = configSnapshotService;
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public BatchTaskResultDTO completeTasks(List<String> taskIds, Map<String, Object> variables, String userId) {
+        Map<String, Object> shared = variables != null ? variables : Map.of();
+        String outcome = (String) shared.get("outcome");
+
+        Outcome result = new Outcome(taskIds);
+        List<Task> valid = new ArrayList<>();
+        Map<String, Optional<String>> rejections = new HashMap<>();
+        for (Task task : loadTasks(result)) {
+            if (outcome != null) {
+                // Same definition + stage always has the same verdict
+                String key = task.getProcessDefinitionId() + "|" + task.getTaskDefinitionKey();
+                Optional<String> rejection = rejections.computeIfAbsent(key,
+                        k -> validateOutcome(task.getProcessDefinitionId(), task.getTaskDefinitionKey(), outcome));
+                if (rejection.isPresent()) {
+                    result.fail(task.getId(), rejection.get());
+                    continue;
+                }
+            }
+            valid.add(task);
+        }
+
+        ConfigSnapshot config = configSnapshotService.get();
+        runInChunks(valid, result, task -> managementService.executeCommand(
+                new CompleteStageTaskCmd(task.getId(), new HashMap<>(shared), userId, config)), userId);
+
+        log.info("Batch completion by {}: {} succeeded, {} failed", userId, result.succeeded, result.failures.size());
+        return result.toDTO();
+    }
+
+    public BatchTaskResultDTO claimTasks(List<String> taskIds, String userId) {
+        if (userId == null || userId.isBlank()) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        Outcome result = new Outcome(taskIds);
+        runInChunks(loadTasks(result), result, task -> {
+            taskService.claim(task.getId(), userId);
+            taskService.setVariableLocal(task.getId(), "savedAssignee", userId);
+        }, userId);
+
+        log.info("Batch claim by {}: {} succeeded, {} failed", userId, result.succeeded, result.failures.size());
+        return result.toDTO();
+    }
+
+    private List<Task> loadTasks(Outcome result) {
+        if (result.taskIds.isEmpty()) {
+            throw new IllegalArgumentException("No tasks given");
+        }
+        if (result.taskIds.size() > maxTasks) {
+            throw new IllegalArgumentException("Too many tasks in one batch: " + result.taskIds.size()
+                    + " (max " + maxTasks + ")");
+        }
+        Map<String, Task> byId = taskService.createTaskQuery().taskIds(result.taskIds).list().stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        List<Task> tasks = new ArrayList<>();
+        for (String taskId : result.taskIds) {
+            Task task = byId.get(taskId);
+            if (task == null) {
+                result.fail(taskId, "Task not found: " + taskId);
+            } else {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    // Empty when the outcome is allowed (or the stage defines no actions), else the error
+    private Optional<String> validateOutcome(String processDefinitionId, String stageCode, String outcome) {
+        String workflowCode = processDefinitionId.split(":")[0];
+        return configSnapshotService.get().stage(workflowCode, stageCode)
+                .map(ConfigSnapshot.StageDef::actions)
+                .filter(actions -> !actions.isEmpty())
+                .filter(actions -> actions.stream().noneMatch(a -> a.actionLabel().equals(outcome)))
+                .map(actions -> "Invalid outcome: " + outcome + ". Allowed actions: "
+                        + actions.stream().map(ConfigSnapshot.ActionDef::actionLabel).collect(Collectors.toList()));
+    }
+
+    private void runInChunks(List<Task> tasks, Outcome result, Consumer<Task> work, String userId) {
+        for (int start = 0; start < tasks.size(); start += chunkSize) {
+            List<Task> chunk = tasks.subList(start, Math.min(start + chunkSize, tasks.size()));
+            try {
+                chunkTx.executeWithoutResult(status -> chunk.forEach(task -> asUser(userId, task, work)));
+                result.succeeded += chunk.size();
+            } catch (Exception chunkError) {
+                log.warn("Task batch chunk of {} failed ({}), retrying tasks individually", chunk.size(),
+                        chunkError.getMessage());
+                for (Task task : chunk) {
+                    try {
+                        chunkTx.executeWithoutResult(status -> asUser(userId, task, work));
+                        result.succeeded++;
+                    } catch (Exception e) {
+                        result.fail(task.getId(), e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private void asUser(String userId, Task task, Consumer<Task> work) {
+        try {
+            Authentication.setAuthenticatedUserId(userId);
+            work.accept(task);
+        } finally {
+            Authentication.setAuthenticatedUserId(null);
+        }
+    }
+
+    private static class Outcome {
+        final List<String> taskIds;
+        final List<BatchTaskResultDTO.TaskFailureDTO> failures = new ArrayList<>();
+        int succeeded;
+
+        Outcome(List<String> taskIds) {
+            this.taskIds = taskIds != null ? new ArrayList<>(new LinkedHashSet<>(taskIds)) : List.of();
+        }
+
+        void fail(String taskId, String error) {
+            failures.add(BatchTaskResultDTO.TaskFailureDTO.builder().taskId(taskId).error(error).build());
+        }
+
+        BatchTaskResultDTO toDTO() {
+            return BatchTaskResultDTO.builder()
+                    .total(taskIds.size())
+                    .succeeded(succeeded)
+                    .failed(failures.size())
+                    .failures(failures)
+                    .build();
+        }
+    }
+}
@@ -13,15 +13,22 @@ import org.flowable.bpmn.BpmnAutoLayout;
 import org.flowable.bpmn.model.FlowableListener;
 import org.flowable.bpmn.model.FieldExtension;
 import org.flowable.bpmn.model.ImplementationType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 @Service
 @RequiredArgsConstructor
@@ -31,7 +38,127 @@ public class BpmnGeneratorService {
     private final ScreenMappingRepository screenMappingRepository;
     private final ObjectMapper objectMapper;
 
+    @Value("${workflow.bpmn-cache.max-entries:256}")
+    private int cacheMaxEntries = 256;
+
+    // Content hash -> executable definition (no diagram), least recently used first
+    private final Map<String, GeneratedBpmn> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Content hash -> laid-out preview XML, least recently used first
+    private final Map<String, String> diagramCache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * A generated definition and the hash of the configuration it was generated from.
+     * Instances are shared through the cache: treat the model as read-only.
+     */
+    public record GeneratedBpmn(String contentHash, BpmnModel model, String xml) {
+    }
+
+    // Stages in sequence order, their resolved form keys and the hash over both
+    private record Content(List<StageConfig> stages, Map<String, String> formKeys, String hash) {
+    }
+
     public String generateBpmnXml(WorkflowMaster workflow, List<StageConfig> stages) {
+        return generate(workflow, stages).xml();
+    }
+
+    /**
+     * Generates the executable definition, or returns the cached one when the workflow, its
+     * stages and actions and the stages' screen mappings hash to the same content as an earlier
+     * call. No diagram interchange is generated: the engine does not need it to execute, and
+     * auto-layout dominates generation time for large workflows.
+     */
+    public GeneratedBpmn generate(WorkflowMaster workflow, List<StageConfig> stages) {
+        return generate(workflow, prepare(workflow, stages));
+    }
+
+    /**
+     * The definition with an auto-laid-out diagram, for previewing. Laid out once per content hash.
+     */
+    public String generateDiagramXml(WorkflowMaster workflow, List<StageConfig> stages) {
+        Content content = prepare(workflow, stages);
+        if (content.hash() != null) {
+            synchronized (diagramCache) {
+                String cached = diagramCache.get(content.hash());
+                if (cached != null) {
+                    return cached;
+                }
+            }
+        }
+        // Lay out a fresh model: the cached executable one is shared and stays without DI
+        BpmnModel model = buildModel(workflow, content.stages(), content.formKeys());
+        new BpmnAutoLayout(model).execute();
+        String xml = toXml(model);
+        if (content.hash() != null) {
+            putBounded(diagramCache, content.hash(), xml);
+        }
+        return xml;
+    }
+
+    private GeneratedBpmn generate(WorkflowMaster workflow, Content content) {
+        if (content.hash() != null) {
+            synchronized (cache) {
+                GeneratedBpmn cached = cache.get(content.hash());
+                if (cached != null) {
+                    return cached;
+                }
+            }
+        }
+        BpmnModel model = buildModel(workflow, content.stages(), content.formKeys());
+        GeneratedBpmn generated = new GeneratedBpmn(content.hash(), model, toXml(model));
+        if (content.hash() != null) {
+            putBounded(cache, content.hash(), generated);
+        }
+        return generated;
+    }
+
+    private Content prepare(WorkflowMaster workflow, List<StageConfig> stages) {
+        List<StageConfig> sortedStages = new ArrayList<>(stages);
+        sortedStages.sort((s1, s2) -> s1.getSequenceOrder().compareTo(s2.getSequenceOrder()));
+        Map<String, String> formKeys = new LinkedHashMap<>();
+        for (StageConfig stage : sortedStages) {
+            formKeys.put(stage.getStageCode(), getFormKeyForStage(stage.getStageCode()));
+        }
+        return new Content(sortedStages, formKeys, contentHash(workflow, sortedStages, formKeys));
+    }
+
+    private <V> void putBounded(Map<String, V> lru, String hash, V value) {
+        if (cacheMaxEntries <= 0) {
+            return;
+        }
+        synchronized (lru) {
+            lru.put(hash, value);
+            Iterator<String> eldest = lru.keySet().iterator();
+            while (lru.size() > cacheMaxEntries) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    private String toXml(BpmnModel model) {
+        return new String(new BpmnXMLConverter().convertToXML(model), StandardCharsets.UTF_8);
+    }
+
+    // SHA-256 over everything generation reads; null if the config cannot be serialized
+    private String contentHash(WorkflowMaster workflow, List<StageConfig> sortedStages, Map<String, String> formKeys) {
+        try {
+            ObjectNode content = objectMapper.createObjectNode();
+            content.put("workflowCode", workflow.getWorkflowCode());
+            content.put("workflowName", workflow.getWorkflowName());
+            content.put("slaDurationDays", workflow.getSlaDurationDays());
+            content.set("stages", objectMapper.valueToTree(sortedStages));
+            content.set("formKeys", objectMapper.valueToTree(formKeys));
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(content));
+            return HexFormat.of().formatHex(digest);
+        } catch (Exception e) {
+            log.warn("Could not hash configuration of workflow {}, generating uncached: {}",
+                    workflow.getWorkflowCode(), e.getMessage());
+            return null;
+        }
+    }
+
+    private BpmnModel buildModel(WorkflowMaster workflow, List<StageConfig> stages, Map<String, String> formKeys) {
         BpmnModel model = new BpmnModel();
         Process process = new Process();
         process.setId(workflow.getWorkflowCode());
@@ -44,20 +171,13 @@ public class BpmnGeneratorService {
         startEvent.setId("start");
         process.addFlowElement(startEvent);
 
-        // Sort stages by sequence
-        // Sort stages by sequence
-        List<StageConfig> sortedStages = new ArrayList<>(stages);
-        sortedStages.sort((s1, s2) -> s1.getSequenceOrder().compareTo(s2.getSequenceOrder()));
-
-        // Use sortedStages instead of stages below
-        stages = sortedStages;
-
+        // Stages arrive sorted by sequence
         // Create Valid Map of StageCode -> FlowElement
         Map<String, FlowElement> stageElements = new java.util.HashMap<>();
 
         // 1. Create All Stage Elements First (Nodes)
         for (StageConfig stage : stages) {
-            FlowElement el = createStageElement(process, stage, workflow);
+            FlowElement el = createStageElement(process, stage, workflow, formKeys);
             process.addFlowElement(el);
             stageElements.put(stage.getStageCode(), el);
 
@@ -146,7 +266,7 @@ public class BpmnGeneratorService {
                 if (stage.getEntryCondition() != null && !stage.getEntryCondition().isBlank()) {
                     // Create Wrapper Gateway
                     ExclusiveGateway split = new ExclusiveGateway();
-                    split.setId("entry_split_" + stage.getStageCode() + "_" + System.nanoTime());
+                    split.setId(uniqueId(process, "entry_split_" + stage.getStageCode()));
                     process.addFlowElement(split);
 
                     // Connect Split -> Stage (Condition)
@@ -225,12 +345,7 @@ public class BpmnGeneratorService {
         // Loop Only Processes Outbound
         // ... (Proceed to implementation)
 
-        // Auto Layout
-        new BpmnAutoLayout(model).execute();
-
-        BpmnXMLConverter converter = new BpmnXMLConverter();
-        byte[] bytes = converter.convertToXML(model);
-        return new String(bytes);
+        return model;
     }
 
     // Helper to Group Stages
@@ -278,7 +393,7 @@ public class BpmnGeneratorService {
                 || (currentStage.getActions() != null && !currentStage.getActions().isEmpty())) {
 
             ExclusiveGateway gateway = new ExclusiveGateway();
-            gateway.setId("gateway_split_" + currentStage.getStageCode() + "_" + System.nanoTime());
+            gateway.setId(uniqueId(process, "gateway_split_" + currentStage.getStageCode()));
             process.addFlowElement(gateway);
             connect(process, source, gateway);
 
@@ -348,7 +463,8 @@ public class BpmnGeneratorService {
         }
     }
 
-    private FlowElement createStageElement(Process process, StageConfig stage, WorkflowMaster workflow) {
+    private FlowElement createStageElement(Process process, StageConfig stage, WorkflowMaster workflow,
+            Map<String, String> formKeys) {
         FlowElement stageElement;
         if (stage.isNestedWorkflow()) {
             CallActivity callActivity = new CallActivity();
@@ -365,7 +481,7 @@ public class BpmnGeneratorService {
             stageElement = ruleTask;
         } else {
             UserTask userTask = new UserTask();
-            String formKey = getFormKeyForStage(stage.getStageCode());
+            String formKey = formKeys.get(stage.getStageCode());
             userTask.setFormKey(formKey);
 
             if (stage.getAssignmentRules() != null && !stage.getAssignmentRules().isBlank()) {
@@ -391,6 +507,17 @@ public class BpmnGeneratorService {
                         poolField.setStringValue(pool);
                         listener.setFieldExtensions(List.of(poolField));
                         userTask.setTaskListeners(new java.util.ArrayList<>(List.of(listener)));
+                    } else if ("LEAST_LOADED".equals(mechanism)) {
+                        String pool = (String) rules.getOrDefault("roundRobinPool", rules.get("groupName"));
+                        FlowableListener listener = new FlowableListener();
+                        listener.setImplementationType(ImplementationType.IMPLEMENTATION_TYPE_DELEGATEEXPRESSION);
+                        listener.setImplementation("${leastLoadedAssignmentListener}");
+                        listener.setEvent("create");
+                        FieldExtension poolField = new FieldExtension();
+                        poolField.setFieldName("pool");
+                        poolField.setStringValue(pool);
+                        listener.setFieldExtensions(List.of(poolField));
+                        userTask.setTaskListeners(new java.util.ArrayList<>(List.of(listener)));
                     } else if ("MATRIX_RULE".equals(mechanism) || "MATRIX".equals(mechanism)) {
                         FlowableListener listener = new FlowableListener();
                         listener.setImplementationType(ImplementationType.IMPLEMENTATION_TYPE_DELEGATEEXPRESSION);
@@ -484,7 +611,7 @@ public class BpmnGeneratorService {
     private void handleEntryCondition(Process process, FlowElement source, FlowElement target, StageConfig targetConfig,
             FlowElement nextAfterTarget) {
         ExclusiveGateway split = new ExclusiveGateway();
-        split.setId("entry_split_" + targetConfig.getStageCode() + "_" + System.nanoTime());
+        split.setId(uniqueId(process, "entry_split_" + targetConfig.getStageCode()));
         process.addFlowElement(split);
 
         connect(process, source, split);
@@ -506,13 +633,23 @@ public class BpmnGeneratorService {
 
     private SequenceFlow connect(Process process, FlowElement source, FlowElement target) {
         SequenceFlow flow = new SequenceFlow();
-        flow.setId("flow_" + source.getId() + "_" + target.getId() + "_" + System.nanoTime()); // Unique ID
+        flow.setId(uniqueId(process, "flow_" + source.getId() + "_" + target.getId()));
         flow.setSourceRef(source.getId());
         flow.setTargetRef(target.getId());
         process.addFlowElement(flow);
         return flow;
     }
 
+    // Ids derive from stage codes only, so regenerating unchanged config is byte-identical;
+    // a counter suffix is added only when the same id is needed twice
+    private String uniqueId(Process process, String base) {
+        String id = base;
+        for (int n = 2; process.getFlowElement(id) != null; n++) {
+            id = base + "_" + n;
+        }
+        return id;
+    }
+
     private void addSlaIfConfigured(Process process, FlowElement stageElement, StageConfig stage,
             WorkflowMaster workflow) {
         BigDecimal slaDays = stage.getSlaDurationDays();
@@ -539,9 +676,9 @@ public class BpmnGeneratorService {
         timer.setAttachedToRef(userTask);
         timer.setCancelActivity(false);
 
+        // Business-hours due date (region holidays, working day), evaluated when the task is created
         TimerEventDefinition timerDef = new TimerEventDefinition();
-        long hours = days.multiply(BigDecimal.valueOf(24)).longValue();
-        timerDef.setTimeDuration("PT" + hours + "H");
+        timerDef.setTimeDate("${calendarService.slaDueDate(execution, '" + days.stripTrailingZeros().toPlainString() + "')}");
         timer.addEventDefinition(timerDef);
 
         process.addFlowElement(timer);
@@ -0,0 +1,291 @@
+package com.workflow.service.service;
+
+import com.workflow.service.command.StartCasesCmd;
+import com.workflow.service.dto.BulkJobDTO;
+import com.workflow.service.dto.InitiateCaseRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.engine.ManagementService;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bulk case initiation for batch feeds.
+ * <p>
+ * Items are split into chunks; each chunk starts its instances in a single transaction and a
+ * single engine command ({@link StartCasesCmd}) on a bounded worker pool. If a chunk fails, it is rolled back and its items are retried one per
+ * transaction so a bad item only fails itself. Jobs live in memory on the node that accepted
+ * them and are dropped some time after they finish.
+ */
+@Service
+@Slf4j
+public class BulkCaseInitiationService {
+
+    private static final int MAX_CHUNK_SIZE = 1000;
+
+    private final RuntimeService runtimeService;
+    private final RepositoryService repositoryService;
+    private final ManagementService managementService;
+    private final TransactionTemplate chunkTx;
+    private final ThreadPoolExecutor workers;
+    // One permit per queued or running chunk, so a batch is admitted whole or not at all
+    private final Semaphore chunkPermits;
+    private final int defaultChunkSize;
+    private final long jobRetentionMinutes;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public BulkCaseInitiationService(RuntimeService runtimeService,
+            RepositoryService repositoryService,
+            ManagementService managementService,
+            PlatformTransactionManager transactionManager,
+            @Value("${workflow.bulk-initiation.workers:4}") int workerCount,
+            @Value("${workflow.bulk-initiation.max-queued-chunks:2000}") int maxQueuedChunks,
+            @Value("${workflow.bulk-initiation.chunk-size:100}") int defaultChunkSize,
+            @Value("${workflow.bulk-initiation.job-retention-minutes:60}") long jobRetentionMinutes) {
+        this.runtimeService = runtimeService;
+        this.repositoryService = repositoryService;
+        this.managementService = managementService;
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.defaultChunkSize = defaultChunkSize;
+        this.jobRetentionMinutes = jobRetentionMinutes;
+        this.chunkPermits = new Semaphore(maxQueuedChunks);
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(maxQueuedChunks), r -> {
+                    Thread t = new Thread(r, "bulk-initiation-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * Accepts a batch and returns immediately with the job handle.
+     *
+     * @throws IllegalArgumentException if the batch is empty
+     * @throws IllegalStateException    if the worker queue cannot take the batch
+     */
+    public BulkJobDTO submit(List<InitiateCaseRequest> items, Integer chunkSize) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("No cases to initiate");
+        }
+        int size = chunkSize != null ? Math.max(1, Math.min(chunkSize, MAX_CHUNK_SIZE)) : defaultChunkSize;
+
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += size) {
+            List<Integer> chunk = new ArrayList<>();
+            for (int i = start; i < Math.min(start + size, items.size()); i++) {
+                chunk.add(i);
+            }
+            chunks.add(chunk);
+        }
+
+        // Accept all or nothing, never half a batch. The permits never exceed the queue
+        // capacity, so once they are held the executor cannot reject a chunk.
+        if (!chunkPermits.tryAcquire(chunks.size())) {
+            throw new IllegalStateException("Bulk initiation queue is full, retry later");
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), List.copyOf(items), chunks.size());
+        jobs.put(job.id, job);
+        for (List<Integer> chunk : chunks) {
+            workers.execute(() -> {
+                try {
+                    runChunk(job, chunk);
+                } finally {
+                    chunkPermits.release();
+                }
+            });
+        }
+        log.info("Bulk initiation job {} accepted: {} cases in {} chunks of {}", job.id, items.size(), chunks.size(),
+                size);
+        return job.toDTO(false);
+    }
+
+    public BulkJobDTO getJob(String jobId, boolean includeResults) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Bulk job not found: " + jobId);
+        }
+        return job.toDTO(includeResults);
+    }
+
+    private void runChunk(Job job, List<Integer> chunk) {
+        job.started();
+        Map<String, Boolean> deployed = new HashMap<>();
+        List<Integer> startable = new ArrayList<>();
+
+        // Fail fast on items that can never start, outside any transaction
+        for (int idx : chunk) {
+            InitiateCaseRequest item = job.items.get(idx);
+            String code = item.getWorkflowCode();
+            if (code == null || code.isBlank()) {
+                job.fail(idx, "workflowCode is required");
+            } else if (!deployed.computeIfAbsent(code, this::isDeployed)) {
+                job.fail(idx, "Workflow Definition not found for code: " + code + ". Please ensure it is deployed.");
+            } else {
+                startable.add(idx);
+            }
+        }
+
+        try {
+            List<StartCasesCmd.CaseStart> starts = new ArrayList<>();
+            for (int idx : startable) {
+                starts.add(caseStart(job.items.get(idx)));
+            }
+            List<String> caseIds = chunkTx.execute(status -> managementService.executeCommand(new StartCasesCmd(starts)));
+            for (int i = 0; i < startable.size(); i++) {
+                job.succeed(startable.get(i), caseIds.get(i));
+            }
+        } catch (Exception chunkError) {
+            log.warn("Bulk job {}: chunk of {} failed ({}), retrying items individually", job.id, startable.size(),
+                    chunkError.getMessage());
+            for (int idx : startable) {
+                try {
+                    job.succeed(idx, chunkTx.execute(status -> start(job.items.get(idx))));
+                } catch (Exception e) {
+                    job.fail(idx, e.getMessage());
+                }
+            }
+        }
+        job.chunkDone();
+    }
+
+    private String start(InitiateCaseRequest item) {
+        StartCasesCmd.CaseStart start = caseStart(item);
+        return runtimeService.startProcessInstanceByKey(start.workflowCode(), start.variables()).getId();
+    }
+
+    private static StartCasesCmd.CaseStart caseStart(InitiateCaseRequest item) {
+        Map<String, Object> variables = item.getEffectiveVariables();
+        variables.put("initiator", item.getUserId() != null ? item.getUserId() : "anonymous");
+        return new StartCasesCmd.CaseStart(item.getWorkflowCode(), variables);
+    }
+
+    private boolean isDeployed(String workflowCode) {
+        return repositoryService.createProcessDefinitionQuery()
+                .processDefinitionKey(workflowCode)
+                .latestVersion()
+                .active()
+                .count() > 0;
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private static class Job {
+        final String id;
+        final List<InitiateCaseRequest> items;
+        final AtomicReferenceArray<BulkJobDTO.BulkItemResultDTO> results;
+        final AtomicInteger remainingChunks;
+        final AtomicInteger succeeded = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final LocalDateTime createdAt = LocalDateTime.now();
+        volatile boolean running;
+        volatile LocalDateTime finishedAt;
+
+        Job(String id, List<InitiateCaseRequest> items, int chunkCount) {
+            this.id = id;
+            this.items = items;
+            this.results = new AtomicReferenceArray<>(items.size());
+            this.remainingChunks = new AtomicInteger(chunkCount);
+        }
+
+        void started() {
+            running = true;
+        }
+
+        void succeed(int idx, String caseId) {
+            results.set(idx, BulkJobDTO.BulkItemResultDTO.builder()
+                    .correlationId(correlationId(idx))
+                    .caseId(caseId)
+                    .status("SUCCESS")
+                    .build());
+            succeeded.incrementAndGet();
+        }
+
+        void fail(int idx, String error) {
+            results.set(idx, BulkJobDTO.BulkItemResultDTO.builder()
+                    .correlationId(correlationId(idx))
+                    .status("FAILED")
+                    .error(error)
+                    .build());
+            failed.incrementAndGet();
+        }
+
+        void chunkDone() {
+            if (remainingChunks.decrementAndGet() == 0) {
+                finishedAt = LocalDateTime.now();
+            }
+        }
+
+        // Falls back to the item's position in the batch
+        String correlationId(int idx) {
+            String correlationId = items.get(idx).getCorrelationId();
+            return correlationId != null ? correlationId : String.valueOf(idx);
+        }
+
+        BulkJobDTO toDTO(boolean includeResults) {
+            int ok = succeeded.get();
+            int ko = failed.get();
+            String status;
+            if (finishedAt != null) {
+                status = ko > 0 ? "COMPLETED_WITH_ERRORS" : "COMPLETED";
+            } else {
+                status = running ? "RUNNING" : "QUEUED";
+            }
+
+            List<BulkJobDTO.BulkItemResultDTO> itemResults = null;
+            if (includeResults) {
+                itemResults = new ArrayList<>();
+                for (int i = 0; i < results.length(); i++) {
+                    if (results.get(i) != null) {
+                        itemResults.add(results.get(i));
+                    }
+                }
+            }
+
+            return BulkJobDTO.builder()
+                    .jobId(id)
+                    .status(status)
+                    .total(items.size())
+                    .processed(ok + ko)
+                    .succeeded(ok)
+                    .failed(ko)
+                    .createdAt(createdAt)
+                    .finishedAt(finishedAt)
+                    .results(itemResults)
+                    .build();
+        }
+    }
+}
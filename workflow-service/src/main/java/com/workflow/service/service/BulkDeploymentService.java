@@ -0,0 +1,277 @@
+package com.workflow.service.service;
+
+import com.workflow.service.dto.BulkDeploymentDTO;
+import com.workflow.service.dto.BulkDeploymentDTO.WorkflowDeploymentResultDTO;
+import com.workflow.service.entity.StageConfig;
+import com.workflow.service.entity.WorkflowMaster;
+import com.workflow.service.repository.StageConfigRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Deploys every active workflow in one operation, e.g. after an environment refresh or an import.
+ * <p>
+ * Call activities need their nested workflows deployed first, so workflows are ordered into
+ * levels of the nesting DAG built from {@link StageConfig#getNestedWorkflowCode()}. BPMN for all
+ * workflows is generated in parallel on a bounded pool; the levels are then deployed in order,
+ * the workflows within a level in parallel, each in its own transaction. Unchanged definitions
+ * are not redeployed. A workflow is skipped if one of its nested workflows was not deployed;
+ * workflows on (or behind) a nesting cycle fail.
+ */
+@Service
+@Slf4j
+public class BulkDeploymentService {
+
+    private final DeploymentService deploymentService;
+    private final BpmnGeneratorService bpmnGeneratorService;
+    private final WorkflowDefinitionService workflowDefinitionService;
+    private final StageConfigRepository stageConfigRepository;
+    private final TransactionTemplate deployTx;
+    private final ThreadPoolExecutor workers;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public BulkDeploymentService(DeploymentService deploymentService,
+            BpmnGeneratorService bpmnGeneratorService,
+            WorkflowDefinitionService workflowDefinitionService,
+            StageConfigRepository stageConfigRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${workflow.bulk-deploy.workers:4}") int workerCount) {
+        this.deploymentService = deploymentService;
+        this.bpmnGeneratorService = bpmnGeneratorService;
+        this.workflowDefinitionService = workflowDefinitionService;
+        this.stageConfigRepository = stageConfigRepository;
+        this.deployTx = new TransactionTemplate(transactionManager);
+        this.deployTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "bulk-deploy-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * Deploys all active workflows and reports per-workflow outcome and timings.
+     *
+     * @throws IllegalStateException if a bulk deployment is already running
+     */
+    public BulkDeploymentDTO deployAll() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A bulk deployment is already running");
+        }
+        try {
+            return run();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private BulkDeploymentDTO run() {
+        long start = System.nanoTime();
+
+        Map<String, WorkflowMaster> workflows = new TreeMap<>();
+        for (WorkflowMaster workflow : workflowDefinitionService.getAllWorkflows()) {
+            if (!"DELETED".equals(workflow.getStatus())) {
+                workflows.put(workflow.getWorkflowCode(), workflow);
+            }
+        }
+        // One query for all stages and their actions instead of one per workflow
+        Map<String, List<StageConfig>> stagesByWorkflow = new HashMap<>();
+        for (StageConfig stage : stageConfigRepository.findAllWithActions()) {
+            if (workflows.containsKey(stage.getWorkflowCode())) {
+                stagesByWorkflow.computeIfAbsent(stage.getWorkflowCode(), k -> new ArrayList<>()).add(stage);
+            }
+        }
+        // Nested workflows outside this run (unknown or deleted) do not constrain the order
+        Map<String, Set<String>> nested = new TreeMap<>();
+        for (String code : workflows.keySet()) {
+            Set<String> calls = new TreeSet<>();
+            for (StageConfig stage : stagesByWorkflow.getOrDefault(code, List.of())) {
+                if (stage.isNestedWorkflow() && workflows.containsKey(stage.getNestedWorkflowCode())) {
+                    calls.add(stage.getNestedWorkflowCode());
+                }
+            }
+            nested.put(code, calls);
+        }
+        List<List<String>> levels = levels(nested);
+
+        Map<String, WorkflowDeploymentResultDTO> results = new LinkedHashMap<>();
+        for (int level = 0; level < levels.size(); level++) {
+            for (String code : levels.get(level)) {
+                results.put(code, WorkflowDeploymentResultDTO.builder().workflowCode(code).level(level).build());
+            }
+        }
+        for (String code : workflows.keySet()) {
+            if (!results.containsKey(code)) {
+                results.put(code, WorkflowDeploymentResultDTO.builder().workflowCode(code).level(-1)
+                        .status("FAILED").error("On or behind a nested workflow cycle").build());
+            }
+        }
+
+        // 1. Generate all definitions in parallel; generation does not depend on deploy order
+        Map<String, Future<String>> generated = new HashMap<>();
+        for (List<String> level : levels) {
+            for (String code : level) {
+                WorkflowMaster workflow = workflows.get(code);
+                List<StageConfig> stages = stagesByWorkflow.getOrDefault(code, List.of());
+                WorkflowDeploymentResultDTO result = results.get(code);
+                generated.put(code, workers.submit(() -> generate(workflow, stages, result)));
+            }
+        }
+
+        // 2. Deploy level by level: nested workflows are in place before their callers.
+        // Deploy tasks queue behind every generation task, so waiting on one never deadlocks.
+        for (List<String> level : levels) {
+            List<Future<?>> deploys = new ArrayList<>();
+            for (String code : level) {
+                WorkflowDeploymentResultDTO result = results.get(code);
+                String missing = nested.get(code).stream()
+                        .filter(n -> !isDeployed(results.get(n)))
+                        .findFirst().orElse(null);
+                if (missing != null) {
+                    generated.get(code).cancel(false);
+                    result.setStatus("SKIPPED");
+                    result.setError("Nested workflow " + missing + " was not deployed");
+                    continue;
+                }
+                deploys.add(workers.submit(() -> deploy(code, generated.get(code), result)));
+            }
+            awaitAll(deploys);
+        }
+
+        BulkDeploymentDTO report = BulkDeploymentDTO.builder()
+                .total(results.size())
+                .deployed(count(results, "DEPLOYED"))
+                .unchanged(count(results, "UNCHANGED"))
+                .failed(count(results, "FAILED"))
+                .skipped(count(results, "SKIPPED"))
+                .levels(levels.size())
+                .totalMillis(millisSince(start))
+                .results(new ArrayList<>(results.values()))
+                .build();
+        report.setStatus(report.getFailed() + report.getSkipped() == 0 ? "COMPLETED" : "COMPLETED_WITH_ERRORS");
+        log.info("Bulk deployment of {} workflows in {} levels took {} ms: {} deployed, {} unchanged, {} failed, {} skipped",
+                report.getTotal(), report.getLevels(), report.getTotalMillis(), report.getDeployed(),
+                report.getUnchanged(), report.getFailed(), report.getSkipped());
+        return report;
+    }
+
+    // Kahn's algorithm by levels: a workflow sits one level above its deepest nested workflow.
+    // Workflows on a cycle, or calling into one, never become ready and are left out.
+    static List<List<String>> levels(Map<String, Set<String>> nested) {
+        Map<String, Integer> pending = new HashMap<>();
+        Map<String, List<String>> callers = new HashMap<>();
+        List<String> ready = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> e : nested.entrySet()) {
+            pending.put(e.getKey(), e.getValue().size());
+            e.getValue().forEach(n -> callers.computeIfAbsent(n, k -> new ArrayList<>()).add(e.getKey()));
+            if (e.getValue().isEmpty()) {
+                ready.add(e.getKey());
+            }
+        }
+        List<List<String>> levels = new ArrayList<>();
+        while (!ready.isEmpty()) {
+            Collections.sort(ready);
+            levels.add(ready);
+            List<String> next = new ArrayList<>();
+            for (String code : ready) {
+                for (String caller : callers.getOrDefault(code, List.of())) {
+                    if (pending.merge(caller, -1, Integer::sum) == 0) {
+                        next.add(caller);
+                    }
+                }
+            }
+            ready = next;
+        }
+        return levels;
+    }
+
+    private String generate(WorkflowMaster workflow, List<StageConfig> stages, WorkflowDeploymentResultDTO result) {
+        long start = System.nanoTime();
+        try {
+            return bpmnGeneratorService.generate(workflow, stages).xml();
+        } finally {
+            result.setGenerationMillis(millisSince(start));
+        }
+    }
+
+    private void deploy(String code, Future<String> generated, WorkflowDeploymentResultDTO result) {
+        try {
+            String bpmnXml = generated.get();
+            long start = System.nanoTime();
+            DeploymentService.DeployOutcome outcome = deployTx.execute(tx -> deploymentService.deploy(code, bpmnXml));
+            result.setDeployMillis(millisSince(start));
+            result.setDeploymentId(outcome.deployment().getId());
+            result.setStatus(outcome.created() ? "DEPLOYED" : "UNCHANGED");
+        } catch (ExecutionException e) {
+            fail(code, result, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(code, result, e);
+        } catch (RuntimeException e) {
+            fail(code, result, e);
+        }
+    }
+
+    private void fail(String code, WorkflowDeploymentResultDTO result, Throwable cause) {
+        log.warn("Bulk deployment of workflow {} failed: {}", code, cause.getMessage());
+        result.setStatus("FAILED");
+        result.setError(cause.getMessage());
+    }
+
+    private void awaitAll(List<Future<?>> futures) {
+        for (Future<?> f : futures) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for deployments", e);
+            } catch (ExecutionException e) {
+                // deploy() records its own failures
+                log.error("Unexpected bulk deployment failure", e.getCause());
+            }
+        }
+    }
+
+    private static boolean isDeployed(WorkflowDeploymentResultDTO result) {
+        return "DEPLOYED".equals(result.getStatus()) || "UNCHANGED".equals(result.getStatus());
+    }
+
+    private static int count(Map<String, WorkflowDeploymentResultDTO> results, String status) {
+        return (int) results.values().stream().filter(r -> status.equals(r.getStatus())).count();
+    }
+
+    private static long millisSince(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,107 @@
+package com.workflow.service.service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Business days of one region (weekdays minus the region's holidays), used by {@link CalendarService}.
+ * <p>
+ * Each year is compiled on first use into a prefix count (business days up to each day) and
+ * its inverse (day of the n-th business day), so stepping N business days is a lookup per
+ * year crossed instead of a walk with a holiday check per day. The holiday set is fixed for
+ * the lifetime of the instance; holiday changes replace the whole calendar.
+ */
+final class BusinessCalendar {
+
+    private static final class Year {
+        private final LocalDate first;
+        private final int[] rankThrough; // business days in [Jan 1, day], by day-of-year - 1
+        private final int[] nth;         // day-of-year - 1 of the (k+1)-th business day
+
+        Year(int year, Set<LocalDate> holidays) {
+            this.first = LocalDate.of(year, 1, 1);
+            int length = first.lengthOfYear();
+            this.rankThrough = new int[length];
+            int[] days = new int[length];
+            int rank = 0;
+            for (int i = 0; i < length; i++) {
+                if (isBusinessDay(first.plusDays(i), holidays)) {
+                    days[rank++] = i;
+                }
+                rankThrough[i] = rank;
+            }
+            this.nth = Arrays.copyOf(days, rank);
+        }
+    }
+
+    private final Set<LocalDate> holidays;
+    private final Map<Integer, Year> years = new ConcurrentHashMap<>();
+
+    BusinessCalendar(Set<LocalDate> holidays) {
+        this.holidays = Set.copyOf(holidays);
+    }
+
+    boolean isHoliday(LocalDate date) {
+        return holidays.contains(date);
+    }
+
+    boolean isBusinessDay(LocalDate date) {
+        return isBusinessDay(date, holidays);
+    }
+
+    /**
+     * The n-th business day strictly after {@code date}; {@code date} itself when n is not positive.
+     */
+    LocalDate plusBusinessDays(LocalDate date, long n) {
+        if (n <= 0) {
+            return date;
+        }
+        Year year = year(date.getYear());
+        long target = year.rankThrough[date.getDayOfYear() - 1] + n;
+        while (target > year.nth.length) {
+            target -= year.nth.length;
+            year = year(year.first.getYear() + 1);
+        }
+        return year.first.plusDays(year.nth[(int) target - 1]);
+    }
+
+    /**
+     * Adds working minutes, counting only [open, close) of business days. A start outside
+     * working time counts from the next opening.
+     */
+    LocalDateTime plusBusinessMinutes(LocalDateTime start, long minutes, LocalTime open, LocalTime close) {
+        long minutesPerDay = Duration.between(open, close).toMinutes();
+        LocalDate day = start.toLocalDate();
+        LocalTime time = start.toLocalTime();
+        if (!isBusinessDay(day) || !time.isBefore(close)) {
+            day = plusBusinessDays(day, 1);
+            time = open;
+        } else if (time.isBefore(open)) {
+            time = open;
+        }
+        long leftToday = Duration.between(time, close).toMinutes();
+        if (minutes <= leftToday) {
+            return day.atTime(time).plusMinutes(Math.max(minutes, 0));
+        }
+        long rest = minutes - leftToday;
+        long fullDays = (rest + minutesPerDay - 1) / minutesPerDay;
+        long inLastDay = rest - (fullDays - 1) * minutesPerDay;
+        return plusBusinessDays(day, fullDays).atTime(open).plusMinutes(inLastDay);
+    }
+
+    private Year year(int year) {
+        return years.computeIfAbsent(year, y -> new Year(y, holidays));
+    }
+
+    private static boolean isBusinessDay(LocalDate date, Set<LocalDate> holidays) {
+        DayOfWeek day = date.getDayOfWeek();
+        return day != DayOfWeek.SATURDAY && day != DayOfWeek.SUNDAY && !holidays.contains(date);
+    }
+}
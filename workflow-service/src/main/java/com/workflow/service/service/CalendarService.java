@@ -6,14 +6,42 @@ import com.workflow.service.repository.OrgHolidayRepository;
 import com.workflow.service.repository.UserLeaveRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.flowable.variable.api.delegate.VariableScope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.time.DayOfWeek;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
+/**
+ * Holidays, SLA dates and leave / substitution lookups.
+ * <p>
+ * Business-day math runs on a per-region {@link BusinessCalendar} compiled from
+ * {@code org_holiday}: adding N business days is arithmetic, not a query per day. Calendars
+ * are dropped after a holiday write through this service commits, and on a timer.
+ * {@link #slaDueDate} is the business-hours due date used by the generated SLA timers.
+ * <p>
+ * Leave lookups are answered from an in-memory {@link LeaveIndex} of current and future
+ * leaves, so availability checks on the assignment paths cost no query. The index is
+ * rebuilt lazily after a write through {@link #saveLeave} / {@link #deleteLeave} commits,
+ * and on a timer to drop ended leaves and pick up rows written by other instances.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -22,13 +50,29 @@ public class CalendarService {
     private final OrgHolidayRepository holidayRepository;
     private final UserLeaveRepository leaveRepository;
 
+    @Value("${workflow.sla.business-hours.start:09:00}")
+    private String businessDayStart;
+
+    @Value("${workflow.sla.business-hours.end:18:00}")
+    private String businessDayEnd;
+
+    @Value("${workflow.sla.region-variable:region}")
+    private String regionVariable;
+
+    @Value("${workflow.sla.default-region:GLOBAL}")
+    private String defaultRegion;
+
+    private volatile LeaveIndex leaveIndex;
+    private volatile boolean leaveIndexStale = true;
+
+    // Replaced, not cleared, on invalidation: a load in flight lands in the discarded map
+    private volatile Map<String, BusinessCalendar> calendars = new ConcurrentHashMap<>();
+
     /**
      * Checks if a specific date is a holiday in the given region.
      */
     public boolean isHoliday(LocalDate date, String region) {
-        // Simple implementation: Check DB for specific date + region
-        // Optimization: Could cache this or fetch all holidays for the year
-        return holidayRepository.existsByDateAndRegion(date, region);
+        return calendar(region).isHoliday(date);
     }
 
     /**
@@ -36,8 +80,12 @@ public class CalendarService {
      * Returns null if user is available.
      */
     public UserLeave getActiveLeave(String userId) {
-        List<UserLeave> leaves = leaveRepository.findActiveLeave(userId, LocalDateTime.now());
-        if (leaves == null || leaves.isEmpty()) {
+        return activeLeave(currentLeaveIndex(), userId, LocalDateTime.now());
+    }
+
+    private UserLeave activeLeave(LeaveIndex index, String userId, LocalDateTime now) {
+        List<UserLeave> leaves = index.coveringAt(userId, now);
+        if (leaves.isEmpty()) {
             return null;
         }
         // If multiple active leaves exist, pick the first one.
@@ -53,19 +101,34 @@ public class CalendarService {
      * skipping Weekends and OrgHolidays for the region.
      */
     public LocalDate calculateSlaDueDate(LocalDate startDate, int durationDays, String region) {
-        LocalDate currentDate = startDate;
-        int daysAdded = 0;
-
-        while (daysAdded < durationDays) {
-            // Move to next day
-            currentDate = currentDate.plusDays(1);
+        return calendar(region).plusBusinessDays(startDate, durationDays);
+    }
 
-            // Check if it's a valid business day
-            if (isBusinessDay(currentDate, region)) {
-                daysAdded++;
-            }
+    /**
+     * Due date {@code durationDays} business days (of business hours) after {@code start}.
+     * Fractions count as hours: 1.5 days with a 09:00-18:00 day is 13.5 working hours.
+     */
+    public LocalDateTime calculateSlaDueDateTime(LocalDateTime start, BigDecimal durationDays, String region) {
+        LocalTime open = LocalTime.parse(businessDayStart);
+        LocalTime close = LocalTime.parse(businessDayEnd);
+        if (!close.isAfter(open)) {
+            throw new IllegalArgumentException("Business hours end " + close + " must be after start " + open);
         }
-        return currentDate;
+        long minutes = durationDays.multiply(BigDecimal.valueOf(Duration.between(open, close).toMinutes()))
+                .setScale(0, RoundingMode.CEILING)
+                .longValue();
+        return calendar(region).plusBusinessMinutes(start, minutes, open, close);
+    }
+
+    /**
+     * SLA timer due date for a case, from now: {@code timeDate} expression of the generated
+     * boundary timers. The region comes from the case variable {@code workflow.sla.region-variable}.
+     */
+    public Date slaDueDate(VariableScope execution, String durationDays) {
+        Object region = execution != null ? execution.getVariable(regionVariable) : null;
+        String effectiveRegion = region instanceof String r && !r.isBlank() ? r : defaultRegion;
+        LocalDateTime due = calculateSlaDueDateTime(LocalDateTime.now(), new BigDecimal(durationDays), effectiveRegion);
+        return Date.from(due.atZone(ZoneId.systemDefault()).toInstant());
     }
 
     /**
@@ -73,7 +136,25 @@ public class CalendarService {
      * Recursion Check: Only 1 level of substitution to prevent loops.
      */
     public String getEffectiveAssignee(String userId) {
-        UserLeave leave = getActiveLeave(userId);
+        return effectiveAssignee(currentLeaveIndex(), userId, LocalDateTime.now());
+    }
+
+    /**
+     * {@link #getEffectiveAssignee} for a candidate list, against one index snapshot and one
+     * instant. Keys keep the order of {@code userIds}.
+     */
+    public Map<String, String> getEffectiveAssignees(Collection<String> userIds) {
+        LeaveIndex index = currentLeaveIndex();
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, String> effective = new LinkedHashMap<>();
+        for (String userId : userIds) {
+            effective.computeIfAbsent(userId, u -> effectiveAssignee(index, u, now));
+        }
+        return effective;
+    }
+
+    private String effectiveAssignee(LeaveIndex index, String userId, LocalDateTime now) {
+        UserLeave leave = activeLeave(index, userId, now);
         if (leave == null) {
             return userId;
         }
@@ -87,7 +168,7 @@ public class CalendarService {
             // If substitute is also away, we could return substitute (letting them handle
             // it) or fallback.
             // Let's check 1 level deep.
-            if (getActiveLeave(substitute) != null) {
+            if (activeLeave(index, substitute, now) != null) {
                 log.warn("Delegation: Substitute {} is also OOO. Falling back to original assigner or pool.",
                         substitute);
                 return userId; // Fallback to original? Or null to indicate "Unassigned"?
@@ -101,18 +182,96 @@ public class CalendarService {
         return userId;
     }
 
-    private boolean isBusinessDay(LocalDate date, String region) {
-        // 1. Check Weekend (Saturday or Sunday)
-        DayOfWeek day = date.getDayOfWeek();
-        if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) {
-            return false;
+    // --- Leave writes (keep the index in step) ---
+
+    public UserLeave saveLeave(UserLeave leave) {
+        UserLeave saved = leaveRepository.save(leave);
+        runAfterCommit(this::invalidateLeaveIndex);
+        return saved;
+    }
+
+    public void deleteLeave(Long id) {
+        leaveRepository.deleteById(id);
+        runAfterCommit(this::invalidateLeaveIndex);
+    }
+
+    /**
+     * Forces a reload on the next lookup: drops ended leaves and picks up writes made elsewhere.
+     */
+    @Scheduled(fixedDelayString = "${workflow.leave-index.refresh-interval-ms:60000}")
+    public void invalidateLeaveIndex() {
+        leaveIndexStale = true;
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
         }
+    }
 
-        // 2. Check Org Holiday
-        if (isHoliday(date, region)) {
-            return false;
+    private LeaveIndex currentLeaveIndex() {
+        LeaveIndex current = leaveIndex;
+        if (current != null && !leaveIndexStale) {
+            return current;
+        }
+        synchronized (this) {
+            if (leaveIndex == null || leaveIndexStale) {
+                // Clear the flag before reading: a write committing mid-load marks the index stale again
+                leaveIndexStale = false;
+                try {
+                    leaveIndex = LeaveIndex.build(leaveRepository.findCurrentAndUpcoming(LocalDateTime.now()));
+                    log.debug("Leave index loaded: {} current and upcoming leaves", leaveIndex.size());
+                } catch (RuntimeException e) {
+                    leaveIndexStale = true;
+                    if (leaveIndex == null) {
+                        throw e;
+                    }
+                    log.warn("Failed to reload leave index, serving the previous one: {}", e.getMessage());
+                }
+            }
+            return leaveIndex;
         }
+    }
+
+    // --- Holiday writes (drop the compiled calendars) ---
+
+    public OrgHoliday saveHoliday(OrgHoliday holiday) {
+        OrgHoliday saved = holidayRepository.save(holiday);
+        runAfterCommit(this::invalidateHolidayCalendars);
+        return saved;
+    }
+
+    public List<OrgHoliday> saveHolidays(List<OrgHoliday> holidays) {
+        List<OrgHoliday> saved = holidayRepository.saveAll(holidays);
+        runAfterCommit(this::invalidateHolidayCalendars);
+        return saved;
+    }
+
+    public void deleteHoliday(Long id) {
+        holidayRepository.deleteById(id);
+        runAfterCommit(this::invalidateHolidayCalendars);
+    }
+
+    /**
+     * Recompiles calendars on next use; picks up holiday writes made by other instances.
+     */
+    @Scheduled(fixedDelayString = "${workflow.business-calendar.refresh-interval-ms:300000}")
+    public void invalidateHolidayCalendars() {
+        calendars = new ConcurrentHashMap<>();
+    }
 
-        return true;
+    private BusinessCalendar calendar(String region) {
+        String key = region != null ? region : "";
+        return calendars.computeIfAbsent(key, r -> new BusinessCalendar(region == null ? Set.of()
+                : holidayRepository.findByRegion(region).stream()
+                        .map(OrgHoliday::getDate)
+                        .collect(Collectors.toSet())));
     }
 }
@@ -0,0 +1,300 @@
+package com.workflow.service.service;
+
+import com.workflow.service.entity.CaseAttribute;
+import com.workflow.service.repository.CaseAttributeRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.engine.HistoryService;
+import org.flowable.engine.history.HistoricProcessInstance;
+import org.flowable.variable.api.history.HistoricVariableInstance;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@code case_attribute}, the searchable index of business variables.
+ * <p>
+ * Which variables are indexed: the global defaults ({@code initiator}, {@code cp_id})
+ * plus the workflow's {@code indexedAttributes}. Rows are written by
+ * {@link com.workflow.service.listener.CaseAttributeIndexListener} inside the engine
+ * transaction that sets the variable, so the index never lags the case. Rows of
+ * ended cases are kept, the task history search needs them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CaseAttributeIndexService {
+
+    private static final int MAX_VALUE_LENGTH = 255;
+    private static final int REBUILD_BATCH = 500;
+    private static final Object TX_ROWS_KEY = CaseAttributeIndexService.class.getName() + ".rows";
+
+    private final CaseAttributeRepository caseAttributeRepository;
+    private final ConfigSnapshotService configSnapshotService;
+    private final HistoryService historyService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${workflow.case-index.default-attributes:initiator,cp_id}")
+    private String defaultAttributes;
+
+    private Set<String> defaultNames;
+
+    @PostConstruct
+    void init() {
+        defaultNames = Arrays.stream(defaultAttributes.split(","))
+                .map(String::trim)
+                .filter(n -> !n.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public boolean isIndexed(String workflowCode, String attrName) {
+        if (defaultNames.contains(attrName)) {
+            return true;
+        }
+        return configSnapshotService.get().workflow(workflowCode)
+                .map(w -> w.indexedAttributes().contains(attrName))
+                .orElse(false);
+    }
+
+    /**
+     * True when a search on this attribute can be answered from the index for every workflow.
+     */
+    public boolean isIndexedEverywhere(String attrName) {
+        if (defaultNames.contains(attrName)) {
+            return true;
+        }
+        Map<String, ConfigSnapshot.WorkflowDef> workflows = configSnapshotService.get().workflows();
+        return !workflows.isEmpty()
+                && workflows.values().stream().allMatch(w -> w.indexedAttributes().contains(attrName));
+    }
+
+    /**
+     * True when an equality search for this value can be answered from the index, within one
+     * workflow or, with a null workflow code, across all of them. Values longer than the
+     * stored prefix cannot be matched exactly and go to the engine variables instead.
+     */
+    public boolean canSearch(String workflowCode, String attrName, String value) {
+        if (value.length() > MAX_VALUE_LENGTH) {
+            return false;
+        }
+        return workflowCode != null && !workflowCode.isEmpty()
+                ? isIndexed(workflowCode, attrName)
+                : isIndexedEverywhere(attrName);
+    }
+
+    // --- Event side (called inside the engine transaction) ---
+
+    public void onVariableSet(String caseId, String workflowCode, String attrName, Object value) {
+        String text = toIndexValue(value);
+        if (text == null) {
+            onVariableRemoved(caseId, attrName);
+            return;
+        }
+        Map<String, CaseAttribute> written = rowsWrittenInTransaction();
+        String key = caseId + ':' + attrName;
+        CaseAttribute row = written.get(key);
+        if (row == null) {
+            row = caseAttributeRepository.findByCaseIdAndAttrName(caseId, attrName).orElseGet(CaseAttribute::new);
+        }
+        row.setCaseId(caseId);
+        row.setWorkflowCode(workflowCode);
+        row.setAttrName(attrName);
+        row.setAttrValue(text);
+        row.setUpdatedAt(LocalDateTime.now());
+        written.put(key, caseAttributeRepository.save(row));
+    }
+
+    public void onVariableRemoved(String caseId, String attrName) {
+        rowsWrittenInTransaction().remove(caseId + ':' + attrName);
+        caseAttributeRepository.deleteByCaseIdAndAttrName(caseId, attrName);
+    }
+
+    // The lookup query does not flush, so rows saved earlier in the transaction are found here
+    private static Map<String, CaseAttribute> rowsWrittenInTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new HashMap<>();
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, CaseAttribute> rows = (Map<String, CaseAttribute>) TransactionSynchronizationManager
+                .getResource(TX_ROWS_KEY);
+        if (rows == null) {
+            rows = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(TX_ROWS_KEY, rows);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TX_ROWS_KEY);
+                }
+            });
+        }
+        return rows;
+    }
+
+    // --- Config side (called inside the transaction that changes the workflow) ---
+
+    /**
+     * Brings the index in line with a workflow's new {@code indexedAttributes}, compared with
+     * the installed snapshot: rows of dropped attributes are deleted and added attributes are
+     * back-filled from variable history, for running and ended cases. Runs in the caller's
+     * transaction, so no node sees the new setting before its index rows are there.
+     */
+    public void onIndexedAttributesChanged(String workflowCode, String indexedAttributes) {
+        Set<String> before = configSnapshotService.get().workflow(workflowCode)
+                .map(ConfigSnapshot.WorkflowDef::indexedAttributes)
+                .orElse(Set.of());
+        Set<String> after = ConfigSnapshotService.parseNames(indexedAttributes);
+        for (String name : before) {
+            if (!after.contains(name) && !defaultNames.contains(name)) {
+                caseAttributeRepository.deleteByWorkflowCodeAndAttrName(workflowCode, name);
+            }
+        }
+        for (String name : after) {
+            if (!before.contains(name) && !defaultNames.contains(name)) {
+                backfill(workflowCode, name);
+            }
+        }
+    }
+
+    private void backfill(String workflowCode, String attrName) {
+        List<HistoricVariableInstance> vars = historyService.createNativeHistoricVariableInstanceQuery()
+                .sql("SELECT RES.* FROM ACT_HI_VARINST RES"
+                        + " INNER JOIN ACT_HI_PROCINST P ON P.PROC_INST_ID_ = RES.PROC_INST_ID_"
+                        + " INNER JOIN ACT_RE_PROCDEF D ON D.ID_ = P.PROC_DEF_ID_"
+                        + " WHERE D.KEY_ = #{workflowCode} AND RES.NAME_ = #{attrName}"
+                        + " AND RES.TASK_ID_ IS NULL AND RES.EXECUTION_ID_ = RES.PROC_INST_ID_")
+                .parameter("workflowCode", workflowCode)
+                .parameter("attrName", attrName)
+                .list();
+        List<CaseAttribute> rows = new ArrayList<>();
+        for (HistoricVariableInstance var : vars) {
+            String text = toIndexValue(var.getValue());
+            if (text != null) {
+                CaseAttribute row = new CaseAttribute();
+                row.setCaseId(var.getProcessInstanceId());
+                row.setWorkflowCode(workflowCode);
+                row.setAttrName(attrName);
+                row.setAttrValue(text);
+                row.setUpdatedAt(LocalDateTime.now());
+                rows.add(row);
+            }
+        }
+        caseAttributeRepository.deleteByWorkflowCodeAndAttrName(workflowCode, attrName);
+        caseAttributeRepository.saveAll(rows);
+        log.info("Case attribute index back-filled {} values of {} for workflow {}", rows.size(), attrName,
+                workflowCode);
+    }
+
+    // --- Read side ---
+
+    /**
+     * Case ids (running or ended) whose indexed attributes match every given value.
+     * Only meaningful for attributes and values that pass {@link #canSearch}.
+     */
+    public Set<String> findCaseIds(Map<String, String> attributes) {
+        Set<String> result = null;
+        for (Map.Entry<String, String> filter : attributes.entrySet()) {
+            Set<String> ids = new HashSet<>(caseAttributeRepository.findCaseIds(filter.getKey(), filter.getValue()));
+            if (result == null) {
+                result = ids;
+            } else {
+                result.retainAll(ids);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result != null ? result : Set.of();
+    }
+
+    // --- Maintenance ---
+
+    /**
+     * Recovery / first start: re-seeds the index from variable history.
+     *
+     * @return number of attribute rows written
+     */
+    public int rebuild() {
+        Set<String> names = new HashSet<>(defaultNames);
+        configSnapshotService.get().workflows().values().forEach(w -> names.addAll(w.indexedAttributes()));
+
+        Map<String, Map<String, Object>> valuesByCase = new HashMap<>();
+        for (String name : names) {
+            for (HistoricVariableInstance var : historyService.createHistoricVariableInstanceQuery()
+                    .variableName(name)
+                    .excludeTaskVariables()
+                    .excludeLocalVariables()
+                    .list()) {
+                valuesByCase.computeIfAbsent(var.getProcessInstanceId(), k -> new HashMap<>())
+                        .put(name, var.getValue());
+            }
+        }
+
+        List<CaseAttribute> rows = new ArrayList<>();
+        List<String> caseIds = new ArrayList<>(valuesByCase.keySet());
+        for (int start = 0; start < caseIds.size(); start += REBUILD_BATCH) {
+            Set<String> batch = new HashSet<>(caseIds.subList(start, Math.min(start + REBUILD_BATCH, caseIds.size())));
+            for (HistoricProcessInstance pi : historyService.createHistoricProcessInstanceQuery()
+                    .processInstanceIds(batch).list()) {
+                String workflowCode = pi.getProcessDefinitionKey();
+                valuesByCase.get(pi.getId()).forEach((name, value) -> {
+                    String text = toIndexValue(value);
+                    if (text != null && isIndexed(workflowCode, name)) {
+                        CaseAttribute row = new CaseAttribute();
+                        row.setCaseId(pi.getId());
+                        row.setWorkflowCode(workflowCode);
+                        row.setAttrName(name);
+                        row.setAttrValue(text);
+                        row.setUpdatedAt(LocalDateTime.now());
+                        rows.add(row);
+                    }
+                });
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            caseAttributeRepository.deleteAllInBatch();
+            caseAttributeRepository.saveAll(rows);
+        });
+        log.info("Case attribute index rebuilt: {} attributes for {} cases", rows.size(), caseIds.size());
+        return rows.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (caseAttributeRepository.count() == 0) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.error("Failed to initialize case attribute index", e);
+        }
+    }
+
+    // Scalars only; anything else is not searchable by equality
+    private static String toIndexValue(Object value) {
+        if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+            String text = value.toString();
+            return text.length() > MAX_VALUE_LENGTH ? text.substring(0, MAX_VALUE_LENGTH) : text;
+        }
+        if (value instanceof Date date) {
+            return date.toInstant().toString();
+        }
+        return null;
+    }
+}
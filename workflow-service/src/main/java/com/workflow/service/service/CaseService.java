@@ -2,7 +2,6 @@ package com.workflow.service.service;
 
 import com.workflow.service.dto.CaseDTO;
 import com.workflow.service.dto.StageDTO;
-import com.workflow.service.repository.WorkflowMasterRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.flowable.engine.HistoryService;
@@ -26,15 +25,22 @@ import java.util.*;
 @Slf4j
 public class CaseService {
 
+    private static final int MAX_CASE_PAGE_SIZE = 500;
+    private static final int MAX_IN_LIST = 500;
+
     private final com.fasterxml.jackson.databind.ObjectMapper objectMapper;
     private final WorkflowDefinitionService workflowDefinitionService;
     private final RuntimeService runtimeService;
     private final RepositoryService repositoryService;
     private final HistoryService historyService;
     private final TaskService taskService;
-    private final WorkflowMasterRepository workflowRepository;
-    private final com.workflow.service.repository.StageConfigRepository stageConfigRepository;
+    private final org.flowable.engine.ManagementService managementService;
+    private final ConfigSnapshotService configSnapshotService;
+    private final AllowedActionsService allowedActionsService;
+    private final WorkloadProjectionService workloadProjectionService;
+    private final StoryboardService storyboardService;
     private final com.workflow.service.integration.UserAdapterClient userAdapterClient;
+    private final CaseAttributeIndexService caseAttributeIndexService;
 
     @Transactional
     public String initiateCase(String workflowCode, Map<String, Object> variables, String userId) {
@@ -64,40 +70,223 @@ public class CaseService {
     }
 
     public List<CaseDTO> getAllActiveCases(String workflowCode, String initiator, String cpId, String candidateGroup) {
-        org.flowable.engine.runtime.ProcessInstanceQuery query = runtimeService.createProcessInstanceQuery()
-                .orderByStartTime().desc();
+        return getAllActiveCases(workflowCode, initiator, cpId, candidateGroup, VariableSelection.ALL);
+    }
 
-        if (candidateGroup != null && !candidateGroup.isEmpty()) {
-            List<Task> tasks = taskService.createTaskQuery().taskCandidateGroup(candidateGroup).list();
-            Set<String> pids = tasks.stream().map(Task::getProcessInstanceId).collect(java.util.stream.Collectors.toSet());
-            if (pids.isEmpty()) {
-                return new ArrayList<>();
-            }
-            query.processInstanceIds(pids);
-        }
+    public List<CaseDTO> getAllActiveCases(String workflowCode, String initiator, String cpId, String candidateGroup,
+            VariableSelection variables) {
+        return getAllActiveCases(workflowCode, initiator, cpId, candidateGroup, Map.of(), variables);
+    }
+
+    /**
+     * @param attributes further case attributes to match exactly, by name
+     */
+    public List<CaseDTO> getAllActiveCases(String workflowCode, String initiator, String cpId, String candidateGroup,
+            Map<String, String> attributes, VariableSelection variables) {
+        Map<String, Object> params = new HashMap<>();
+        String sql = activeCasesSql(workflowCode, initiator, cpId, candidateGroup, attributes, params)
+                + " ORDER BY RES.START_TIME_ DESC";
+
+        org.flowable.engine.runtime.NativeProcessInstanceQuery query = runtimeService.createNativeProcessInstanceQuery()
+                .sql(sql);
+        params.forEach(query::parameter);
+
+        List<ProcessInstance> instances = query.list();
+        return instances.stream().map(p -> mapToCaseDTO(p, variables)).collect(java.util.stream.Collectors.toList());
+    }
 
+    /**
+     * Running root instances matching the filters, as SQL over {@code ACT_RU_EXECUTION RES}.
+     * Filters are EXISTS clauses, so only running cases are ever considered.
+     */
+    private String activeCasesSql(String workflowCode, String initiator, String cpId, String candidateGroup,
+            Map<String, String> attributes, Map<String, Object> params) {
+        StringBuilder sql = new StringBuilder("SELECT RES.* FROM ACT_RU_EXECUTION RES");
         if (workflowCode != null && !workflowCode.isEmpty()) {
-            query.processDefinitionKey(workflowCode);
+            sql.append(" INNER JOIN ACT_RE_PROCDEF P ON P.ID_ = RES.PROC_DEF_ID_ AND P.KEY_ = #{workflowCode}");
+            params.put("workflowCode", workflowCode);
+        }
+        sql.append(" WHERE RES.PARENT_ID_ IS NULL");
+
+        int n = 0;
+        for (Map.Entry<String, String> filter : attributeFilters(initiator, cpId, attributes).entrySet()) {
+            appendAttributeFilter(sql, workflowCode, filter.getKey(), filter.getValue(), "attr" + n++, params);
         }
+        if (candidateGroup != null && !candidateGroup.isEmpty()) {
+            sql.append(" AND EXISTS (SELECT 1 FROM ACT_RU_TASK T INNER JOIN ACT_RU_IDENTITYLINK I ON I.TASK_ID_ = T.ID_"
+                    + " WHERE T.PROC_INST_ID_ = RES.ID_ AND T.ASSIGNEE_ IS NULL AND I.TYPE_ = 'candidate'"
+                    + " AND I.GROUP_ID_ = #{candidateGroup})");
+            params.put("candidateGroup", candidateGroup);
+        }
+        return sql.toString();
+    }
+
+    private static Map<String, String> attributeFilters(String initiator, String cpId, Map<String, String> attributes) {
+        Map<String, String> filters = new LinkedHashMap<>(attributes);
         if (initiator != null && !initiator.isEmpty()) {
-            query.variableValueEquals("initiator", initiator);
+            filters.put("initiator", initiator);
         }
         if (cpId != null && !cpId.isEmpty()) {
-            query.variableValueEquals("cp_id", cpId);
+            filters.put("cp_id", cpId);
         }
+        return filters;
+    }
 
-        List<ProcessInstance> instances = query.list();
-        return instances.stream().map(this::mapToCaseDTO).collect(java.util.stream.Collectors.toList());
+    // Through the case_attribute index (idx_ca_lookup) when the searched workflows index the
+    // attribute, otherwise against the process-level engine variable
+    private void appendAttributeFilter(StringBuilder sql, String workflowCode, String attrName, String value,
+            String param, Map<String, Object> params) {
+        if (caseAttributeIndexService.canSearch(workflowCode, attrName, value)) {
+            sql.append(" AND EXISTS (SELECT 1 FROM case_attribute A WHERE A.case_id = RES.ID_"
+                    + " AND A.attr_name = #{" + param + "Name} AND A.attr_value = #{" + param + "})");
+        } else {
+            sql.append(" AND EXISTS (SELECT 1 FROM ACT_RU_VARIABLE V WHERE V.EXECUTION_ID_ = RES.ID_"
+                    + " AND V.TASK_ID_ IS NULL AND V.NAME_ = #{" + param + "Name} AND V.TEXT_ = #{" + param + "})");
+        }
+        params.put(param + "Name", attrName);
+        params.put(param, value);
+    }
+
+    /**
+     * Keyset-paginated variant of {@link #getAllActiveCases}. Pages are ordered by
+     * start time (newest first) with the instance id as tie-breaker, and the
+     * cursor encodes the last (startTime, id) pair of the previous page.
+     * Parents, workflow names and variables are fetched in bulk for the page.
+     */
+    public com.workflow.service.dto.CursorPageDTO<CaseDTO> getActiveCasesPage(String workflowCode, String initiator,
+            String cpId, String candidateGroup, String cursor, int limit) {
+        return getActiveCasesPage(workflowCode, initiator, cpId, candidateGroup, cursor, limit, VariableSelection.ALL);
+    }
+
+    public com.workflow.service.dto.CursorPageDTO<CaseDTO> getActiveCasesPage(String workflowCode, String initiator,
+            String cpId, String candidateGroup, String cursor, int limit, VariableSelection variables) {
+        return getActiveCasesPage(workflowCode, initiator, cpId, candidateGroup, Map.of(), cursor, limit, variables);
+    }
+
+    public com.workflow.service.dto.CursorPageDTO<CaseDTO> getActiveCasesPage(String workflowCode, String initiator,
+            String cpId, String candidateGroup, Map<String, String> attributes, String cursor, int limit,
+            VariableSelection variables) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_CASE_PAGE_SIZE));
+
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder sql = new StringBuilder(activeCasesSql(workflowCode, initiator, cpId, candidateGroup, attributes,
+                params));
+
+        if (cursor != null && !cursor.isEmpty()) {
+            CaseCursor after = CaseCursor.decode(cursor);
+            sql.append(" AND (RES.START_TIME_ < #{cursorTime}"
+                    + " OR (RES.START_TIME_ = #{cursorTime} AND RES.ID_ < #{cursorId}))");
+            params.put("cursorTime", after.startTime());
+            params.put("cursorId", after.id());
+        }
+        sql.append(" ORDER BY RES.START_TIME_ DESC, RES.ID_ DESC");
+
+        org.flowable.engine.runtime.NativeProcessInstanceQuery query = runtimeService.createNativeProcessInstanceQuery()
+                .sql(sql.toString());
+        params.forEach(query::parameter);
+
+        // Fetch one extra row to know whether another page exists
+        List<ProcessInstance> instances = query.listPage(0, pageSize + 1);
+        boolean hasMore = instances.size() > pageSize;
+        if (hasMore) {
+            instances = instances.subList(0, pageSize);
+        }
+
+        List<CaseDTO> items = mapToCaseDTOs(instances, variables);
+        String nextCursor = null;
+        if (hasMore) {
+            ProcessInstance last = instances.get(instances.size() - 1);
+            nextCursor = new CaseCursor(last.getStartTime(), last.getId()).encode();
+        }
+
+        return com.workflow.service.dto.CursorPageDTO.<CaseDTO>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private List<CaseDTO> mapToCaseDTOs(List<ProcessInstance> instances, VariableSelection selection) {
+        if (instances.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<String> ids = new LinkedHashSet<>();
+        Set<String> workflowCodes = new HashSet<>();
+        for (ProcessInstance instance : instances) {
+            ids.add(instance.getId());
+            workflowCodes.add(instance.getProcessDefinitionId().split(":")[0]);
+        }
+
+        // 1. Parents (one history query; super process ids are kept on the historic instance)
+        Map<String, String> parentIds = new HashMap<>();
+        historyService.createHistoricProcessInstanceQuery()
+                .processInstanceIds(ids)
+                .list()
+                .forEach(h -> {
+                    if (h.getSuperProcessInstanceId() != null) {
+                        parentIds.put(h.getId(), h.getSuperProcessInstanceId());
+                    }
+                });
+
+        // 2. Workflow names
+        ConfigSnapshot config = configSnapshotService.get();
+        Map<String, String> workflowNames = new HashMap<>();
+        for (String code : workflowCodes) {
+            config.workflow(code).ifPresent(w -> workflowNames.put(code, w.workflowName()));
+        }
+
+        // 3. Process-level variables for every instance of the page
+        Map<String, Map<String, Object>> variables = fetchRuntimeVariables(ids, selection);
+
+        List<CaseDTO> result = new ArrayList<>(instances.size());
+        for (ProcessInstance process : instances) {
+            String code = process.getProcessDefinitionId().split(":")[0];
+            CaseDTO dto = new CaseDTO();
+            dto.setCaseId(process.getId());
+            dto.setWorkflowCode(code);
+            dto.setWorkflowName(workflowNames.get(code));
+            dto.setStatus("ACTIVE");
+            dto.setStartTime(LocalDateTime.ofInstant(process.getStartTime().toInstant(), ZoneId.systemDefault()));
+            dto.setStartUserId(process.getStartUserId());
+            dto.setParentCaseId(parentIds.get(process.getId()));
+            dto.setProcessVariables(variables.getOrDefault(process.getId(), new HashMap<>()));
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private record CaseCursor(Date startTime, String id) {
+
+        String encode() {
+            String raw = startTime.getTime() + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(raw.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        }
+
+        static CaseCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), java.nio.charset.StandardCharsets.UTF_8);
+                int sep = raw.indexOf(':');
+                return new CaseCursor(new Date(Long.parseLong(raw.substring(0, sep))), raw.substring(sep + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
     }
 
     public CaseDTO getCaseDetails(String caseId) {
+        return getCaseDetails(caseId, VariableSelection.ALL);
+    }
+
+    public CaseDTO getCaseDetails(String caseId, VariableSelection variables) {
         // Try active process first
         ProcessInstance activeProcess = runtimeService.createProcessInstanceQuery()
                 .processInstanceId(caseId)
                 .singleResult();
 
         if (activeProcess != null) {
-            return mapToCaseDTO(activeProcess);
+            return mapToCaseDTO(activeProcess, variables);
         }
 
         // Try historic process
@@ -106,24 +295,29 @@ public class CaseService {
                 .singleResult();
 
         if (historicProcess != null) {
-            return mapToCaseDTO(historicProcess);
+            return mapToCaseDTO(historicProcess, variables);
         }
 
         throw new IllegalArgumentException("Case not found with ID: " + caseId);
     }
 
     public List<StageDTO> getStages(String caseId) {
+        return getStages(caseId, VariableSelection.ALL);
+    }
+
+    public List<StageDTO> getStages(String caseId, VariableSelection variables) {
         List<StageDTO> stages = new ArrayList<>();
 
         // 1. Completed Stages (Historic Tasks)
-        // 1. Completed Stages (Historic Tasks)
-        List<HistoricTaskInstance> historicTasks = historyService.createHistoricTaskInstanceQuery()
+        org.flowable.task.api.history.HistoricTaskInstanceQuery historicQuery = historyService
+                .createHistoricTaskInstanceQuery()
                 .processInstanceId(caseId)
                 .finished()
-                .includeTaskLocalVariables() // Fetch local vars for actionTaken
-                .includeProcessVariables() // Fetch process vars for display
-                .orderByTaskCreateTime().asc()
-                .list();
+                .includeTaskLocalVariables(); // Fetch local vars for actionTaken
+        if (variables.isAll()) {
+            historicQuery.includeProcessVariables(); // Fetch process vars for display
+        }
+        List<HistoricTaskInstance> historicTasks = historicQuery.orderByTaskCreateTime().asc().list();
 
         log.info("Found {} historic tasks for case {}", historicTasks.size(), caseId);
         for (HistoricTaskInstance task : historicTasks) {
@@ -133,17 +327,25 @@ public class CaseService {
         }
 
         // 2. Active Stages (Runtime Tasks)
-        List<Task> activeTasks = taskService.createTaskQuery()
+        org.flowable.task.api.TaskQuery activeQuery = taskService.createTaskQuery()
                 .processInstanceId(caseId)
-                .active()
-                .includeProcessVariables() // Fetch process vars
-                .orderByTaskCreateTime().asc()
-                .list();
+                .active();
+        if (variables.isAll()) {
+            activeQuery.includeProcessVariables(); // Fetch process vars
+        }
+        List<Task> activeTasks = activeQuery.orderByTaskCreateTime().asc().list();
 
         for (Task task : activeTasks) {
             stages.add(mapToStageDTO(task, "ACTIVE"));
         }
 
+        // Named variables: read once for the case instead of all of them per task
+        if (!variables.isAll() && !variables.isNone() && !stages.isEmpty()) {
+            Map<String, Object> selected = fetchHistoricVariables(Set.of(caseId), variables)
+                    .getOrDefault(caseId, new HashMap<>());
+            stages.forEach(stage -> stage.setProcessVariables(new HashMap<>(selected)));
+        }
+
         // 3. Call Activities (Sub-processes) - Historic
         // We need both active and completed access via HistoryService for activities
         List<HistoricActivityInstance> callActivities = historyService.createHistoricActivityInstanceQuery()
@@ -165,21 +367,39 @@ public class CaseService {
     }
 
     public List<StageDTO> getUserTaskHistory(String userId, String workflowCode, String cpId) {
+        return getUserTaskHistory(userId, workflowCode, cpId, VariableSelection.ALL);
+    }
+
+    public List<StageDTO> getUserTaskHistory(String userId, String workflowCode, String cpId,
+            VariableSelection variables) {
+        return getUserTaskHistory(userId, workflowCode, cpId, Map.of(), variables);
+    }
+
+    public List<StageDTO> getUserTaskHistory(String userId, String workflowCode, String cpId,
+            Map<String, String> attributes, VariableSelection variables) {
         org.flowable.task.api.history.HistoricTaskInstanceQuery query = historyService.createHistoricTaskInstanceQuery()
                 .taskAssignee(userId)
                 .finished()
                 .includeTaskLocalVariables()
-                .includeProcessVariables()
                 .orderByHistoricTaskInstanceEndTime().desc();
+        if (variables.isAll()) {
+            query.includeProcessVariables();
+        }
 
         if (workflowCode != null && !workflowCode.isEmpty()) {
             query.processDefinitionKey(workflowCode);
         }
-        if (cpId != null && !cpId.isEmpty()) {
-            query.processVariableValueEquals("cp_id", cpId);
-        }
-
-        List<HistoricTaskInstance> tasks = query.list();
+        Map<String, String> indexed = new HashMap<>();
+        attributeFilters(null, cpId, attributes).forEach((name, value) -> {
+            if (caseAttributeIndexService.canSearch(workflowCode, name, value)) {
+                indexed.put(name, value);
+            } else {
+                query.processVariableValueEquals(name, value);
+            }
+        });
+        List<HistoricTaskInstance> tasks = indexed.isEmpty()
+                ? query.list()
+                : listForIndexedCases(query, caseAttributeIndexService.findCaseIds(indexed));
 
         List<StageDTO> result = new ArrayList<>();
         for (HistoricTaskInstance task : tasks) {
@@ -189,88 +409,42 @@ public class CaseService {
             // For now, StageDTO contains task info and stage info.)
             result.add(dto);
         }
+        if (!variables.isAll() && !variables.isNone() && !result.isEmpty()) {
+            Map<String, Map<String, Object>> selected = fetchHistoricVariables(
+                    result.stream().map(StageDTO::getCaseId).collect(java.util.stream.Collectors.toSet()), variables);
+            result.forEach(dto -> dto.setProcessVariables(
+                    new HashMap<>(selected.getOrDefault(dto.getCaseId(), new HashMap<>()))));
+        }
         resolveAssigneeNames(result);
         return result;
     }
 
-    @Transactional
-    public void completeTask(String taskId, Map<String, Object> variables, String userId) {
-        Task task = taskService.createTaskQuery().taskId(taskId).singleResult();
-        if (task == null) {
-            throw new IllegalArgumentException("Task not found: " + taskId);
+    // Ended cases stay in the index, so the ids are queried in bounded IN lists
+    private List<HistoricTaskInstance> listForIndexedCases(
+            org.flowable.task.api.history.HistoricTaskInstanceQuery query, Set<String> caseIds) {
+        List<String> ids = new ArrayList<>(caseIds);
+        List<HistoricTaskInstance> tasks = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += MAX_IN_LIST) {
+            tasks.addAll(query.processInstanceIdIn(ids.subList(start, Math.min(start + MAX_IN_LIST, ids.size()))).list());
         }
+        if (ids.size() > MAX_IN_LIST) {
+            tasks.sort(Comparator.comparing(HistoricTaskInstance::getEndTime,
+                    Comparator.nullsLast(Comparator.reverseOrder())));
+        }
+        return tasks;
+    }
 
-        String currentAssignee = task.getAssignee();
-        log.info("Completing task {}. Current Assignee: {}", taskId, currentAssignee);
-
+    @Transactional
+    public void completeTask(String taskId, Map<String, Object> variables, String userId) {
         try {
             org.flowable.common.engine.impl.identity.Authentication.setAuthenticatedUserId(userId);
 
-            // Backup Assignee to Variable to guarantee persistence in history
-            if (currentAssignee != null && !currentAssignee.trim().isEmpty()) {
-                taskService.setVariableLocal(taskId, "savedAssignee", currentAssignee);
-            }
-
-            // Logic to preserve or claim assignee
-            if (currentAssignee == null || currentAssignee.trim().isEmpty()) {
-                log.info("Task {} is unassigned. Auto-claim for user {}", taskId, userId);
-                taskService.setAssignee(taskId, userId);
-                taskService.setVariableLocal(taskId, "savedAssignee", userId); // Ensure we save the claimed user
-            } else {
-                // Force persistence attempt (keep for good measure, though variable is the real
-                // fix)
-                taskService.setAssignee(taskId, currentAssignee);
-            }
-
-            // K. Stage Actions - Validate outcome
-            if (variables != null && variables.containsKey("outcome")) {
-                String outcome = (String) variables.get("outcome");
-
-                // Get Flowable Task to get execution/process definition
-                String processDefinitionId = task.getProcessDefinitionId();
-                org.flowable.engine.repository.ProcessDefinition pd = repositoryService.createProcessDefinitionQuery()
-                        .processDefinitionId(processDefinitionId).singleResult();
-
-                if (pd != null) {
-                    String workflowCode = pd.getKey();
-                    String stageCode = task.getTaskDefinitionKey();
-
-                    // Fetch Stage Config
-                    Optional<com.workflow.service.entity.StageConfig> configOpt = stageConfigRepository
-                            .findByWorkflowCodeAndStageCode(workflowCode, stageCode);
-
-                    if (configOpt.isPresent()) {
-                        var actions = configOpt.get().getActions();
-                        if (actions != null && !actions.isEmpty()) {
-                            boolean isValid = actions.stream()
-                                    .anyMatch(a -> a.getActionLabel().equals(outcome)); // Strict match on label
-
-                            if (!isValid) {
-                                throw new IllegalArgumentException(
-                                        "Invalid outcome: " + outcome + ". Allowed actions: "
-                                                + actions.stream()
-                                                        .map(com.workflow.service.entity.StageAction::getActionLabel)
-                                                        .collect(java.util.stream.Collectors.toList()));
-                            }
-                        }
-                    }
-                }
-                // Save outcome as LOCAL variable to persist action for this specific task
-                taskService.setVariableLocal(taskId, "outcome", outcome);
-            }
-
-            // Ensure manualAssignee is saved as PROCESS variable
-            if (variables != null && variables.containsKey("manualAssignee")) {
-                String manualAssignee = (String) variables.get("manualAssignee");
-                // Use RuntimeService to explicitly set on the Process Instance
-                // This guarantees visibility to all subsequent tasks in the same instance
-                runtimeService.setVariable(task.getProcessInstanceId(), "manualAssignee", manualAssignee);
-                log.info("Set process variable manualAssignee to {} for process {}", manualAssignee,
-                        task.getProcessInstanceId());
-            }
-
-            taskService.complete(taskId, variables);
+            // Validation, assignee/outcome bookkeeping and completion in one engine command
+            managementService.executeCommand(new com.workflow.service.command.CompleteStageTaskCmd(
+                    taskId, variables, userId, configSnapshotService.get()));
             log.info("Task {} completed by {}", taskId, userId);
+        } catch (org.flowable.common.engine.api.FlowableObjectNotFoundException e) {
+            throw new IllegalArgumentException("Task not found: " + taskId);
         } finally {
             org.flowable.common.engine.impl.identity.Authentication.setAuthenticatedUserId(null); // Clear context
         }
@@ -323,7 +497,59 @@ public class CaseService {
         log.info("Task {} reassigned: {}", taskId, message);
     }
 
-    private CaseDTO mapToCaseDTO(ProcessInstance process) {
+    /**
+     * Process-level runtime variables per process instance, limited to the selection.
+     * Named variables are queried by name so other (possibly large) values are never loaded.
+     */
+    private Map<String, Map<String, Object>> fetchRuntimeVariables(Set<String> processInstanceIds,
+            VariableSelection selection) {
+        Map<String, Map<String, Object>> result = new HashMap<>();
+        if (selection.isNone() || processInstanceIds.isEmpty()) {
+            return result;
+        }
+        List<org.flowable.variable.api.persistence.entity.VariableInstance> vars;
+        if (selection.isAll()) {
+            vars = runtimeService.getVariableInstancesByExecutionIds(processInstanceIds);
+        } else {
+            vars = new ArrayList<>();
+            for (String name : selection.names()) {
+                vars.addAll(runtimeService.createVariableInstanceQuery()
+                        .executionIds(processInstanceIds)
+                        .variableName(name)
+                        .excludeTaskVariables()
+                        .list());
+            }
+        }
+        for (org.flowable.variable.api.persistence.entity.VariableInstance var : vars) {
+            if (var.getTaskId() == null) {
+                result.computeIfAbsent(var.getExecutionId(), k -> new HashMap<>()).put(var.getName(), var.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Named process-level variables per process instance from history, which covers
+     * running and ended cases alike.
+     */
+    private Map<String, Map<String, Object>> fetchHistoricVariables(Set<String> processInstanceIds,
+            VariableSelection selection) {
+        Map<String, Map<String, Object>> result = new HashMap<>();
+        for (String name : selection.names()) {
+            for (org.flowable.variable.api.history.HistoricVariableInstance var : historyService
+                    .createHistoricVariableInstanceQuery()
+                    .executionIds(processInstanceIds)
+                    .variableName(name)
+                    .excludeTaskVariables()
+                    .list()) {
+                result.computeIfAbsent(var.getProcessInstanceId(), k -> new HashMap<>())
+                        .put(var.getVariableName(), var.getValue());
+            }
+        }
+        return result;
+    }
+
+    private CaseDTO mapToCaseDTO(ProcessInstance process, VariableSelection variables) {
         CaseDTO dto = new CaseDTO();
         dto.setCaseId(process.getId());
         dto.setWorkflowCode(process.getProcessDefinitionKey());
@@ -341,12 +567,16 @@ public class CaseService {
 
         // Enrich Name if null
         if (dto.getWorkflowName() == null) {
-            workflowRepository.findByWorkflowCode(process.getProcessDefinitionKey())
-                    .ifPresent(w -> dto.setWorkflowName(w.getWorkflowName()));
+            configSnapshotService.get().workflow(process.getProcessDefinitionKey())
+                    .ifPresent(w -> dto.setWorkflowName(w.workflowName()));
         }
 
         try {
-            dto.setProcessVariables(runtimeService.getVariables(process.getId()));
+            if (variables.isAll()) {
+                dto.setProcessVariables(runtimeService.getVariables(process.getId()));
+            } else if (!variables.isNone()) {
+                dto.setProcessVariables(runtimeService.getVariables(process.getId(), variables.names()));
+            }
         } catch (Exception e) {
             // ignore
         }
@@ -354,7 +584,7 @@ public class CaseService {
         return dto;
     }
 
-    private CaseDTO mapToCaseDTO(HistoricProcessInstance process) {
+    private CaseDTO mapToCaseDTO(HistoricProcessInstance process, VariableSelection variables) {
         CaseDTO dto = new CaseDTO();
         dto.setCaseId(process.getId());
         dto.setWorkflowCode(process.getProcessDefinitionKey());
@@ -369,20 +599,25 @@ public class CaseService {
 
         // Enrich Name
         if (dto.getWorkflowName() == null) {
-            workflowRepository.findByWorkflowCode(process.getProcessDefinitionKey())
-                    .ifPresent(w -> dto.setWorkflowName(w.getWorkflowName()));
+            configSnapshotService.get().workflow(process.getProcessDefinitionKey())
+                    .ifPresent(w -> dto.setWorkflowName(w.workflowName()));
         }
 
         try {
-            List<org.flowable.variable.api.history.HistoricVariableInstance> vars = historyService
-                    .createHistoricVariableInstanceQuery()
-                    .processInstanceId(process.getId())
-                    .list();
-            Map<String, Object> varMap = new HashMap<>();
-            for (org.flowable.variable.api.history.HistoricVariableInstance var : vars) {
-                varMap.put(var.getVariableName(), var.getValue());
+            if (variables.isAll()) {
+                List<org.flowable.variable.api.history.HistoricVariableInstance> vars = historyService
+                        .createHistoricVariableInstanceQuery()
+                        .processInstanceId(process.getId())
+                        .list();
+                Map<String, Object> varMap = new HashMap<>();
+                for (org.flowable.variable.api.history.HistoricVariableInstance var : vars) {
+                    varMap.put(var.getVariableName(), var.getValue());
+                }
+                dto.setProcessVariables(varMap);
+            } else if (!variables.isNone()) {
+                dto.setProcessVariables(fetchHistoricVariables(Set.of(process.getId()), variables)
+                        .getOrDefault(process.getId(), new HashMap<>()));
             }
-            dto.setProcessVariables(varMap);
         } catch (Exception e) {
             // ignore
         }
@@ -492,7 +727,7 @@ public class CaseService {
 
     public com.workflow.service.dto.GraphDTO getCaseGlobalGraph(String caseId) {
         // 1. Get Case to find Root Workflow
-        CaseDTO caseDetails = getCaseDetails(caseId);
+        CaseDTO caseDetails = getCaseDetails(caseId, VariableSelection.NONE);
         String rootWorkflowCode = caseDetails.getWorkflowCode();
 
         // 2. Get Static Graph
@@ -627,61 +862,13 @@ public class CaseService {
             dto.setDueDate(LocalDateTime.ofInstant(dueDate.toInstant(), ZoneId.systemDefault()));
         }
 
-        // K. Stage Actions - Populate allowedActions
+        // K. Stage Actions - Populate allowedActions (compiled once per process definition)
         try {
-            if (processDefinitionId != null) {
-                org.flowable.engine.repository.ProcessDefinition pd = repositoryService.createProcessDefinitionQuery()
-                        .processDefinitionId(processDefinitionId).singleResult();
-                if (pd != null) {
-                    dto.setWorkflowCode(pd.getKey()); // Populate workflowCode
-                    stageConfigRepository.findByWorkflowCodeAndStageCode(pd.getKey(), code)
-                            .ifPresent(config -> {
-                                if (config.getActions() != null && !config.getActions().isEmpty()) {
-                                    try {
-                                        // Map to list of simple maps for JSON compatibility
-                                        // US-2: Enrich with Manual Assignment Requirements
-                                        java.util.List<java.util.Map<String, Object>> actionMaps = new java.util.ArrayList<>();
-
-                                        for (com.workflow.service.entity.StageAction a : config.getActions()) {
-                                            java.util.Map<String, Object> m = new java.util.HashMap<>();
-                                            m.put("label", a.getActionLabel());
-                                            m.put("value", a.getActionLabel());
-                                            m.put("style", a.getButtonStyle());
-                                            m.put("target", a.getTargetType());
-                                            m.put("postStatus", a.getPostActionStatus());
-
-                                            enrichWithManualAssignmentInfo(m, a.getTargetType(), a.getTargetStage(),
-                                                    code, pd.getKey());
-                                            actionMaps.add(m);
-                                        }
-
-                                        dto.setAllowedActions(new com.fasterxml.jackson.databind.ObjectMapper()
-                                                .writeValueAsString(actionMaps));
-                                    } catch (Exception e) {
-                                        log.warn("Failed to serialize actions for stage: {}", code, e);
-                                    }
-                                } else {
-                                    // Default Implicit Action "Complete" -> NEXT
-                                    try {
-                                        java.util.List<java.util.Map<String, Object>> actionMaps = new java.util.ArrayList<>();
-                                        java.util.Map<String, Object> m = new java.util.HashMap<>();
-                                        m.put("label", "Complete");
-                                        m.put("value", "Complete"); // Or keep empty? UI sends label as value if value
-                                                                    // missing.
-                                        m.put("style", "default");
-                                        m.put("target", "NEXT");
-
-                                        enrichWithManualAssignmentInfo(m, "NEXT", null, code, pd.getKey());
-                                        actionMaps.add(m);
-
-                                        dto.setAllowedActions(new com.fasterxml.jackson.databind.ObjectMapper()
-                                                .writeValueAsString(actionMaps));
-                                    } catch (Exception e) {
-                                        log.warn("Failed to generate default action for stage: {}", code, e);
-                                    }
-                                }
-                            });
-                }
+            AllowedActionsService.CompiledDefinition actions = allowedActionsService
+                    .forDefinition(processDefinitionId);
+            if (actions != null) {
+                dto.setWorkflowCode(actions.workflowCode()); // Populate workflowCode
+                dto.setAllowedActions(actions.actionsFor(code));
             }
         } catch (Exception e) {
             log.warn("Failed to fetch allowed actions for stage: {}", code, e);
@@ -690,48 +877,6 @@ public class CaseService {
         return dto;
     }
 
-    private void enrichWithManualAssignmentInfo(java.util.Map<String, Object> m, String targetType, String targetStage,
-            String currentStageCode, String workflowCode) {
-        String targetStageCode = null;
-
-        if ("SPECIFIC".equals(targetType)) {
-            targetStageCode = targetStage;
-        } else if ("NEXT".equals(targetType)) {
-            // Resolve NEXT stage
-            List<com.workflow.service.entity.StageConfig> allStages = stageConfigRepository
-                    .findByWorkflowCodeOrderBySequenceOrderAsc(workflowCode);
-            for (int i = 0; i < allStages.size() - 1; i++) {
-                if (allStages.get(i).getStageCode().equals(currentStageCode)) {
-                    targetStageCode = allStages.get(i + 1).getStageCode();
-                    break;
-                }
-            }
-        }
-
-        if (targetStageCode != null) {
-            stageConfigRepository
-                    .findByWorkflowCodeAndStageCode(workflowCode, targetStageCode)
-                    .ifPresent(targetConfig -> {
-                        if (targetConfig.getAssignmentRules() != null) {
-                            try {
-                                java.util.Map<String, Object> rules = new com.fasterxml.jackson.databind.ObjectMapper()
-                                        .readValue(
-                                                targetConfig.getAssignmentRules(),
-                                                new com.fasterxml.jackson.core.type.TypeReference<java.util.Map<String, Object>>() {
-                                                });
-
-                                if ("MANUAL".equals(rules.get("mechanism"))) {
-                                    m.put("requiresManualAssignment", true);
-                                    m.put("assignmentGroup", rules.get("groupName"));
-                                }
-                            } catch (Exception ex) {
-                                // ignore parse error
-                            }
-                        }
-                    });
-        }
-    }
-
     private void resolveAssigneeNames(List<StageDTO> stages) {
         List<String> assignees = stages.stream()
                 .map(StageDTO::getAssignee)
@@ -756,216 +901,16 @@ public class CaseService {
     }
 
     public List<com.workflow.service.dto.UserWorkloadDTO> getUserWorkload() {
-        // 1. Fetch ALL active user tasks
-        List<Task> activeTasks = taskService.createTaskQuery()
-                .active()
-                .includeProcessVariables()
-                .orderByTaskCreateTime().desc()
-                .list();
-
-        // 2. Group by Assignee
-        Map<String, List<Task>> tasksByAssignee = activeTasks.stream()
-                .filter(t -> t.getAssignee() != null) // Ignore unassigned
-                .collect(java.util.stream.Collectors.groupingBy(Task::getAssignee));
-
-        if (tasksByAssignee.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        // 3. Resolve Assignee Names
-        Map<String, String> userNames = userAdapterClient.searchUsers(new ArrayList<>(tasksByAssignee.keySet()));
-
-        // 4. Map to DTO
-        List<com.workflow.service.dto.UserWorkloadDTO> result = new ArrayList<>();
-
-        for (Map.Entry<String, List<Task>> entry : tasksByAssignee.entrySet()) {
-            String userId = entry.getKey();
-            List<Task> tasks = entry.getValue();
-            String userName = userNames.getOrDefault(userId, userId);
-
-            List<com.workflow.service.dto.UserWorkloadDTO.TaskSummaryDTO> taskSummaries = tasks.stream()
-                    .map(t -> mapToTaskSummary(t))
-                    .collect(java.util.stream.Collectors.toList());
-
-            result.add(com.workflow.service.dto.UserWorkloadDTO.builder()
-                    .userId(userId)
-                    .userName(userName)
-                    .pendingCount(tasks.size())
-                    .tasks(taskSummaries)
-                    .build());
-        }
-
-        // Sort by pending count desc
-        result.sort((a, b) -> Integer.compare(b.getPendingCount(), a.getPendingCount()));
-
-        return result;
+        // Served from the task workload projection (maintained from task events)
+        return workloadProjectionService.getUserWorkload();
     }
 
-    @Transactional(readOnly = true)
     public List<com.workflow.service.dto.GroupWorkloadDTO> getGroupWorkload(List<String> groupIds) {
-        if (groupIds == null || groupIds.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        List<com.workflow.service.dto.GroupWorkloadDTO> result = new ArrayList<>();
-
-        for (String groupId : groupIds) {
-             List<Task> tasks = taskService.createTaskQuery()
-                    .taskCandidateGroup(groupId)
-                    .taskUnassigned() // Only show tasks waiting to be picked up
-                    .active()
-                    .includeProcessVariables()
-                    .orderByTaskCreateTime().desc()
-                    .list();
-             
-             com.workflow.service.util.LogHelper.logGroupQuery(groupId, tasks.size());
-             
-             List<com.workflow.service.dto.UserWorkloadDTO.TaskSummaryDTO> taskSummaries = tasks.stream()
-                    .map(t -> mapToTaskSummary(t))
-                    .collect(java.util.stream.Collectors.toList());
-             
-             result.add(com.workflow.service.dto.GroupWorkloadDTO.builder()
-                    .groupId(groupId)
-                    .groupName(groupId) // Use ID as name for now
-                    .pendingCount(tasks.size())
-                    .tasks(taskSummaries)
-                    .build());
-        }
-        
-        return result;
-    }
-
-    private com.workflow.service.dto.UserWorkloadDTO.TaskSummaryDTO mapToTaskSummary(Task t) {
-        String workflowName = (String) t.getProcessVariables().get("workflowName");
-        if (workflowName == null) {
-            workflowName = t.getProcessDefinitionId().split(":")[0];
-        }
-
-        return com.workflow.service.dto.UserWorkloadDTO.TaskSummaryDTO.builder()
-                .taskId(t.getId())
-                .caseId(t.getProcessInstanceId())
-                .stageName(t.getName())
-                .stageCode(t.getTaskDefinitionKey())
-                .createdTime(
-                        LocalDateTime.ofInstant(t.getCreateTime().toInstant(), ZoneId.systemDefault()))
-                .dueDate(t.getDueDate() != null
-                        ? LocalDateTime.ofInstant(t.getDueDate().toInstant(), ZoneId.systemDefault())
-                        : null)
-                .workflowName(workflowName)
-                .build();
+        return workloadProjectionService.getGroupWorkload(groupIds);
     }
 
     public List<com.workflow.service.dto.UserStoryboardDTO> getUserStoryboard() {
-        // 1. Fetch Active Tasks
-        List<Task> activeTasks = taskService.createTaskQuery()
-                .active()
-                .includeProcessVariables()
-                .includeTaskLocalVariables()
-                .orderByTaskCreateTime().desc()
-                .list();
-
-        // 2. Fetch Closed Tasks (Recent 1000)
-        List<HistoricTaskInstance> historyTasks = historyService.createHistoricTaskInstanceQuery()
-                .finished()
-                .includeProcessVariables()
-                .orderByHistoricTaskInstanceEndTime().desc()
-                .listPage(0, 1000);
-
-        // 3. Group Active Tasks (New vs WIP)
-        Map<String, List<Task>> newByAssignee = new HashMap<>();
-        Map<String, List<Task>> wipByAssignee = new HashMap<>();
-
-        for (Task task : activeTasks) {
-            if (task.getAssignee() == null)
-                continue;
-
-            Object status = task.getTaskLocalVariables().get("status");
-            if (status != null && !status.toString().isEmpty()) {
-                wipByAssignee.computeIfAbsent(task.getAssignee(), k -> new ArrayList<>()).add(task);
-            } else {
-                newByAssignee.computeIfAbsent(task.getAssignee(), k -> new ArrayList<>()).add(task);
-            }
-        }
-
-        // 4. Group Closed Tasks
-        Map<String, List<HistoricTaskInstance>> closedByAssignee = historyTasks.stream()
-                .filter(t -> t.getAssignee() != null)
-                .collect(java.util.stream.Collectors.groupingBy(HistoricTaskInstance::getAssignee));
-
-        // 5. Build DTOs
-        Set<String> allUsers = new HashSet<>();
-        allUsers.addAll(newByAssignee.keySet());
-        allUsers.addAll(wipByAssignee.keySet());
-        allUsers.addAll(closedByAssignee.keySet());
-
-        if (allUsers.isEmpty())
-            return Collections.emptyList();
-
-        Map<String, String> userNames = userAdapterClient.searchUsers(new ArrayList<>(allUsers));
-        List<com.workflow.service.dto.UserStoryboardDTO> result = new ArrayList<>();
-
-        for (String userId : allUsers) {
-            String userName = userNames.getOrDefault(userId, userId);
-
-            // Mapper Helper
-            java.util.function.Function<Task, com.workflow.service.dto.UserStoryboardDTO.TaskSummaryDTO> activeMapper = t -> {
-                String workflowName = (String) t.getProcessVariables().get("workflowName");
-                if (workflowName == null)
-                    workflowName = t.getProcessDefinitionId().split(":")[0];
-                String status = (String) t.getTaskLocalVariables().get("status");
-
-                return com.workflow.service.dto.UserStoryboardDTO.TaskSummaryDTO.builder()
-                        .taskId(t.getId())
-                        .caseId(t.getProcessInstanceId())
-                        .stageName(t.getName())
-                        .stageCode(t.getTaskDefinitionKey())
-                        .createdTime(LocalDateTime.ofInstant(t.getCreateTime().toInstant(), ZoneId.systemDefault()))
-                        .dueDate(t.getDueDate() != null
-                                ? LocalDateTime.ofInstant(t.getDueDate().toInstant(), ZoneId.systemDefault())
-                                : null)
-                        .workflowName(workflowName)
-                        .status(status)
-                        .build();
-            };
-
-            java.util.function.Function<HistoricTaskInstance, com.workflow.service.dto.UserStoryboardDTO.TaskSummaryDTO> historyMapper = t -> {
-                String workflowName = (String) t.getProcessVariables().get("workflowName");
-                if (workflowName == null)
-                    workflowName = t.getProcessDefinitionId().split(":")[0];
-
-                return com.workflow.service.dto.UserStoryboardDTO.TaskSummaryDTO.builder()
-                        .taskId(t.getId())
-                        .caseId(t.getProcessInstanceId())
-                        .stageName(t.getName())
-                        .stageCode(t.getTaskDefinitionKey())
-                        .createdTime(LocalDateTime.ofInstant(t.getCreateTime().toInstant(), ZoneId.systemDefault()))
-                        .endTime(t.getEndTime() != null
-                                ? LocalDateTime.ofInstant(t.getEndTime().toInstant(), ZoneId.systemDefault())
-                                : null)
-                        .workflowName(workflowName)
-                        .status("Completed")
-                        .build();
-            };
-
-            List<com.workflow.service.dto.UserStoryboardDTO.TaskSummaryDTO> newDto = newByAssignee
-                    .getOrDefault(userId, Collections.emptyList()).stream().map(activeMapper)
-                    .collect(java.util.stream.Collectors.toList());
-            List<com.workflow.service.dto.UserStoryboardDTO.TaskSummaryDTO> wipDto = wipByAssignee
-                    .getOrDefault(userId, Collections.emptyList()).stream().map(activeMapper)
-                    .collect(java.util.stream.Collectors.toList());
-            List<com.workflow.service.dto.UserStoryboardDTO.TaskSummaryDTO> closedDto = closedByAssignee
-                    .getOrDefault(userId, Collections.emptyList()).stream().map(historyMapper)
-                    .collect(java.util.stream.Collectors.toList());
-
-            result.add(com.workflow.service.dto.UserStoryboardDTO.builder()
-                    .userId(userId)
-                    .userName(userName)
-                    .newTasks(newDto)
-                    .wipTasks(wipDto)
-                    .closedTasks(closedDto)
-                    .build());
-        }
-
-        return result;
+        // Precomputed from task events, see StoryboardService
+        return storyboardService.getStoryboard().items();
     }
 }
@@ -0,0 +1,133 @@
+package com.workflow.service.service;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable, versioned view of the workflow configuration (workflows, stages,
+ * stage actions and screen mappings) with assignment rules already parsed.
+ * Built by {@link ConfigSnapshotService} and swapped as a whole, so readers never
+ * see a half-applied change.
+ */
+public final class ConfigSnapshot {
+
+    public static final ConfigSnapshot EMPTY = new ConfigSnapshot(null, -1, Map.of(), Map.of(), Map.of());
+
+    private final String epoch;
+    private final long version;
+    private final Map<String, WorkflowDef> workflows;
+    private final Map<String, List<StageDef>> stagesByWorkflow;
+    private final Map<String, Map<String, StageDef>> stageIndex;
+    private final Map<String, List<ScreenMappingDef>> screenMappingsByStage;
+
+    ConfigSnapshot(String epoch, long version, Map<String, WorkflowDef> workflows, Map<String, List<StageDef>> stagesByWorkflow,
+            Map<String, List<ScreenMappingDef>> screenMappingsByStage) {
+        this.epoch = epoch;
+        this.version = version;
+        this.workflows = Map.copyOf(workflows);
+        this.stagesByWorkflow = Map.copyOf(stagesByWorkflow);
+        this.screenMappingsByStage = Map.copyOf(screenMappingsByStage);
+
+        Map<String, Map<String, StageDef>> index = new java.util.HashMap<>();
+        stagesByWorkflow.forEach((code, stages) -> {
+            Map<String, StageDef> byCode = new java.util.HashMap<>();
+            for (StageDef stage : stages) {
+                byCode.put(stage.stageCode(), stage);
+            }
+            index.put(code, Map.copyOf(byCode));
+        });
+        this.stageIndex = Map.copyOf(index);
+    }
+
+    /** Identity of the version counter; versions are only comparable within one epoch. */
+    public String epoch() {
+        return epoch;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Optional<WorkflowDef> workflow(String workflowCode) {
+        return workflowCode == null ? Optional.empty() : Optional.ofNullable(workflows.get(workflowCode));
+    }
+
+    public Map<String, WorkflowDef> workflows() {
+        return workflows;
+    }
+
+    /** Stages of a workflow ordered by sequence. */
+    public List<StageDef> stages(String workflowCode) {
+        return workflowCode == null ? List.of() : stagesByWorkflow.getOrDefault(workflowCode, List.of());
+    }
+
+    public Optional<StageDef> stage(String workflowCode, String stageCode) {
+        if (workflowCode == null || stageCode == null) {
+            return Optional.empty();
+        }
+        Map<String, StageDef> byCode = stageIndex.get(workflowCode);
+        return byCode == null ? Optional.empty() : Optional.ofNullable(byCode.get(stageCode));
+    }
+
+    /** Stage following the given one in sequence order (what an action with target NEXT resolves to). */
+    public Optional<StageDef> nextStage(String workflowCode, String stageCode) {
+        List<StageDef> stages = stages(workflowCode);
+        for (int i = 0; i < stages.size() - 1; i++) {
+            if (stages.get(i).stageCode().equals(stageCode)) {
+                return Optional.of(stages.get(i + 1));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<ScreenMappingDef> screenMappings(String stageCode) {
+        return stageCode == null ? List.of() : screenMappingsByStage.getOrDefault(stageCode, List.of());
+    }
+
+    public record WorkflowDef(Long id, String workflowCode, String workflowName, String status,
+            String associatedModule, String completionApiEndpoint, BigDecimal slaDurationDays,
+            Set<String> indexedAttributes) {
+    }
+
+    public record StageDef(Long id, String workflowCode, String stageCode, String stageName, int sequenceOrder,
+            boolean nestedWorkflow, String nestedWorkflowCode, boolean ruleStage, String ruleKey,
+            boolean multiInstance, String parallelGrouping, BigDecimal slaDurationDays,
+            List<ActionDef> actions, AssignmentRules assignmentRules) {
+
+        public StageDef {
+            actions = actions == null ? List.of() : List.copyOf(actions);
+            assignmentRules = assignmentRules == null ? AssignmentRules.NONE : assignmentRules;
+        }
+
+        public boolean hasActions() {
+            return !actions.isEmpty();
+        }
+    }
+
+    public record ActionDef(String actionLabel, String buttonStyle, String targetType, String targetStage,
+            String postActionStatus, String actionType, String errorCode) {
+    }
+
+    /**
+     * Pre-parsed form of {@code StageConfig.assignmentRules}.
+     * {@code role} follows the same precedence the sticky listener has always used:
+     * role, groupName, roundRobinPool, matrixRole.
+     */
+    public record AssignmentRules(String mechanism, String groupName, String role, String roundRobinPool,
+            String matrixRole, boolean sticky, Map<String, Object> raw) {
+
+        public static final AssignmentRules NONE = new AssignmentRules(null, null, null, null, null, false,
+                Collections.emptyMap());
+
+        public boolean isManual() {
+            return "MANUAL".equals(mechanism);
+        }
+    }
+
+    public record ScreenMappingDef(String stageCode, String screenCode, String accessType) {
+    }
+}
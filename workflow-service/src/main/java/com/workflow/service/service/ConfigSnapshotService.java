@@ -0,0 +1,294 @@
+package com.workflow.service.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workflow.service.entity.ConfigVersion;
+import com.workflow.service.entity.ScreenMapping;
+import com.workflow.service.entity.StageAction;
+import com.workflow.service.entity.StageConfig;
+import com.workflow.service.entity.WorkflowMaster;
+import com.workflow.service.repository.ConfigVersionRepository;
+import com.workflow.service.repository.ScreenMappingRepository;
+import com.workflow.service.repository.StageConfigRepository;
+import com.workflow.service.repository.WorkflowMasterRepository;
+import com.workflow.service.service.ConfigSnapshot.ActionDef;
+import com.workflow.service.service.ConfigSnapshot.AssignmentRules;
+import com.workflow.service.service.ConfigSnapshot.ScreenMappingDef;
+import com.workflow.service.service.ConfigSnapshot.StageDef;
+import com.workflow.service.service.ConfigSnapshot.WorkflowDef;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the current {@link ConfigSnapshot} and keeps it in line with the database.
+ * <p>
+ * Writers call {@link #markChanged()} inside their transaction: the shared version
+ * counter is bumped in that same transaction and the local snapshot is rebuilt and
+ * swapped after commit. Other nodes notice the new version on their next poll.
+ * Until it commits, the writing transaction itself reads a private snapshot built
+ * from its own (uncommitted) view, so it never sees stale data.
+ */
+@Service
+@Slf4j
+public class ConfigSnapshotService {
+
+    private static final Object TX_KEY = new Object();
+
+    private final WorkflowMasterRepository workflowMasterRepository;
+    private final StageConfigRepository stageConfigRepository;
+    private final ScreenMappingRepository screenMappingRepository;
+    private final ConfigVersionRepository configVersionRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTx;
+    private final TransactionTemplate writeTx;
+
+    private final AtomicReference<ConfigSnapshot> current = new AtomicReference<>();
+
+    public ConfigSnapshotService(WorkflowMasterRepository workflowMasterRepository,
+            StageConfigRepository stageConfigRepository,
+            ScreenMappingRepository screenMappingRepository,
+            ConfigVersionRepository configVersionRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
+        this.workflowMasterRepository = workflowMasterRepository;
+        this.stageConfigRepository = stageConfigRepository;
+        this.screenMappingRepository = screenMappingRepository;
+        this.configVersionRepository = configVersionRepository;
+        this.objectMapper = objectMapper;
+
+        // Snapshots are always built from committed data, independent of any caller transaction
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTx.setReadOnly(true);
+        this.writeTx = new TransactionTemplate(transactionManager);
+        this.writeTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Current configuration snapshot. Loaded on first use.
+     */
+    public ConfigSnapshot get() {
+        TxState txState = (TxState) TransactionSynchronizationManager.getResource(TX_KEY);
+        if (txState != null) {
+            if (txState.snapshot == null) {
+                txState.snapshot = build(null, -1);
+            }
+            return txState.snapshot;
+        }
+
+        ConfigSnapshot snapshot = current.get();
+        if (snapshot == null) {
+            snapshot = reload();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Records that workflow/stage/action/screen configuration changed.
+     * Must be called by every write path; it is cheap to call more than once per transaction.
+     */
+    public void markChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            writeTx.executeWithoutResult(status -> bumpVersion());
+            reload();
+            return;
+        }
+
+        TxState txState = (TxState) TransactionSynchronizationManager.getResource(TX_KEY);
+        if (txState != null) {
+            // Further changes in the same transaction: just drop the private snapshot
+            txState.snapshot = null;
+            return;
+        }
+
+        bumpVersion();
+        TransactionSynchronizationManager.bindResource(TX_KEY, new TxState());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TX_KEY);
+                try {
+                    reload();
+                } catch (Exception e) {
+                    // The poller will retry
+                    log.warn("Failed to reload config snapshot after commit", e);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TX_KEY);
+            }
+        });
+    }
+
+    /**
+     * Rebuilds the snapshot from the database and swaps it in.
+     */
+    public ConfigSnapshot reload() {
+        ConfigSnapshot fresh = readTx.execute(status -> {
+            ConfigVersion row = configVersionRepository.findById(ConfigVersion.SINGLETON_ID).orElse(null);
+            return row != null ? build(row.getEpoch(), row.getVersion()) : build(null, 0L);
+        });
+        // Never go back to an older version of the same epoch: a slow poll must not undo the
+        // swap this node made after its own write. A new epoch (restored or recreated schema)
+        // restarts the count and is always taken.
+        ConfigSnapshot installed = current.accumulateAndGet(fresh,
+                (prev, next) -> prev == null || !Objects.equals(prev.epoch(), next.epoch())
+                        || next.version() >= prev.version() ? next : prev);
+        log.info("Config snapshot at version {} ({} workflows)", installed.version(), installed.workflows().size());
+        return installed;
+    }
+
+    @Scheduled(fixedDelayString = "${workflow.config-snapshot.poll-interval-ms:5000}",
+            initialDelayString = "${workflow.config-snapshot.poll-interval-ms:5000}")
+    public void refreshIfStale() {
+        ConfigSnapshot snapshot = current.get();
+        if (snapshot == null) {
+            return; // Not loaded yet, first reader will load it
+        }
+        try {
+            ConfigVersion row = readTx.execute(status ->
+                    configVersionRepository.findById(ConfigVersion.SINGLETON_ID).orElse(null));
+            if (row != null && (row.getVersion() != snapshot.version()
+                    || !Objects.equals(row.getEpoch(), snapshot.epoch()))) {
+                log.info("Config version changed {} -> {}, reloading snapshot", snapshot.version(), row.getVersion());
+                reload();
+            }
+        } catch (Exception e) {
+            log.warn("Failed to poll config version", e);
+        }
+    }
+
+    private void bumpVersion() {
+        if (configVersionRepository.increment(ConfigVersion.SINGLETON_ID) > 0) {
+            return;
+        }
+        try {
+            writeTx.executeWithoutResult(status -> {
+                if (!configVersionRepository.existsById(ConfigVersion.SINGLETON_ID)) {
+                    ConfigVersion row = new ConfigVersion();
+                    row.setId(ConfigVersion.SINGLETON_ID);
+                    row.setEpoch(UUID.randomUUID().toString());
+                    configVersionRepository.save(row);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it first
+        }
+        configVersionRepository.increment(ConfigVersion.SINGLETON_ID);
+    }
+
+    static Set<String> parseNames(String csv) {
+        if (csv == null || csv.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(csv.split(","))
+                .map(String::trim)
+                .filter(n -> !n.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private ConfigSnapshot build(String epoch, long version) {
+        Map<String, WorkflowDef> workflows = new HashMap<>();
+        for (WorkflowMaster w : workflowMasterRepository.findAll()) {
+            workflows.put(w.getWorkflowCode(), new WorkflowDef(w.getId(), w.getWorkflowCode(), w.getWorkflowName(),
+                    w.getStatus(), w.getAssociatedModule(), w.getCompletionApiEndpoint(), w.getSlaDurationDays(),
+                    parseNames(w.getIndexedAttributes())));
+        }
+
+        Map<String, List<StageDef>> stages = new HashMap<>();
+        for (StageConfig s : stageConfigRepository.findAllWithActions()) {
+            List<ActionDef> actions = new ArrayList<>();
+            if (s.getActions() != null) {
+                for (StageAction a : s.getActions()) {
+                    actions.add(new ActionDef(a.getActionLabel(), a.getButtonStyle(), a.getTargetType(),
+                            a.getTargetStage(), a.getPostActionStatus(), a.getActionType(), a.getErrorCode()));
+                }
+            }
+            StageDef def = new StageDef(s.getId(), s.getWorkflowCode(), s.getStageCode(), s.getStageName(),
+                    s.getSequenceOrder() != null ? s.getSequenceOrder() : 0, s.isNestedWorkflow(),
+                    s.getNestedWorkflowCode(), s.isRuleStage(), s.getRuleKey(), s.isMultiInstance(),
+                    s.getParallelGrouping(), s.getSlaDurationDays(), actions,
+                    parseAssignmentRules(s.getAssignmentRules()));
+            stages.computeIfAbsent(s.getWorkflowCode(), k -> new ArrayList<>()).add(def);
+        }
+        stages.replaceAll((code, list) -> {
+            list.sort(Comparator.comparingInt(StageDef::sequenceOrder));
+            return List.copyOf(list);
+        });
+
+        Map<String, List<ScreenMappingDef>> screens = new HashMap<>();
+        for (ScreenMapping m : screenMappingRepository.findAll()) {
+            screens.computeIfAbsent(m.getStageCode(), k -> new ArrayList<>())
+                    .add(new ScreenMappingDef(m.getStageCode(), m.getScreenCode(),
+                            m.getAccessType() != null ? m.getAccessType().name() : null));
+        }
+        screens.replaceAll((code, list) -> List.copyOf(list));
+
+        return new ConfigSnapshot(epoch, version, workflows, stages, screens);
+    }
+
+    AssignmentRules parseAssignmentRules(String json) {
+        if (json == null || json.isBlank()) {
+            return AssignmentRules.NONE;
+        }
+        try {
+            Map<String, Object> raw = objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {
+            });
+            String groupName = asString(raw.get("groupName"));
+            String role = asString(raw.get("role"));
+            String roundRobinPool = asString(raw.get("roundRobinPool"));
+            String matrixRole = asString(raw.get("matrixRole"));
+
+            boolean sticky = false;
+            if (raw.get("rules") instanceof List<?> rules) {
+                for (Object r : rules) {
+                    if (r instanceof Map<?, ?> rule && "sticky".equals(rule.get("variable"))
+                            && "true".equals(String.valueOf(rule.get("value")))) {
+                        sticky = true;
+                        break;
+                    }
+                }
+            }
+
+            String resolvedRole = role;
+            if (resolvedRole == null) resolvedRole = groupName;
+            if (resolvedRole == null) resolvedRole = roundRobinPool;
+            if (resolvedRole == null) resolvedRole = matrixRole;
+
+            return new AssignmentRules(asString(raw.get("mechanism")), groupName, resolvedRole, roundRobinPool,
+                    matrixRole, sticky, java.util.Collections.unmodifiableMap(raw));
+        } catch (Exception e) {
+            log.warn("Invalid assignment rules JSON, ignoring: {}", json);
+            return AssignmentRules.NONE;
+        }
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static class TxState {
+        ConfigSnapshot snapshot;
+    }
+}
@@ -22,6 +22,7 @@ public class DataMigrationService {
 
     private final StageConfigRepository stageConfigRepository;
     private final ObjectMapper objectMapper;
+    private final ConfigSnapshotService configSnapshotService;
 
     @PostConstruct
     @Transactional
@@ -90,6 +91,7 @@ public class DataMigrationService {
         }
         
         if (count > 0) {
+            configSnapshotService.markChanged();
             log.info("Successfully migrated actions for {} stages.", count);
         } else {
             log.info("No legacy actions found to migrate.");
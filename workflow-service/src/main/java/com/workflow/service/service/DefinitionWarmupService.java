@@ -0,0 +1,156 @@
+package com.workflow.service.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.dmn.api.DmnDecision;
+import org.flowable.dmn.api.DmnRepositoryService;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.repository.ProcessDefinition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parses the latest process definitions, and the DMN decisions rule stages refer to, into the
+ * engines' deployment caches at startup, so the first case of each workflow after a restart does
+ * not pay for it. Runs in parallel with a deadline; until it is done the instance reports
+ * OUT_OF_SERVICE, which keeps Eureka from routing to it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DefinitionWarmupService {
+
+    private final RepositoryService repositoryService;
+    private final DmnRepositoryService dmnRepositoryService;
+    private final ConfigSnapshotService configSnapshotService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${workflow.definition-cache.warmup.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${workflow.definition-cache.warmup.threads:4}")
+    private int threads = 4;
+
+    @Value("${workflow.definition-cache.warmup.timeout-ms:60000}")
+    private long timeoutMillis = 60000;
+
+    @Value("${workflow.definition-cache.process-limit:1000}")
+    private int processLimit = 1000;
+
+    private volatile boolean complete;
+
+    public boolean isComplete() {
+        return complete || !enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            List<ProcessDefinition> definitions = repositoryService.createProcessDefinitionQuery()
+                    .latestVersion()
+                    .active()
+                    .orderByProcessDefinitionKey().asc()
+                    .list();
+            // Loading more than the cache holds would only evict what was just loaded
+            if (processLimit > 0 && definitions.size() > processLimit) {
+                log.warn("{} active workflows exceed the process definition cache limit {}, warming the first {}",
+                        definitions.size(), processLimit, processLimit);
+                definitions = definitions.subList(0, processLimit);
+            }
+            List<String> ruleKeys = ruleKeys();
+
+            List<Callable<Void>> loads = new ArrayList<>();
+            for (ProcessDefinition definition : definitions) {
+                loads.add(() -> {
+                    repositoryService.getProcessDefinition(definition.getId());
+                    return null;
+                });
+            }
+            for (String ruleKey : ruleKeys) {
+                loads.add(() -> {
+                    DmnDecision decision = dmnRepositoryService.createDecisionQuery()
+                            .decisionKey(ruleKey)
+                            .latestVersion()
+                            .singleResult();
+                    if (decision != null) {
+                        dmnRepositoryService.getDecision(decision.getId());
+                    }
+                    return null;
+                });
+            }
+            run(loads, definitions.size(), ruleKeys.size(), start);
+        } catch (RuntimeException e) {
+            log.error("Definition cache warm-up failed, continuing cold", e);
+        } finally {
+            complete = true;
+            Timer.builder("workflow.definition-cache.warmup")
+                    .description("Startup warm-up of the process and decision definition caches")
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void run(List<Callable<Void>> loads, int processCount, int decisionCount, long start) {
+        if (loads.isEmpty()) {
+            return;
+        }
+        AtomicInteger threadNo = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, loads.size())), r -> {
+            Thread t = new Thread(r, "definition-warmup-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        int failed = 0;
+        int timedOut = 0;
+        try {
+            for (Future<Void> load : pool.invokeAll(loads, timeoutMillis, TimeUnit.MILLISECONDS)) {
+                try {
+                    load.get();
+                } catch (CancellationException e) {
+                    timedOut++;
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.debug("Definition warm-up load failed", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+        log.info("Warmed definition caches in {} ms: {} process definitions, {} decisions ({} failed, {} timed out)",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), processCount, decisionCount, failed,
+                timedOut);
+    }
+
+    private List<String> ruleKeys() {
+        ConfigSnapshot snapshot = configSnapshotService.get();
+        return snapshot.workflows().keySet().stream()
+                .flatMap(code -> snapshot.stages(code).stream())
+                .filter(ConfigSnapshot.StageDef::ruleStage)
+                .map(ConfigSnapshot.StageDef::ruleKey)
+                .filter(key -> key != null && !key.isBlank())
+                .distinct()
+                .sorted()
+                .toList();
+    }
+}
@@ -19,17 +19,40 @@ public class DeploymentService {
     private final RepositoryService repositoryService;
     private final BpmnGeneratorService bpmnGeneratorService;
     private final WorkflowDefinitionService workflowDefinitionService;
+    private final AllowedActionsService allowedActionsService;
 
+    // Preview includes the laid-out diagram; deployments carry only the executable model
     public String previewBpmn(String workflowCode) {
-        WorkflowMaster workflow = workflowDefinitionService.getWorkflow(workflowCode)
+        WorkflowMaster workflow = getWorkflow(workflowCode);
+        return bpmnGeneratorService.generateDiagramXml(workflow, workflowDefinitionService.getStages(workflowCode));
+    }
+
+    private WorkflowMaster getWorkflow(String workflowCode) {
+        return workflowDefinitionService.getWorkflow(workflowCode)
                 .orElseThrow(() -> new RuntimeException("Workflow not found: " + workflowCode));
-        List<StageConfig> stages = workflowDefinitionService.getStages(workflowCode);
-        return bpmnGeneratorService.generateBpmnXml(workflow, stages);
     }
 
     @Transactional
     public Deployment deployWorkflow(String workflowCode) {
-        String bpmnXml = previewBpmn(workflowCode);
+        WorkflowMaster workflow = getWorkflow(workflowCode);
+        String bpmnXml = bpmnGeneratorService
+                .generate(workflow, workflowDefinitionService.getStages(workflowCode)).xml();
+        return deploy(workflowCode, bpmnXml).deployment();
+    }
+
+    /**
+     * Deploys generated XML as the next version of the workflow, unless it is identical to the
+     * latest active version, which is then returned with {@code created} false.
+     */
+    DeployOutcome deploy(String workflowCode, String bpmnXml) {
+        // Generation is deterministic: identical XML means nothing changed since the
+        // latest active version, so reuse it instead of piling up versions
+        Deployment unchanged = findUnchangedDeployment(workflowCode, bpmnXml);
+        if (unchanged != null) {
+            log.info("Workflow {} unchanged since deployment {}, not redeploying", workflowCode, unchanged.getId());
+            compileAllowedActions(unchanged);
+            return new DeployOutcome(unchanged, false);
+        }
 
         // J.1 Deploy workflow with automatic version management (Flowable handles
         // versioning by key)
@@ -40,7 +63,11 @@ public class DeploymentService {
                 .deploy();
 
         log.info("Deployed workflow {}: id={}", workflowCode, deployment.getId());
-        return deployment;
+        compileAllowedActions(deployment);
+        return new DeployOutcome(deployment, true);
+    }
+
+    record DeployOutcome(Deployment deployment, boolean created) {
     }
 
     public List<com.workflow.service.dto.DeploymentHistoryDTO> getDeploymentHistory(String workflowCode) {
@@ -145,10 +172,43 @@ public class DeploymentService {
                     .deploy();
 
             log.info("Rolled back {} to version from deployment {}", pd.getKey(), deploymentId);
+            compileAllowedActions(deployment);
             return deployment;
 
         } catch (java.io.IOException e) {
             throw new RuntimeException("Failed to read resource for rollback", e);
         }
     }
+
+    private Deployment findUnchangedDeployment(String workflowCode, String bpmnXml) {
+        org.flowable.engine.repository.ProcessDefinition latest = repositoryService.createProcessDefinitionQuery()
+                .processDefinitionKey(workflowCode)
+                .latestVersion()
+                .singleResult();
+        // A suspended (undeployed) latest version must be superseded, even by identical XML
+        if (latest == null || latest.isSuspended()) {
+            return null;
+        }
+        try (java.io.InputStream deployed = repositoryService.getResourceAsStream(latest.getDeploymentId(),
+                latest.getResourceName())) {
+            if (!java.util.Arrays.equals(deployed.readAllBytes(),
+                    bpmnXml.getBytes(java.nio.charset.StandardCharsets.UTF_8))) {
+                return null;
+            }
+        } catch (java.io.IOException | org.flowable.common.engine.api.FlowableObjectNotFoundException e) {
+            return null;
+        }
+        return repositoryService.createDeploymentQuery()
+                .deploymentId(latest.getDeploymentId())
+                .singleResult();
+    }
+
+    private void compileAllowedActions(Deployment deployment) {
+        org.flowable.engine.repository.ProcessDefinition pd = repositoryService.createProcessDefinitionQuery()
+                .deploymentId(deployment.getId())
+                .singleResult();
+        if (pd != null) {
+            allowedActionsService.compileDefinition(pd);
+        }
+    }
 }
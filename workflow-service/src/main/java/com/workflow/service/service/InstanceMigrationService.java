@@ -0,0 +1,424 @@
+package com.workflow.service.service;
+
+import com.workflow.service.dto.MigrationJobDTO;
+import com.workflow.service.dto.MigrationPlanDTO;
+import com.workflow.service.dto.MigrationRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.bpmn.model.Activity;
+import org.flowable.bpmn.model.FlowNode;
+import org.flowable.bpmn.model.InclusiveGateway;
+import org.flowable.bpmn.model.IntermediateCatchEvent;
+import org.flowable.bpmn.model.ParallelGateway;
+import org.flowable.bpmn.model.Process;
+import org.flowable.engine.ProcessMigrationService;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.migration.ActivityMigrationMapping;
+import org.flowable.engine.migration.ProcessInstanceMigrationBuilder;
+import org.flowable.engine.repository.ProcessDefinition;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.flowable.spring.SpringProcessEngineConfiguration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Moves running cases of older definition versions onto the latest one, so old versions can be
+ * retired instead of piling up in the engine's deployment cache.
+ * <p>
+ * Stage codes are the activity ids of generated definitions and stay stable across versions, so
+ * activities map to the same id in the target by default. Activities that no longer exist need an
+ * explicit mapping; the plan lists them and Flowable validates the whole migration before a job
+ * is accepted. Jobs run in the background on a small pool, in chunked transactions (a failing
+ * chunk is retried one instance per transaction) with a pause between chunks to throttle the
+ * load. A source version left without running instances can be retired: suspended, and evicted
+ * from the process definition and allowed-actions caches.
+ */
+@Service
+@Slf4j
+public class InstanceMigrationService {
+
+    private static final int MAX_REPORTED_FAILURES = 100;
+
+    private final RepositoryService repositoryService;
+    private final RuntimeService runtimeService;
+    private final ProcessMigrationService processMigrationService;
+    private final SpringProcessEngineConfiguration engineConfiguration;
+    private final AllowedActionsService allowedActionsService;
+    private final TransactionTemplate chunkTx;
+    private final ThreadPoolExecutor workers;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final long jobRetentionMinutes;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Set<String> migratingWorkflows = ConcurrentHashMap.newKeySet();
+
+    public InstanceMigrationService(RepositoryService repositoryService,
+            RuntimeService runtimeService,
+            ProcessMigrationService processMigrationService,
+            SpringProcessEngineConfiguration engineConfiguration,
+            AllowedActionsService allowedActionsService,
+            PlatformTransactionManager transactionManager,
+            @Value("${workflow.migration.workers:1}") int workerCount,
+            @Value("${workflow.migration.batch-size:50}") int batchSize,
+            @Value("${workflow.migration.pause-ms:200}") long pauseMillis,
+            @Value("${workflow.migration.job-retention-minutes:60}") long jobRetentionMinutes) {
+        this.repositoryService = repositoryService;
+        this.runtimeService = runtimeService;
+        this.processMigrationService = processMigrationService;
+        this.engineConfiguration = engineConfiguration;
+        this.allowedActionsService = allowedActionsService;
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = Math.max(1, batchSize);
+        this.pauseMillis = pauseMillis;
+        this.jobRetentionMinutes = jobRetentionMinutes;
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "instance-migration-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * Activity mapping and validation result for migrating a source version (or every older
+     * version with running instances) to the latest version.
+     *
+     * @throws IllegalArgumentException if the workflow or source version does not exist
+     */
+    public List<MigrationPlanDTO> plan(String workflowCode, Integer sourceVersion, Map<String, String> overrides) {
+        List<MigrationPlanDTO> plans = plans(workflowCode, sourceVersion, overrides);
+        if (sourceVersion == null) {
+            plans.removeIf(p -> p.getRunningInstances() == 0);
+        }
+        return plans;
+    }
+
+    /**
+     * Validates the migration and starts it in the background.
+     *
+     * @throws IllegalArgumentException if there is nothing to migrate or a plan is invalid
+     * @throws IllegalStateException    if a migration of this workflow is already running
+     */
+    public MigrationJobDTO submit(MigrationRequest request) {
+        if (request.getWorkflowCode() == null || request.getWorkflowCode().isBlank()) {
+            throw new IllegalArgumentException("workflowCode is required");
+        }
+        List<MigrationPlanDTO> plans = plans(request.getWorkflowCode(), request.getSourceVersion(),
+                request.getActivityMappings());
+        // Idle older versions only need retiring
+        plans.removeIf(p -> p.getRunningInstances() == 0 && !request.isRetireSource());
+        if (plans.isEmpty()) {
+            throw new IllegalArgumentException("No running instances of older versions of " + request.getWorkflowCode());
+        }
+        for (MigrationPlanDTO p : plans) {
+            if (p.getRunningInstances() > 0 && !p.isValid()) {
+                throw new IllegalArgumentException("Migration of version " + p.getSourceVersion() + " is invalid: "
+                        + String.join("; ", p.getValidationErrors()));
+            }
+        }
+        if (!migratingWorkflows.add(request.getWorkflowCode())) {
+            throw new IllegalStateException("A migration of " + request.getWorkflowCode() + " is already running");
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), request.getWorkflowCode(), plans);
+        jobs.put(job.id, job);
+        try {
+            workers.execute(() -> run(job, request.isRetireSource()));
+        } catch (RuntimeException e) {
+            jobs.remove(job.id);
+            migratingWorkflows.remove(request.getWorkflowCode());
+            throw new IllegalStateException("Migration could not be scheduled: " + e.getMessage(), e);
+        }
+        log.info("Migration job {} accepted: {} instances of {} from versions {} to version {}", job.id, job.total,
+                job.workflowCode, plans.stream().map(MigrationPlanDTO::getSourceVersion).toList(),
+                plans.get(0).getTargetVersion());
+        return job.toDTO();
+    }
+
+    public MigrationJobDTO getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Migration job not found: " + jobId);
+        }
+        return job.toDTO();
+    }
+
+    private void run(Job job, boolean retireSource) {
+        job.running = true;
+        try {
+            for (MigrationPlanDTO p : job.plans) {
+                ProcessInstanceMigrationBuilder builder = builder(p);
+                List<String> instanceIds = runtimeService.createProcessInstanceQuery()
+                        .processDefinitionId(p.getSourceDefinitionId())
+                        .list().stream().map(ProcessInstance::getId).toList();
+                for (int start = 0; start < instanceIds.size(); start += batchSize) {
+                    migrateChunk(job, builder, instanceIds.subList(start, Math.min(start + batchSize, instanceIds.size())));
+                    if (start + batchSize < instanceIds.size()) {
+                        pause();
+                    }
+                }
+                if (retireSource) {
+                    retire(job, p.getSourceDefinitionId());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Migration job {} aborted", job.id, e);
+            job.error = e.getMessage();
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            migratingWorkflows.remove(job.workflowCode);
+            log.info("Migration job {} finished: {} migrated, {} failed, retired {}", job.id, job.migrated.get(),
+                    job.failed.get(), job.retired);
+        }
+    }
+
+    private void migrateChunk(Job job, ProcessInstanceMigrationBuilder builder, List<String> instanceIds) {
+        try {
+            chunkTx.executeWithoutResult(status -> instanceIds.forEach(builder::migrate));
+            job.migrated.addAndGet(instanceIds.size());
+            job.processed.addAndGet(instanceIds.size());
+        } catch (Exception chunkError) {
+            log.warn("Migration job {}: chunk of {} failed ({}), retrying instances individually", job.id,
+                    instanceIds.size(), chunkError.getMessage());
+            for (String instanceId : instanceIds) {
+                try {
+                    chunkTx.executeWithoutResult(status -> builder.migrate(instanceId));
+                    job.migrated.incrementAndGet();
+                } catch (Exception e) {
+                    job.fail(instanceId, e.getMessage());
+                }
+                job.processed.incrementAndGet();
+            }
+        }
+    }
+
+    // Suspended rather than deleted: history still refers to the definition
+    private void retire(Job job, String definitionId) {
+        if (runtimeService.createProcessInstanceQuery().processDefinitionId(definitionId).count() > 0) {
+            return;
+        }
+        if (!repositoryService.getProcessDefinition(definitionId).isSuspended()) {
+            repositoryService.suspendProcessDefinitionById(definitionId);
+        }
+        engineConfiguration.getDeploymentManager().getProcessDefinitionCache().remove(definitionId);
+        allowedActionsService.evict(definitionId);
+        job.retired.add(definitionId);
+    }
+
+    private List<MigrationPlanDTO> plans(String workflowCode, Integer sourceVersion, Map<String, String> overrides) {
+        ProcessDefinition target = latest(workflowCode);
+        List<MigrationPlanDTO> plans = new ArrayList<>();
+        for (ProcessDefinition source : sources(workflowCode, sourceVersion, target)) {
+            plans.add(plan(source, target, overrides != null ? overrides : Map.of()));
+        }
+        return plans;
+    }
+
+    private MigrationPlanDTO plan(ProcessDefinition source, ProcessDefinition target, Map<String, String> overrides) {
+        Process sourceProcess = repositoryService.getBpmnModel(source.getId()).getMainProcess();
+        Process targetProcess = repositoryService.getBpmnModel(target.getId()).getMainProcess();
+
+        Map<String, String> mappings = new TreeMap<>();
+        List<String> unmapped = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        for (FlowNode node : sourceProcess.findFlowElementsOfType(FlowNode.class, false)) {
+            if (!canWait(node)) {
+                continue;
+            }
+            String mapped = overrides.get(node.getId());
+            if (mapped != null) {
+                if (!(targetProcess.getFlowElement(mapped) instanceof FlowNode)) {
+                    errors.add("Mapping target '" + mapped + "' for '" + node.getId() + "' is not an activity of version "
+                            + target.getVersion());
+                }
+                mappings.put(node.getId(), mapped);
+            } else if (targetProcess.getFlowElement(node.getId()) instanceof FlowNode) {
+                mappings.put(node.getId(), node.getId());
+            } else {
+                unmapped.add(node.getId());
+            }
+        }
+        for (String from : overrides.keySet()) {
+            if (!mappings.containsKey(from)) {
+                errors.add("Mapping source '" + from + "' is not an activity of version " + source.getVersion());
+            }
+        }
+
+        MigrationPlanDTO plan = MigrationPlanDTO.builder()
+                .workflowCode(source.getKey())
+                .sourceDefinitionId(source.getId())
+                .sourceVersion(source.getVersion())
+                .targetDefinitionId(target.getId())
+                .targetVersion(target.getVersion())
+                .runningInstances(runtimeService.createProcessInstanceQuery().processDefinitionId(source.getId()).count())
+                .activityMappings(mappings)
+                .unmappedActivities(unmapped)
+                .build();
+        // Flowable checks every running instance: unmapped activities only matter where cases wait
+        if (errors.isEmpty() && plan.getRunningInstances() > 0) {
+            errors.addAll(builder(plan).validateMigrationOfProcessInstances(source.getId()).getValidationMessages());
+        }
+        plan.setValidationErrors(errors);
+        plan.setValid(errors.isEmpty());
+        return plan;
+    }
+
+    // Activities and joins can hold an execution; other gateways and events pass straight through
+    private boolean canWait(FlowNode node) {
+        return node instanceof Activity || node instanceof IntermediateCatchEvent
+                || node instanceof ParallelGateway || node instanceof InclusiveGateway;
+    }
+
+    // Same ids are mapped by the engine itself; only renames need explicit mappings
+    private ProcessInstanceMigrationBuilder builder(MigrationPlanDTO plan) {
+        ProcessInstanceMigrationBuilder builder = processMigrationService.createProcessInstanceMigrationBuilder()
+                .migrateToProcessDefinition(plan.getTargetDefinitionId());
+        plan.getActivityMappings().forEach((from, to) -> {
+            if (!from.equals(to)) {
+                builder.addActivityMigrationMapping(ActivityMigrationMapping.createMappingFor(from, to));
+            }
+        });
+        return builder;
+    }
+
+    private ProcessDefinition latest(String workflowCode) {
+        ProcessDefinition latest = repositoryService.createProcessDefinitionQuery()
+                .processDefinitionKey(workflowCode)
+                .latestVersion()
+                .singleResult();
+        if (latest == null) {
+            throw new IllegalArgumentException("Workflow is not deployed: " + workflowCode);
+        }
+        if (latest.isSuspended()) {
+            throw new IllegalArgumentException("Latest version of " + workflowCode + " is suspended");
+        }
+        return latest;
+    }
+
+    private List<ProcessDefinition> sources(String workflowCode, Integer sourceVersion, ProcessDefinition target) {
+        if (sourceVersion != null) {
+            if (sourceVersion >= target.getVersion()) {
+                throw new IllegalArgumentException("Source version must be older than the latest version "
+                        + target.getVersion());
+            }
+            ProcessDefinition source = repositoryService.createProcessDefinitionQuery()
+                    .processDefinitionKey(workflowCode)
+                    .processDefinitionVersion(sourceVersion)
+                    .singleResult();
+            if (source == null) {
+                throw new IllegalArgumentException("Version " + sourceVersion + " of " + workflowCode + " not found");
+            }
+            return List.of(source);
+        }
+        return repositoryService.createProcessDefinitionQuery()
+                .processDefinitionKey(workflowCode)
+                .orderByProcessDefinitionVersion().asc()
+                .list().stream()
+                .filter(pd -> pd.getVersion() < target.getVersion())
+                .toList();
+    }
+
+    private void pause() {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Migration interrupted", e);
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private static class Job {
+        final String id;
+        final String workflowCode;
+        final List<MigrationPlanDTO> plans;
+        final int total;
+        final AtomicInteger processed = new AtomicInteger();
+        final AtomicInteger migrated = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final Map<String, String> failures = new ConcurrentHashMap<>();
+        final List<String> retired = new CopyOnWriteArrayList<>();
+        final LocalDateTime createdAt = LocalDateTime.now();
+        volatile boolean running;
+        volatile String error;
+        volatile LocalDateTime finishedAt;
+
+        Job(String id, String workflowCode, List<MigrationPlanDTO> plans) {
+            this.id = id;
+            this.workflowCode = workflowCode;
+            this.plans = List.copyOf(plans);
+            this.total = (int) plans.stream().mapToLong(MigrationPlanDTO::getRunningInstances).sum();
+        }
+
+        void fail(String instanceId, String error) {
+            failed.incrementAndGet();
+            if (failures.size() < MAX_REPORTED_FAILURES) {
+                failures.put(instanceId, String.valueOf(error));
+            }
+        }
+
+        MigrationJobDTO toDTO() {
+            String status;
+            if (finishedAt != null && error != null) {
+                status = "FAILED";
+            } else if (finishedAt != null) {
+                status = failed.get() == 0 ? "COMPLETED" : "COMPLETED_WITH_ERRORS";
+            } else {
+                status = running ? "RUNNING" : "QUEUED";
+            }
+            return MigrationJobDTO.builder()
+                    .jobId(id)
+                    .workflowCode(workflowCode)
+                    .status(status)
+                    .targetDefinitionId(plans.get(0).getTargetDefinitionId())
+                    .sourceDefinitionIds(plans.stream().map(MigrationPlanDTO::getSourceDefinitionId).toList())
+                    .total(total)
+                    .processed(processed.get())
+                    .migrated(migrated.get())
+                    .failed(failed.get())
+                    .retiredDefinitionIds(List.copyOf(retired))
+                    .createdAt(createdAt)
+                    .finishedAt(finishedAt)
+                    .failures(new LinkedHashMap<>(failures))
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.workflow.service.service;
+
+import com.workflow.service.entity.UserLeave;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable interval index of current and future leaves, used by {@link CalendarService}.
+ * <p>
+ * Per user, leaves are sorted by start with a running maximum of their ends (a flattened
+ * interval tree): the leaves covering an instant are found with a binary search on the start
+ * and a backward scan that stops as soon as no earlier leave can still be running. Built from
+ * the repository and swapped atomically; never modified.
+ */
+final class LeaveIndex {
+
+    static final LeaveIndex EMPTY = new LeaveIndex(Map.of(), 0);
+
+    private static final Comparator<UserLeave> BY_START = Comparator.comparing(UserLeave::getFromDate)
+            .thenComparing(UserLeave::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private static final class UserLeaves {
+        private final UserLeave[] byStart;
+        private final LocalDateTime[] maxEnd; // latest end among byStart[0..i]
+
+        UserLeaves(List<UserLeave> leaves) {
+            this.byStart = leaves.stream().sorted(BY_START).toArray(UserLeave[]::new);
+            this.maxEnd = new LocalDateTime[byStart.length];
+            LocalDateTime max = null;
+            for (int i = 0; i < byStart.length; i++) {
+                LocalDateTime end = byStart[i].getToDate();
+                max = max == null || end.isAfter(max) ? end : max;
+                maxEnd[i] = max;
+            }
+        }
+
+        List<UserLeave> coveringAt(LocalDateTime time) {
+            // First leave starting after the instant; everything before it has started
+            int lo = 0;
+            int hi = byStart.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (byStart[mid].getFromDate().isAfter(time)) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            List<UserLeave> covering = new ArrayList<>(1);
+            for (int i = lo - 1; i >= 0 && !maxEnd[i].isBefore(time); i--) {
+                if (!byStart[i].getToDate().isBefore(time)) {
+                    covering.add(byStart[i]);
+                }
+            }
+            covering.sort(Comparator.comparing(UserLeave::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+            return covering;
+        }
+    }
+
+    private final Map<String, UserLeaves> byUser;
+    private final int size;
+
+    private LeaveIndex(Map<String, UserLeaves> byUser, int size) {
+        this.byUser = byUser;
+        this.size = size;
+    }
+
+    /**
+     * Index of the active leaves among {@code leaves}; incomplete rows are ignored.
+     */
+    static LeaveIndex build(Collection<UserLeave> leaves) {
+        Map<String, List<UserLeave>> grouped = new HashMap<>();
+        int size = 0;
+        for (UserLeave leave : leaves) {
+            if (!leave.isActive() || leave.getUserId() == null || leave.getFromDate() == null
+                    || leave.getToDate() == null || leave.getToDate().isBefore(leave.getFromDate())) {
+                continue;
+            }
+            grouped.computeIfAbsent(leave.getUserId(), k -> new ArrayList<>()).add(leave);
+            size++;
+        }
+        Map<String, UserLeaves> byUser = new HashMap<>();
+        grouped.forEach((userId, userLeaves) -> byUser.put(userId, new UserLeaves(userLeaves)));
+        return new LeaveIndex(Map.copyOf(byUser), size);
+    }
+
+    /**
+     * Leaves of the user covering the instant (bounds inclusive), lowest id first.
+     */
+    List<UserLeave> coveringAt(String userId, LocalDateTime time) {
+        UserLeaves leaves = byUser.get(userId);
+        return leaves != null ? leaves.coveringAt(time) : List.of();
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,220 @@
+package com.workflow.service.service;
+
+import com.workflow.service.entity.PriorActor;
+import com.workflow.service.repository.PriorActorRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.impl.context.Context;
+import org.flowable.common.engine.impl.interceptor.CommandContext;
+import org.flowable.engine.HistoryService;
+import org.flowable.engine.history.HistoricProcessInstance;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntity;
+import org.flowable.engine.impl.util.CommandContextUtil;
+import org.flowable.task.api.TaskInfo;
+import org.flowable.task.api.history.HistoricTaskInstance;
+import org.flowable.variable.api.history.HistoricVariableInstance;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Maintains {@code prior_actor}, the "who last worked this case in this role" index used by
+ * sticky assignment.
+ * <p>
+ * Rows are written by {@link com.workflow.service.listener.PriorActorIndexListener} inside the
+ * engine transaction that completes the task. The role is the completed stage's role at that
+ * moment; {@link #rebuild()} re-derives it from task history with the current configuration.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriorActorIndexService {
+
+    public static final String SAVED_ASSIGNEE_VARIABLE = "savedAssignee";
+
+    private static final int REBUILD_BATCH = 500;
+
+    private final PriorActorRepository priorActorRepository;
+    private final ConfigSnapshotService configSnapshotService;
+    private final HistoryService historyService;
+    private final TransactionTemplate transactionTemplate;
+
+    // --- Event side (called inside the engine transaction) ---
+
+    public void onTaskCompleted(TaskInfo task, String userId) {
+        if (userId == null || task.getProcessInstanceId() == null || task.getProcessDefinitionId() == null) {
+            return;
+        }
+        String workflowCode = task.getProcessDefinitionId().split(":")[0];
+        String roleCode = roleOf(workflowCode, task.getTaskDefinitionKey());
+
+        PriorActor row = priorActorRepository.findByProcessInstanceIdAndUserId(task.getProcessInstanceId(), userId)
+                .stream()
+                .filter(r -> Objects.equals(r.getRoleCode(), roleCode))
+                .findFirst()
+                .orElseGet(PriorActor::new);
+        row.setProcessInstanceId(task.getProcessInstanceId());
+        row.setBusinessKey(businessKeyOf(task.getProcessInstanceId()));
+        row.setRoleCode(roleCode);
+        row.setUserId(userId);
+        row.setWorkflowCode(workflowCode);
+        row.setStageCode(task.getTaskDefinitionKey());
+        row.setTaskId(task.getId());
+        row.setCompletedAt(LocalDateTime.now());
+        priorActorRepository.save(row);
+    }
+
+    // --- Read side ---
+
+    /**
+     * Most recent actor in {@code roleCode} who is still a candidate, across every case of the
+     * business key (or this case when it has none).
+     */
+    public String findPriorActor(String processInstanceId, String roleCode, Collection<String> candidates) {
+        String businessKey = businessKeyOf(processInstanceId);
+        List<PriorActor> rows = businessKey != null
+                ? priorActorRepository.findByBusinessKeyAndRoleCodeOrderByCompletedAtDescIdDesc(businessKey, roleCode)
+                : priorActorRepository.findByProcessInstanceIdAndRoleCodeOrderByCompletedAtDescIdDesc(
+                        processInstanceId, roleCode);
+        return firstCandidate(rows, candidates);
+    }
+
+    /**
+     * Most recent actor of this case, in any role, who is in {@code pool}.
+     */
+    public String findPriorActorInCase(String processInstanceId, Collection<String> pool) {
+        return firstCandidate(priorActorRepository.findByProcessInstanceIdOrderByCompletedAtDescIdDesc(processInstanceId),
+                pool);
+    }
+
+    public String businessKeyOf(String processInstanceId) {
+        CommandContext commandContext = Context.getCommandContext();
+        if (commandContext != null) {
+            ExecutionEntity processInstance = CommandContextUtil.getExecutionEntityManager(commandContext)
+                    .findById(processInstanceId);
+            if (processInstance != null) {
+                return processInstance.getBusinessKey();
+            }
+        }
+        HistoricProcessInstance historic = historyService.createHistoricProcessInstanceQuery()
+                .processInstanceId(processInstanceId)
+                .singleResult();
+        return historic != null ? historic.getBusinessKey() : null;
+    }
+
+    private static String firstCandidate(List<PriorActor> rows, Collection<String> candidates) {
+        Set<String> allowed = candidates instanceof Set<String> set ? set : new HashSet<>(candidates);
+        for (PriorActor row : rows) {
+            if (allowed.contains(row.getUserId())) {
+                return row.getUserId();
+            }
+        }
+        return null;
+    }
+
+    private String roleOf(String workflowCode, String stageCode) {
+        return configSnapshotService.get().stage(workflowCode, stageCode)
+                .map(s -> s.assignmentRules().role())
+                .orElse(null);
+    }
+
+    // --- Maintenance ---
+
+    /**
+     * Recovery / first start: re-seeds the index from finished task history.
+     *
+     * @return number of prior actor rows written
+     */
+    public int rebuild() {
+        List<HistoricTaskInstance> finished = historyService.createHistoricTaskInstanceQuery()
+                .finished()
+                .orderByHistoricTaskInstanceEndTime().asc()
+                .list();
+
+        // Tasks completed through the stage command keep the actor in a task-local variable
+        Map<String, String> savedAssignees = new HashMap<>();
+        List<String> unassigned = finished.stream().filter(t -> t.getAssignee() == null).map(HistoricTaskInstance::getId).toList();
+        for (int start = 0; start < unassigned.size(); start += REBUILD_BATCH) {
+            Set<String> batch = new HashSet<>(unassigned.subList(start, Math.min(start + REBUILD_BATCH, unassigned.size())));
+            for (HistoricVariableInstance var : historyService.createHistoricVariableInstanceQuery()
+                    .taskIds(batch)
+                    .variableName(SAVED_ASSIGNEE_VARIABLE)
+                    .list()) {
+                if (var.getValue() instanceof String user) {
+                    savedAssignees.put(var.getTaskId(), user);
+                }
+            }
+        }
+
+        Map<String, String> businessKeys = new HashMap<>();
+        List<String> caseIds = finished.stream().map(HistoricTaskInstance::getProcessInstanceId)
+                .filter(Objects::nonNull).distinct().toList();
+        for (int start = 0; start < caseIds.size(); start += REBUILD_BATCH) {
+            Set<String> batch = new HashSet<>(caseIds.subList(start, Math.min(start + REBUILD_BATCH, caseIds.size())));
+            for (HistoricProcessInstance pi : historyService.createHistoricProcessInstanceQuery()
+                    .processInstanceIds(batch).list()) {
+                if (pi.getBusinessKey() != null) {
+                    businessKeys.put(pi.getId(), pi.getBusinessKey());
+                }
+            }
+        }
+
+        // Oldest first, so the latest completion of each (case, role, user) wins
+        Map<List<String>, PriorActor> rows = new LinkedHashMap<>();
+        for (HistoricTaskInstance task : finished) {
+            String userId = task.getAssignee() != null ? task.getAssignee() : savedAssignees.get(task.getId());
+            if (userId == null || task.getProcessInstanceId() == null || task.getProcessDefinitionId() == null) {
+                continue;
+            }
+            String workflowCode = task.getProcessDefinitionId().split(":")[0];
+            String roleCode = roleOf(workflowCode, task.getTaskDefinitionKey());
+            PriorActor row = rows.computeIfAbsent(List.of(task.getProcessInstanceId(), String.valueOf(roleCode), userId),
+                    k -> new PriorActor());
+            row.setProcessInstanceId(task.getProcessInstanceId());
+            row.setBusinessKey(businessKeys.get(task.getProcessInstanceId()));
+            row.setRoleCode(roleCode);
+            row.setUserId(userId);
+            row.setWorkflowCode(workflowCode);
+            row.setStageCode(task.getTaskDefinitionKey());
+            row.setTaskId(task.getId());
+            row.setCompletedAt(toLocal(task.getEndTime()));
+        }
+
+        List<PriorActor> toSave = new ArrayList<>(rows.values());
+        transactionTemplate.executeWithoutResult(status -> {
+            priorActorRepository.deleteAllInBatch();
+            priorActorRepository.saveAll(toSave);
+        });
+        log.info("Prior actor index rebuilt: {} rows from {} finished tasks", toSave.size(), finished.size());
+        return toSave.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (priorActorRepository.count() == 0) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.error("Failed to initialize prior actor index", e);
+        }
+    }
+
+    private static LocalDateTime toLocal(Date date) {
+        return date != null ? LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()) : null;
+    }
+}
@@ -0,0 +1,148 @@
+package com.workflow.service.service;
+
+import com.workflow.service.entity.AssignmentCursor;
+import com.workflow.service.repository.AssignmentCursorRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out round-robin tickets per (workflow, stage, pool); the assignee is
+ * {@code ticket mod poolSize} over the sorted pool. Two modes
+ * ({@code workflow.round-robin.cursor-mode}):
+ * <ul>
+ * <li>{@code memory} (single node, default): one atomic counter per cursor, no I/O on the
+ * assignment path. Counters are seeded from {@code assignment_cursor} and written back
+ * periodically, so a restart continues close to where it stopped.</li>
+ * <li>{@code database} (clustered): every ticket increments the cursor row in its own short
+ * transaction, so the row lock is never held for the engine transaction. Callers on one node
+ * are also serialized per cursor stripe: they would only queue on the row lock anyway, and H2
+ * does not re-read a row after a lock wait. Each ticket needs a second pooled connection while
+ * the engine transaction holds the first.</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class RoundRobinCursorService {
+
+    public static final String MODE_MEMORY = "memory";
+    public static final String MODE_DATABASE = "database";
+
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+
+    private final AssignmentCursorRepository cursorRepository;
+    private final TransactionTemplate cursorTx;
+    private final String mode;
+
+    private final Map<String, AtomicLong> cursors = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final Object[] stripes = new Object[64];
+
+    public RoundRobinCursorService(AssignmentCursorRepository cursorRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${workflow.round-robin.cursor-mode:memory}") String mode) {
+        if (!MODE_MEMORY.equals(mode) && !MODE_DATABASE.equals(mode)) {
+            throw new IllegalArgumentException("Unknown round-robin cursor mode: " + mode);
+        }
+        this.cursorRepository = cursorRepository;
+        this.cursorTx = new TransactionTemplate(transactionManager);
+        this.cursorTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.mode = mode;
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * Next ticket for the cursor; tickets are unique and consecutive per cursor.
+     */
+    public long next(String workflowCode, String stageCode, String poolCode) {
+        String key = workflowCode + "|" + stageCode + "|" + poolCode;
+        if (MODE_DATABASE.equals(mode)) {
+            return nextFromDatabase(key, workflowCode, stageCode, poolCode);
+        }
+        AtomicLong cursor = cursors.get(key);
+        if (cursor == null) {
+            long seed = cursorRepository.findById(key).map(AssignmentCursor::getPosition).orElse(0L);
+            cursor = cursors.computeIfAbsent(key, k -> new AtomicLong(seed));
+        }
+        long ticket = cursor.getAndIncrement();
+        dirty.add(key);
+        return ticket;
+    }
+
+    private long nextFromDatabase(String key, String workflowCode, String stageCode, String poolCode) {
+        synchronized (stripes[Math.floorMod(key.hashCode(), stripes.length)]) {
+            for (int attempt = 1; attempt <= MAX_INSERT_ATTEMPTS; attempt++) {
+                try {
+                    return cursorTx.execute(status -> {
+                        if (cursorRepository.increment(key, LocalDateTime.now()) == 0) {
+                            cursorRepository.saveAndFlush(newCursor(key, workflowCode, stageCode, poolCode, 1));
+                            return 0L;
+                        }
+                        return cursorRepository.findPosition(key).orElseThrow() - 1;
+                    });
+                } catch (DataIntegrityViolationException e) {
+                    // Another node created the row first; retry as an update
+                }
+            }
+        }
+        throw new IllegalStateException("Round-robin cursor " + key + " could not be created");
+    }
+
+    /**
+     * Writes in-memory positions back to {@code assignment_cursor}; a no-op in database mode.
+     */
+    @Scheduled(fixedDelayString = "${workflow.round-robin.flush-interval-ms:10000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        for (String key : new ArrayList<>(dirty)) {
+            dirty.remove(key);
+            long position = cursors.get(key).get();
+            try {
+                cursorTx.executeWithoutResult(status -> {
+                    if (cursorRepository.advanceTo(key, position, LocalDateTime.now()) == 0
+                            && !cursorRepository.existsById(key)) {
+                        String[] parts = key.split("\\|", 3);
+                        cursorRepository.save(newCursor(key, parts[0], parts[1], parts[2], position));
+                    }
+                });
+            } catch (Exception e) {
+                dirty.add(key);
+                log.warn("Failed to persist round-robin cursor {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private static AssignmentCursor newCursor(String key, String workflowCode, String stageCode, String poolCode,
+            long position) {
+        AssignmentCursor cursor = new AssignmentCursor();
+        cursor.setCursorKey(key);
+        cursor.setWorkflowCode(workflowCode);
+        cursor.setStageCode(stageCode);
+        cursor.setPoolCode(poolCode);
+        cursor.setPosition(position);
+        cursor.setUpdatedAt(LocalDateTime.now());
+        return cursor;
+    }
+}
@@ -14,6 +14,7 @@ public class ScreenMappingService {
 
     private final ScreenMappingRepository screenMappingRepository;
     private final ScreenDefinitionService screenDefinitionService;
+    private final ConfigSnapshotService configSnapshotService;
 
     public Optional<ScreenMapping> getMappingByStageCode(String stageCode) {
         return screenMappingRepository.findByStageCode(stageCode).stream().findFirst();
@@ -33,6 +34,8 @@ public class ScreenMappingService {
         mapping.setScreenCode(screenCode); // G.2 implemented here as well
         mapping.setAccessType(accessType);
 
-        return screenMappingRepository.save(mapping);
+        ScreenMapping saved = screenMappingRepository.save(mapping);
+        configSnapshotService.markChanged();
+        return saved;
     }
 }
@@ -0,0 +1,297 @@
+package com.workflow.service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workflow.service.dto.UserStoryboardDTO;
+import com.workflow.service.entity.StoryboardClosedTask;
+import com.workflow.service.entity.TaskWorkloadProjection;
+import com.workflow.service.integration.UserAdapterClient;
+import com.workflow.service.repository.StoryboardClosedTaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.engine.HistoryService;
+import org.flowable.task.api.TaskInfo;
+import org.flowable.task.api.history.HistoricTaskInstance;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Precomputed per-user storyboard (NEW / WIP / CLOSED lanes).
+ * <p>
+ * NEW and WIP come from the open tasks of the workload projection. CLOSED comes from
+ * {@code storyboard_closed_task}, written when a task completes and bounded by a retention
+ * window. The assembled view and its ETag are cached until either source changes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StoryboardService {
+
+    private final StoryboardClosedTaskRepository closedTaskRepository;
+    private final WorkloadProjectionService workloadProjectionService;
+    private final UserAdapterClient userAdapterClient;
+    private final HistoryService historyService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${workflow.storyboard.closed-retention-days:7}")
+    private int closedRetentionDays;
+
+    @Value("${workflow.storyboard.closed-max-per-user:50}")
+    private int closedMaxPerUser;
+
+    private final Object closedLock = new Object();
+    private volatile Map<String, List<StoryboardClosedTask>> closedByAssignee = Map.of();
+    private final AtomicLong closedVersion = new AtomicLong();
+
+    private volatile CachedView cachedView;
+
+    // --- Event side (called inside the engine transaction) ---
+
+    public void onTaskCompleted(TaskInfo task) {
+        if (task.getAssignee() == null) {
+            return;
+        }
+        StoryboardClosedTask row = new StoryboardClosedTask();
+        row.setTaskId(task.getId());
+        row.setAssignee(task.getAssignee());
+        row.setCaseId(task.getProcessInstanceId());
+        row.setStageName(task.getName());
+        row.setStageCode(task.getTaskDefinitionKey());
+        row.setWorkflowName(workloadProjectionService.findOpenTask(task.getId())
+                .map(TaskWorkloadProjection::getWorkflowName)
+                .orElseGet(() -> task.getProcessDefinitionId().split(":")[0]));
+        row.setCreatedTime(toLocal(task.getCreateTime()));
+        row.setEndTime(LocalDateTime.now());
+        closedTaskRepository.save(row);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addClosed(row);
+                }
+            });
+        } else {
+            addClosed(row);
+        }
+    }
+
+    // --- Read side ---
+
+    /**
+     * Current storyboard with a content-based ETag, so any node answers the same ETag
+     * for the same data.
+     */
+    public StoryboardView getStoryboard() {
+        long workloadVersion = workloadProjectionService.version();
+        long closed = closedVersion.get();
+        CachedView cached = cachedView;
+        if (cached != null && cached.workloadVersion == workloadVersion && cached.closedVersion == closed) {
+            return cached.view;
+        }
+
+        List<UserStoryboardDTO> items = buildStoryboard();
+        String etag;
+        try {
+            etag = "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(items)) + "\"";
+        } catch (Exception e) {
+            etag = "\"" + workloadVersion + "-" + closed + "\"";
+        }
+        StoryboardView view = new StoryboardView(items, etag);
+        cachedView = new CachedView(workloadVersion, closed, view);
+        return view;
+    }
+
+    private List<UserStoryboardDTO> buildStoryboard() {
+        Map<String, List<TaskWorkloadProjection>> open = workloadProjectionService.openTasksByAssignee();
+        Map<String, List<StoryboardClosedTask>> closed = closedByAssignee;
+
+        Set<String> allUsers = new HashSet<>(open.keySet());
+        allUsers.addAll(closed.keySet());
+        if (allUsers.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<String, String> userNames = userAdapterClient.searchUsers(new ArrayList<>(allUsers));
+        List<UserStoryboardDTO> result = new ArrayList<>();
+
+        for (String userId : allUsers.stream().sorted().toList()) {
+            List<UserStoryboardDTO.TaskSummaryDTO> newTasks = new ArrayList<>();
+            List<UserStoryboardDTO.TaskSummaryDTO> wipTasks = new ArrayList<>();
+            open.getOrDefault(userId, List.of()).stream()
+                    .sorted(Comparator.comparing(TaskWorkloadProjection::getCreatedTime,
+                            Comparator.nullsLast(Comparator.reverseOrder())))
+                    .forEach(t -> {
+                        UserStoryboardDTO.TaskSummaryDTO dto = UserStoryboardDTO.TaskSummaryDTO.builder()
+                                .taskId(t.getTaskId())
+                                .caseId(t.getCaseId())
+                                .stageName(t.getStageName())
+                                .stageCode(t.getStageCode())
+                                .createdTime(t.getCreatedTime())
+                                .dueDate(t.getDueDate())
+                                .workflowName(t.getWorkflowName())
+                                .status(t.getStatus())
+                                .build();
+                        if (t.getStatus() != null && !t.getStatus().isEmpty()) {
+                            wipTasks.add(dto);
+                        } else {
+                            newTasks.add(dto);
+                        }
+                    });
+
+            List<UserStoryboardDTO.TaskSummaryDTO> closedTasks = closed.getOrDefault(userId, List.of()).stream()
+                    .map(t -> UserStoryboardDTO.TaskSummaryDTO.builder()
+                            .taskId(t.getTaskId())
+                            .caseId(t.getCaseId())
+                            .stageName(t.getStageName())
+                            .stageCode(t.getStageCode())
+                            .createdTime(t.getCreatedTime())
+                            .endTime(t.getEndTime())
+                            .workflowName(t.getWorkflowName())
+                            .status("Completed")
+                            .build())
+                    .collect(java.util.stream.Collectors.toList());
+
+            result.add(UserStoryboardDTO.builder()
+                    .userId(userId)
+                    .userName(userNames.getOrDefault(userId, userId))
+                    .newTasks(newTasks)
+                    .wipTasks(wipTasks)
+                    .closedTasks(closedTasks)
+                    .build());
+        }
+        return result;
+    }
+
+    // --- Maintenance ---
+
+    /**
+     * Recovery: re-seeds the CLOSED lane from task history within the retention window.
+     *
+     * @return number of closed tasks loaded
+     */
+    public int rebuild() {
+        LocalDateTime cutoff = cutoff();
+        Date since = Date.from(cutoff.atZone(ZoneId.systemDefault()).toInstant());
+        List<StoryboardClosedTask> rows = transactionTemplate.execute(status -> {
+            List<StoryboardClosedTask> fresh = new ArrayList<>();
+            for (HistoricTaskInstance t : historyService.createHistoricTaskInstanceQuery()
+                    .finished()
+                    .taskCompletedAfter(since)
+                    .includeProcessVariables()
+                    .list()) {
+                if (t.getAssignee() == null) {
+                    continue;
+                }
+                Object workflowName = t.getProcessVariables().get("workflowName");
+                StoryboardClosedTask row = new StoryboardClosedTask();
+                row.setTaskId(t.getId());
+                row.setAssignee(t.getAssignee());
+                row.setCaseId(t.getProcessInstanceId());
+                row.setStageName(t.getName());
+                row.setStageCode(t.getTaskDefinitionKey());
+                row.setWorkflowName(workflowName != null ? workflowName.toString()
+                        : t.getProcessDefinitionId().split(":")[0]);
+                row.setCreatedTime(toLocal(t.getCreateTime()));
+                row.setEndTime(toLocal(t.getEndTime()));
+                fresh.add(row);
+            }
+            closedTaskRepository.deleteAllInBatch();
+            return closedTaskRepository.saveAll(fresh);
+        });
+        loadClosed(rows);
+        log.info("Storyboard closed lane rebuilt with {} tasks", rows.size());
+        return rows.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (closedTaskRepository.count() == 0) {
+                rebuild();
+            } else {
+                refresh();
+            }
+        } catch (Exception e) {
+            log.error("Failed to initialize storyboard read model", e);
+        }
+    }
+
+    /**
+     * Drops closed tasks that fell out of the retention window and re-reads the lane,
+     * picking up tasks closed on other nodes.
+     */
+    @Scheduled(fixedDelayString = "${workflow.storyboard.refresh-ms:30000}",
+            initialDelayString = "${workflow.storyboard.refresh-ms:30000}")
+    public void refresh() {
+        LocalDateTime cutoff = cutoff();
+        transactionTemplate.executeWithoutResult(status -> closedTaskRepository.purgeOlderThan(cutoff));
+        loadClosed(closedTaskRepository.findByEndTimeAfter(cutoff));
+    }
+
+    private void loadClosed(List<StoryboardClosedTask> rows) {
+        Map<String, List<StoryboardClosedTask>> byAssignee = new HashMap<>();
+        for (StoryboardClosedTask row : rows) {
+            byAssignee.computeIfAbsent(row.getAssignee(), k -> new ArrayList<>()).add(row);
+        }
+        byAssignee.replaceAll((userId, tasks) -> trim(tasks));
+        synchronized (closedLock) {
+            closedByAssignee = Map.copyOf(byAssignee);
+            closedVersion.incrementAndGet();
+        }
+    }
+
+    private void addClosed(StoryboardClosedTask row) {
+        synchronized (closedLock) {
+            Map<String, List<StoryboardClosedTask>> next = new HashMap<>(closedByAssignee);
+            List<StoryboardClosedTask> tasks = new ArrayList<>(next.getOrDefault(row.getAssignee(), List.of()));
+            tasks.removeIf(t -> t.getTaskId().equals(row.getTaskId()));
+            tasks.add(row);
+            next.put(row.getAssignee(), trim(tasks));
+            closedByAssignee = Map.copyOf(next);
+            closedVersion.incrementAndGet();
+        }
+    }
+
+    // Newest first, capped per user
+    private List<StoryboardClosedTask> trim(List<StoryboardClosedTask> tasks) {
+        return tasks.stream()
+                .sorted(Comparator.comparing(StoryboardClosedTask::getEndTime, Comparator.reverseOrder()))
+                .limit(closedMaxPerUser)
+                .toList();
+    }
+
+    private LocalDateTime cutoff() {
+        return LocalDateTime.now().minusDays(closedRetentionDays);
+    }
+
+    private static LocalDateTime toLocal(Date date) {
+        return date != null ? LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()) : null;
+    }
+
+    public record StoryboardView(List<UserStoryboardDTO> items, String etag) {
+    }
+
+    private record CachedView(long workloadVersion, long closedVersion, StoryboardView view) {
+    }
+}
@@ -25,6 +25,7 @@ public class SystemResetService {
     private final WorkflowMasterRepository workflowMasterRepository;
     private final AuditTrailRepository auditTrailRepository;
     private final ScreenMappingRepository screenMappingRepository;
+    private final ConfigSnapshotService configSnapshotService;
     // Add other repositories as needed (e.g. AuditLog, Rules)
 
     @Transactional
@@ -57,6 +58,7 @@ public class SystemResetService {
             
             log.info("Deleting all Screen Mappings...");
             screenMappingRepository.deleteAll();
+            configSnapshotService.markChanged();
             
             log.info("Custom data cleaned.");
         } catch (Exception e) {
@@ -0,0 +1,56 @@
+package com.workflow.service.service;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Which process variables a case/stage response should carry, parsed from the
+ * {@code variables} query parameter:
+ * <ul>
+ * <li>absent: all variables (the historical behaviour)</li>
+ * <li>empty or {@code none}: no variables, nothing is read from the variable tables</li>
+ * <li>{@code a,b,c}: only the named variables, fetched by name</li>
+ * </ul>
+ */
+public final class VariableSelection {
+
+    public static final VariableSelection ALL = new VariableSelection(null);
+    public static final VariableSelection NONE = new VariableSelection(Set.of());
+
+    private final Set<String> names;
+
+    private VariableSelection(Set<String> names) {
+        this.names = names;
+    }
+
+    public static VariableSelection parse(String param) {
+        if (param == null) {
+            return ALL;
+        }
+        if (param.isBlank() || "none".equalsIgnoreCase(param.trim())) {
+            return NONE;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        Arrays.stream(param.split(","))
+                .map(String::trim)
+                .filter(n -> !n.isEmpty())
+                .forEach(names::add);
+        return names.isEmpty() ? NONE : new VariableSelection(Set.copyOf(names));
+    }
+
+    public boolean isAll() {
+        return names == null;
+    }
+
+    public boolean isNone() {
+        return names != null && names.isEmpty();
+    }
+
+    /**
+     * Requested names; only meaningful when neither {@link #isAll()} nor {@link #isNone()}.
+     */
+    public Set<String> names() {
+        return names;
+    }
+}
@@ -35,6 +35,8 @@ public class WorkflowDefinitionService {
     private final ObjectMapper objectMapper;
     private final RuntimeService runtimeService;
     private final HistoryService historyService;
+    private final ConfigSnapshotService configSnapshotService;
+    private final CaseAttributeIndexService caseAttributeIndexService;
 
     // Workflow Master CRUD
 
@@ -43,6 +45,8 @@ public class WorkflowDefinitionService {
         boolean isNew = workflow.getId() == null;
         WorkflowMaster saved = workflowRepository.save(workflow);
         logAudit("WorkflowMaster", saved.getId().toString(), isNew ? "CREATE" : "UPDATE", user, workflow);
+        caseAttributeIndexService.onIndexedAttributesChanged(saved.getWorkflowCode(), saved.getIndexedAttributes());
+        configSnapshotService.markChanged();
         return saved;
     }
 
@@ -93,6 +97,7 @@ public class WorkflowDefinitionService {
         workflowRepository.findByWorkflowCode(code).ifPresent(w -> {
             w.setStatus("DELETED");
             workflowRepository.save(w);
+            configSnapshotService.markChanged();
         });
     }
 
@@ -115,6 +120,7 @@ public class WorkflowDefinitionService {
         boolean isNew = stage.getId() == null;
         StageConfig saved = stageRepository.save(stage);
         logAudit("StageConfig", saved.getId().toString(), isNew ? "CREATE" : "UPDATE", user, stage);
+        configSnapshotService.markChanged();
         return saved;
     }
 
@@ -129,6 +135,7 @@ public class WorkflowDefinitionService {
         // Additional cleanup if needed (e.g. screen mappings)
         screenMappingRepository.deleteByStageCode(stageCode);
         stageRepository.delete(stage);
+        configSnapshotService.markChanged();
     }
 
     @Transactional
@@ -138,6 +145,7 @@ public class WorkflowDefinitionService {
         // Cleanup associated data
         screenMappingRepository.deleteByStageCode(stage.getStageCode());
         stageRepository.delete(stage);
+        configSnapshotService.markChanged();
     }
 
     // Screen Mapping CRUD
@@ -147,6 +155,7 @@ public class WorkflowDefinitionService {
         boolean isNew = mapping.getId() == null;
         ScreenMapping saved = screenMappingRepository.save(mapping);
         logAudit("ScreenMapping", saved.getId().toString(), isNew ? "CREATE" : "UPDATE", user, mapping);
+        configSnapshotService.markChanged();
         return saved;
     }
 
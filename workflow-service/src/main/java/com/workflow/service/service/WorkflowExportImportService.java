@@ -26,6 +26,8 @@ public class WorkflowExportImportService {
     private final StageConfigRepository stageRepository;
     private final SecurityUtils securityUtils;
     private final ObjectMapper objectMapper;
+    private final ConfigSnapshotService configSnapshotService;
+    private final CaseAttributeIndexService caseAttributeIndexService;
 
     public byte[] exportWorkflow(String workflowCode, boolean encrypted) {
         try {
@@ -104,12 +106,14 @@ public class WorkflowExportImportService {
                 masterToSave.setWorkflowName(importedWf.getWorkflowName());
                 masterToSave.setSlaDurationDays(importedWf.getSlaDurationDays());
                 masterToSave.setAssociatedModule(importedWf.getAssociatedModule());
+                masterToSave.setIndexedAttributes(importedWf.getIndexedAttributes());
                 // Preserve ID and Status? Assuming Import implies active unless specified
             } else {
                 masterToSave = importedWf;
                 masterToSave.setId(null); // Ensure new insert
             }
             workflowRepository.save(masterToSave);
+            caseAttributeIndexService.onIndexedAttributesChanged(code, masterToSave.getIndexedAttributes());
 
             // 2. Replace Stages
             // Delete existing stages to ensure we exactly match the imported config
@@ -133,6 +137,7 @@ public class WorkflowExportImportService {
                 }
             }
 
+            configSnapshotService.markChanged();
             log.info("Import successful for {}", code);
 
         } catch (Exception e) {
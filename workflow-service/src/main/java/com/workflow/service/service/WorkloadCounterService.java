@@ -0,0 +1,167 @@
+package com.workflow.service.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.engine.TaskService;
+import org.flowable.task.api.Task;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live count of open tasks per assignee, for the least-loaded assignment strategy.
+ * <p>
+ * {@link com.workflow.service.listener.WorkloadCounterListener} applies task assignments,
+ * completions and deletions as they happen inside the engine transaction, so tasks created
+ * earlier in the same transaction already count; a rollback undoes the change. Counts are
+ * seeded from the engine at startup and re-synced periodically so that changes made on
+ * other nodes converge.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkloadCounterService {
+
+    private final TaskService taskService;
+
+    private final Object lock = new Object();
+    // Guarded by lock; openByAssignee is also read without it
+    private final Map<String, String> assigneeByTask = new HashMap<>();
+    private final Map<String, Integer> openByAssignee = new ConcurrentHashMap<>();
+
+    // --- Event side (called inside the engine transaction) ---
+
+    public void onTaskAssigned(String taskId, String assignee) {
+        move(taskId, assignee);
+    }
+
+    public void onTaskRemoved(String taskId) {
+        move(taskId, null);
+    }
+
+    // --- Read side ---
+
+    public int openTasks(String userId) {
+        return openByAssignee.getOrDefault(userId, 0);
+    }
+
+    /**
+     * Picks the user with the lowest open tasks per unit of capacity and counts the task
+     * against them straight away, so concurrent picks see each other. Ties go to the first
+     * user in iteration order; users with a capacity of zero or less are skipped.
+     *
+     * @param capacityByUser candidates with their capacity, in tie-break order
+     * @return the chosen user, or {@code null} when no candidate has capacity
+     */
+    public String pickLeastLoaded(String taskId, Map<String, Double> capacityByUser) {
+        synchronized (lock) {
+            String chosen = null;
+            double chosenLoad = 0;
+            double chosenCapacity = 1;
+            for (Map.Entry<String, Double> candidate : capacityByUser.entrySet()) {
+                double capacity = candidate.getValue();
+                if (capacity <= 0) {
+                    continue;
+                }
+                double load = openTasks(candidate.getKey());
+                // load / capacity < chosenLoad / chosenCapacity, without the division
+                if (chosen == null || load * chosenCapacity < chosenLoad * capacity) {
+                    chosen = candidate.getKey();
+                    chosenLoad = load;
+                    chosenCapacity = capacity;
+                }
+            }
+            if (chosen != null) {
+                move(taskId, chosen);
+            }
+            return chosen;
+        }
+    }
+
+    // --- Maintenance ---
+
+    /**
+     * Replaces the counts with the engine's open assigned tasks.
+     *
+     * @return number of assigned open tasks counted
+     */
+    public int rebuild() {
+        Map<String, String> fresh = new HashMap<>();
+        for (Task task : taskService.createTaskQuery().active().taskAssigned().list()) {
+            fresh.put(task.getId(), task.getAssignee());
+        }
+        synchronized (lock) {
+            assigneeByTask.clear();
+            openByAssignee.clear();
+            fresh.forEach(this::apply);
+        }
+        log.debug("Workload counters rebuilt with {} assigned open tasks", fresh.size());
+        return fresh.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            int counted = rebuild();
+            log.info("Workload counters initialized with {} assigned open tasks", counted);
+        } catch (Exception e) {
+            log.error("Failed to initialize workload counters", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${workflow.workload-counters.resync-ms:300000}",
+            initialDelayString = "${workflow.workload-counters.resync-ms:300000}")
+    public void resync() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Failed to re-sync workload counters", e);
+        }
+    }
+
+    // --- Counter maintenance ---
+
+    private void move(String taskId, String assignee) {
+        String previous;
+        synchronized (lock) {
+            previous = apply(taskId, assignee);
+        }
+        if (!Objects.equals(previous, assignee) && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        synchronized (lock) {
+                            // Only if nothing (e.g. a re-sync) has moved the task since
+                            if (Objects.equals(assigneeByTask.get(taskId), assignee)) {
+                                apply(taskId, previous);
+                            }
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    // Caller holds lock; returns the previous assignee
+    private String apply(String taskId, String assignee) {
+        String previous = assignee != null ? assigneeByTask.put(taskId, assignee) : assigneeByTask.remove(taskId);
+        if (!Objects.equals(previous, assignee)) {
+            if (previous != null) {
+                openByAssignee.computeIfPresent(previous, (user, count) -> count > 1 ? count - 1 : null);
+            }
+            if (assignee != null) {
+                openByAssignee.merge(assignee, 1, Integer::sum);
+            }
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,480 @@
+package com.workflow.service.service;
+
+import com.workflow.service.dto.GroupWorkloadDTO;
+import com.workflow.service.dto.UserWorkloadDTO;
+import com.workflow.service.entity.TaskWorkloadProjection;
+import com.workflow.service.integration.UserAdapterClient;
+import com.workflow.service.repository.TaskWorkloadProjectionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.identitylink.api.IdentityLinkInfo;
+import org.flowable.identitylink.api.IdentityLinkType;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.flowable.task.api.Task;
+import org.flowable.task.api.TaskInfo;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read model for the workload endpoints.
+ * <p>
+ * {@link com.workflow.service.listener.WorkloadProjectionListener} keeps the
+ * {@code task_workload_projection} table in step with task lifecycle events inside the
+ * engine transaction; the in-memory index below is updated after commit, and rows written
+ * or removed on other nodes are picked up by a periodic incremental refresh.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkloadProjectionService {
+
+    private static final int MAX_IN_LIST = 500;
+    // How long after setting updatedAt a writer may still commit; the refresh re-reads this window
+    private static final Duration COMMIT_LAG = Duration.ofMinutes(1);
+
+    private final TaskWorkloadProjectionRepository projectionRepository;
+    private final TaskService taskService;
+    private final RuntimeService runtimeService;
+    private final UserAdapterClient userAdapterClient;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Object indexLock = new Object();
+    private volatile Index index = new Index();
+    private final java.util.concurrent.atomic.AtomicLong indexVersion = new java.util.concurrent.atomic.AtomicLong();
+    private volatile LocalDateTime lastRefresh;
+
+    // --- Event side (called inside the engine transaction) ---
+
+    public void onTaskChanged(TaskInfo task) {
+        TaskWorkloadProjection row = projectionRepository.findById(task.getId()).orElseGet(TaskWorkloadProjection::new);
+        row.setTaskId(task.getId());
+        row.setCaseId(task.getProcessInstanceId());
+        row.setProcessDefinitionId(task.getProcessDefinitionId());
+        row.setStageName(task.getName());
+        row.setStageCode(task.getTaskDefinitionKey());
+        row.setAssignee(task.getAssignee());
+        row.setCandidateGroups(joinGroups(candidateGroups(task.getIdentityLinks())));
+        row.setCreatedTime(toLocal(task.getCreateTime()));
+        row.setDueDate(toLocal(task.getDueDate()));
+        if (row.getWorkflowName() == null) {
+            row.setWorkflowName(resolveWorkflowName(task));
+        }
+        row.setUpdatedAt(now());
+        TaskWorkloadProjection saved = copyOf(projectionRepository.save(row));
+        afterCommit(() -> put(saved));
+    }
+
+    public void onCandidateGroupChanged(String taskId, String groupId, boolean added) {
+        projectionRepository.findById(taskId).ifPresent(row -> {
+            Set<String> groups = splitGroups(row.getCandidateGroups());
+            boolean changed = added ? groups.add(groupId) : groups.remove(groupId);
+            if (changed) {
+                row.setCandidateGroups(joinGroups(groups));
+                row.setUpdatedAt(now());
+                TaskWorkloadProjection saved = copyOf(projectionRepository.save(row));
+                afterCommit(() -> put(saved));
+            }
+        });
+    }
+
+    public void onTaskStatusChanged(String taskId, String status) {
+        projectionRepository.findById(taskId).ifPresent(row -> {
+            if (!java.util.Objects.equals(row.getStatus(), status)) {
+                row.setStatus(status);
+                row.setUpdatedAt(now());
+                TaskWorkloadProjection saved = copyOf(projectionRepository.save(row));
+                afterCommit(() -> put(saved));
+            }
+        });
+    }
+
+    public java.util.Optional<TaskWorkloadProjection> findOpenTask(String taskId) {
+        return projectionRepository.findById(taskId);
+    }
+
+    public void onTaskRemoved(String taskId) {
+        projectionRepository.deleteById(taskId);
+        afterCommit(() -> remove(taskId));
+    }
+
+    // --- Read side ---
+
+    public List<UserWorkloadDTO> getUserWorkload() {
+        Index current = index;
+        if (current.byAssignee.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<String, String> userNames = userAdapterClient.searchUsers(new ArrayList<>(current.byAssignee.keySet()));
+
+        List<UserWorkloadDTO> result = new ArrayList<>();
+        current.byAssignee.forEach((userId, tasks) -> {
+            if (tasks.isEmpty()) {
+                return;
+            }
+            List<UserWorkloadDTO.TaskSummaryDTO> summaries = sortedSummaries(tasks.values());
+            result.add(UserWorkloadDTO.builder()
+                    .userId(userId)
+                    .userName(userNames.getOrDefault(userId, userId))
+                    .pendingCount(summaries.size())
+                    .tasks(summaries)
+                    .build());
+        });
+
+        // Sort by pending count desc
+        result.sort((a, b) -> Integer.compare(b.getPendingCount(), a.getPendingCount()));
+        return result;
+    }
+
+    public List<GroupWorkloadDTO> getGroupWorkload(List<String> groupIds) {
+        if (groupIds == null || groupIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Index current = index;
+        List<GroupWorkloadDTO> result = new ArrayList<>();
+        for (String groupId : groupIds) {
+            Map<String, TaskWorkloadProjection> tasks = current.unassignedByGroup.getOrDefault(groupId, Map.of());
+            com.workflow.service.util.LogHelper.logGroupQuery(groupId, tasks.size());
+
+            List<UserWorkloadDTO.TaskSummaryDTO> summaries = sortedSummaries(tasks.values());
+            result.add(GroupWorkloadDTO.builder()
+                    .groupId(groupId)
+                    .groupName(groupId) // Use ID as name for now
+                    .pendingCount(summaries.size())
+                    .tasks(summaries)
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * Open assigned tasks grouped by assignee, as of the returned {@link #version()}.
+     * Rows are detached copies; callers must not modify them.
+     */
+    public Map<String, List<TaskWorkloadProjection>> openTasksByAssignee() {
+        Map<String, List<TaskWorkloadProjection>> result = new java.util.HashMap<>();
+        index.byAssignee.forEach((userId, tasks) -> result.put(userId, List.copyOf(tasks.values())));
+        return result;
+    }
+
+    /**
+     * Unassigned open tasks grouped by candidate group (the group queues), as of the
+     * returned {@link #version()}. Rows are detached copies; callers must not modify them.
+     */
+    public Map<String, List<TaskWorkloadProjection>> unassignedTasksByGroup() {
+        Map<String, List<TaskWorkloadProjection>> result = new java.util.HashMap<>();
+        index.unassignedByGroup.forEach((groupId, tasks) -> result.put(groupId, List.copyOf(tasks.values())));
+        return result;
+    }
+
+    /**
+     * Changes whenever the in-memory index changes; lets derived views cache their output.
+     */
+    public long version() {
+        return indexVersion.get();
+    }
+
+    // --- Maintenance ---
+
+    /**
+     * Recovery: discards the projection and rebuilds it from the engine's open tasks.
+     *
+     * @return number of tasks projected
+     */
+    public int rebuild() {
+        LocalDateTime started = now();
+        List<TaskWorkloadProjection> rows = transactionTemplate.execute(status -> {
+            List<Task> tasks = taskService.createTaskQuery().active().includeTaskLocalVariables()
+                    .includeIdentityLinks().list();
+            Map<String, String> workflowNames = workflowNames(tasks);
+            List<TaskWorkloadProjection> fresh = new ArrayList<>();
+            for (Task task : tasks) {
+                TaskWorkloadProjection row = new TaskWorkloadProjection();
+                row.setTaskId(task.getId());
+                row.setCaseId(task.getProcessInstanceId());
+                row.setProcessDefinitionId(task.getProcessDefinitionId());
+                row.setStageName(task.getName());
+                row.setStageCode(task.getTaskDefinitionKey());
+                row.setAssignee(task.getAssignee());
+                Object taskStatus = task.getTaskLocalVariables().get("status");
+                row.setStatus(taskStatus != null ? taskStatus.toString() : null);
+                row.setCandidateGroups(joinGroups(candidateGroups(task.getIdentityLinks())));
+                row.setCreatedTime(toLocal(task.getCreateTime()));
+                row.setDueDate(toLocal(task.getDueDate()));
+                row.setWorkflowName(workflowNames.getOrDefault(task.getProcessInstanceId(),
+                        task.getProcessDefinitionId().split(":")[0]));
+                row.setUpdatedAt(started);
+                fresh.add(row);
+            }
+            projectionRepository.deleteAllInBatch();
+            return projectionRepository.saveAll(fresh);
+        });
+        synchronized (indexLock) {
+            index = Index.of(rows.stream().map(WorkloadProjectionService::copyOf).toList());
+            indexVersion.incrementAndGet();
+        }
+        lastRefresh = started;
+        log.info("Workload projection rebuilt with {} open tasks", rows.size());
+        return rows.size();
+    }
+
+    // The "workflowName" process variable of each task's case, one query per batch of cases
+    private Map<String, String> workflowNames(List<Task> tasks) {
+        List<String> caseIds = tasks.stream().map(Task::getProcessInstanceId).distinct().toList();
+        Map<String, String> names = new HashMap<>();
+        for (int start = 0; start < caseIds.size(); start += MAX_IN_LIST) {
+            runtimeService.createVariableInstanceQuery()
+                    .executionIds(new HashSet<>(caseIds.subList(start, Math.min(start + MAX_IN_LIST, caseIds.size()))))
+                    .variableName("workflowName")
+                    .excludeTaskVariables()
+                    .list()
+                    .forEach(v -> {
+                        if (v.getValue() != null) {
+                            names.put(v.getExecutionId(), v.getValue().toString());
+                        }
+                    });
+        }
+        return names;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (projectionRepository.count() == 0 && taskService.createTaskQuery().active().count() > 0) {
+                log.info("Workload projection is empty but open tasks exist, rebuilding");
+                rebuild();
+            } else {
+                refresh();
+            }
+        } catch (Exception e) {
+            log.error("Failed to initialize workload projection", e);
+        }
+    }
+
+    /**
+     * Picks up changes made on other nodes: rows written since the previous refresh (plus
+     * {@link #COMMIT_LAG}) are re-read and tasks whose row is gone are dropped. Only the
+     * first refresh loads the whole table. A task committed locally while a refresh runs
+     * may briefly drop out of the index; the next refresh restores it.
+     */
+    @Scheduled(fixedDelayString = "${workflow.workload-projection.refresh-ms:30000}",
+            initialDelayString = "${workflow.workload-projection.refresh-ms:30000}")
+    public void refresh() {
+        LocalDateTime started = LocalDateTime.now();
+        LocalDateTime since = lastRefresh;
+        if (since == null) {
+            List<TaskWorkloadProjection> rows = projectionRepository.findAll();
+            synchronized (indexLock) {
+                index = Index.of(rows);
+                indexVersion.incrementAndGet();
+            }
+        } else {
+            Set<String> open = new HashSet<>(projectionRepository.findAllTaskIds());
+            List<TaskWorkloadProjection> changed = projectionRepository.findByUpdatedAtAfter(since.minus(COMMIT_LAG));
+            synchronized (indexLock) {
+                List<String> gone = index.byTaskId.keySet().stream().filter(id -> !open.contains(id)).toList();
+                gone.forEach(index::remove);
+                boolean modified = !gone.isEmpty();
+                for (TaskWorkloadProjection row : changed) {
+                    if (!row.equals(index.byTaskId.get(row.getTaskId()))) {
+                        index.remove(row.getTaskId());
+                        index.add(row);
+                        modified = true;
+                    }
+                }
+                if (modified) {
+                    indexVersion.incrementAndGet();
+                }
+            }
+        }
+        lastRefresh = started;
+    }
+
+    // --- Index maintenance ---
+
+    private void put(TaskWorkloadProjection row) {
+        synchronized (indexLock) {
+            index.remove(row.getTaskId());
+            index.add(row);
+            indexVersion.incrementAndGet();
+        }
+    }
+
+    private void remove(String taskId) {
+        synchronized (indexLock) {
+            index.remove(taskId);
+            indexVersion.incrementAndGet();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // The index must not share instances with a persistence context that may still change them
+    private static TaskWorkloadProjection copyOf(TaskWorkloadProjection row) {
+        TaskWorkloadProjection copy = new TaskWorkloadProjection();
+        copy.setTaskId(row.getTaskId());
+        copy.setCaseId(row.getCaseId());
+        copy.setProcessDefinitionId(row.getProcessDefinitionId());
+        copy.setStageName(row.getStageName());
+        copy.setStageCode(row.getStageCode());
+        copy.setWorkflowName(row.getWorkflowName());
+        copy.setAssignee(row.getAssignee());
+        copy.setStatus(row.getStatus());
+        copy.setCandidateGroups(row.getCandidateGroups());
+        copy.setCreatedTime(row.getCreatedTime());
+        copy.setDueDate(row.getDueDate());
+        copy.setUpdatedAt(row.getUpdatedAt());
+        return copy;
+    }
+
+    // The case's "workflowName" variable, as in rebuild(). Read from the process instance, which
+    // the engine already holds, rather than through the new task (one task-local query each)
+    private String resolveWorkflowName(TaskInfo task) {
+        try {
+            if (task.getProcessInstanceId() != null) {
+                Object name = runtimeService.getVariable(task.getProcessInstanceId(), "workflowName");
+                if (name != null) {
+                    return name.toString();
+                }
+            }
+        } catch (Exception e) {
+            // fall back to key
+        }
+        return task.getProcessDefinitionId() != null ? task.getProcessDefinitionId().split(":")[0] : null;
+    }
+
+    private static Set<String> candidateGroups(Collection<? extends IdentityLinkInfo> links) {
+        Set<String> groups = new LinkedHashSet<>();
+        if (links != null) {
+            for (IdentityLinkInfo link : links) {
+                if (IdentityLinkType.CANDIDATE.equals(link.getType()) && link.getGroupId() != null) {
+                    groups.add(link.getGroupId());
+                }
+            }
+        }
+        return groups;
+    }
+
+    private static Set<String> splitGroups(String groups) {
+        Set<String> result = new LinkedHashSet<>();
+        if (groups != null && !groups.isEmpty()) {
+            Collections.addAll(result, groups.split(","));
+        }
+        return result;
+    }
+
+    private static String joinGroups(Set<String> groups) {
+        return groups.isEmpty() ? null : String.join(",", groups);
+    }
+
+    // Millisecond precision survives the database round trip, so refreshed rows compare equal
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(java.time.temporal.ChronoUnit.MILLIS);
+    }
+
+    private static LocalDateTime toLocal(Date date) {
+        return date != null ? LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()) : null;
+    }
+
+    private static List<UserWorkloadDTO.TaskSummaryDTO> sortedSummaries(Collection<TaskWorkloadProjection> rows) {
+        return rows.stream()
+                .sorted(Comparator.comparing(TaskWorkloadProjection::getCreatedTime,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .map(r -> UserWorkloadDTO.TaskSummaryDTO.builder()
+                        .taskId(r.getTaskId())
+                        .caseId(r.getCaseId())
+                        .stageName(r.getStageName())
+                        .stageCode(r.getStageCode())
+                        .createdTime(r.getCreatedTime())
+                        .dueDate(r.getDueDate())
+                        .workflowName(r.getWorkflowName())
+                        .build())
+                .collect(java.util.stream.Collectors.toList());
+    }
+
+    /**
+     * Open tasks keyed by assignee, and unassigned tasks keyed by candidate group
+     * (the same set a group queue shows). Mutated only under {@code indexLock}.
+     */
+    private static class Index {
+        final Map<String, TaskWorkloadProjection> byTaskId = new ConcurrentHashMap<>();
+        final Map<String, Map<String, TaskWorkloadProjection>> byAssignee = new ConcurrentHashMap<>();
+        final Map<String, Map<String, TaskWorkloadProjection>> unassignedByGroup = new ConcurrentHashMap<>();
+
+        static Index of(Collection<TaskWorkloadProjection> rows) {
+            Index index = new Index();
+            rows.forEach(index::add);
+            return index;
+        }
+
+        void add(TaskWorkloadProjection row) {
+            byTaskId.put(row.getTaskId(), row);
+            if (row.getAssignee() != null) {
+                byAssignee.computeIfAbsent(row.getAssignee(), k -> new ConcurrentHashMap<>()).put(row.getTaskId(), row);
+            } else {
+                for (String group : splitGroups(row.getCandidateGroups())) {
+                    unassignedByGroup.computeIfAbsent(group, k -> new ConcurrentHashMap<>()).put(row.getTaskId(), row);
+                }
+            }
+        }
+
+        void remove(String taskId) {
+            TaskWorkloadProjection row = byTaskId.remove(taskId);
+            if (row == null) {
+                return;
+            }
+            if (row.getAssignee() != null) {
+                removeFrom(byAssignee, row.getAssignee(), taskId);
+            } else {
+                for (String group : splitGroups(row.getCandidateGroups())) {
+                    removeFrom(unassignedByGroup, group, taskId);
+                }
+            }
+        }
+
+        private static void removeFrom(Map<String, Map<String, TaskWorkloadProjection>> map, String key,
+                String taskId) {
+            Map<String, TaskWorkloadProjection> tasks = map.get(key);
+            if (tasks != null) {
+                tasks.remove(taskId);
+                if (tasks.isEmpty()) {
+                    map.remove(key);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.workflow.service.solver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batch task assignment as a small constraint problem, after the model in
+ * {@code _Project_Features/AI_Timefold_Integration.md}: tasks are the planning entities,
+ * users the values, existing open tasks per user are fixed facts.
+ * <ul>
+ *     <li>hard: every task is assigned to one of its eligible users (-1 per task without any)</li>
+ *     <li>soft: balanced workload, the sum of squared open tasks per user (penalized)</li>
+ * </ul>
+ * Solved with a construction heuristic (most urgent and most constrained task first, to the
+ * least loaded eligible user) followed by change-move hill climbing until no move improves
+ * the score or the time budget runs out. Stateless and thread-safe.
+ */
+public final class AssignmentSolver {
+
+    /**
+     * A task to assign. {@code eligibleUsers} is the hard constraint; {@code rank} orders
+     * construction (lower first, e.g. by due date).
+     */
+    public record PlanningTask(String taskId, List<String> eligibleUsers, long rank) {
+    }
+
+    public record Score(long hard, long soft) implements Comparable<Score> {
+        @Override
+        public int compareTo(Score other) {
+            return hard != other.hard ? Long.compare(hard, other.hard) : Long.compare(soft, other.soft);
+        }
+
+        @Override
+        public String toString() {
+            return hard + "hard/" + soft + "soft";
+        }
+    }
+
+    /**
+     * @param assignments task id to user id, for every task that has an eligible user
+     * @param unassignable tasks without any eligible user
+     * @param movesApplied improving moves applied after construction
+     * @param budgetExhausted whether local search was cut short by the time budget
+     */
+    public record Solution(Map<String, String> assignments, List<String> unassignable, Score score,
+            int movesApplied, boolean budgetExhausted) {
+    }
+
+    private AssignmentSolver() {
+    }
+
+    /**
+     * @param tasks      the tasks to plan
+     * @param openTasks  current open tasks per user, not part of this batch
+     * @param timeBudget upper bound for local search; construction always completes
+     */
+    public static Solution solve(List<PlanningTask> tasks, Map<String, Integer> openTasks, Duration timeBudget) {
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        Map<String, Integer> load = new HashMap<>(openTasks);
+
+        // Construction: urgent first, then the tasks with the fewest options
+        List<PlanningTask> order = new ArrayList<>(tasks);
+        order.sort(Comparator.comparingLong(PlanningTask::rank)
+                .thenComparingInt(t -> t.eligibleUsers().size())
+                .thenComparing(PlanningTask::taskId));
+        Map<String, String> assignments = new LinkedHashMap<>();
+        List<String> unassignable = new ArrayList<>();
+        List<PlanningTask> assigned = new ArrayList<>();
+        for (PlanningTask task : order) {
+            String user = leastLoaded(task.eligibleUsers(), load, null);
+            if (user == null) {
+                unassignable.add(task.taskId());
+                continue;
+            }
+            assignments.put(task.taskId(), user);
+            load.merge(user, 1, Integer::sum);
+            assigned.add(task);
+        }
+
+        // Local search: move a task to a less loaded eligible user while that strictly helps.
+        // Moving from u to v changes the soft score by 2 * (load(u) - load(v) - 1).
+        int moves = 0;
+        boolean improved = true;
+        boolean budgetExhausted = false;
+        while (improved && !budgetExhausted) {
+            improved = false;
+            for (PlanningTask task : assigned) {
+                if (System.nanoTime() > deadline) {
+                    budgetExhausted = true;
+                    break;
+                }
+                String from = assignments.get(task.taskId());
+                String to = leastLoaded(task.eligibleUsers(), load, from);
+                if (to != null && load.getOrDefault(from, 0) - load.getOrDefault(to, 0) > 1) {
+                    assignments.put(task.taskId(), to);
+                    load.merge(from, -1, Integer::sum);
+                    load.merge(to, 1, Integer::sum);
+                    moves++;
+                    improved = true;
+                }
+            }
+        }
+
+        // Scored over the users this batch can touch
+        Set<String> users = new HashSet<>();
+        tasks.forEach(t -> users.addAll(t.eligibleUsers()));
+        long soft = 0;
+        for (String user : users) {
+            long l = load.getOrDefault(user, 0);
+            soft -= l * l;
+        }
+        return new Solution(assignments, Collections.unmodifiableList(unassignable),
+                new Score(-unassignable.size(), soft), moves, budgetExhausted);
+    }
+
+    // Lowest load, ties to the lowest id; skips one user (the current value of a move)
+    private static String leastLoaded(List<String> users, Map<String, Integer> load, String except) {
+        String best = null;
+        int bestLoad = Integer.MAX_VALUE;
+        for (String user : users) {
+            if (user.equals(except)) {
+                continue;
+            }
+            int l = load.getOrDefault(user, 0);
+            if (l < bestLoad || (l == bestLoad && user.compareTo(best) < 0)) {
+                best = user;
+                bestLoad = l;
+            }
+        }
+        return best;
+    }
+}
@@ -2,10 +2,12 @@ package com.workflow.service.util;
 
 import com.workflow.service.entity.StageConfig;
 import com.workflow.service.repository.StageConfigRepository;
+import com.workflow.service.service.ConfigSnapshotService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -16,10 +18,20 @@ import java.util.stream.Collectors;
 public class FixDuplicates implements CommandLineRunner {
 
     private final StageConfigRepository stageRepository;
+    private final ConfigSnapshotService configSnapshotService;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public void run(String... args) throws Exception {
         log.info("Checking for duplicate stages...");
+        transactionTemplate.executeWithoutResult(status -> {
+            if (fixRatingS2()) {
+                configSnapshotService.markChanged();
+            }
+        });
+    }
+
+    private boolean fixRatingS2() {
         // Specifically fix Rating s2
         List<StageConfig> stages = stageRepository.findByWorkflowCodeOrderBySequenceOrderAsc("Rating");
         List<StageConfig> s2Stages = stages.stream()
@@ -54,8 +66,10 @@ public class FixDuplicates implements CommandLineRunner {
                     log.info("Deleted duplicate stage {}", s.getId());
                 }
             }
+            return true;
         } else {
             log.info("No duplicates found for Rating s2.");
+            return false;
         }
     }
 }
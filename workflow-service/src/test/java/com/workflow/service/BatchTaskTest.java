@@ -0,0 +1,87 @@
+package com.workflow.service;
+
+import com.workflow.service.dto.BatchTaskResultDTO;
+import com.workflow.service.service.BatchTaskService;
+import com.workflow.service.service.CaseService;
+import org.flowable.engine.HistoryService;
+import org.flowable.engine.TaskService;
+import org.flowable.task.api.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.workflow.service.TestWorkflows.stage;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class BatchTaskTest {
+
+    private static final String WORKFLOW_CODE = "BATCH_TASK_TEST_001";
+
+    @Autowired
+    private TestWorkflows testWorkflows;
+
+    @Autowired
+    private BatchTaskService batchTaskService;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private HistoryService historyService;
+
+    @AfterEach
+    public void cleanup() {
+        testWorkflows.cleanup(WORKFLOW_CODE);
+    }
+
+    @Test
+    public void testBatchClaimAndComplete() {
+        deployWorkflow();
+        for (int i = 0; i < 4; i++) {
+            caseService.initiateCase(WORKFLOW_CODE, null, "test-user");
+        }
+        List<String> taskIds = new ArrayList<>(taskService.createTaskQuery().processDefinitionKey(WORKFLOW_CODE)
+                .list().stream().map(Task::getId).toList());
+
+        // Claim all but report the unknown task
+        List<String> claimIds = new ArrayList<>(taskIds);
+        claimIds.add("missing-task");
+        BatchTaskResultDTO claimed = batchTaskService.claimTasks(claimIds, "dave");
+        assertThat(claimed.getSucceeded()).isEqualTo(4);
+        assertThat(claimed.getFailures()).extracting(BatchTaskResultDTO.TaskFailureDTO::getTaskId)
+                .containsExactly("missing-task");
+        assertThat(taskService.createTaskQuery().taskAssignee("dave").count()).isEqualTo(4);
+
+        // Claiming again fails per task, not for the batch
+        BatchTaskResultDTO reclaimed = batchTaskService.claimTasks(taskIds.subList(0, 2), "erin");
+        assertThat(reclaimed.getFailed()).isEqualTo(2);
+
+        // Invalid outcome is rejected for the whole stage without touching the tasks
+        BatchTaskResultDTO invalid = batchTaskService.completeTasks(taskIds, Map.of("outcome", "MAYBE"), "dave");
+        assertThat(invalid.getFailed()).isEqualTo(4);
+        assertThat(invalid.getFailures().get(0).getError()).contains("Invalid outcome");
+
+        BatchTaskResultDTO completed = batchTaskService.completeTasks(taskIds, Map.of("outcome", "APPROVE"), "dave");
+        assertThat(completed.getSucceeded()).isEqualTo(4);
+        assertThat(completed.getFailed()).isZero();
+        assertThat(historyService.createHistoricVariableInstanceQuery().taskIds(new java.util.HashSet<>(taskIds))
+                .variableName("outcome").list())
+                .hasSize(4)
+                .allMatch(v -> "APPROVE".equals(v.getValue()));
+    }
+
+    private void deployWorkflow() {
+        testWorkflows.deploy(WORKFLOW_CODE, "Batch Task Test Flow",
+                stage("BATCH_STAGE_1", "Approval").action("APPROVE", "NEXT"),
+                stage("BATCH_STAGE_2", "Follow-up"));
+    }
+}
@@ -0,0 +1,132 @@
+package com.workflow.service;
+
+import com.workflow.service.dto.BulkJobDTO;
+import com.workflow.service.dto.InitiateCaseRequest;
+import com.workflow.service.service.BulkCaseInitiationService;
+import org.flowable.engine.ManagementService;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.workflow.service.TestWorkflows.stage;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class BulkCaseInitiationTest {
+
+    private static final String WORKFLOW_CODE = "BULK_TEST_001";
+
+    @Autowired
+    private TestWorkflows testWorkflows;
+
+    @Autowired
+    private BulkCaseInitiationService bulkCaseInitiationService;
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private ManagementService managementService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    public void cleanup() {
+        testWorkflows.cleanup(WORKFLOW_CODE);
+    }
+
+    @Test
+    public void testBulkInitiationReportsPerItemResults() throws Exception {
+        deployWorkflow();
+
+        List<InitiateCaseRequest> items = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            InitiateCaseRequest item = new InitiateCaseRequest();
+            item.setWorkflowCode(i == 13 ? "NO_SUCH_WORKFLOW" : WORKFLOW_CODE);
+            item.setCorrelationId("REF-" + i);
+            item.setVariables(Map.of("amount", i));
+            items.add(item);
+        }
+
+        BulkJobDTO job = bulkCaseInitiationService.submit(items, 10);
+        for (int i = 0; i < 100 && job.getFinishedAt() == null; i++) {
+            Thread.sleep(100);
+            job = bulkCaseInitiationService.getJob(job.getJobId(), true);
+        }
+
+        assertThat(job.getStatus()).isEqualTo("COMPLETED_WITH_ERRORS");
+        assertThat(job.getSucceeded()).isEqualTo(24);
+        assertThat(job.getFailed()).isEqualTo(1);
+        assertThat(job.getResults()).filteredOn(r -> "FAILED".equals(r.getStatus()))
+                .extracting(BulkJobDTO.BulkItemResultDTO::getCorrelationId)
+                .containsExactly("REF-13");
+        assertThat(runtimeService.createProcessInstanceQuery().processDefinitionKey(WORKFLOW_CODE).count())
+                .isEqualTo(24);
+    }
+
+    @Test
+    public void testConcurrentSubmitsAreAdmittedWholeOrRejected() throws Exception {
+        // 2 workers, room for 8 chunks, 1 item per chunk: most of the 16 batches must be turned away
+        BulkCaseInitiationService service = new BulkCaseInitiationService(runtimeService, repositoryService,
+                managementService, transactionManager, 2, 8, 1, 60);
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        try {
+            List<Callable<BulkJobDTO>> submits = new ArrayList<>();
+            for (int c = 0; c < 16; c++) {
+                List<InitiateCaseRequest> items = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    InitiateCaseRequest item = new InitiateCaseRequest();
+                    item.setWorkflowCode("NO_SUCH_WORKFLOW");
+                    items.add(item);
+                }
+                submits.add(() -> service.submit(items, null));
+            }
+
+            List<BulkJobDTO> accepted = new ArrayList<>();
+            int rejected = 0;
+            for (Future<BulkJobDTO> f : clients.invokeAll(submits)) {
+                try {
+                    accepted.add(f.get());
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+                    rejected++;
+                }
+            }
+
+            assertThat(accepted).isNotEmpty();
+            assertThat(accepted.size() + rejected).isEqualTo(16);
+            for (BulkJobDTO job : accepted) {
+                for (int i = 0; i < 100 && job.getFinishedAt() == null; i++) {
+                    Thread.sleep(50);
+                    job = service.getJob(job.getJobId(), false);
+                }
+                assertThat(job.getFinishedAt()).isNotNull();
+                assertThat(job.getFailed()).isEqualTo(4);
+            }
+        } finally {
+            clients.shutdown();
+            service.shutdown();
+        }
+    }
+
+    private void deployWorkflow() {
+        testWorkflows.deploy(WORKFLOW_CODE, "Bulk Test Flow", stage("BULK_STAGE_1", "Intake"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.workflow.service;
+
+import com.workflow.service.dto.BulkDeploymentDTO;
+import com.workflow.service.dto.BulkDeploymentDTO.WorkflowDeploymentResultDTO;
+import com.workflow.service.repository.StageConfigRepository;
+import com.workflow.service.service.BulkDeploymentService;
+import org.flowable.engine.RepositoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.workflow.service.TestWorkflows.stage;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class BulkDeploymentTest {
+
+    private static final String CHILD = "BULK_CHILD";
+    private static final String PARENT = "BULK_PARENT";
+    private static final String GRANDPARENT = "BULK_GRANDPARENT";
+    private static final String CYCLE_A = "BULK_CYCLE_A";
+    private static final String CYCLE_B = "BULK_CYCLE_B";
+    private static final List<String> CODES = List.of(CHILD, PARENT, GRANDPARENT, CYCLE_A, CYCLE_B);
+
+    @Autowired
+    private TestWorkflows testWorkflows;
+
+    @Autowired
+    private BulkDeploymentService bulkDeploymentService;
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private StageConfigRepository stageConfigRepository;
+
+    @AfterEach
+    public void cleanup() {
+        testWorkflows.cleanup(CODES);
+    }
+
+    @Test
+    public void testDeploysNestedWorkflowsBeforeCallers() {
+        define(CHILD, stage("CHILD_REVIEW", "Review"));
+        define(PARENT, stage("PARENT_REVIEW", "Review"), stage("PARENT_CALL", "Call").nested(CHILD));
+        define(GRANDPARENT, stage("GP_CALL", "Call").nested(PARENT));
+        // saveStage rejects cycles, so create this one behind its back
+        define(CYCLE_A);
+        define(CYCLE_B);
+        stageConfigRepository.save(stage("CYCLE_A_CALL", "Call").nested(CYCLE_B).toStage(CYCLE_A, 1));
+        stageConfigRepository.save(stage("CYCLE_B_CALL", "Call").nested(CYCLE_A).toStage(CYCLE_B, 1));
+
+        Map<String, WorkflowDeploymentResultDTO> first = byCode(bulkDeploymentService.deployAll());
+
+        assertThat(first.get(CHILD).getStatus()).isEqualTo("DEPLOYED");
+        assertThat(first.get(PARENT).getStatus()).isEqualTo("DEPLOYED");
+        assertThat(first.get(GRANDPARENT).getStatus()).isEqualTo("DEPLOYED");
+        assertThat(first.get(CHILD).getLevel()).isLessThan(first.get(PARENT).getLevel());
+        assertThat(first.get(PARENT).getLevel()).isLessThan(first.get(GRANDPARENT).getLevel());
+        assertThat(first.get(CYCLE_A).getStatus()).isEqualTo("FAILED");
+        assertThat(first.get(CYCLE_B).getLevel()).isEqualTo(-1);
+
+        // Nothing changed: no new versions
+        Map<String, WorkflowDeploymentResultDTO> second = byCode(bulkDeploymentService.deployAll());
+        assertThat(second.get(PARENT).getStatus()).isEqualTo("UNCHANGED");
+        assertThat(second.get(PARENT).getDeploymentId()).isEqualTo(first.get(PARENT).getDeploymentId());
+        assertThat(repositoryService.createProcessDefinitionQuery().processDefinitionKey(PARENT).count()).isEqualTo(1);
+    }
+
+    private Map<String, WorkflowDeploymentResultDTO> byCode(BulkDeploymentDTO report) {
+        return report.getResults().stream()
+                .collect(Collectors.toMap(WorkflowDeploymentResultDTO::getWorkflowCode, Function.identity()));
+    }
+
+    private void define(String code, TestWorkflows.StageSpec... stages) {
+        testWorkflows.define(TestWorkflows.workflow(code, "Bulk Deploy " + code), stages);
+    }
+}
@@ -0,0 +1,92 @@
+package com.workflow.service;
+
+import com.workflow.service.dto.BulkJobDTO;
+import com.workflow.service.dto.InitiateCaseRequest;
+import com.workflow.service.service.BulkCaseInitiationService;
+import com.workflow.service.service.CaseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.workflow.service.TestWorkflows.stage;
+
+/**
+ * Case initiation throughput of one request per case against a bulk job.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@SpringBootTest
+@Tag("benchmark")
+public class BulkInitiationBenchmarkTest {
+
+    private static final String WORKFLOW_CODE = "BULK_BENCH_001";
+    private static final int WARMUP = 200;
+    private static final int CASES = 2000;
+
+    @Autowired
+    private TestWorkflows testWorkflows;
+
+    @Autowired
+    private BulkCaseInitiationService bulkCaseInitiationService;
+
+    @Autowired
+    private CaseService caseService;
+
+    @AfterEach
+    public void cleanup() {
+        testWorkflows.cleanup(WORKFLOW_CODE);
+    }
+
+    @Test
+    public void compareInitiationThroughput() throws InterruptedException {
+        deployWorkflow();
+
+        initiateOneByOne(WARMUP);
+        initiateInBulk(WARMUP);
+
+        double oneByOne = initiateOneByOne(CASES);
+        double bulk = initiateInBulk(CASES);
+        System.out.printf("[benchmark] one-by-one n=%d %.0f cases/s%n", CASES, oneByOne);
+        System.out.printf("[benchmark] bulk       n=%d %.0f cases/s (%.1fx)%n", CASES, bulk, bulk / oneByOne);
+    }
+
+    private double initiateOneByOne(int count) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            caseService.initiateCase(WORKFLOW_CODE, new HashMap<>(Map.of("amount", i)), "bench");
+        }
+        return count / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private double initiateInBulk(int count) throws InterruptedException {
+        List<InitiateCaseRequest> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            InitiateCaseRequest item = new InitiateCaseRequest();
+            item.setWorkflowCode(WORKFLOW_CODE);
+            item.setUserId("bench");
+            item.setVariables(Map.of("amount", i));
+            items.add(item);
+        }
+        long start = System.nanoTime();
+        BulkJobDTO job = bulkCaseInitiationService.submit(items, null);
+        while (job.getFinishedAt() == null) {
+            Thread.sleep(5);
+            job = bulkCaseInitiationService.getJob(job.getJobId(), false);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (job.getFailed() > 0) {
+            throw new AssertionError("Bulk job had failures: " + job.getFailed());
+        }
+        return count / (elapsed / 1e9);
+    }
+
+    private void deployWorkflow() {
+        testWorkflows.deploy(WORKFLOW_CODE, "Bulk Initiation Benchmark Flow", stage("BULK_BENCH_STAGE_1", "Intake"));
+    }
+}
@@ -0,0 +1,205 @@
+package com.workflow.service;
+
+import com.workflow.service.dto.CaseDTO;
+import com.workflow.service.dto.StageDTO;
+import com.workflow.service.entity.WorkflowMaster;
+import com.workflow.service.repository.CaseAttributeRepository;
+import com.workflow.service.repository.WorkflowMasterRepository;
+import com.workflow.service.service.CaseAttributeIndexService;
+import com.workflow.service.service.CaseService;
+import com.workflow.service.service.VariableSelection;
+import com.workflow.service.service.WorkflowDefinitionService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.workflow.service.TestWorkflows.stage;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class CaseAttributeIndexTest {
+
+    private static final String WORKFLOW_CODE = "CASE_INDEX_TEST_001";
+
+    @Autowired
+    private TestWorkflows testWorkflows;
+
+    @Autowired
+    private WorkflowDefinitionService workflowService;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private CaseAttributeIndexService caseAttributeIndexService;
+
+    @Autowired
+    private CaseAttributeRepository caseAttributeRepository;
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private WorkflowMasterRepository workflowMasterRepository;
+
+    @AfterEach
+    public void cleanup() {
+        testWorkflows.cleanup(WORKFLOW_CODE);
+    }
+
+    @Test
+    public void testIndexFollowsVariablesAndServesSearches() {
+        deployWorkflow();
+        String first = caseService.initiateCase(WORKFLOW_CODE, vars("CP-IDX-1", "NORTH"), "alice");
+        String second = caseService.initiateCase(WORKFLOW_CODE, vars("CP-IDX-2", "SOUTH"), "bob");
+
+        assertThat(attributes(first)).containsEntry("initiator", "alice")
+                .containsEntry("cp_id", "CP-IDX-1")
+                .containsEntry("region", "NORTH")
+                .doesNotContainKey("note");
+
+        // Updates are reflected in place
+        runtimeService.setVariable(second, "region", "WEST");
+        assertThat(attributes(second)).containsEntry("region", "WEST");
+        assertThat(caseAttributeIndexService.findCaseIds(Map.of("region", "WEST"))).containsExactly(second);
+
+        List<CaseDTO> byCp = caseService.getAllActiveCases(WORKFLOW_CODE, null, "CP-IDX-1", null);
+        assertThat(byCp).extracting(CaseDTO::getCaseId).containsExactly(first);
+        assertThat(caseService.getAllActiveCases(null, "bob", "CP-IDX-1", null)).isEmpty();
+        assertThat(caseService.getActiveCasesPage(null, "bob", null, null, null, 50).getItems())
+                .extracting(CaseDTO::getCaseId).contains(second).doesNotContain(first);
+
+        // Ended cases stay searchable for task history
+        String taskId = taskService.createTaskQuery().processInstanceId(first).singleResult().getId();
+        caseService.completeTask(taskId, new HashMap<>(), "dave");
+        assertThat(runtimeService.createProcessInstanceQuery().processInstanceId(first).count()).isZero();
+        List<StageDTO> history = caseService.getUserTaskHistory("dave", null, "CP-IDX-1");
+        assertThat(history).extracting(StageDTO::getCaseId).containsExactly(first);
+        assertThat(caseService.getUserTaskHistory("dave", null, "CP-UNKNOWN")).isEmpty();
+    }
+
+    @Test
+    public void testSearchesFallBackToVariablesWhenAttributeIsNotIndexed() {
+        deployWorkflow();
+        String first = caseService.initiateCase(WORKFLOW_CODE, vars("CP-IDX-4", "NORTH"), "erin");
+        String second = caseService.initiateCase(WORKFLOW_CODE, vars("CP-IDX-5", "NORTH"), "erin");
+        String taskId = taskService.createTaskQuery().processInstanceId(first).singleResult().getId();
+        caseService.completeTask(taskId, new HashMap<>(), "frank");
+
+        // As if default-attributes no longer listed initiator and cp_id
+        Object defaults = ReflectionTestUtils.getField(caseAttributeIndexService, "defaultNames");
+        ReflectionTestUtils.setField(caseAttributeIndexService, "defaultNames", Set.of());
+        try {
+            assertThat(caseService.getAllActiveCases(WORKFLOW_CODE, "erin", null, null))
+                    .extracting(CaseDTO::getCaseId).containsExactly(second);
+            assertThat(caseService.getActiveCasesPage(WORKFLOW_CODE, null, "CP-IDX-5", null, null, 50).getItems())
+                    .extracting(CaseDTO::getCaseId).containsExactly(second);
+            assertThat(caseService.getUserTaskHistory("frank", null, "CP-IDX-4"))
+                    .extracting(StageDTO::getCaseId).containsExactly(first);
+        } finally {
+            ReflectionTestUtils.setField(caseAttributeIndexService, "defaultNames", defaults);
+        }
+    }
+
+    @Test
+    public void testConfiguredAttributesAreSearchableAndBackfilledOnChange() {
+        deployWorkflow();
+        Map<String, Object> urgent = vars("CP-IDX-6", "NORTH");
+        urgent.put("note", "urgent");
+        String first = caseService.initiateCase(WORKFLOW_CODE, urgent, "gina");
+        String second = caseService.initiateCase(WORKFLOW_CODE, vars("CP-IDX-7", "SOUTH"), "gina");
+
+        assertThat(caseAttributeIndexService.canSearch(WORKFLOW_CODE, "region", "NORTH")).isTrue();
+        assertThat(caseService.getAllActiveCases(WORKFLOW_CODE, null, null, null, Map.of("region", "NORTH"),
+                VariableSelection.ALL)).extracting(CaseDTO::getCaseId).containsExactly(first);
+        assertThat(caseService.getActiveCasesPage(WORKFLOW_CODE, null, null, null, Map.of("region", "SOUTH"), null, 50,
+                VariableSelection.ALL).getItems()).extracting(CaseDTO::getCaseId).containsExactly(second);
+
+        // Not indexed yet: answered from the engine variables
+        assertThat(caseAttributeIndexService.canSearch(WORKFLOW_CODE, "note", "urgent")).isFalse();
+        assertThat(caseService.getAllActiveCases(WORKFLOW_CODE, null, null, null, Map.of("note", "urgent"),
+                VariableSelection.ALL)).extracting(CaseDTO::getCaseId).containsExactly(first);
+
+        // Swapping region for note drops the region rows and back-fills note for existing cases
+        WorkflowMaster wf = workflowMasterRepository.findByWorkflowCode(WORKFLOW_CODE).orElseThrow();
+        wf.setIndexedAttributes("note");
+        workflowService.saveWorkflow(wf, "test-user");
+
+        assertThat(attributes(first)).containsEntry("note", "urgent").doesNotContainKey("region");
+        assertThat(attributes(second)).containsEntry("note", "not indexed").doesNotContainKey("region");
+        assertThat(caseAttributeIndexService.canSearch(WORKFLOW_CODE, "note", "urgent")).isTrue();
+        assertThat(caseService.getAllActiveCases(WORKFLOW_CODE, null, null, null, Map.of("note", "urgent"),
+                VariableSelection.ALL)).extracting(CaseDTO::getCaseId).containsExactly(first);
+
+        String taskId = taskService.createTaskQuery().processInstanceId(first).singleResult().getId();
+        caseService.completeTask(taskId, new HashMap<>(), "gina");
+        assertThat(caseService.getUserTaskHistory("gina", WORKFLOW_CODE, null, Map.of("note", "urgent"),
+                VariableSelection.ALL)).extracting(StageDTO::getCaseId).containsExactly(first);
+        assertThat(caseService.getUserTaskHistory("gina", WORKFLOW_CODE, "CP-IDX-6", Map.of("note", "routine"),
+                VariableSelection.ALL)).isEmpty();
+    }
+
+    @Test
+    public void testValuesLongerThanTheIndexMatchExactly() {
+        deployWorkflow();
+        String longRegion = "R".repeat(300);
+        String exact = caseService.initiateCase(WORKFLOW_CODE, vars("CP-IDX-8", longRegion), "hana");
+        String prefix = caseService.initiateCase(WORKFLOW_CODE, vars("CP-IDX-9", longRegion.substring(0, 255)), "hana");
+
+        // Both rows hold the same stored prefix, so the index alone cannot tell them apart
+        assertThat(attributes(exact).get("region")).isEqualTo(attributes(prefix).get("region"));
+        assertThat(caseAttributeIndexService.canSearch(WORKFLOW_CODE, "region", longRegion)).isFalse();
+        assertThat(caseService.getAllActiveCases(WORKFLOW_CODE, null, null, null, Map.of("region", longRegion),
+                VariableSelection.ALL)).extracting(CaseDTO::getCaseId).containsExactly(exact);
+    }
+
+    @Test
+    public void testRebuildReseedsFromHistory() {
+        deployWorkflow();
+        String caseId = caseService.initiateCase(WORKFLOW_CODE, vars("CP-IDX-3", "EAST"), "carol");
+        caseAttributeRepository.deleteAll(caseAttributeRepository.findAll().stream()
+                .filter(a -> caseId.equals(a.getCaseId())).toList());
+        assertThat(attributes(caseId)).isEmpty();
+
+        caseAttributeIndexService.rebuild();
+
+        assertThat(attributes(caseId)).containsEntry("initiator", "carol")
+                .containsEntry("cp_id", "CP-IDX-3")
+                .containsEntry("region", "EAST")
+                .doesNotContainKey("note");
+    }
+
+    private Map<String, Object> vars(String cpId, String region) {
+        Map<String, Object> vars = new HashMap<>();
+        vars.put("cp_id", cpId);
+        vars.put("region", region);
+        vars.put("note", "not indexed");
+        return vars;
+    }
+
+    private Map<String, String> attributes(String caseId) {
+        Map<String, String> result = new HashMap<>();
+        caseAttributeRepository.findAll().stream()
+                .filter(a -> caseId.equals(a.getCaseId()))
+                .forEach(a -> result.put(a.getAttrName(), a.getAttrValue()));
+        return result;
+    }
+
+    private void deployWorkflow() {
+        WorkflowMaster wf = TestWorkflows.workflow(WORKFLOW_CODE, "Case Index Test Flow");
+        wf.setIndexedAttributes("region");
+        testWorkflows.deploy(wf, stage("INDEX_STAGE_1", "Review"));
+    }
+}
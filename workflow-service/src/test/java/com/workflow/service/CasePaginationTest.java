@@ -0,0 +1,150 @@
+package com.workflow.service;
+
+import com.workflow.service.dto.CaseDTO;
+import com.workflow.service.dto.CursorPageDTO;
+import com.workflow.service.dto.StageDTO;
+import com.workflow.service.service.CaseService;
+import com.workflow.service.service.VariableSelection;
+import org.flowable.engine.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.workflow.service.TestWorkflows.stage;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+public class CasePaginationTest {
+
+    private static final String WORKFLOW_CODE = "PAGE_TEST_001";
+    private static final String GROUP = "PAGE_TEST_QUEUE";
+
+    @Autowired
+    private TestWorkflows testWorkflows;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    @Transactional
+    public void testKeysetPagingCoversAllCasesOnce() {
+        deployWorkflow();
+
+        List<String> started = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Map<String, Object> vars = new HashMap<>();
+            vars.put("cp_id", "CP-" + i);
+            started.add(caseService.initiateCase(WORKFLOW_CODE, vars, i % 2 == 0 ? "alice" : "bob"));
+        }
+
+        List<CaseDTO> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageDTO<CaseDTO> page = caseService.getActiveCasesPage(WORKFLOW_CODE, null, null, null, cursor, 2);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(2);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            assertThat(page.isHasMore()).isEqualTo(cursor != null);
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).extracting(CaseDTO::getCaseId).containsExactlyInAnyOrderElementsOf(started);
+
+        // Newest first
+        for (int i = 1; i < seen.size(); i++) {
+            assertThat(seen.get(i - 1).getStartTime()).isAfterOrEqualTo(seen.get(i).getStartTime());
+        }
+
+        // Bulk enrichment
+        CaseDTO first = seen.get(0);
+        assertThat(first.getWorkflowName()).isEqualTo("Paging Test Flow");
+        assertThat(first.getProcessVariables()).containsKeys("initiator", "cp_id");
+    }
+
+    @Test
+    @Transactional
+    public void testPageFiltersByInitiatorAndCpId() {
+        deployWorkflow();
+
+        for (int i = 0; i < 4; i++) {
+            Map<String, Object> vars = new HashMap<>();
+            vars.put("cp_id", "CP-" + i);
+            caseService.initiateCase(WORKFLOW_CODE, vars, i % 2 == 0 ? "alice" : "bob");
+        }
+
+        CursorPageDTO<CaseDTO> alice = caseService.getActiveCasesPage(WORKFLOW_CODE, "alice", null, null, null, 50);
+        assertThat(alice.getItems()).hasSize(2);
+        assertThat(alice.isHasMore()).isFalse();
+        assertThat(alice.getItems()).allMatch(c -> "alice".equals(c.getProcessVariables().get("initiator")));
+
+        CursorPageDTO<CaseDTO> byCp = caseService.getActiveCasesPage(null, null, "CP-3", null, null, 50);
+        assertThat(byCp.getItems()).hasSize(1);
+        assertThat(byCp.getItems().get(0).getProcessVariables()).containsEntry("initiator", "bob");
+    }
+
+    @Test
+    @Transactional
+    public void testVariableSelection() {
+        deployWorkflow();
+        Map<String, Object> vars = new HashMap<>();
+        vars.put("cp_id", "CP-9");
+        vars.put("documentList", List.of("a.pdf", "b.pdf"));
+        String caseId = caseService.initiateCase(WORKFLOW_CODE, vars, "alice");
+
+        CaseDTO named = caseService.getCaseDetails(caseId, VariableSelection.parse("cp_id, missing"));
+        assertThat(named.getProcessVariables()).containsOnlyKeys("cp_id");
+
+        assertThat(caseService.getCaseDetails(caseId, VariableSelection.parse("none")).getProcessVariables())
+                .isNullOrEmpty();
+        assertThat(caseService.getCaseDetails(caseId, VariableSelection.ALL).getProcessVariables())
+                .containsKeys("cp_id", "documentList", "initiator");
+
+        CursorPageDTO<CaseDTO> page = caseService.getActiveCasesPage(WORKFLOW_CODE, null, null, null, null, 10,
+                VariableSelection.parse("initiator"));
+        assertThat(page.getItems().get(0).getProcessVariables()).containsOnlyKeys("initiator");
+
+        List<StageDTO> stages = caseService.getStages(caseId, VariableSelection.parse("cp_id"));
+        assertThat(stages).isNotEmpty().allSatisfy(s -> assertThat(s.getProcessVariables()).containsOnlyKeys("cp_id"));
+    }
+
+    @Test
+    @Transactional
+    public void testCandidateGroupListsOnlyUnclaimedWork() {
+        deployWorkflow();
+        String claimed = caseService.initiateCase(WORKFLOW_CODE, new HashMap<>(), "alice");
+        String queued = caseService.initiateCase(WORKFLOW_CODE, new HashMap<>(), "alice");
+        assertThat(caseService.getAllActiveCases(WORKFLOW_CODE, null, null, GROUP))
+                .extracting(CaseDTO::getCaseId).containsExactlyInAnyOrder(claimed, queued);
+
+        String taskId = taskService.createTaskQuery().processInstanceId(claimed).singleResult().getId();
+        caseService.claimTask(taskId, "bob");
+
+        assertThat(caseService.getAllActiveCases(WORKFLOW_CODE, null, null, GROUP))
+                .extracting(CaseDTO::getCaseId).containsExactly(queued);
+        assertThat(caseService.getActiveCasesPage(WORKFLOW_CODE, null, null, GROUP, null, 50).getItems())
+                .extracting(CaseDTO::getCaseId).containsExactly(queued);
+    }
+
+    @Test
+    public void testInvalidCursorIsRejected() {
+        assertThatThrownBy(() -> caseService.getActiveCasesPage(null, null, null, null, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void deployWorkflow() {
+        testWorkflows.deploy(WORKFLOW_CODE, "Paging Test Flow",
+                stage("PAGE_STAGE_1", "Review").rules("{\"mechanism\":\"GROUP_QUEUE\",\"groupName\":\"" + GROUP + "\"}"));
+    }
+}
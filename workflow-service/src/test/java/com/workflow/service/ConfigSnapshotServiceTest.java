@@ -0,0 +1,117 @@
+package com.workflow.service;
+
+import com.workflow.service.entity.ConfigVersion;
+import com.workflow.service.entity.StageAction;
+import com.workflow.service.entity.StageConfig;
+import com.workflow.service.repository.ConfigVersionRepository;
+import com.workflow.service.service.ConfigSnapshot;
+import com.workflow.service.service.ConfigSnapshotService;
+import com.workflow.service.service.WorkflowDefinitionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static com.workflow.service.TestWorkflows.stage;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class ConfigSnapshotServiceTest {
+
+    private static final String WORKFLOW_CODE = "SNAP_TEST_001";
+
+    @Autowired
+    private TestWorkflows testWorkflows;
+
+    @Autowired
+    private WorkflowDefinitionService workflowService;
+
+    @Autowired
+    private ConfigSnapshotService configSnapshotService;
+
+    @Autowired
+    private ConfigVersionRepository configVersionRepository;
+
+    @AfterEach
+    public void cleanup() {
+        testWorkflows.cleanup(WORKFLOW_CODE);
+    }
+
+    @Test
+    public void testSnapshotSwappedAfterCommit() {
+        long before = configSnapshotService.get().version();
+
+        workflowService.saveWorkflow(TestWorkflows.workflow(WORKFLOW_CODE, "Snapshot Test Flow"), "test-user");
+
+        saveStage("SNAP_STAGE_2", 2, "{\"mechanism\":\"MANUAL\",\"groupName\":\"CHECKERS\"}");
+        StageConfig first = saveStage("SNAP_STAGE_1", 1,
+                "{\"mechanism\":\"ROUND_ROBIN\",\"roundRobinPool\":\"MAKERS\",\"rules\":[{\"variable\":\"sticky\",\"operator\":\"=\",\"value\":\"true\"}]}");
+
+        ConfigSnapshot snapshot = configSnapshotService.get();
+        assertThat(snapshot.version()).isGreaterThan(before);
+        assertThat(snapshot.workflow(WORKFLOW_CODE)).get()
+                .extracting(ConfigSnapshot.WorkflowDef::workflowName).isEqualTo("Snapshot Test Flow");
+
+        // Ordered by sequence, NEXT resolution
+        assertThat(snapshot.stages(WORKFLOW_CODE)).extracting(ConfigSnapshot.StageDef::stageCode)
+                .containsExactly("SNAP_STAGE_1", "SNAP_STAGE_2");
+        assertThat(snapshot.nextStage(WORKFLOW_CODE, "SNAP_STAGE_1")).get()
+                .extracting(ConfigSnapshot.StageDef::stageCode).isEqualTo("SNAP_STAGE_2");
+
+        // Pre-parsed assignment rules
+        ConfigSnapshot.AssignmentRules rr = snapshot.stage(WORKFLOW_CODE, "SNAP_STAGE_1").get().assignmentRules();
+        assertThat(rr.sticky()).isTrue();
+        assertThat(rr.role()).isEqualTo("MAKERS");
+        ConfigSnapshot.AssignmentRules manual = snapshot.stage(WORKFLOW_CODE, "SNAP_STAGE_2").get().assignmentRules();
+        assertThat(manual.isManual()).isTrue();
+        assertThat(manual.groupName()).isEqualTo("CHECKERS");
+
+        // Editing a stage swaps in a new snapshot; the old one stays unchanged
+        StageAction approve = new StageAction();
+        approve.setActionLabel("APPROVE");
+        approve.setTargetType("NEXT");
+        approve.setStageConfig(first);
+        first.getActions().add(approve);
+        workflowService.saveStage(first, "test-user");
+
+        ConfigSnapshot updated = configSnapshotService.get();
+        assertThat(updated.version()).isGreaterThan(snapshot.version());
+        assertThat(updated.stage(WORKFLOW_CODE, "SNAP_STAGE_1").get().actions())
+                .extracting(ConfigSnapshot.ActionDef::actionLabel).containsExactly("APPROVE");
+        assertThat(snapshot.stage(WORKFLOW_CODE, "SNAP_STAGE_1").get().actions()).isEmpty();
+    }
+
+    @Test
+    public void testVersionCounterResetIsPickedUpAsNewEpoch() {
+        configSnapshotService.markChanged();
+        configSnapshotService.markChanged();
+        ConfigSnapshot before = configSnapshotService.get();
+        assertThat(before.version()).isGreaterThanOrEqualTo(2);
+
+        // As after restoring an older backup: the counter starts over
+        configVersionRepository.deleteById(ConfigVersion.SINGLETON_ID);
+        configSnapshotService.markChanged();
+
+        ConfigSnapshot after = configSnapshotService.get();
+        assertThat(after.version()).isEqualTo(1);
+        assertThat(after.epoch()).isNotNull().isNotEqualTo(before.epoch());
+
+        // The new epoch counts on from there
+        configSnapshotService.markChanged();
+        assertThat(configSnapshotService.reload().version()).isEqualTo(2);
+    }
+
+    @Test
+    @Transactional
+    public void testUncommittedChangesVisibleToWritingTransaction() {
+        workflowService.saveWorkflow(TestWorkflows.workflow(WORKFLOW_CODE, "Snapshot Test Flow"), "test-user");
+        saveStage("SNAP_STAGE_1", 1, null);
+
+        assertThat(configSnapshotService.get().stage(WORKFLOW_CODE, "SNAP_STAGE_1")).isPresent();
+    }
+
+    private StageConfig saveStage(String code, int sequence, String rules) {
+        return workflowService.saveStage(stage(code, code).rules(rules).toStage(WORKFLOW_CODE, sequence), "test-user");
+    }
+}
@@ -0,0 +1,74 @@
+package com.workflow.service;
+
+import com.workflow.service.service.CaseService;
+import com.workflow.service.service.DefinitionWarmupService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flowable.engine.RepositoryService;
+import org.flowable.spring.SpringProcessEngineConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashMap;
+
+import static com.workflow.service.TestWorkflows.stage;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class DefinitionWarmupTest {
+
+    private static final String WORKFLOW_CODE = "WARMUP_TEST_001";
+
+    @Autowired
+    private TestWorkflows testWorkflows;
+
+    @Autowired
+    private DefinitionWarmupService definitionWarmupService;
+
+    @Autowired
+    private SpringProcessEngineConfiguration engineConfiguration;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @AfterEach
+    public void cleanup() {
+        testWorkflows.cleanup(WORKFLOW_CODE);
+    }
+
+    @Test
+    public void testWarmUpLoadsLatestDefinitionsSoFirstCaseHitsTheCache() {
+        testWorkflows.deploy(WORKFLOW_CODE, "Warm-up Test Flow", stage("WARMUP_REVIEW", "Review"));
+        String definitionId = repositoryService.createProcessDefinitionQuery()
+                .processDefinitionKey(WORKFLOW_CODE).latestVersion().singleResult().getId();
+
+        // As after a restart
+        engineConfiguration.getProcessDefinitionCache().clear();
+        double missesBefore = count("miss");
+
+        definitionWarmupService.warmUp();
+
+        assertThat(definitionWarmupService.isComplete()).isTrue();
+        assertThat(engineConfiguration.getProcessDefinitionCache().contains(definitionId)).isTrue();
+        assertThat(count("miss")).isGreaterThan(missesBefore);
+
+        double missesAfterWarmUp = count("miss");
+        double hitsBefore = count("hit");
+        caseService.initiateCase(WORKFLOW_CODE, new HashMap<>(), "test");
+
+        assertThat(count("hit")).isGreaterThan(hitsBefore);
+        assertThat(count("miss")).isEqualTo(missesAfterWarmUp);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("workflow.definition-cache.requests").tag("cache", "process").tag("result", result)
+                .counter().count();
+    }
+}
@@ -106,7 +106,10 @@ public class DeploymentFeaturesTest {
         // Sleep to ensure timestamp diff if necessary
 
         // 2. Deploy Version 2
-        // Just deploying again creates a new version in Flowable
+        // Unchanged config is not redeployed, so change the stage first
+        com.workflow.service.entity.StageConfig stage = workflowDefinitionService.getStages(WORKFLOW_CODE).get(0);
+        stage.setStageName("Stage 1 (revised)");
+        stageConfigRepository.save(stage);
         Deployment v2 = deploymentService.deployWorkflow(WORKFLOW_CODE);
         assertThat(v2).isNotNull();
         String v2Id = v2.getId();
@@ -124,4 +127,19 @@ public class DeploymentFeaturesTest {
         // Verify name indicates rollback
         assertThat(v3.getName()).contains("(Rollback)");
     }
+
+    @Test
+    public void testRedeployOfUnchangedWorkflowReusesLatestVersion() {
+        Deployment first = deploymentService.deployWorkflow(WORKFLOW_CODE);
+        Deployment second = deploymentService.deployWorkflow(WORKFLOW_CODE);
+
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(repositoryService.createProcessDefinitionQuery().processDefinitionKey(WORKFLOW_CODE).count())
+                .isEqualTo(1);
+
+        // A suspended latest version is superseded even though nothing changed
+        deploymentService.undeployWorkflow(first.getId());
+        Deployment third = deploymentService.deployWorkflow(WORKFLOW_CODE);
+        assertThat(third.getId()).isNotEqualTo(first.getId());
+    }
 }
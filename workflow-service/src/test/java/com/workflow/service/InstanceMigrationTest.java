@@ -0,0 +1,114 @@
+package com.workflow.service;
+
+import com.workflow.service.dto.MigrationJobDTO;
+import com.workflow.service.dto.MigrationPlanDTO;
+import com.workflow.service.dto.MigrationRequest;
+import com.workflow.service.service.CaseService;
+import com.workflow.service.service.DeploymentService;
+import com.workflow.service.service.InstanceMigrationService;
+import com.workflow.service.service.WorkflowDefinitionService;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.flowable.engine.repository.Deployment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.workflow.service.TestWorkflows.stage;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+public class InstanceMigrationTest {
+
+    private static final String WORKFLOW_CODE = "MIGRATION_TEST_001";
+
+    @Autowired
+    private TestWorkflows testWorkflows;
+
+    @Autowired
+    private WorkflowDefinitionService workflowService;
+
+    @Autowired
+    private DeploymentService deploymentService;
+
+    @Autowired
+    private InstanceMigrationService instanceMigrationService;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @AfterEach
+    public void cleanup() {
+        testWorkflows.cleanup(WORKFLOW_CODE);
+    }
+
+    @Test
+    public void testMigratesRunningCasesAndRetiresOldVersion() throws Exception {
+        Deployment v1 = testWorkflows.deploy(WORKFLOW_CODE, "Migration Test Flow",
+                stage("REVIEW", "Review"), stage("APPROVE", "Approve"));
+        String v1Id = repositoryService.createProcessDefinitionQuery().deploymentId(v1.getId()).singleResult().getId();
+
+        for (int i = 0; i < 5; i++) {
+            caseService.initiateCase(WORKFLOW_CODE, new HashMap<>(), "test");
+        }
+
+        // v2 replaces REVIEW, where all five cases wait
+        workflowService.deleteStage(WORKFLOW_CODE, "REVIEW");
+        workflowService.saveStage(stage("CHECK", "Check").toStage(WORKFLOW_CODE, 1), "test");
+        deploymentService.deployWorkflow(WORKFLOW_CODE);
+
+        MigrationPlanDTO plan = instanceMigrationService.plan(WORKFLOW_CODE, null, null).get(0);
+        assertThat(plan.getSourceDefinitionId()).isEqualTo(v1Id);
+        assertThat(plan.getRunningInstances()).isEqualTo(5);
+        assertThat(plan.getUnmappedActivities()).contains("REVIEW");
+        assertThat(plan.getActivityMappings()).containsEntry("APPROVE", "APPROVE");
+        assertThat(plan.isValid()).isFalse();
+
+        MigrationRequest request = new MigrationRequest();
+        request.setWorkflowCode(WORKFLOW_CODE);
+        request.setRetireSource(true);
+        assertThatThrownBy(() -> instanceMigrationService.submit(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("invalid");
+
+        request.setActivityMappings(Map.of("REVIEW", "CHECK"));
+        MigrationJobDTO job = instanceMigrationService.submit(request);
+        assertThat(job.getTotal()).isEqualTo(5);
+        job = awaitFinished(job.getJobId());
+
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getMigrated()).isEqualTo(5);
+        assertThat(job.getRetiredDefinitionIds()).containsExactly(v1Id);
+        assertThat(runtimeService.createProcessInstanceQuery().processDefinitionId(v1Id).count()).isZero();
+        assertThat(taskService.createTaskQuery().processDefinitionKey(WORKFLOW_CODE).taskDefinitionKey("CHECK").count())
+                .isEqualTo(5);
+        assertThat(repositoryService.getProcessDefinition(v1Id).isSuspended()).isTrue();
+    }
+
+    private MigrationJobDTO awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            MigrationJobDTO job = instanceMigrationService.getJob(jobId);
+            if (job.getFinishedAt() != null) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Migration job did not finish: " + instanceMigrationService.getJob(jobId));
+    }
+
+}
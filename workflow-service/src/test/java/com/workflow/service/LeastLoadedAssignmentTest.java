@@ -0,0 +1,86 @@
+package com.workflow.service;
+
+import com.workflow.service.integration.UserAdapterClient;
+import com.workflow.service.service.CaseService;
+import com.workflow.service.service.WorkloadCounterService;
+import org.flowable.engine.TaskService;
+import org.flowable.task.api.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.workflow.service.TestWorkflows.stage;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+public class LeastLoadedAssignmentTest {
+
+    private static final String WORKFLOW_CODE = "LEAST_LOADED_TEST_001";
+    private static final String POOL = "ll-test-pool";
+
+    @Autowired
+    private TestWorkflows testWorkflows;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private WorkloadCounterService workloadCounterService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @MockBean
+    private UserAdapterClient userAdapterClient;
+
+    @AfterEach
+    public void cleanup() {
+        testWorkflows.cleanup(WORKFLOW_CODE);
+    }
+
+    @Test
+    public void testAssignsByOpenTasksPerCapacity() {
+        when(userAdapterClient.getRoleMembers(POOL)).thenReturn(List.of("ll-c", "ll-b", "ll-a"));
+        deployWorkflow();
+
+        for (int i = 0; i < 8; i++) {
+            caseService.initiateCase(WORKFLOW_CODE, new HashMap<>(), "test-user");
+        }
+        // ll-a has twice the capacity of the others
+        assertThat(openTasksByAssignee()).containsExactlyInAnyOrderEntriesOf(Map.of("ll-a", 4L, "ll-b", 2L, "ll-c", 2L));
+        assertThat(workloadCounterService.openTasks("ll-a")).isEqualTo(4);
+
+        // Completing work frees capacity straight away
+        Task done = taskService.createTaskQuery().processDefinitionKey(WORKFLOW_CODE).taskAssignee("ll-c").list().get(0);
+        caseService.completeTask(done.getId(), new HashMap<>(), "ll-c");
+        assertThat(workloadCounterService.openTasks("ll-c")).isEqualTo(1);
+
+        caseService.initiateCase(WORKFLOW_CODE, new HashMap<>(), "test-user");
+        assertThat(openTasksByAssignee()).containsEntry("ll-c", 2L);
+
+        // The counters agree with the engine
+        workloadCounterService.rebuild();
+        assertThat(workloadCounterService.openTasks("ll-a")).isEqualTo(4);
+        assertThat(workloadCounterService.openTasks("ll-b")).isEqualTo(2);
+        assertThat(workloadCounterService.openTasks("ll-c")).isEqualTo(2);
+    }
+
+    private Map<String, Long> openTasksByAssignee() {
+        return taskService.createTaskQuery().processDefinitionKey(WORKFLOW_CODE).list().stream()
+                .collect(Collectors.groupingBy(Task::getAssignee, Collectors.counting()));
+    }
+
+    private void deployWorkflow() {
+        testWorkflows.deploy(WORKFLOW_CODE, "Least Loaded Test Flow",
+                stage("LL_STAGE_1", "Review").rules("{\"mechanism\":\"LEAST_LOADED\",\"groupName\":\"" + POOL
+                        + "\",\"capacities\":{\"ll-a\":2}}"));
+    }
+}
@@ -0,0 +1,137 @@
+package com.workflow.service;
+
+import com.workflow.service.service.CaseService;
+import com.workflow.service.service.ConfigSnapshot;
+import com.workflow.service.service.ConfigSnapshotService;
+import com.workflow.service.service.PriorActorIndexService;
+import org.flowable.engine.HistoryService;
+import org.flowable.engine.TaskService;
+import org.flowable.task.api.history.HistoricTaskInstance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static com.workflow.service.TestWorkflows.stage;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sticky resolution on a case with 250 finished tasks: the prior actor index against the
+ * former history scan (reproduced inline). Run with {@code mvn test -Pbenchmark}.
+ */
+@SpringBootTest
+@Tag("benchmark")
+public class PriorActorBenchmarkTest {
+
+    private static final String WORKFLOW_CODE = "PRIOR_ACTOR_BENCH_001";
+    private static final String ROLE = "bench-credit";
+    private static final int HISTORIC_TASKS = 250;
+    private static final int WARMUP = 50;
+    private static final int SAMPLES = 300;
+    private static final List<String> POOL = List.of("bench-a", "bench-b", "bench-c");
+
+    @Autowired
+    private TestWorkflows testWorkflows;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private PriorActorIndexService priorActorIndexService;
+
+    @Autowired
+    private ConfigSnapshotService configSnapshotService;
+
+    @Autowired
+    private HistoryService historyService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @AfterEach
+    public void cleanup() {
+        testWorkflows.cleanup(WORKFLOW_CODE);
+    }
+
+    @Test
+    public void compareStickyResolution() {
+        deployWorkflow();
+        String caseId = caseService.initiateCase(WORKFLOW_CODE, new HashMap<>(), "bench");
+        for (int i = 0; i < HISTORIC_TASKS; i++) {
+            String taskId = taskService.createTaskQuery().processInstanceId(caseId).singleResult().getId();
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("outcome", "LOOP");
+            caseService.completeTask(taskId, variables, POOL.get(i % POOL.size()));
+        }
+        String expected = POOL.get((HISTORIC_TASKS - 1) % POOL.size());
+
+        assertThat(historyScan(caseId)).isEqualTo(expected);
+        assertThat(priorActorIndexService.findPriorActor(caseId, ROLE, POOL)).isEqualTo(expected);
+
+        measure(WARMUP, () -> historyScan(caseId));
+        measure(WARMUP, () -> priorActorIndexService.findPriorActor(caseId, ROLE, POOL));
+        report("history scan", measure(SAMPLES, () -> historyScan(caseId)));
+        report("prior actor index", measure(SAMPLES, () -> priorActorIndexService.findPriorActor(caseId, ROLE, POOL)));
+    }
+
+    private long[] measure(int count, Supplier<String> lookup) {
+        long[] nanos = new long[count];
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            lookup.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        return nanos;
+    }
+
+    private void report(String label, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("[benchmark] %-18s history=%d n=%d p50=%.3fms p99=%.3fms%n", label, HISTORIC_TASKS,
+                sorted.length, sorted[sorted.length / 2] / 1e6,
+                sorted[(int) Math.ceil(sorted.length * 0.99) - 1] / 1e6);
+    }
+
+    // The sticky lookup before the index: finished history with local variables, newest first
+    private String historyScan(String caseId) {
+        List<HistoricTaskInstance> history = historyService.createHistoricTaskInstanceQuery()
+                .processInstanceId(caseId)
+                .finished()
+                .includeTaskLocalVariables()
+                .orderByHistoricTaskInstanceEndTime().desc()
+                .list();
+        ConfigSnapshot config = configSnapshotService.get();
+        for (HistoricTaskInstance task : history) {
+            String user = task.getAssignee();
+            if (user == null && task.getTaskLocalVariables() != null) {
+                user = (String) task.getTaskLocalVariables().get("savedAssignee");
+            }
+            if (user == null || !POOL.contains(user)) {
+                continue;
+            }
+            Optional<ConfigSnapshot.StageDef> stage = config.stage(task.getProcessDefinitionId().split(":")[0],
+                    task.getTaskDefinitionKey());
+            if (stage.isPresent() && ROLE.equals(stage.get().assignmentRules().role())) {
+                return user;
+            }
+        }
+        return null;
+    }
+
+    private void deployWorkflow() {
+        testWorkflows.deploy(WORKFLOW_CODE, "Prior Actor Benchmark Flow",
+                stage("PA_BENCH_STAGE_1", "Credit Review")
+                        .rules("{\"mechanism\":\"GROUP_QUEUE\",\"groupName\":\"" + ROLE + "\"}")
+                        .action("LOOP", "SPECIFIC", "PA_BENCH_STAGE_1")
+                        .action("DONE", "NEXT"),
+                stage("PA_BENCH_STAGE_2", "Closure"));
+    }
+}
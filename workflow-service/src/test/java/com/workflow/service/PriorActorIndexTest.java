@@ -0,0 +1,99 @@
+package com.workflow.service;
+
+import com.workflow.service.entity.PriorActor;
+import com.workflow.service.repository.PriorActorRepository;
+import com.workflow.service.service.CaseService;
+import com.workflow.service.service.PriorActorIndexService;
+import org.flowable.engine.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashMap;
+import java.util.List;
+
+import static com.workflow.service.TestWorkflows.stage;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+public class PriorActorIndexTest {
+
+    private static final String WORKFLOW_CODE = "PRIOR_ACTOR_TEST_001";
+
+    @Autowired
+    private TestWorkflows testWorkflows;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private PriorActorIndexService priorActorIndexService;
+
+    @Autowired
+    private PriorActorRepository priorActorRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @AfterEach
+    public void cleanup() {
+        testWorkflows.cleanup(WORKFLOW_CODE);
+    }
+
+    @Test
+    public void testCompletionsFeedStickyLookups() {
+        deployWorkflow();
+        String caseId = caseService.initiateCase(WORKFLOW_CODE, new HashMap<>(), "initiator");
+        complete(caseId, "alice"); // credit-role stage
+        complete(caseId, "bob");   // ops-role stage
+
+        List<String> pool = List.of("alice", "bob", "carol");
+        // Latest actor in the role, not the latest actor overall
+        assertThat(priorActorIndexService.findPriorActor(caseId, "credit-role", pool)).isEqualTo("alice");
+        assertThat(priorActorIndexService.findPriorActor(caseId, "ops-role", pool)).isEqualTo("bob");
+        // Someone no longer in the pool is skipped
+        assertThat(priorActorIndexService.findPriorActor(caseId, "credit-role", List.of("bob", "carol"))).isNull();
+        // Round-robin sticky: latest actor of the case in any role
+        assertThat(priorActorIndexService.findPriorActorInCase(caseId, pool)).isEqualTo("bob");
+        assertThat(priorActorIndexService.findPriorActorInCase(caseId, List.of("alice"))).isEqualTo("alice");
+    }
+
+    @Test
+    public void testRebuildReseedsFromHistory() {
+        deployWorkflow();
+        String caseId = caseService.initiateCase(WORKFLOW_CODE, new HashMap<>(), "initiator");
+        complete(caseId, "alice");
+        complete(caseId, "bob");
+        priorActorRepository.deleteAll(rows(caseId));
+        assertThat(priorActorIndexService.findPriorActorInCase(caseId, List.of("alice", "bob"))).isNull();
+
+        priorActorIndexService.rebuild();
+
+        assertThat(rows(caseId)).extracting(PriorActor::getUserId, PriorActor::getRoleCode)
+                .containsExactlyInAnyOrder(
+                        tuple("alice", "credit-role"),
+                        tuple("bob", "ops-role"));
+        assertThat(priorActorIndexService.findPriorActor(caseId, "credit-role", List.of("alice", "bob")))
+                .isEqualTo("alice");
+    }
+
+    private void complete(String caseId, String userId) {
+        String taskId = taskService.createTaskQuery().processInstanceId(caseId).singleResult().getId();
+        caseService.completeTask(taskId, new HashMap<>(), userId);
+    }
+
+    private List<PriorActor> rows(String caseId) {
+        return priorActorRepository.findAll().stream()
+                .filter(a -> caseId.equals(a.getProcessInstanceId())).toList();
+    }
+
+    private void deployWorkflow() {
+        testWorkflows.deploy(WORKFLOW_CODE, "Prior Actor Test Flow",
+                stage("PA_STAGE_1", "Credit Review").rules("{\"mechanism\":\"GROUP_QUEUE\",\"groupName\":\"credit-role\"}"),
+                stage("PA_STAGE_2", "Operations").rules("{\"mechanism\":\"GROUP_QUEUE\",\"groupName\":\"ops-role\"}"),
+                stage("PA_STAGE_3", "Closure"));
+    }
+
+}
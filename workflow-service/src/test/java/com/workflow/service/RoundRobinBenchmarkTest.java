@@ -0,0 +1,147 @@
+package com.workflow.service;
+
+import com.workflow.service.integration.UserAdapterClient;
+import com.workflow.service.repository.AssignmentCursorRepository;
+import com.workflow.service.service.CaseService;
+import com.workflow.service.service.RoundRobinCursorService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.workflow.service.TestWorkflows.stage;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Round-robin throughput and fairness with 64 concurrent callers: the cursor store on its
+ * own (both modes) and 64 concurrent case initiations on a round-robin stage. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@SpringBootTest
+@Tag("benchmark")
+public class RoundRobinBenchmarkTest {
+
+    private static final String WORKFLOW_CODE = "RR_BENCH_001";
+    private static final int THREADS = 64;
+    private static final int TICKETS_PER_THREAD = 200;
+    private static final List<String> POOL = List.of("rr-bench-a", "rr-bench-b", "rr-bench-c", "rr-bench-d");
+
+    @MockBean
+    private UserAdapterClient userAdapterClient;
+
+    @Autowired
+    private TestWorkflows testWorkflows;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private AssignmentCursorRepository cursorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    public void cleanup() {
+        testWorkflows.cleanup(WORKFLOW_CODE);
+    }
+
+    @Test
+    public void cursorStoreThroughput() throws Exception {
+        for (String mode : List.of(RoundRobinCursorService.MODE_MEMORY, RoundRobinCursorService.MODE_DATABASE)) {
+            RoundRobinCursorService store = new RoundRobinCursorService(cursorRepository, transactionManager, mode);
+            String stage = "STORE_" + mode.toUpperCase();
+            long start = System.nanoTime();
+            List<Long> tickets = runConcurrently(() -> {
+                long last = 0;
+                for (int i = 0; i < TICKETS_PER_THREAD; i++) {
+                    last = store.next(WORKFLOW_CODE, stage, "pool");
+                }
+                return last;
+            });
+            double seconds = (System.nanoTime() - start) / 1e9;
+            int total = THREADS * TICKETS_PER_THREAD;
+            System.out.printf("[benchmark] cursor-store %-8s threads=%d tickets=%d %.0f tickets/s%n",
+                    mode, THREADS, total, total / seconds);
+            assertThat(tickets).hasSize(THREADS);
+        }
+    }
+
+    @Test
+    public void concurrentTaskCreationIsEvenlyDistributed() throws Exception {
+        when(userAdapterClient.getRoleMembers(anyString())).thenReturn(POOL);
+        deployWorkflow();
+        // Warm the deployment and listener beans outside the measurement
+        caseService.initiateCase(WORKFLOW_CODE, new HashMap<>(), "bench");
+        runtimeService.createProcessInstanceQuery().processDefinitionKey(WORKFLOW_CODE).list()
+                .forEach(pi -> runtimeService.deleteProcessInstance(pi.getId(), "warmup"));
+
+        long start = System.nanoTime();
+        List<String> caseIds = runConcurrently(() -> caseService.initiateCase(WORKFLOW_CODE, new HashMap<>(), "bench"));
+        double millis = (System.nanoTime() - start) / 1e6;
+
+        Map<String, AtomicInteger> perAssignee = new ConcurrentHashMap<>();
+        for (String caseId : caseIds) {
+            String assignee = taskService.createTaskQuery().processInstanceId(caseId).singleResult().getAssignee();
+            perAssignee.computeIfAbsent(String.valueOf(assignee), k -> new AtomicInteger()).incrementAndGet();
+        }
+        System.out.printf("[benchmark] round-robin initiations=%d in %.0fms (%.0f/s) distribution=%s%n",
+                THREADS, millis, THREADS / (millis / 1000), perAssignee);
+
+        assertThat(perAssignee).containsOnlyKeys(POOL);
+        perAssignee.values().forEach(n -> assertThat(n.get()).isEqualTo(THREADS / POOL.size()));
+    }
+
+    private <T> List<T> runConcurrently(Callable<T> work) throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(threads.submit(() -> {
+                    go.await();
+                    return work.call();
+                }));
+            }
+            go.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> f : futures) {
+                results.add(f.get());
+            }
+            return results;
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private void deployWorkflow() {
+        testWorkflows.deploy(WORKFLOW_CODE, "Round Robin Benchmark Flow",
+                stage("RR_BENCH_STAGE", "Review")
+                        .rules("{\"mechanism\":\"ROUND_ROBIN\",\"roundRobinPool\":\"rr-bench-pool\"}"));
+    }
+}
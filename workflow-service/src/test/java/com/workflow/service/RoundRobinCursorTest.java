@@ -0,0 +1,89 @@
+package com.workflow.service;
+
+import com.workflow.service.repository.AssignmentCursorRepository;
+import com.workflow.service.service.RoundRobinCursorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class RoundRobinCursorTest {
+
+    private static final String WORKFLOW_CODE = "RR_CURSOR_TEST";
+
+    @Autowired
+    private AssignmentCursorRepository cursorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    public void cleanup() {
+        cursorRepository.deleteAll(cursorRepository.findAll().stream()
+                .filter(c -> WORKFLOW_CODE.equals(c.getWorkflowCode())).toList());
+    }
+
+    @Test
+    public void testMemoryTicketsAreUniqueUnderConcurrency() throws Exception {
+        assertUniqueTickets(new RoundRobinCursorService(cursorRepository, transactionManager,
+                RoundRobinCursorService.MODE_MEMORY), "MEM_STAGE");
+    }
+
+    @Test
+    public void testDatabaseTicketsAreUniqueUnderConcurrency() throws Exception {
+        RoundRobinCursorService store = new RoundRobinCursorService(cursorRepository, transactionManager,
+                RoundRobinCursorService.MODE_DATABASE);
+        assertUniqueTickets(store, "DB_STAGE");
+        assertThat(cursorRepository.findById(WORKFLOW_CODE + "|DB_STAGE|pool"))
+                .hasValueSatisfying(c -> assertThat(c.getPosition()).isEqualTo(200));
+    }
+
+    @Test
+    public void testMemoryPositionSurvivesRestart() {
+        RoundRobinCursorService first = new RoundRobinCursorService(cursorRepository, transactionManager,
+                RoundRobinCursorService.MODE_MEMORY);
+        for (int i = 0; i < 5; i++) {
+            first.next(WORKFLOW_CODE, "RESTART_STAGE", "pool");
+        }
+        first.flush();
+
+        RoundRobinCursorService restarted = new RoundRobinCursorService(cursorRepository, transactionManager,
+                RoundRobinCursorService.MODE_MEMORY);
+        assertThat(restarted.next(WORKFLOW_CODE, "RESTART_STAGE", "pool")).isEqualTo(5);
+    }
+
+    private void assertUniqueTickets(RoundRobinCursorService store, String stage) throws Exception {
+        Set<Long> tickets = ConcurrentHashMap.newKeySet();
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(threads.submit(() -> {
+                    for (int i = 0; i < 25; i++) {
+                        tickets.add(store.next(WORKFLOW_CODE, stage, "pool"));
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        // No ticket handed out twice, none skipped
+        assertThat(tickets).hasSize(200);
+        assertThat(tickets.stream().mapToLong(Long::longValue).max().orElseThrow()).isEqualTo(199);
+    }
+}
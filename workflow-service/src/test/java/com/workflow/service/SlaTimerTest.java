@@ -0,0 +1,66 @@
+package com.workflow.service;
+
+import com.workflow.service.service.CalendarService;
+import com.workflow.service.service.CaseService;
+import org.flowable.engine.ManagementService;
+import org.flowable.job.api.Job;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.workflow.service.TestWorkflows.stage;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class SlaTimerTest {
+
+    private static final String WORKFLOW_CODE = "SLA_TIMER_TEST_001";
+
+    @Autowired
+    private TestWorkflows testWorkflows;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private CalendarService calendarService;
+
+    @Autowired
+    private ManagementService managementService;
+
+    @AfterEach
+    public void cleanup() {
+        testWorkflows.cleanup(WORKFLOW_CODE);
+    }
+
+    @Test
+    public void testSlaTimerUsesBusinessHoursDueDate() {
+        deployWorkflow();
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("region", "SLA_TEST_REGION");
+
+        LocalDateTime before = LocalDateTime.now();
+        String caseId = caseService.initiateCase(WORKFLOW_CODE, variables, "test-user");
+        LocalDateTime after = LocalDateTime.now();
+
+        Job timer = managementService.createTimerJobQuery().processInstanceId(caseId).singleResult();
+        assertThat(timer).isNotNull();
+        LocalDateTime due = LocalDateTime.ofInstant(timer.getDuedate().toInstant(), ZoneId.systemDefault());
+        LocalDateTime earliest = calendarService.calculateSlaDueDateTime(before, new BigDecimal("2"), "SLA_TEST_REGION");
+        LocalDateTime latest = calendarService.calculateSlaDueDateTime(after, new BigDecimal("2"), "SLA_TEST_REGION");
+        // Truncation to the minute in the business-time arithmetic
+        assertThat(due).isBetween(earliest.minus(Duration.ofMinutes(1)), latest.plus(Duration.ofMinutes(1)));
+    }
+
+    private void deployWorkflow() {
+        testWorkflows.deploy(WORKFLOW_CODE, "SLA Timer Test Flow", stage("SLA_STAGE_1", "Review").slaDays("2"));
+    }
+}
@@ -0,0 +1,124 @@
+package com.workflow.service;
+
+import com.workflow.service.repository.StageConfigRepository;
+import com.workflow.service.service.CaseService;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.flowable.task.api.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.workflow.service.TestWorkflows.stage;
+
+/**
+ * Completion latency of the single-command path against the former step-by-step
+ * sequence (reproduced inline). Run with {@code mvn test -Pbenchmark}.
+ */
+@SpringBootTest
+@Tag("benchmark")
+public class TaskCompletionBenchmarkTest {
+
+    private static final String WORKFLOW_CODE = "COMPLETION_BENCH_001";
+    private static final int WARMUP = 100;
+    private static final int SAMPLES = 500;
+
+    @Autowired
+    private TestWorkflows testWorkflows;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private StageConfigRepository stageConfigRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    public void cleanup() {
+        testWorkflows.cleanup(WORKFLOW_CODE);
+    }
+
+    @Test
+    public void compareCompletionPaths() {
+        deployWorkflow();
+
+        measure("warmup", WARMUP, taskId -> completeStepByStep(taskId, variables(), "bench"));
+        measure("warmup", WARMUP, taskId -> caseService.completeTask(taskId, variables(), "bench"));
+
+        long[] before = measure("step-by-step", SAMPLES, taskId -> completeStepByStep(taskId, variables(), "bench"));
+        long[] after = measure("single command", SAMPLES, taskId -> caseService.completeTask(taskId, variables(), "bench"));
+        report("step-by-step", before);
+        report("single command", after);
+    }
+
+    private long[] measure(String label, int count, java.util.function.Consumer<String> complete) {
+        List<String> taskIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String caseId = caseService.initiateCase(WORKFLOW_CODE, new HashMap<>(), "bench");
+            taskIds.add(taskService.createTaskQuery().processInstanceId(caseId).singleResult().getId());
+        }
+        long[] nanos = new long[count];
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            complete.accept(taskIds.get(i));
+            nanos[i] = System.nanoTime() - start;
+        }
+        return nanos;
+    }
+
+    private void report(String label, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("[benchmark] %-15s n=%d p50=%.2fms p99=%.2fms%n", label, sorted.length,
+                sorted[sorted.length / 2] / 1e6, sorted[(int) Math.ceil(sorted.length * 0.99) - 1] / 1e6);
+    }
+
+    private Map<String, Object> variables() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("outcome", "APPROVE");
+        variables.put("manualAssignee", "bench-next");
+        return variables;
+    }
+
+    // The completion path before CompleteStageTaskCmd: one engine command per call
+    private void completeStepByStep(String taskId, Map<String, Object> variables, String userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Task task = taskService.createTaskQuery().taskId(taskId).singleResult();
+            taskService.setAssignee(taskId, userId);
+            taskService.setVariableLocal(taskId, "savedAssignee", userId);
+            String workflowCode = repositoryService.createProcessDefinitionQuery()
+                    .processDefinitionId(task.getProcessDefinitionId()).singleResult().getKey();
+            stageConfigRepository.findByWorkflowCodeAndStageCode(workflowCode, task.getTaskDefinitionKey());
+            taskService.setVariableLocal(taskId, "outcome", variables.get("outcome"));
+            runtimeService.setVariable(task.getProcessInstanceId(), "manualAssignee", variables.get("manualAssignee"));
+            taskService.complete(taskId, variables);
+        });
+    }
+
+    private void deployWorkflow() {
+        testWorkflows.deploy(WORKFLOW_CODE, "Completion Benchmark Flow",
+                stage("BENCH_STAGE_1", "Approval").action("APPROVE", "NEXT"),
+                stage("BENCH_STAGE_2", "Follow-up"));
+    }
+}
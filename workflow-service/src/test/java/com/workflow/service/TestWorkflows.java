@@ -0,0 +1,156 @@
+package com.workflow.service;
+
+import com.workflow.service.entity.StageAction;
+import com.workflow.service.entity.StageConfig;
+import com.workflow.service.entity.WorkflowMaster;
+import com.workflow.service.repository.AssignmentCursorRepository;
+import com.workflow.service.repository.CaseAttributeRepository;
+import com.workflow.service.repository.PriorActorRepository;
+import com.workflow.service.repository.StageConfigRepository;
+import com.workflow.service.repository.WorkflowMasterRepository;
+import com.workflow.service.service.ConfigSnapshotService;
+import com.workflow.service.service.DeploymentService;
+import com.workflow.service.service.WorkflowDefinitionService;
+import lombok.RequiredArgsConstructor;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.repository.Deployment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Test workflows: built from stage specs, deployed, and removed again with everything
+ * the engine and the listeners keep for them.
+ */
+@Component
+@RequiredArgsConstructor
+public class TestWorkflows {
+
+    private static final String USER = "test-user";
+
+    private final WorkflowDefinitionService workflowService;
+    private final DeploymentService deploymentService;
+    private final RuntimeService runtimeService;
+    private final RepositoryService repositoryService;
+    private final StageConfigRepository stageConfigRepository;
+    private final WorkflowMasterRepository workflowMasterRepository;
+    private final CaseAttributeRepository caseAttributeRepository;
+    private final PriorActorRepository priorActorRepository;
+    private final AssignmentCursorRepository cursorRepository;
+    private final ConfigSnapshotService configSnapshotService;
+    private final TransactionTemplate transactionTemplate;
+
+    public static StageSpec stage(String stageCode, String stageName) {
+        return new StageSpec(stageCode, stageName);
+    }
+
+    /**
+     * Saves the workflow and its stages, in order, and deploys it.
+     */
+    public Deployment deploy(String workflowCode, String workflowName, StageSpec... stages) {
+        return deploy(workflow(workflowCode, workflowName), stages);
+    }
+
+    public Deployment deploy(WorkflowMaster workflow, StageSpec... stages) {
+        define(workflow, stages);
+        return deploymentService.deployWorkflow(workflow.getWorkflowCode());
+    }
+
+    /**
+     * Saves the workflow and its stages without deploying.
+     */
+    public void define(WorkflowMaster workflow, StageSpec... stages) {
+        workflowService.saveWorkflow(workflow, USER);
+        int sequence = 0;
+        for (StageSpec spec : stages) {
+            workflowService.saveStage(spec.toStage(workflow.getWorkflowCode(), ++sequence), USER);
+        }
+    }
+
+    public static WorkflowMaster workflow(String workflowCode, String workflowName) {
+        WorkflowMaster workflow = new WorkflowMaster();
+        workflow.setWorkflowCode(workflowCode);
+        workflow.setWorkflowName(workflowName);
+        return workflow;
+    }
+
+    public void cleanup(String... workflowCodes) {
+        cleanup(List.of(workflowCodes));
+    }
+
+    /**
+     * Removes the workflows' cases, deployments and configuration, and the index, prior actor
+     * and cursor rows kept for them.
+     */
+    public void cleanup(Collection<String> workflowCodes) {
+        for (String code : workflowCodes) {
+            runtimeService.createProcessInstanceQuery().processDefinitionKey(code).list()
+                    .forEach(pi -> runtimeService.deleteProcessInstance(pi.getId(), "test cleanup"));
+            repositoryService.createDeploymentQuery().deploymentKey(code).list()
+                    .forEach(d -> repositoryService.deleteDeployment(d.getId(), true));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            caseAttributeRepository.deleteAll(caseAttributeRepository.findAll().stream()
+                    .filter(a -> workflowCodes.contains(a.getWorkflowCode())).toList());
+            priorActorRepository.deleteAll(priorActorRepository.findAll().stream()
+                    .filter(a -> workflowCodes.contains(a.getWorkflowCode())).toList());
+            cursorRepository.deleteAll(cursorRepository.findAll().stream()
+                    .filter(c -> workflowCodes.contains(c.getWorkflowCode())).toList());
+            for (String code : workflowCodes) {
+                stageConfigRepository.deleteByWorkflowCode(code);
+                workflowMasterRepository.findByWorkflowCode(code).ifPresent(workflowMasterRepository::delete);
+            }
+            configSnapshotService.markChanged();
+        });
+    }
+
+    public static final class StageSpec {
+
+        private final StageConfig stage = new StageConfig();
+
+        private StageSpec(String stageCode, String stageName) {
+            stage.setStageCode(stageCode);
+            stage.setStageName(stageName);
+        }
+
+        public StageSpec rules(String assignmentRules) {
+            stage.setAssignmentRules(assignmentRules);
+            return this;
+        }
+
+        public StageSpec slaDays(String days) {
+            stage.setSlaDurationDays(new BigDecimal(days));
+            return this;
+        }
+
+        public StageSpec nested(String workflowCode) {
+            stage.setNestedWorkflow(true);
+            stage.setNestedWorkflowCode(workflowCode);
+            return this;
+        }
+
+        public StageSpec action(String label, String targetType) {
+            return action(label, targetType, null);
+        }
+
+        public StageSpec action(String label, String targetType, String targetStage) {
+            StageAction action = new StageAction();
+            action.setActionLabel(label);
+            action.setTargetType(targetType);
+            action.setTargetStage(targetStage);
+            action.setStageConfig(stage);
+            stage.getActions().add(action);
+            return this;
+        }
+
+        public StageConfig toStage(String workflowCode, int sequenceOrder) {
+            stage.setWorkflowCode(workflowCode);
+            stage.setSequenceOrder(sequenceOrder);
+            return stage;
+        }
+    }
+}
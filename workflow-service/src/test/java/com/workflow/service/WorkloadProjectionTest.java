@@ -0,0 +1,148 @@
+package com.workflow.service;
+
+import com.workflow.service.dto.GroupWorkloadDTO;
+import com.workflow.service.dto.UserStoryboardDTO;
+import com.workflow.service.dto.UserWorkloadDTO;
+import com.workflow.service.entity.TaskWorkloadProjection;
+import com.workflow.service.repository.TaskWorkloadProjectionRepository;
+import com.workflow.service.service.CaseService;
+import com.workflow.service.service.StoryboardService;
+import com.workflow.service.service.WorkloadProjectionService;
+import org.flowable.engine.TaskService;
+import org.flowable.task.api.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+
+import static com.workflow.service.TestWorkflows.stage;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class WorkloadProjectionTest {
+
+    private static final String WORKFLOW_CODE = "WORKLOAD_TEST_001";
+    private static final String GROUP = "WL_TEST_QUEUE";
+
+    @Autowired
+    private TestWorkflows testWorkflows;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private WorkloadProjectionService workloadProjectionService;
+
+    @Autowired
+    private StoryboardService storyboardService;
+
+    @Autowired
+    private TaskWorkloadProjectionRepository projectionRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @AfterEach
+    public void cleanup() {
+        testWorkflows.cleanup(WORKFLOW_CODE);
+    }
+
+    @Test
+    public void testProjectionFollowsTaskLifecycle() {
+        deployWorkflow();
+
+        for (int i = 0; i < 3; i++) {
+            caseService.initiateCase(WORKFLOW_CODE, new HashMap<>(), "alice");
+        }
+
+        // Created: unassigned tasks sit in the group queue
+        assertThat(groupCount()).isEqualTo(3);
+        assertThat(userCount("bob")).isZero();
+
+        // Claimed: moves from the queue to the user
+        List<Task> tasks = taskService.createTaskQuery().processDefinitionKey(WORKFLOW_CODE).list();
+        caseService.claimTask(tasks.get(0).getId(), "bob");
+        caseService.claimTask(tasks.get(1).getId(), "bob");
+        assertThat(groupCount()).isEqualTo(1);
+        assertThat(userCount("bob")).isEqualTo(2);
+
+        // Completed: leaves the projection
+        caseService.completeTask(tasks.get(0).getId(), new HashMap<>(), "bob");
+        assertThat(userCount("bob")).isEqualTo(1);
+        assertThat(projectionRepository.findById(tasks.get(0).getId())).isEmpty();
+
+        // Rebuild from the engine yields the same view
+        projectionRepository.deleteAll();
+        workloadProjectionService.rebuild();
+        assertThat(groupCount()).isEqualTo(1);
+        assertThat(userCount("bob")).isEqualTo(1);
+
+        // Writes from another node reach the index through the incremental refresh
+        TaskWorkloadProjection reassigned = projectionRepository.findById(tasks.get(1).getId()).orElseThrow();
+        reassigned.setAssignee("carol");
+        reassigned.setUpdatedAt(LocalDateTime.now());
+        projectionRepository.save(reassigned);
+        projectionRepository.deleteById(tasks.get(2).getId());
+        workloadProjectionService.refresh();
+        assertThat(userCount("bob")).isZero();
+        assertThat(userCount("carol")).isEqualTo(1);
+        assertThat(groupCount()).isZero();
+    }
+
+    @Test
+    public void testStoryboardLanesAndEtag() {
+        deployWorkflow();
+        caseService.initiateCase(WORKFLOW_CODE, new HashMap<>(), "alice");
+        caseService.initiateCase(WORKFLOW_CODE, new HashMap<>(), "alice");
+
+        List<Task> tasks = taskService.createTaskQuery().processDefinitionKey(WORKFLOW_CODE).list();
+        caseService.claimTask(tasks.get(0).getId(), "carol");
+        caseService.claimTask(tasks.get(1).getId(), "carol");
+
+        StoryboardService.StoryboardView before = storyboardService.getStoryboard();
+        // Unchanged data -> same ETag
+        assertThat(storyboardService.getStoryboard().etag()).isEqualTo(before.etag());
+        assertThat(lane(before, "carol").getNewTasks()).hasSize(2);
+
+        // Task-local status moves a task to WIP
+        taskService.setVariableLocal(tasks.get(0).getId(), "status", "In Progress");
+        StoryboardService.StoryboardView wip = storyboardService.getStoryboard();
+        assertThat(wip.etag()).isNotEqualTo(before.etag());
+        assertThat(lane(wip, "carol").getWipTasks()).extracting(UserStoryboardDTO.TaskSummaryDTO::getStatus)
+                .containsExactly("In Progress");
+        assertThat(lane(wip, "carol").getNewTasks()).hasSize(1);
+
+        // Completion moves it to CLOSED
+        caseService.completeTask(tasks.get(1).getId(), new HashMap<>(), "carol");
+        UserStoryboardDTO carol = lane(storyboardService.getStoryboard(), "carol");
+        assertThat(carol.getNewTasks()).isEmpty();
+        assertThat(carol.getClosedTasks()).extracting(UserStoryboardDTO.TaskSummaryDTO::getTaskId)
+                .contains(tasks.get(1).getId());
+    }
+
+    private UserStoryboardDTO lane(StoryboardService.StoryboardView view, String userId) {
+        return view.items().stream().filter(u -> userId.equals(u.getUserId())).findFirst().orElseThrow();
+    }
+
+    private int groupCount() {
+        List<GroupWorkloadDTO> groups = caseService.getGroupWorkload(List.of(GROUP));
+        return groups.get(0).getPendingCount();
+    }
+
+    private int userCount(String userId) {
+        return caseService.getUserWorkload().stream()
+                .filter(u -> userId.equals(u.getUserId()))
+                .mapToInt(UserWorkloadDTO::getPendingCount)
+                .findFirst().orElse(0);
+    }
+
+    private void deployWorkflow() {
+        testWorkflows.deploy(WORKFLOW_CODE, "Workload Test Flow",
+                stage("WL_STAGE_1", "Queue Review").rules("{\"mechanism\":\"GROUP_QUEUE\",\"groupName\":\"" + GROUP + "\"}"),
+                stage("WL_STAGE_2", "Second Review"));
+    }
+}
@@ -1,7 +1,9 @@
 package com.workflow.service.controller;
 
+import com.workflow.service.dto.BulkJobDTO;
 import com.workflow.service.dto.CaseDTO;
 import com.workflow.service.dto.StageDTO;
+import com.workflow.service.service.BulkCaseInitiationService;
 import com.workflow.service.service.CaseService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +31,9 @@ public class CaseControllerTest {
     @MockBean
     private CaseService caseService;
 
+    @MockBean
+    private BulkCaseInitiationService bulkCaseInitiationService;
+
     @Test
     void testInitiateCase() throws Exception {
         when(caseService.initiateCase(anyString(), anyMap(), anyString())).thenReturn("DIS-123");
@@ -49,7 +54,7 @@ public class CaseControllerTest {
         dto.setWorkflowCode("LOAN_PROCESS");
         dto.setStatus("ACTIVE");
 
-        when(caseService.getCaseDetails("DIS-123")).thenReturn(dto);
+        when(caseService.getCaseDetails(eq("DIS-123"), any())).thenReturn(dto);
 
         mockMvc.perform(get("/api/runtime/cases/DIS-123"))
                 .andExpect(status().isOk())
@@ -59,7 +64,7 @@ public class CaseControllerTest {
 
     @Test
     void testGetCaseDetailsNotFound() throws Exception {
-        when(caseService.getCaseDetails("UNKNOWN")).thenThrow(new IllegalArgumentException("Case not found"));
+        when(caseService.getCaseDetails(eq("UNKNOWN"), any())).thenThrow(new IllegalArgumentException("Case not found"));
 
         mockMvc.perform(get("/api/runtime/cases/UNKNOWN"))
                 .andExpect(status().isNotFound());
@@ -71,10 +76,28 @@ public class CaseControllerTest {
         stage.setStageName("Review");
         stage.setStatus("ACTIVE");
 
-        when(caseService.getStages("DIS-123")).thenReturn(List.of(stage));
+        when(caseService.getStages(eq("DIS-123"), any())).thenReturn(List.of(stage));
 
         mockMvc.perform(get("/api/runtime/cases/DIS-123/stages"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].stageName").value("Review"));
     }
+
+    @Test
+    void testInitiateCasesBulkNdjson() throws Exception {
+        when(bulkCaseInitiationService.submit(argThat(items -> items.size() == 2
+                && "REF-2".equals(items.get(1).getCorrelationId())), isNull()))
+                .thenReturn(BulkJobDTO.builder().jobId("job-1").status("QUEUED").total(2).build());
+
+        String payload = "{\"workflowCode\": \"LOAN_PROCESS\", \"correlationId\": \"REF-1\"}\n"
+                + "\n"
+                + "{\"workflowCode\": \"LOAN_PROCESS\", \"correlationId\": \"REF-2\"}\n";
+
+        mockMvc.perform(post("/api/runtime/cases/bulk")
+                .contentType("application/x-ndjson")
+                .content(payload))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").value("job-1"))
+                .andExpect(jsonPath("$.total").value(2));
+    }
 }
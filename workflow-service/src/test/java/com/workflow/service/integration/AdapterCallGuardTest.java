@@ -0,0 +1,109 @@
+package com.workflow.service.integration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AdapterCallGuardTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void testCircuitOpensAfterConsecutiveFailuresAndClosesOnTrial() throws Exception {
+        AdapterCallGuard guard = new AdapterCallGuard(AdapterEndpoint.ROLE_MEMBERS, 5, Duration.ofMillis(50), 3,
+                Duration.ofMillis(200), registry);
+
+        // Answers from the adapter (4xx) are not failures
+        assertThatThrownBy(() -> guard.call(() -> {
+            throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+        })).isInstanceOf(HttpClientErrorException.class);
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> guard.call(this::timeout)).isInstanceOf(ResourceAccessException.class);
+        }
+        assertThat(guard.isOpen()).isTrue();
+        assertThatThrownBy(() -> guard.call(() -> "never called")).isInstanceOf(AdapterUnavailableException.class);
+
+        Thread.sleep(250);
+        // Failed trial: open again straight away
+        assertThatThrownBy(() -> guard.call(this::timeout)).isInstanceOf(ResourceAccessException.class);
+        assertThatThrownBy(() -> guard.call(() -> "never called")).isInstanceOf(AdapterUnavailableException.class);
+
+        Thread.sleep(250);
+        assertThat(guard.call(() -> "ok")).isEqualTo("ok");
+        assertThat(guard.isOpen()).isFalse();
+
+        assertThat(count("success")).isEqualTo(1);
+        assertThat(count("client-error")).isEqualTo(1);
+        assertThat(count("error")).isEqualTo(4);
+        assertThat(count("short-circuited")).isEqualTo(2);
+        assertThat(registry.get("workflow.user-adapter.circuit.open").tag("endpoint", "role-members").gauge().value())
+                .isZero();
+    }
+
+    @Test
+    public void testBulkheadRejectsBeyondMaxConcurrent() throws Exception {
+        AdapterCallGuard guard = new AdapterCallGuard(AdapterEndpoint.USER_SEARCH, 2, Duration.ofMillis(20), 3,
+                Duration.ofSeconds(30), registry);
+        CountDownLatch inFlight = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = threads.submit(() -> guard.call(() -> block(inFlight, release)));
+            Future<?> second = threads.submit(() -> guard.call(() -> block(inFlight, release)));
+            assertThat(inFlight.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> guard.call(() -> "rejected"))
+                    .isInstanceOf(AdapterUnavailableException.class)
+                    .hasMessageContaining("bulkhead full");
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            threads.shutdownNow();
+        }
+        // Rejections say nothing about hrms-service health
+        assertThat(guard.isOpen()).isFalse();
+        assertThat(guard.call(() -> "ok")).isEqualTo("ok");
+        assertThat(registry.get(AdapterCallGuard.TIMER).tag("endpoint", "user-search").tag("outcome", "rejected")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testEndpointForRequestPath() {
+        assertThat(AdapterEndpoint.forPath("/api/adapter/resolve-users/batch")).contains(AdapterEndpoint.RESOLVE_USERS_BATCH);
+        assertThat(AdapterEndpoint.forPath("/api/adapter/resolve-users")).contains(AdapterEndpoint.RESOLVE_USERS);
+        assertThat(AdapterEndpoint.forPath("/api/adapter/role-members")).contains(AdapterEndpoint.ROLE_MEMBERS);
+        assertThat(AdapterEndpoint.forPath("/api/adapter/unknown")).isEmpty();
+    }
+
+    private String timeout() {
+        throw new ResourceAccessException("Read timed out");
+    }
+
+    private String block(CountDownLatch inFlight, CountDownLatch release) {
+        inFlight.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+
+    private long count(String outcome) {
+        return registry.get(AdapterCallGuard.TIMER).tag("endpoint", "role-members").tag("outcome", outcome)
+                .timer().count();
+    }
+}
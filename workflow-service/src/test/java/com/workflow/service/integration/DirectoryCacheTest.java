@@ -0,0 +1,74 @@
+package com.workflow.service.integration;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DirectoryCacheTest {
+
+    @Test
+    public void testFreshStaleAndInvalidation() throws Exception {
+        // Direct executor: background refreshes run inline
+        DirectoryCache<String, String> cache = new DirectoryCache<>("test", Duration.ofMillis(50),
+                Duration.ofMinutes(1), 100, Runnable::run);
+        AtomicInteger loads = new AtomicInteger();
+        AtomicInteger version = new AtomicInteger(1);
+
+        assertThat(cache.get("ROLE", k -> "v" + version.get() + "-" + loads.incrementAndGet())).isEqualTo("v1-1");
+        assertThat(cache.get("ROLE", k -> "v" + version.get() + "-" + loads.incrementAndGet())).isEqualTo("v1-1");
+        assertThat(loads).hasValue(1);
+
+        // Stale: old value is served, reload happens behind it
+        Thread.sleep(60);
+        version.set(2);
+        assertThat(cache.get("ROLE", k -> "v" + version.get() + "-" + loads.incrementAndGet())).isEqualTo("v1-1");
+        assertThat(cache.get("ROLE", k -> "v" + version.get() + "-" + loads.incrementAndGet())).isEqualTo("v2-2");
+
+        // Invalidation forces a synchronous reload
+        version.set(3);
+        cache.invalidate(List.of("ROLE"));
+        assertThat(cache.get("ROLE", k -> "v" + version.get() + "-" + loads.incrementAndGet())).isEqualTo("v3-3");
+    }
+
+    @Test
+    public void testFailedLoadsAreNotCachedAndBulkLoadsOnlyMisses() {
+        DirectoryCache<String, String> cache = new DirectoryCache<>("test", Duration.ofMinutes(1),
+                Duration.ofMinutes(1), 100, Runnable::run);
+
+        assertThat(cache.get("u1", k -> null)).isNull();
+        assertThat(cache.size()).isZero();
+
+        cache.get("u1", k -> "Alice");
+        List<List<String>> requested = new java.util.ArrayList<>();
+        Map<String, String> names = cache.getAll(List.of("u1", "u2", "u3"), keys -> {
+            requested.add(List.copyOf(keys));
+            Map<String, String> loaded = new HashMap<>();
+            keys.forEach(k -> loaded.put(k, "name-" + k));
+            return loaded;
+        });
+        assertThat(requested).containsExactly(List.of("u2", "u3"));
+        assertThat(names).containsEntry("u1", "Alice").containsEntry("u2", "name-u2").hasSize(3);
+    }
+
+    @Test
+    public void testSizeBoundEvictsOldest() throws Exception {
+        DirectoryCache<Integer, Integer> cache = new DirectoryCache<>("test", Duration.ofMinutes(1),
+                Duration.ofMinutes(1), 3, Runnable::run);
+        for (int i = 0; i < 5; i++) {
+            int value = i;
+            cache.get(i, k -> value);
+            Thread.sleep(2);
+        }
+        assertThat(cache.size()).isEqualTo(3);
+        AtomicInteger reloads = new AtomicInteger();
+        cache.get(4, k -> reloads.incrementAndGet());
+        cache.get(0, k -> reloads.incrementAndGet());
+        assertThat(reloads).hasValue(1);
+    }
+}
@@ -0,0 +1,62 @@
+package com.workflow.service.integration;
+
+import com.workflow.service.dto.ResolutionRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResolutionBatcherTest {
+
+    @Test
+    public void testConcurrentRequestsShareOneCall() throws Exception {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        ResolutionBatcher batcher = new ResolutionBatcher(requests -> {
+            batchSizes.add(requests.size());
+            return requests.stream().map(r -> List.of("user-" + r.getRole())).toList();
+        }, 200, 100, 5_000);
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                // Two distinct requests, each sent four times
+                String role = i % 2 == 0 ? "A" : "B";
+                results.add(callers.submit(() -> batcher.resolve(request(role))));
+            }
+            for (int i = 0; i < 8; i++) {
+                assertThat(results.get(i).get()).containsExactly(i % 2 == 0 ? "user-A" : "user-B");
+            }
+        } finally {
+            callers.shutdownNow();
+            batcher.shutdown();
+        }
+
+        // Coalesced and de-duplicated: far fewer calls than callers, never more than 2 requests per call
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isLessThan(8);
+        assertThat(batchSizes).allMatch(size -> size <= 2);
+    }
+
+    @Test
+    public void testFailedBatchResolvesToNoCandidates() {
+        ResolutionBatcher batcher = new ResolutionBatcher(requests -> null, 1, 100, 5_000);
+        try {
+            assertThat(batcher.resolve(request("A"))).isEmpty();
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    private static ResolutionRequest request(String role) {
+        ResolutionRequest request = new ResolutionRequest();
+        request.setRole(role);
+        request.setRegion("Mumbai");
+        return request;
+    }
+}
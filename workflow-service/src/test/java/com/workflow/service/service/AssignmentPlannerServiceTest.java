@@ -0,0 +1,127 @@
+package com.workflow.service.service;
+
+import com.workflow.service.entity.TaskWorkloadProjection;
+import com.workflow.service.integration.UserAdapterClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flowable.common.engine.api.FlowableException;
+import org.flowable.engine.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AssignmentPlannerServiceTest {
+
+    @Mock
+    private WorkloadProjectionService workloadProjectionService;
+
+    @Mock
+    private WorkloadCounterService workloadCounterService;
+
+    @Mock
+    private UserAdapterClient userAdapterClient;
+
+    @Mock
+    private CalendarService calendarService;
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, List<TaskWorkloadProjection>> queues = new HashMap<>();
+    private final Map<String, String> claims = new LinkedHashMap<>();
+    private long version;
+    private AssignmentPlannerService planner;
+
+    @BeforeEach
+    public void setUp() {
+        planner = new AssignmentPlannerService(workloadProjectionService, workloadCounterService, userAdapterClient,
+                calendarService, taskService, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(planner, "timeBudgetMs", 100L);
+        ReflectionTestUtils.setField(planner, "maxBatch", 500);
+        ReflectionTestUtils.setField(planner, "chunkSize", 50);
+        when(workloadProjectionService.version()).thenAnswer(inv -> version);
+        when(workloadProjectionService.unassignedTasksByGroup()).thenAnswer(inv -> queues);
+        when(calendarService.getEffectiveAssignees(anyCollection())).thenAnswer(inv -> {
+            Map<String, String> identity = new LinkedHashMap<>();
+            inv.<List<String>>getArgument(0).forEach(u -> identity.put(u, u));
+            return identity;
+        });
+        when(workloadCounterService.openTasks(anyString())).thenReturn(0);
+    }
+
+    @Test
+    public void testOnlyNewOrChangedTasksAreReplanned() {
+        when(userAdapterClient.getRoleMembers("underwriters")).thenReturn(List.of("alice", "bob"));
+        when(userAdapterClient.getRoleMembers("auditors")).thenReturn(List.of());
+        doAnswer(inv -> claims.put(inv.getArgument(0), inv.getArgument(1)))
+                .when(taskService).claim(anyString(), anyString());
+        queues.put("underwriters", new ArrayList<>(List.of(task("t1"), task("t2"), task("t3"))));
+        queues.put("auditors", new ArrayList<>(List.of(task("a1"))));
+
+        assertThat(planner.run()).isEqualTo(3);
+        assertThat(claims).containsOnlyKeys("t1", "t2", "t3");
+        assertThat(claims.values()).containsOnly("alice", "bob");
+        assertThat(meterRegistry.get("workflow.planner.parked").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("workflow.planner.solve").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("workflow.planner.score.hard").gauge().value()).isEqualTo(-1);
+
+        // Nothing changed: no solve
+        queues.remove("underwriters");
+        assertThat(planner.run()).isZero();
+        version++;
+        assertThat(planner.run()).isZero();
+        assertThat(meterRegistry.get("workflow.planner.solve").timer().count()).isEqualTo(1);
+
+        // The auditors gain a member: the parked task is planned again
+        when(userAdapterClient.getRoleMembers("auditors")).thenReturn(List.of("carol"));
+        version++;
+        assertThat(planner.run()).isEqualTo(1);
+        assertThat(claims).containsEntry("a1", "carol");
+        assertThat(meterRegistry.get("workflow.planner.assigned").counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    public void testFailedClaimsDoNotBlockTheBatch() {
+        when(userAdapterClient.getRoleMembers("underwriters")).thenReturn(List.of("alice"));
+        lenient().doThrow(new FlowableException("already claimed")).when(taskService).claim("t2", "alice");
+        queues.put("underwriters", List.of(task("t1"), task("t2"), task("t3")));
+
+        assertThat(planner.run()).isEqualTo(2);
+        // The chunk rolled back, then each task was claimed on its own
+        verify(taskService, atLeastOnce()).claim("t1", "alice");
+        verify(taskService, atLeastOnce()).claim("t3", "alice");
+        assertThat(meterRegistry.get("workflow.planner.apply.failed").counter().count()).isEqualTo(1);
+    }
+
+    private static TaskWorkloadProjection task(String taskId) {
+        TaskWorkloadProjection row = new TaskWorkloadProjection();
+        row.setTaskId(taskId);
+        row.setCreatedTime(LocalDateTime.now());
+        return row;
+    }
+}
@@ -0,0 +1,97 @@
+package com.workflow.service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workflow.service.entity.StageAction;
+import com.workflow.service.entity.StageConfig;
+import com.workflow.service.entity.WorkflowMaster;
+import com.workflow.service.repository.ScreenMappingRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Generation time for 10/100/500-stage workflows: executable model and XML (the deploy path)
+ * against the same plus auto-layout (the preview path), both uncached. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class BpmnGenerationBenchmarkTest {
+
+    private static final int[] SIZES = { 10, 100, 500 };
+
+    private final ScreenMappingRepository screenMappingRepository = Mockito.mock(ScreenMappingRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void generationTimeByWorkflowSize() {
+        when(screenMappingRepository.findByStageCode(Mockito.anyString())).thenReturn(Collections.emptyList());
+
+        for (int size : SIZES) {
+            WorkflowMaster workflow = new WorkflowMaster();
+            workflow.setWorkflowCode("GEN_BENCH_" + size);
+            workflow.setWorkflowName("Generation Benchmark " + size);
+            List<StageConfig> stages = stages(size);
+            int iterations = Math.max(3, 2000 / size);
+
+            double executableMs = measure(iterations, service -> service.generateBpmnXml(workflow, stages));
+            double previewMs = measure(iterations, service -> service.generateDiagramXml(workflow, stages));
+            System.out.printf("[benchmark] bpmn-generation stages=%-3d executable=%.2fms preview(layout)=%.2fms%n",
+                    size, executableMs, previewMs);
+        }
+    }
+
+    // Mean milliseconds per generation after warm-up; a fresh service per call keeps the caches cold
+    private double measure(int iterations, Function<BpmnGeneratorService, String> generation) {
+        for (int i = 0; i < iterations; i++) {
+            generation.apply(new BpmnGeneratorService(screenMappingRepository, objectMapper));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            assertThat(generation.apply(new BpmnGeneratorService(screenMappingRepository, objectMapper))).isNotEmpty();
+        }
+        return (System.nanoTime() - start) / 1e6 / iterations;
+    }
+
+    // Sequential stages with an approve/reject gateway each, every fifth one conditional and
+    // every tenth pair running in parallel
+    private List<StageConfig> stages(int size) {
+        List<StageConfig> stages = new ArrayList<>();
+        int sequence = 0;
+        for (int i = 0; i < size; i++) {
+            StageConfig stage = new StageConfig();
+            stage.setStageCode("S" + i);
+            stage.setStageName("Stage " + i);
+            boolean parallelWithPrevious = i % 10 == 1;
+            if (!parallelWithPrevious) {
+                sequence++;
+            }
+            stage.setSequenceOrder(sequence);
+            if (i % 10 == 0 || parallelWithPrevious) {
+                stage.setParallelGrouping("P" + (i / 10));
+            } else {
+                stage.getActions().add(action("APPROVE", "NEXT"));
+                stage.getActions().add(action("REJECT", "END"));
+                if (i % 5 == 0) {
+                    stage.setEntryCondition("${amount > " + i + "}");
+                }
+            }
+            stages.add(stage);
+        }
+        return stages;
+    }
+
+    private StageAction action(String label, String targetType) {
+        StageAction action = new StageAction();
+        action.setActionLabel(label);
+        action.setTargetType(targetType);
+        return action;
+    }
+}
@@ -12,7 +12,10 @@ import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -79,7 +82,7 @@ class BpmnGeneratorServiceTest {
         WorkflowMaster workflow = new WorkflowMaster();
         workflow.setWorkflowCode("SLA_FLOW");
         workflow.setWorkflowName("SLA Flow");
-        workflow.setSlaDurationDays(new BigDecimal("1.5")); // 36 Hours
+        workflow.setSlaDurationDays(new BigDecimal("1.5")); // 1.5 business days
 
         StageConfig stage = new StageConfig();
         stage.setStageCode("STAGE_SLA");
@@ -91,7 +94,8 @@ class BpmnGeneratorServiceTest {
         String xml = bpmnGeneratorService.generateBpmnXml(workflow, List.of(stage));
 
         assertTrue(xml.contains("boundaryEvent id=\"timer_STAGE_SLA\""), "Should attach timer boundary event");
-        assertTrue(xml.contains("timeDuration>PT36H<"), "Should calculate correct duration (1.5 days = 36 hours)");
+        assertTrue(xml.contains("timeDate>${calendarService.slaDueDate(execution, '1.5')}<"),
+                "Should compute a business-hours due date for 1.5 days");
 
         // Assert Notification Path
         assertTrue(xml.contains("serviceTask id=\"slaNotification_STAGE_SLA\""),
@@ -105,12 +109,12 @@ class BpmnGeneratorServiceTest {
         WorkflowMaster workflow = new WorkflowMaster();
         workflow.setWorkflowCode("STAGE_SLA_FLOW");
         workflow.setWorkflowName("Stage SLA Flow");
-        workflow.setSlaDurationDays(new BigDecimal("10.0")); // Global 240 Hours
+        workflow.setSlaDurationDays(new BigDecimal("10.0")); // Global 10 days
 
         StageConfig stage = new StageConfig();
         stage.setStageCode("STAGE_CUSTOM_SLA");
         stage.setStageName("Stage with Custom SLA");
-        stage.setSlaDurationDays(new BigDecimal("0.5")); // Stage Specific: 12 Hours
+        stage.setSlaDurationDays(new BigDecimal("0.5")); // Stage Specific: half a day
         stage.setNestedWorkflow(false);
 
         when(screenMappingRepository.findByStageCode("STAGE_CUSTOM_SLA")).thenReturn(Collections.emptyList());
@@ -118,7 +122,7 @@ class BpmnGeneratorServiceTest {
         String xml = bpmnGeneratorService.generateBpmnXml(workflow, List.of(stage));
 
         assertTrue(xml.contains("boundaryEvent id=\"timer_STAGE_CUSTOM_SLA\""));
-        assertTrue(xml.contains("timeDuration>PT12H<"), "Should use Stage SLA (12h) instead of Global (240h)");
+        assertTrue(xml.contains("slaDueDate(execution, '0.5')"), "Should use Stage SLA (0.5) instead of Global (10)");
     }
 
     @Test
@@ -220,4 +224,66 @@ class BpmnGeneratorServiceTest {
         assertTrue(xml.contains("sourceRef=\"A2\" targetRef=\"join_1\""));
         assertTrue(xml.contains("sourceRef=\"join_1\" targetRef=\"B\""));
     }
+
+    @Test
+    void testGenerationIsDeterministicAndCachedByContent() {
+        WorkflowMaster workflow = new WorkflowMaster();
+        workflow.setWorkflowCode("CACHED_FLOW");
+        workflow.setWorkflowName("Cached Flow");
+
+        StageConfig review = new StageConfig();
+        review.setStageCode("REVIEW");
+        review.setStageName("Review");
+        review.setSequenceOrder(1);
+        review.setEntryCondition("${amount > 100}");
+        com.workflow.service.entity.StageAction reject = new com.workflow.service.entity.StageAction();
+        reject.setActionLabel("REJECT");
+        reject.setTargetType("END");
+        review.getActions().add(reject);
+
+        StageConfig approve = new StageConfig();
+        approve.setStageCode("APPROVE");
+        approve.setStageName("Approve");
+        approve.setSequenceOrder(2);
+
+        when(screenMappingRepository.findByStageCode(Mockito.anyString())).thenReturn(Collections.emptyList());
+
+        BpmnGeneratorService.GeneratedBpmn first = bpmnGeneratorService.generate(workflow, List.of(review, approve));
+        BpmnGeneratorService uncached = new BpmnGeneratorService(screenMappingRepository, new ObjectMapper());
+        String regenerated = uncached.generateBpmnXml(workflow, List.of(approve, review));
+
+        assertEquals(first.xml(), regenerated, "Same config must generate byte-identical XML");
+        assertSame(first, bpmnGeneratorService.generate(workflow, List.of(review, approve)));
+
+        // Screen mappings are part of the content
+        ScreenMapping screen = new ScreenMapping();
+        screen.setStageCode("APPROVE");
+        screen.setScreenCode("APPROVAL_FORM");
+        when(screenMappingRepository.findByStageCode("APPROVE")).thenReturn(List.of(screen));
+
+        BpmnGeneratorService.GeneratedBpmn remapped = bpmnGeneratorService.generate(workflow, List.of(review, approve));
+        assertNotEquals(first.contentHash(), remapped.contentHash());
+        assertTrue(remapped.xml().contains("APPROVAL_FORM"));
+    }
+
+    @Test
+    void testOnlyPreviewIsLaidOut() {
+        WorkflowMaster workflow = new WorkflowMaster();
+        workflow.setWorkflowCode("LAYOUT_FLOW");
+        workflow.setWorkflowName("Layout Flow");
+
+        StageConfig stage = new StageConfig();
+        stage.setStageCode("STAGE_1");
+        stage.setStageName("Stage 1");
+        stage.setSequenceOrder(1);
+
+        when(screenMappingRepository.findByStageCode("STAGE_1")).thenReturn(Collections.emptyList());
+
+        String executable = bpmnGeneratorService.generateBpmnXml(workflow, List.of(stage));
+        String diagram = bpmnGeneratorService.generateDiagramXml(workflow, List.of(stage));
+
+        assertFalse(executable.contains("BPMNShape"), "Deployment XML should skip layout");
+        assertTrue(diagram.contains("BPMNShape bpmnElement=\"STAGE_1\""), "Preview XML should carry the diagram");
+        assertSame(diagram, bpmnGeneratorService.generateDiagramXml(workflow, List.of(stage)));
+    }
 }
@@ -0,0 +1,184 @@
+package com.workflow.service.service;
+
+import com.workflow.service.entity.OrgHoliday;
+import com.workflow.service.entity.UserLeave;
+import com.workflow.service.repository.OrgHolidayRepository;
+import com.workflow.service.repository.UserLeaveRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CalendarServiceTest {
+
+    @Mock
+    private OrgHolidayRepository holidayRepository;
+
+    @Mock
+    private UserLeaveRepository leaveRepository;
+
+    @InjectMocks
+    private CalendarService calendarService;
+
+    @Test
+    public void testLeaveLookupsAreServedFromTheIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        List<UserLeave> leaves = new ArrayList<>(List.of(
+                leave(1L, "alice", now.minusDays(2), now.plusDays(2), "bob"),
+                leave(2L, "carol", now.minusDays(1), now.plusDays(1), "dave"),
+                leave(3L, "dave", now.minusHours(1), now.plusHours(1), null),
+                leave(4L, "erin", now.plusDays(3), now.plusDays(5), "bob"),        // upcoming
+                leave(5L, "frank", now.minusDays(30), now.plusDays(30), "bob"),    // long leave ...
+                leave(6L, "frank", now.minusDays(20), now.minusDays(10), null),    // ... spanning a short past one
+                leave(7L, "grace", now.minusDays(1), now.plusDays(1), "bob")));
+        leaves.get(6).setActive(false);
+        when(leaveRepository.findCurrentAndUpcoming(any())).thenReturn(leaves);
+
+        assertThat(calendarService.getActiveLeave("alice")).extracting(UserLeave::getId).isEqualTo(1L);
+        assertThat(calendarService.getActiveLeave("erin")).isNull();
+        assertThat(calendarService.getActiveLeave("frank")).extracting(UserLeave::getId).isEqualTo(5L);
+        assertThat(calendarService.getActiveLeave("grace")).isNull();
+        assertThat(calendarService.getActiveLeave("nobody")).isNull();
+
+        // Substitute on leave too: stays with the original user
+        assertThat(calendarService.getEffectiveAssignees(List.of("alice", "carol", "erin", "frank", "alice")))
+                .containsExactly(
+                        entry("alice", "bob"),
+                        entry("carol", "carol"),
+                        entry("erin", "erin"),
+                        entry("frank", "bob"));
+        assertThat(calendarService.getEffectiveAssignee("carol")).isEqualTo("carol");
+
+        // One load for all of the above
+        verify(leaveRepository, times(1)).findCurrentAndUpcoming(any());
+    }
+
+    @Test
+    public void testWritesRefreshTheIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        List<UserLeave> stored = new ArrayList<>();
+        when(leaveRepository.findCurrentAndUpcoming(any())).thenAnswer(inv -> new ArrayList<>(stored));
+        when(leaveRepository.save(any())).thenAnswer(inv -> {
+            stored.add(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+
+        assertThat(calendarService.getEffectiveAssignee("alice")).isEqualTo("alice");
+
+        calendarService.saveLeave(leave(1L, "alice", now.minusHours(1), now.plusHours(1), "bob"));
+        assertThat(calendarService.getEffectiveAssignee("alice")).isEqualTo("bob");
+
+        stored.clear();
+        calendarService.deleteLeave(1L);
+        verify(leaveRepository).deleteById(1L);
+        assertThat(calendarService.getEffectiveAssignee("alice")).isEqualTo("alice");
+    }
+
+    @Test
+    public void testBusinessDaysMatchTheDayByDayWalk() {
+        Set<LocalDate> holidays = Set.of(LocalDate.of(2026, 12, 21), LocalDate.of(2026, 12, 25),
+                LocalDate.of(2027, 1, 1), LocalDate.of(2027, 4, 2));
+        when(holidayRepository.findByRegion("US")).thenReturn(holidays.stream().map(d -> holiday(d, "US")).toList());
+
+        assertThat(calendarService.calculateSlaDueDate(LocalDate.of(2026, 12, 18), 3, "US"))
+                .isEqualTo(LocalDate.of(2026, 12, 24));
+        // Across the year end and its holiday
+        assertThat(calendarService.calculateSlaDueDate(LocalDate.of(2026, 12, 30), 3, "US"))
+                .isEqualTo(LocalDate.of(2027, 1, 5));
+        assertThat(calendarService.isHoliday(LocalDate.of(2027, 1, 1), "US")).isTrue();
+
+        LocalDate start = LocalDate.of(2026, 11, 1);
+        for (int offset = 0; offset < 120; offset += 7) {
+            for (int days = 0; days <= 300; days += 13) {
+                LocalDate from = start.plusDays(offset);
+                assertThat(calendarService.calculateSlaDueDate(from, days, "US"))
+                        .as("%s + %d business days", from, days)
+                        .isEqualTo(walk(from, days, holidays));
+            }
+        }
+        // Compiled once for the region
+        verify(holidayRepository, times(1)).findByRegion("US");
+    }
+
+    @Test
+    public void testBusinessHoursDueDates() {
+        ReflectionTestUtils.setField(calendarService, "businessDayStart", "09:00");
+        ReflectionTestUtils.setField(calendarService, "businessDayEnd", "18:00");
+        when(holidayRepository.findByRegion("US")).thenReturn(List.of(holiday(LocalDate.of(2026, 12, 21), "US")));
+
+        // Friday 16:00 + half a day (4.5h): 2h on Friday, Monday is a holiday, 2.5h on Tuesday
+        assertThat(calendarService.calculateSlaDueDateTime(LocalDateTime.of(2026, 12, 18, 16, 0),
+                new BigDecimal("0.5"), "US")).isEqualTo(LocalDateTime.of(2026, 12, 22, 11, 30));
+        // 1.5 days from opening: a full Tuesday plus half of Wednesday
+        assertThat(calendarService.calculateSlaDueDateTime(LocalDateTime.of(2026, 12, 22, 9, 0),
+                new BigDecimal("1.5"), "US")).isEqualTo(LocalDateTime.of(2026, 12, 23, 13, 30));
+        // Started on a Saturday evening: counts from Tuesday's opening
+        assertThat(calendarService.calculateSlaDueDateTime(LocalDateTime.of(2026, 12, 19, 20, 0),
+                BigDecimal.ONE, "US")).isEqualTo(LocalDateTime.of(2026, 12, 22, 18, 0));
+    }
+
+    @Test
+    public void testHolidayWritesRecompileTheCalendar() {
+        List<OrgHoliday> stored = new ArrayList<>();
+        when(holidayRepository.findByRegion(anyString())).thenAnswer(inv -> new ArrayList<>(stored));
+        when(holidayRepository.save(any())).thenAnswer(inv -> {
+            stored.add(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        LocalDate monday = LocalDate.of(2026, 12, 21);
+
+        assertThat(calendarService.calculateSlaDueDate(monday.minusDays(3), 1, "IN")).isEqualTo(monday);
+        calendarService.saveHoliday(holiday(monday, "IN"));
+        assertThat(calendarService.calculateSlaDueDate(monday.minusDays(3), 1, "IN")).isEqualTo(monday.plusDays(1));
+    }
+
+    // The former implementation: one day at a time
+    private static LocalDate walk(LocalDate from, int days, Set<LocalDate> holidays) {
+        LocalDate current = from;
+        int added = 0;
+        while (added < days) {
+            current = current.plusDays(1);
+            if (current.getDayOfWeek() != DayOfWeek.SATURDAY && current.getDayOfWeek() != DayOfWeek.SUNDAY
+                    && !holidays.contains(current)) {
+                added++;
+            }
+        }
+        return current;
+    }
+
+    private static OrgHoliday holiday(LocalDate date, String region) {
+        OrgHoliday holiday = new OrgHoliday();
+        holiday.setDate(date);
+        holiday.setRegion(region);
+        return holiday;
+    }
+
+    private static UserLeave leave(Long id, String userId, LocalDateTime from, LocalDateTime to, String substitute) {
+        UserLeave leave = new UserLeave();
+        leave.setId(id);
+        leave.setUserId(userId);
+        leave.setFromDate(from);
+        leave.setToDate(to);
+        leave.setSubstituteUserId(substitute);
+        return leave;
+    }
+}
@@ -0,0 +1,52 @@
+package com.workflow.service.solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AssignmentSolverTest {
+
+    @Test
+    public void testBalancesAgainstExistingLoadWithinEligibility() {
+        List<AssignmentSolver.PlanningTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            tasks.add(new AssignmentSolver.PlanningTask("any-" + i, List.of("alice", "bob", "carol"), Long.MAX_VALUE));
+        }
+        // Only carol may take these; they must not push work from the others onto her
+        tasks.add(new AssignmentSolver.PlanningTask("carol-1", List.of("carol"), 1));
+        tasks.add(new AssignmentSolver.PlanningTask("carol-2", List.of("carol"), 2));
+        tasks.add(new AssignmentSolver.PlanningTask("nobody", List.of(), 0));
+
+        AssignmentSolver.Solution solution = AssignmentSolver.solve(tasks, Map.of("alice", 3), Duration.ofSeconds(1));
+
+        assertThat(solution.unassignable()).containsExactly("nobody");
+        assertThat(solution.assignments()).containsEntry("carol-1", "carol").containsEntry("carol-2", "carol");
+        Map<String, Integer> load = new HashMap<>(Map.of("alice", 3));
+        solution.assignments().values().forEach(user -> load.merge(user, 1, Integer::sum));
+        // 3 + 8 planned over three users: no user more than one above another
+        assertThat(load).containsEntry("alice", 4).containsEntry("bob", 4).containsEntry("carol", 3);
+        assertThat(solution.score()).isEqualTo(new AssignmentSolver.Score(-1, -(16 + 16 + 9)));
+    }
+
+    @Test
+    public void testLocalSearchRepairsConstructionOrder() {
+        // Urgent flexible tasks go first and fill bob; the constrained ones then pile onto alice
+        List<AssignmentSolver.PlanningTask> tasks = List.of(
+                new AssignmentSolver.PlanningTask("flex-1", List.of("alice", "bob"), 1),
+                new AssignmentSolver.PlanningTask("flex-2", List.of("alice", "bob"), 2),
+                new AssignmentSolver.PlanningTask("alice-1", List.of("alice"), 3),
+                new AssignmentSolver.PlanningTask("alice-2", List.of("alice"), 4));
+
+        AssignmentSolver.Solution solution = AssignmentSolver.solve(tasks, Map.of(), Duration.ofSeconds(1));
+
+        assertThat(solution.assignments()).containsEntry("flex-1", "bob").containsEntry("flex-2", "bob");
+        assertThat(solution.movesApplied()).isPositive();
+        assertThat(solution.score()).isEqualTo(new AssignmentSolver.Score(0, -8));
+    }
+}
@@ -107,6 +107,7 @@ export function AssignmentBuilder({ value, onChange }: AssignmentBuilderProps) {
                     data={[
                         { label: 'Group Queue', value: 'GROUP' },
                         { label: 'Round Robin', value: 'ROUND_ROBIN' },
+                        { label: 'Least Loaded', value: 'LEAST_LOADED' },
                         { label: 'Matrix Rules', value: 'MATRIX' },
                         { label: 'Manual', value: 'MANUAL' },
                         { label: 'Prior Actor', value: 'STICKY' }
@@ -158,6 +159,20 @@ export function AssignmentBuilder({ value, onChange }: AssignmentBuilderProps) {
                 </Card>
             )}
 
+            {mechanism === 'LEAST_LOADED' && (
+                <Card withBorder p="sm">
+                    <Text size="sm" mb={5}>Least Loaded Pool</Text>
+                    <Select
+                        placeholder="Select Pool/Role"
+                        data={roleOptions}
+                        searchable
+                        value={groupName}
+                        onChange={(val) => handleGroupChange(val || '')}
+                    />
+                    <Text size="xs" c="dimmed" mt={5}>Tasks will be assigned to the member of this group with the fewest open tasks.</Text>
+                </Card>
+            )}
+
             {mechanism === 'MANUAL' && (
                 <Card withBorder p="sm">
                     <Text size="sm" mb={5}>Manual Assignment Logic</Text>
@@ -39,9 +39,13 @@ interface HistoricStageDto {
     processVariables?: any;
 }
 
+const CASE_PAGE_SIZE = 50;
+
 function TaskInbox() {
     const [activeTab, setActiveTab] = useState<string | null>('active');
     const [cases, setCases] = useState<CaseDto[]>([]);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [tasks, setTasks] = useState<{ [key: string]: TaskDto[] }>({});
     const [loadingTasks, setLoadingTasks] = useState<{ [key: string]: boolean }>({});
 
@@ -78,23 +82,7 @@ function TaskInbox() {
 
         if (activeTab === 'active') {
             if (filters.initiator) queryParams.append('initiator', filters.initiator);
-            fetch(`/api/runtime/cases?${queryParams.toString()}`)
-                .then(res => {
-                    if (!res.ok) throw new Error(`HTTP ${res.status}`);
-                    return res.json();
-                })
-                .then(data => {
-                    if (Array.isArray(data)) {
-                        setCases(data);
-                    } else {
-                        console.error("API returned non-array for cases:", data);
-                        setCases([]);
-                    }
-                })
-                .catch(err => {
-                    console.error("Error fetching cases:", err);
-                    setCases([]);
-                });
+            fetchCasesPage(queryParams, null);
         } else if (activeTab === 'history') {
             setLoadingHistory(true);
             const userId = "user"; // Hardcoded for simplified auth context
@@ -121,6 +109,44 @@ function TaskInbox() {
         }
     }, [activeTab, filters]);
 
+    const fetchCasesPage = (queryParams: URLSearchParams, cursor: string | null) => {
+        const params = new URLSearchParams(queryParams);
+        params.set('limit', String(CASE_PAGE_SIZE));
+        if (cursor) params.set('cursor', cursor);
+
+        setLoadingMore(true);
+        fetch(`/api/runtime/cases/page?${params.toString()}`)
+            .then(res => {
+                if (!res.ok) throw new Error(`HTTP ${res.status}`);
+                return res.json();
+            })
+            .then(data => {
+                if (Array.isArray(data?.items)) {
+                    setCases(prev => cursor ? [...prev, ...data.items] : data.items);
+                    setNextCursor(data.nextCursor || null);
+                } else {
+                    console.error("API returned unexpected page for cases:", data);
+                    setCases([]);
+                    setNextCursor(null);
+                }
+            })
+            .catch(err => {
+                console.error("Error fetching cases:", err);
+                if (!cursor) setCases([]);
+                setNextCursor(null);
+            })
+            .finally(() => setLoadingMore(false));
+    };
+
+    const handleLoadMore = () => {
+        const queryParams = new URLSearchParams();
+        if (filters.workflowCode) queryParams.append('workflowCode', filters.workflowCode);
+        if (filters.cpId) queryParams.append('cpId', filters.cpId);
+        if (filters.candidateGroup) queryParams.append('candidateGroup', filters.candidateGroup);
+        if (filters.initiator) queryParams.append('initiator', filters.initiator);
+        fetchCasesPage(queryParams, nextCursor);
+    };
+
     const handleAccordionChange = (caseId: string | null) => {
         if (!caseId) return;
         if (tasks[caseId]) return; // Already fetched
@@ -237,6 +263,11 @@ function TaskInbox() {
                             ))}
                         </Accordion>
                     )}
+                    {nextCursor && (
+                        <Group justify="center" mt="md">
+                            <Button variant="light" onClick={handleLoadMore} loading={loadingMore}>Load more</Button>
+                        </Group>
+                    )}
                 </Tabs.Panel>
 
                 <Tabs.Panel value="history">
@@ -38,7 +38,8 @@ export default function UserWorkloadStoryboard() {
 
     const fetchData = async () => {
         try {
-            const res = await fetch('/api/runtime/stats/storyboard');
+            // no-cache: revalidate with If-None-Match, server answers 304 when unchanged
+            const res = await fetch('/api/runtime/stats/storyboard', { cache: 'no-cache' });
             if (res.ok) {
                 const json = await res.json();
                 setData(json);